@@ -16,6 +16,8 @@
  */
 package org.apache.commons.numbers.arrays;
 
+import java.util.Arrays;
+
 /**
  * An {@link UpdatingInterval} backed by a fixed size of bits.
  *
@@ -38,10 +40,10 @@ final class BitIndexUpdatingInterval implements UpdatingInterval {
     private static final int DIVIDE_BY_64 = 6;
 
     /** Bit indexes. */
-    private final long[] data;
+    private long[] data;
 
     /** Index offset. */
-    private final int offset;
+    private int offset;
     /** Left bound of the support. */
     private int left;
     /** Right bound of the support. */
@@ -80,6 +82,28 @@ final class BitIndexUpdatingInterval implements UpdatingInterval {
         this.right = right;
     }
 
+    /**
+     * Reset the instance to store indices within the range {@code [left, right]}.
+     * All bits are cleared. The storage is reused if it has the capacity for the range.
+     * The range is not validated.
+     *
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @return this instance
+     */
+    BitIndexUpdatingInterval reset(int left, int right) {
+        this.offset = left;
+        this.left = left;
+        this.right = right;
+        final int length = getLongIndex(right - offset) + 1;
+        if (data.length < length) {
+            data = new long[length];
+        } else {
+            Arrays.fill(data, 0, length, 0);
+        }
+        return this;
+    }
+
     /**
      * Gets the filter index for the specified bit index assuming the filter is using
      * 64-bit longs to store bits starting at index 0.
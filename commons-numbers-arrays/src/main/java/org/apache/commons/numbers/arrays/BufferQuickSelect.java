@@ -0,0 +1,782 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.numbers.arrays;
+
+import java.nio.DoubleBuffer;
+
+/**
+ * Partition array data held in a {@link DoubleBuffer}.
+ *
+ * <p>This uses the dual-pivot introselect algorithm of {@link QuickSelect} with
+ * elements accessed using the absolute get and put methods of the buffer. The
+ * position and limit of the buffer are not used or modified. This allows selection
+ * on data that is not held in an array, for example a memory-mapped file.
+ *
+ * <p>Note: Requires that the data contains no NaN values; partitioning does not respect
+ * the order of signed zeros imposed by {@link Double#compare(double, double)}. The
+ * caller is responsible for handling these cases if required.
+ *
+ * @since 1.3
+ */
+final class BufferQuickSelect {
+    /** Minimum size for sortselect.
+     * Below this perform a sort rather than selection. This is used to avoid
+     * sort select on tiny data. */
+    private static final int MIN_SORTSELECT_SIZE = 4;
+
+    /** No instances. */
+    private BufferQuickSelect() {}
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>The count of the number of used indices is returned. If the keys are sorted in-place,
+     * the count is returned as a negative.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param k Indices (may be destructively modified).
+     * @param n Count of indices.
+     * @return the count of used indices
+     */
+    static int select(DoubleBuffer a, int left, int right, int[] k, int n) {
+        if (n < 1) {
+            return 0;
+        }
+        // Interval creation validates the indices are in [left, right]
+        final UpdatingInterval keys = IndexSupport.createUpdatingInterval(k, n);
+
+        // Save number of used indices
+        final int count = IndexSupport.countIndices(keys, n);
+
+        // Dual-pivot mode with small range sort length configured using index density.
+        // Note: The single-pivot adaptive select used for array data is not available
+        // for buffers. Close keys are processed by the dual-pivot method which switches
+        // to sort select or heap select when the keys are near the ends of the range.
+        final int k1 = keys.left();
+        final int kn = keys.right();
+        dualPivotQuickSelect(a, left, right, keys, QuickSelect.dualPivotFlags(left, right, k1, kn));
+        return count;
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a heap select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static void heapSelect(DoubleBuffer a, int left, int right, int ka, int kb) {
+        if (right <= left) {
+            return;
+        }
+        // Use the smallest heap
+        if (kb - left < right - ka) {
+            heapSelectLeft(a, left, right, ka, kb);
+        } else {
+            heapSelectRight(a, left, right, ka, kb);
+        }
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a heap select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * <p>For best performance this should be called with {@code k} in the lower
+     * half of the range.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static void heapSelectLeft(DoubleBuffer a, int left, int right, int ka, int kb) {
+        // Create a max heap in-place in [left, k], rooted at a[left] = max
+        // |l|-max-heap-|k|--------------|
+        // Build the heap using Floyd's heap-construction algorithm for heap size n.
+        // Start at parent of the last element in the heap (k),
+        // i.e. start = parent(n-1) : parent(c) = floor((c - 1) / 2) : c = k - left
+        int end = kb + 1;
+        for (int p = left + ((kb - left - 1) >> 1); p >= left; p--) {
+            maxHeapSiftDown(a, a.get(p), p, left, end);
+        }
+        // Scan the remaining data and insert
+        // Mitigate worst case performance on descending data by backward sweep
+        double max = a.get(left);
+        for (int i = right; i > kb; i--) {
+            final double v = a.get(i);
+            if (v < max) {
+                a.put(i, max);
+                maxHeapSiftDown(a, v, left, left, end);
+                max = a.get(left);
+            }
+        }
+        // Partition [ka, kb]
+        // |l|-max-heap-|k|--------------|
+        //  |  <-swap->  |   then sift down reduced size heap
+        // Avoid sifting heap of size 1
+        final int last = Math.max(left, ka - 1);
+        while (--end > last) {
+            maxHeapSiftDown(a, a.get(end), left, left, end);
+            a.put(end, max);
+            max = a.get(left);
+        }
+    }
+
+    /**
+     * Sift the element down the max heap.
+     *
+     * <p>Assumes {@code root <= p < end}, i.e. the max heap is above root.
+     *
+     * @param a Heap data.
+     * @param v Value to sift.
+     * @param p Start position.
+     * @param root Root of the heap.
+     * @param end End of the heap (exclusive).
+     */
+    private static void maxHeapSiftDown(DoubleBuffer a, double v, int p, int root, int end) {
+        // child2 = root + 2 * (parent - root) + 2
+        //        = 2 * parent - root + 2
+        while (true) {
+            // Right child
+            int c = (p << 1) - root + 2;
+            if (c > end) {
+                // No left child
+                break;
+            }
+            // Use the left child if right doesn't exist, or it is greater
+            if (c == end || a.get(c) < a.get(c - 1)) {
+                --c;
+            }
+            if (v >= a.get(c)) {
+                // Parent greater than largest child - done
+                break;
+            }
+            // Swap and descend
+            a.put(p, a.get(c));
+            p = c;
+        }
+        a.put(p, v);
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a heap select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * <p>For best performance this should be called with {@code k} in the upper
+     * half of the range.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static void heapSelectRight(DoubleBuffer a, int left, int right, int ka, int kb) {
+        // Create a min heap in-place in [k, right], rooted at a[right] = min
+        // |--------------|k|-min-heap-|r|
+        // Build the heap using Floyd's heap-construction algorithm for heap size n.
+        // Start at parent of the last element in the heap (k),
+        // i.e. start = parent(n-1) : parent(c) = floor((c - 1) / 2) : c = right - k
+        int end = ka - 1;
+        for (int p = right - ((right - ka - 1) >> 1); p <= right; p++) {
+            minHeapSiftDown(a, a.get(p), p, right, end);
+        }
+        // Scan the remaining data and insert
+        // Mitigate worst case performance on descending data by backward sweep
+        double min = a.get(right);
+        for (int i = left; i < ka; i++) {
+            final double v = a.get(i);
+            if (v > min) {
+                a.put(i, min);
+                minHeapSiftDown(a, v, right, right, end);
+                min = a.get(right);
+            }
+        }
+        // Partition [ka, kb]
+        // |--------------|k|-min-heap-|r|
+        //                 |  <-swap->  |   then sift down reduced size heap
+        // Avoid sifting heap of size 1
+        final int last = Math.min(right, kb + 1);
+        while (++end < last) {
+            minHeapSiftDown(a, a.get(end), right, right, end);
+            a.put(end, min);
+            min = a.get(right);
+        }
+    }
+
+    /**
+     * Sift the element down the min heap.
+     *
+     * <p>Assumes {@code root >= p > end}, i.e. the max heap is below root.
+     *
+     * @param a Heap data.
+     * @param v Value to sift.
+     * @param p Start position.
+     * @param root Root of the heap.
+     * @param end End of the heap (exclusive).
+     */
+    private static void minHeapSiftDown(DoubleBuffer a, double v, int p, int root, int end) {
+        // child2 = root - 2 * (root - parent) - 2
+        //        = 2 * parent - root - 2
+        while (true) {
+            // Right child
+            int c = (p << 1) - root - 2;
+            if (c < end) {
+                // No left child
+                break;
+            }
+            // Use the left child if right doesn't exist, or it is less
+            if (c == end || a.get(c) > a.get(c + 1)) {
+                ++c;
+            }
+            if (v <= a.get(c)) {
+                // Parent less than smallest child - done
+                break;
+            }
+            // Swap and descend
+            a.put(p, a.get(c));
+            p = c;
+        }
+        a.put(p, v);
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a sort select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static void sortSelect(DoubleBuffer a, int left, int right, int ka, int kb) {
+        // Combine the test for right <= left with
+        // avoiding the overhead of sort select on tiny data.
+        if (right - left <= MIN_SORTSELECT_SIZE) {
+            sort(a, left, right);
+            return;
+        }
+        // Sort the smallest side
+        if (kb - left < right - ka) {
+            sortSelectLeft(a, left, right, kb);
+        } else {
+            sortSelectRight(a, left, right, ka);
+        }
+    }
+
+    /**
+     * Partition the minimum {@code n} elements below {@code k} where
+     * {@code n = k - left + 1}. Uses an insertion sort algorithm.
+     *
+     * <p>Works with any {@code k} in the range {@code left <= k <= right}
+     * and performs a full sort of the range below {@code k}.
+     *
+     * <p>For best performance this should be called with
+     * {@code k - left < right - k}, i.e.
+     * to partition a value in the lower half of the range.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param k Index to select.
+     */
+    static void sortSelectLeft(DoubleBuffer a, int left, int right, int k) {
+        // Sort
+        for (int i = left; ++i <= k;) {
+            final double v = a.get(i);
+            // Move preceding higher elements above (if required)
+            if (v < a.get(i - 1)) {
+                int j = i;
+                while (--j >= left && v < a.get(j)) {
+                    a.put(j + 1, a.get(j));
+                }
+                a.put(j + 1, v);
+            }
+        }
+        // Scan the remaining data and insert
+        // Mitigate worst case performance on descending data by backward sweep
+        double m = a.get(k);
+        for (int i = right; i > k; i--) {
+            final double v = a.get(i);
+            if (v < m) {
+                a.put(i, m);
+                int j = k;
+                while (--j >= left && v < a.get(j)) {
+                    a.put(j + 1, a.get(j));
+                }
+                a.put(j + 1, v);
+                m = a.get(k);
+            }
+        }
+    }
+
+    /**
+     * Partition the maximum {@code n} elements above {@code k} where
+     * {@code n = right - k + 1}. Uses an insertion sort algorithm.
+     *
+     * <p>Works with any {@code k} in the range {@code left <= k <= right}
+     * and can be used to perform a full sort of the range above {@code k}.
+     *
+     * <p>For best performance this should be called with
+     * {@code k - left > right - k}, i.e.
+     * to partition a value in the upper half of the range.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param k Index to select.
+     */
+    static void sortSelectRight(DoubleBuffer a, int left, int right, int k) {
+        // Sort
+        for (int i = right; --i >= k;) {
+            final double v = a.get(i);
+            // Move succeeding lower elements below (if required)
+            if (v > a.get(i + 1)) {
+                int j = i;
+                while (++j <= right && v > a.get(j)) {
+                    a.put(j - 1, a.get(j));
+                }
+                a.put(j - 1, v);
+            }
+        }
+        // Scan the remaining data and insert
+        // Mitigate worst case performance on descending data by backward sweep
+        double m = a.get(k);
+        for (int i = left; i < k; i++) {
+            final double v = a.get(i);
+            if (v > m) {
+                a.put(i, m);
+                int j = k;
+                while (++j <= right && v > a.get(j)) {
+                    a.put(j - 1, a.get(j));
+                }
+                a.put(j - 1, v);
+                m = a.get(k);
+            }
+        }
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their
+     * correctly sorted value in the equivalent fully sorted array.
+     *
+     * <p>For all indices {@code k} and any index {@code i}:
+     *
+     * <pre>{@code
+     * data[i < k] <= data[k] <= data[k < i]
+     * }</pre>
+     *
+     * <p>This function accepts a {@link UpdatingInterval} of indices {@code k} that define the
+     * range of indices to partition. The {@link UpdatingInterval} can be narrowed or split as
+     * partitioning divides the range.
+     *
+     * <p>Uses an introselect variant. The quickselect is a dual-pivot quicksort
+     * partition method by Vladimir Yaroslavskiy; the fall-back on poor convergence of
+     * the quickselect is a heapselect.
+     *
+     * <p>The {@code flags} contain the current recursion count and the configured
+     * length threshold for {@code r - l} to perform sort select. The count is in the upper
+     * bits and the threshold is in the lower bits.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive, assumed to be strictly positive).
+     * @param right Upper bound of data (inclusive, assumed to be strictly positive).
+     * @param k Interval of indices to partition (ordered).
+     * @param flags Control flags.
+     */
+    static void dualPivotQuickSelect(DoubleBuffer a, int left, int right, UpdatingInterval k, int flags) {
+        // If partitioning splits the interval then recursion is used for the left-most side(s)
+        // and the right-most side remains within this function. If partitioning does
+        // not split the interval then it remains within this function.
+        int l = left;
+        int r = right;
+        int f = flags;
+        int ka = k.left();
+        int kb = k.right();
+        final int[] upper = {0, 0, 0};
+        while (true) {
+            // Select when ka and kb are close to the same end,
+            // or the entire range is small
+            // |l|-----|ka|--------|kb|------|r|
+            final int n = r - l;
+            if (Math.min(kb - l, r - ka) < QuickSelect.DP_SORTSELECT_SIZE ||
+                n < (f & QuickSelect.SORTSELECT_MASK)) {
+                sortSelect(a, l, r, ka, kb);
+                return;
+            }
+            if (f < 0) {
+                // Excess recursion, switch to heap select
+                heapSelect(a, l, r, ka, kb);
+                return;
+            }
+
+            // Dual-pivot partitioning
+            final int p0 = partition(a, l, r, upper);
+            final int p1 = upper[0];
+
+            // Recursion to max depth
+            // Note: Here we possibly branch left, middle and right with multiple keys.
+            // It is possible that the partition has split the keys
+            // and the recursion proceeds with a reduced set in each region.
+            //                   p0 p1               p2 p3
+            // |l|--|ka|--k----k--|P|------k--|kb|----|P|----|r|
+            //                 kb  |      ka
+            f += QuickSelect.RECURSION_INCREMENT;
+            // Recurse left side if required
+            if (ka < p0) {
+                if (kb <= p1) {
+                    // Entirely on left side
+                    r = p0 - 1;
+                    if (r < kb) {
+                        kb = k.updateRight(r);
+                    }
+                    continue;
+                }
+                dualPivotQuickSelect(a, l, p0 - 1, k.splitLeft(p0, p1), f);
+                // Here we must process middle and/or right
+                ka = k.left();
+            } else if (kb <= p1) {
+                // No middle/right side
+                return;
+            } else if (ka <= p1) {
+                // Advance lower bound
+                ka = k.updateLeft(p1 + 1);
+            }
+            // Recurse middle if required
+            final int p2 = upper[1];
+            final int p3 = upper[2];
+            if (ka < p2) {
+                l = p1 + 1;
+                if (kb <= p3) {
+                    // Entirely in middle
+                    r = p2 - 1;
+                    if (r < kb) {
+                        kb = k.updateRight(r);
+                    }
+                    continue;
+                }
+                dualPivotQuickSelect(a, l, p2 - 1, k.splitLeft(p2, p3), f);
+                ka = k.left();
+            } else if (kb <= p3) {
+                // No right side
+                return;
+            } else if (ka <= p3) {
+                ka = k.updateLeft(p3 + 1);
+            }
+            // Continue right
+            l = p3 + 1;
+        }
+    }
+
+    /**
+     * Partition an array slice around 2 pivots. Partitioning exchanges array elements
+     * such that all elements smaller than pivot are before it and all elements larger
+     * than pivot are after it.
+     *
+     * <p>This method returns 4 points describing the pivot ranges of equal values.
+     *
+     * <pre>{@code
+     *         |k0  k1|                |k2  k3|
+     * |   <P  | ==P1 |  <P1 && <P2    | ==P2 |   >P   |
+     * }</pre>
+     *
+     * <ul>
+     * <li>k0: lower pivot1 point</li>
+     * <li>k1: upper pivot1 point (inclusive)</li>
+     * <li>k2: lower pivot2 point</li>
+     * <li>k3: upper pivot2 point (inclusive)</li>
+     * </ul>
+     *
+     * <p>Bounds are set so {@code i < k0}, {@code i > k3} and {@code k1 < i < k2} are
+     * unsorted. When the range {@code [k0, k3]} contains fully sorted elements the result
+     * is set to {@code k1 = k3; k2 == k0}. This can occur if
+     * {@code P1 == P2} or there are zero or one value between the pivots
+     * {@code P1 < v < P2}. Any sort/partition of ranges [left, k0-1], [k1+1, k2-1] and
+     * [k3+1, right] must check the length is {@code > 1}.
+     *
+     * @param a Data array.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param bounds Points [k1, k2, k3].
+     * @return Lower bound (inclusive) of the pivot range [k0].
+     */
+    private static int partition(DoubleBuffer a, int left, int right, int[] bounds) {
+        // Pick 2 pivots from 5 approximately uniform through the range.
+        // Spacing is ~ 1/7 made using shifts. Other strategies are equal or much
+        // worse. 1/7 = 5/35 ~ 1/8 + 1/64 : 0.1429 ~ 0.1406
+        // Ensure the value is above zero to choose different points!
+        final int n = right - left;
+        final int step = 1 + (n >>> 3) + (n >>> 6);
+        final int i3 = left + (n >>> 1);
+        final int i2 = i3 - step;
+        final int i1 = i2 - step;
+        final int i4 = i3 + step;
+        final int i5 = i4 + step;
+        sort5(a, i1, i2, i3, i4, i5);
+
+        // Partition data using pivots P1 and P2 into less-than, greater-than or between.
+        // Pivot values P1 & P2 are placed at the end. If P1 < P2, P2 acts as a sentinel.
+        // k traverses the unknown region ??? and values moved if less-than or
+        // greater-than:
+        //
+        // left        less              k       great         right
+        // |P1|  <P1   |   P1 <= & <= P2 |    ???    |    >P2   |P2|
+        //
+        // <P1            (left, lt)
+        // P1 <= & <= P2  [lt, k)
+        // >P2            (gt, right)
+        //
+        // At the end pivots are swapped back to behind the less and great pointers.
+        //
+        // |  <P1        |P1|     P1<= & <= P2    |P2|      >P2    |
+
+        // Swap ends to the pivot locations.
+        final double v1 = a.get(i2);
+        a.put(i2, a.get(left));
+        a.put(left, v1);
+        final double v2 = a.get(i4);
+        a.put(i4, a.get(right));
+        a.put(right, v2);
+
+        // pointers
+        int less = left;
+        int great = right;
+
+        // Fast-forward ascending / descending runs to reduce swaps.
+        // Cannot overrun as end pivots (v1 <= v2) act as sentinels.
+        do {
+            ++less;
+        } while (a.get(less) < v1);
+        do {
+            --great;
+        } while (a.get(great) > v2);
+
+        // a[less - 1] < P1 : a[great + 1] > P2
+        // unvisited in [less, great]
+        SORTING:
+        for (int k = less; k <= great; k++) {
+            final double v = a.get(k);
+            if (v < v1) {
+                // swap(a, k, less++)
+                a.put(k, a.get(less));
+                a.put(less, v);
+                less++;
+            } else if (v > v2) {
+                // while k < great and a[great] > v2:
+                //   great--
+                while (a.get(great) > v2) {
+                    if (great-- == k) {
+                        // Done
+                        break SORTING;
+                    }
+                }
+                // swap(a, k, great--)
+                // if a[k] < v1:
+                //   swap(a, k, less++)
+                final double w = a.get(great);
+                a.put(great, v);
+                great--;
+                // delay a[k] = w
+                if (w < v1) {
+                    a.put(k, a.get(less));
+                    a.put(less, w);
+                    less++;
+                } else {
+                    a.put(k, w);
+                }
+            }
+        }
+
+        // Change to inclusive ends : a[less] < P1 : a[great] > P2
+        less--;
+        great++;
+        // Move the pivots to correct locations
+        a.put(left, a.get(less));
+        a.put(less, v1);
+        a.put(right, a.get(great));
+        a.put(great, v2);
+
+        // Record the pivot locations
+        final int lower = less;
+        bounds[2] = great;
+
+        // equal elements
+        // Original paper: If middle partition is bigger than a threshold
+        // then check for equal elements.
+
+        // Note: This is extra work. When performing partitioning the region of interest
+        // may be entirely above or below the central region and this can be skipped.
+
+        // Here we look for equal elements if the centre is more than 5/8 the length.
+        // 5/8 = 1/2 + 1/8. Pivots must be different.
+        if ((great - less) > (n >>> 1) + (n >>> 3) && v1 != v2) {
+
+            // Fast-forward to reduce swaps. Changes inclusive ends to exclusive ends.
+            // Since v1 != v2 these act as sentinels to prevent overrun.
+            do {
+                ++less;
+            } while (a.get(less) == v1);
+            do {
+                --great;
+            } while (a.get(great) == v2);
+
+            // This copies the logic in the sorting loop using == comparisons
+            EQUAL:
+            for (int k = less; k <= great; k++) {
+                final double v = a.get(k);
+                if (v == v1) {
+                    a.put(k, a.get(less));
+                    a.put(less, v);
+                    less++;
+                } else if (v == v2) {
+                    while (a.get(great) == v2) {
+                        if (great-- == k) {
+                            // Done
+                            break EQUAL;
+                        }
+                    }
+                    final double w = a.get(great);
+                    a.put(great, v);
+                    great--;
+                    if (w == v1) {
+                        a.put(k, a.get(less));
+                        a.put(less, w);
+                        less++;
+                    } else {
+                        a.put(k, w);
+                    }
+                }
+            }
+
+            // Change to inclusive ends
+            less--;
+            great++;
+        }
+
+        // Between pivots in (less, great)
+        if (v1 != v2 && less < great - 1) {
+            // Record the pivot end points
+            bounds[0] = less;
+            bounds[1] = great;
+        } else {
+            // No unsorted internal region (set k1 = k3; k2 = k0)
+            bounds[0] = bounds[2];
+            bounds[1] = lower;
+        }
+
+        return lower;
+    }
+
+    /**
+     * Sorts an array using an insertion sort.
+     *
+     * @param x Data array.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     */
+    static void sort(DoubleBuffer x, int left, int right) {
+        for (int i = left; ++i <= right;) {
+            final double v = x.get(i);
+            // Move preceding higher elements above (if required)
+            if (v < x.get(i - 1)) {
+                int j = i;
+                while (--j >= left && v < x.get(j)) {
+                    x.put(j + 1, x.get(j));
+                }
+                x.put(j + 1, v);
+            }
+        }
+    }
+
+    /**
+     * Sorts the elements at the given distinct indices in an array.
+     *
+     * @param x Data array.
+     * @param a Index.
+     * @param b Index.
+     * @param c Index.
+     * @param d Index.
+     * @param e Index.
+     */
+    static void sort5(DoubleBuffer x, int a, int b, int c, int d, int e) {
+        // Uses an optimal sorting network from Knuth's Art of Computer Programming.
+        // 9 comparisons.
+        // Order pairs:
+        // [(0,3),(1,4)]
+        // [(0,2),(1,3)]
+        // [(0,1),(2,4)]
+        // [(1,2),(3,4)]
+        // [(2,3)]
+        if (x.get(e) < x.get(b)) {
+            final double u = x.get(e);
+            x.put(e, x.get(b));
+            x.put(b, u);
+        }
+        if (x.get(d) < x.get(a)) {
+            final double v = x.get(d);
+            x.put(d, x.get(a));
+            x.put(a, v);
+        }
+
+        if (x.get(d) < x.get(b)) {
+            final double u = x.get(d);
+            x.put(d, x.get(b));
+            x.put(b, u);
+        }
+        if (x.get(c) < x.get(a)) {
+            final double v = x.get(c);
+            x.put(c, x.get(a));
+            x.put(a, v);
+        }
+
+        if (x.get(e) < x.get(c)) {
+            final double u = x.get(e);
+            x.put(e, x.get(c));
+            x.put(c, u);
+        }
+        if (x.get(b) < x.get(a)) {
+            final double v = x.get(b);
+            x.put(b, x.get(a));
+            x.put(a, v);
+        }
+
+        if (x.get(e) < x.get(d)) {
+            final double u = x.get(e);
+            x.put(e, x.get(d));
+            x.put(d, u);
+        }
+        if (x.get(c) < x.get(b)) {
+            final double v = x.get(c);
+            x.put(c, x.get(b));
+            x.put(b, v);
+        }
+
+        if (x.get(d) < x.get(c)) {
+            final double u = x.get(d);
+            x.put(d, x.get(c));
+            x.put(c, u);
+        }
+    }
+}
@@ -184,7 +184,7 @@ final class IndexSupport {
      * @param n Number of indices.
      * @return the number of unique indices
      */
-    private static int compressDuplicates(int[] data, int n) {
+    static int compressDuplicates(int[] data, int n) {
         // Compress to remove duplicates
         int last = 0;
         int top = data[0];
@@ -300,6 +300,22 @@ final class IndexSupport {
         }
     }
 
+    /**
+     * Checks if the {@code count} of values is within the size of the half-open interval
+     * {@code [fromIndex, toIndex)}.
+     *
+     * @param fromIndex Lower-bound (inclusive) of the sub-range.
+     * @param toIndex Upper-bound (exclusive) of the sub-range.
+     * @param count Count.
+     * @throws IllegalArgumentException if the count is negative or exceeds the size
+     */
+    static void checkCount(int fromIndex, int toIndex, int count) {
+        if (count < 0 || count > toIndex - fromIndex) {
+            throw new IllegalArgumentException(
+                msgInvalidCount(fromIndex, toIndex, count));
+        }
+    }
+
     // Message formatting moved to separate methods to assist inlining of the validation methods.
 
     /**
@@ -325,4 +341,16 @@ final class IndexSupport {
     private static String msgIndexOutOfBounds(int fromIndex, int toIndex, int index) {
         return String.format("Index %d out of bounds for range [%d, %d)", index, fromIndex, toIndex);
     }
+
+    /**
+     * Format a message when count is not within the size of range [from, to).
+     *
+     * @param fromIndex Lower-bound (inclusive) of the sub-range.
+     * @param toIndex Upper-bound (exclusive) of the sub-range.
+     * @param count Count.
+     * @return the message
+     */
+    private static String msgInvalidCount(int fromIndex, int toIndex, int count) {
+        return String.format("Count %d invalid for range [%d, %d)", count, fromIndex, toIndex);
+    }
 }
@@ -0,0 +1,1238 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.arrays;
+
+/**
+ * Partition array data indirectly using an array of indices.
+ *
+ * <p>Arranges an array of indices {@code a} into the data {@code x} such that for
+ * the positions {@code k} the data {@code x[a[k]]} corresponds to the correctly sorted
+ * value in the equivalent fully sorted array. The data array is not modified.
+ *
+ * <p>This uses the dual-pivot introselect algorithm of {@link QuickSelect} with
+ * comparisons made on the referenced data. Excess recursion will trigger use of a
+ * heapselect on the remaining range of indices.
+ *
+ * <p>Note: Requires that the floating-point data referenced by the indices contains no
+ * NaN values; partitioning does not respect the order of signed zeros imposed by
+ * {@link Double#compare(double, double)}. The caller is responsible for handling
+ * these cases if required.
+ *
+ * @since 1.3
+ */
+final class IndirectQuickSelect {
+
+    /** No instances. */
+    private IndirectQuickSelect() {}
+
+    /**
+     * Partition the indices such that positions {@code k} correspond to their
+     * correctly sorted value in the equivalent fully sorted array.
+     *
+     * @param x Data.
+     * @param a Indices into the data.
+     * @param left Lower bound of indices (inclusive).
+     * @param right Upper bound of indices (inclusive).
+     * @param k Positions (may be destructively modified).
+     * @param n Count of positions.
+     */
+    static void select(double[] x, int[] a, int left, int right, int[] k, int n) {
+        if (n < 1 || right <= left) {
+            return;
+        }
+        final UpdatingInterval keys = IndexSupport.createUpdatingInterval(k, n);
+        dualPivotQuickSelect(x, a, left, right, keys,
+            QuickSelect.dualPivotFlags(left, right, keys.left(), keys.right()));
+    }
+
+    /**
+     * Sort the indices such that all positions reference their correctly sorted value.
+     *
+     * @param x Data.
+     * @param a Indices into the data.
+     * @param left Lower bound of indices (inclusive).
+     * @param right Upper bound of indices (inclusive).
+     */
+    static void sort(double[] x, int[] a, int left, int right) {
+        if (right <= left) {
+            return;
+        }
+        dualPivotQuickSelect(x, a, left, right, new RangeUpdatingInterval(left, right),
+            QuickSelect.dualPivotFlags(left, right, left, right));
+    }
+
+    /**
+     * Partition the indices such that positions {@code k} correspond to their
+     * correctly sorted value in the equivalent fully sorted array.
+     *
+     * <p>See {@link QuickSelect#dualPivotQuickSelect(double[], int, int, UpdatingInterval, int)}.
+     *
+     * @param x Data.
+     * @param a Indices into the data.
+     * @param left Lower bound of indices (inclusive).
+     * @param right Upper bound of indices (inclusive, assumed to be strictly positive).
+     * @param k Interval of positions to partition (ordered).
+     * @param flags Control flags.
+     */
+    // package-private for testing
+    static void dualPivotQuickSelect(double[] x, int[] a, int left, int right, UpdatingInterval k, int flags) {
+        int l = left;
+        int r = right;
+        int f = flags;
+        int ka = k.left();
+        int kb = k.right();
+        final int[] upper = {0, 0, 0};
+        while (true) {
+            // Select when ka and kb are close to the same end,
+            // or the entire range is small
+            final int n = r - l;
+            if (Math.min(kb - l, r - ka) < QuickSelect.DP_SORTSELECT_SIZE ||
+                n < (f & QuickSelect.SORTSELECT_MASK)) {
+                sortSelect(x, a, l, r, ka, kb);
+                return;
+            }
+            if (f < 0) {
+                // Excess recursion, switch to heap select
+                heapSelect(x, a, l, r, ka, kb);
+                return;
+            }
+
+            // Dual-pivot partitioning
+            final int p0 = partition(x, a, l, r, upper);
+            final int p1 = upper[0];
+
+            // Recursion to max depth
+            //                   p0 p1               p2 p3
+            // |l|--|ka|--k----k--|P|------k--|kb|----|P|----|r|
+            //                 kb  |      ka
+            f += QuickSelect.RECURSION_INCREMENT;
+            // Recurse left side if required
+            if (ka < p0) {
+                if (kb <= p1) {
+                    // Entirely on left side
+                    r = p0 - 1;
+                    if (r < kb) {
+                        kb = k.updateRight(r);
+                    }
+                    continue;
+                }
+                dualPivotQuickSelect(x, a, l, p0 - 1, k.splitLeft(p0, p1), f);
+                // Here we must process middle and/or right
+                ka = k.left();
+            } else if (kb <= p1) {
+                // No middle/right side
+                return;
+            } else if (ka <= p1) {
+                // Advance lower bound
+                ka = k.updateLeft(p1 + 1);
+            }
+            // Recurse middle if required
+            final int p2 = upper[1];
+            final int p3 = upper[2];
+            if (ka < p2) {
+                l = p1 + 1;
+                if (kb <= p3) {
+                    // Entirely in middle
+                    r = p2 - 1;
+                    if (r < kb) {
+                        kb = k.updateRight(r);
+                    }
+                    continue;
+                }
+                dualPivotQuickSelect(x, a, l, p2 - 1, k.splitLeft(p2, p3), f);
+                ka = k.left();
+            } else if (kb <= p3) {
+                // No right side
+                return;
+            } else if (ka <= p3) {
+                ka = k.updateLeft(p3 + 1);
+            }
+            // Continue right
+            l = p3 + 1;
+        }
+    }
+
+    /**
+     * Partition the indices around 2 pivots.
+     *
+     * <p>See {@link QuickSelect} for the description of the pivot ranges of equal values
+     * returned in the bounds.
+     *
+     * @param x Data.
+     * @param a Indices into the data.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param bounds Points [k1, k2, k3].
+     * @return Lower bound (inclusive) of the pivot range [k0].
+     */
+    private static int partition(double[] x, int[] a, int left, int right, int[] bounds) {
+        // Pick 2 pivots from 5 approximately uniform through the range.
+        // Spacing is ~ 1/7 made using shifts.
+        final int n = right - left;
+        final int step = 1 + (n >>> 3) + (n >>> 6);
+        final int i3 = left + (n >>> 1);
+        final int i2 = i3 - step;
+        final int i1 = i2 - step;
+        final int i4 = i3 + step;
+        final int i5 = i4 + step;
+        sort5(x, a, i1, i2, i3, i4, i5);
+
+        // Partition using pivots P1 and P2 placed at the ends.
+        // See QuickSelect for details of the algorithm.
+        //
+        // left        less              k       great         right
+        // |P1|  <P1   |   P1 <= & <= P2 |    ???    |    >P2   |P2|
+
+        // Swap ends to the pivot locations.
+        final int t1 = a[i2];
+        a[i2] = a[left];
+        a[left] = t1;
+        final int t2 = a[i4];
+        a[i4] = a[right];
+        a[right] = t2;
+        final double v1 = x[t1];
+        final double v2 = x[t2];
+
+        // pointers
+        int less = left;
+        int great = right;
+
+        // Fast-forward ascending / descending runs to reduce swaps.
+        // Cannot overrun as end pivots (v1 <= v2) act as sentinels.
+        do {
+            ++less;
+        } while (x[a[less]] < v1);
+        do {
+            --great;
+        } while (x[a[great]] > v2);
+
+        // a[less - 1] < P1 : a[great + 1] > P2
+        // unvisited in [less, great]
+        SORTING:
+        for (int k = less; k <= great; k++) {
+            final int t = a[k];
+            final double v = x[t];
+            if (v < v1) {
+                // swap(a, k, less++)
+                a[k] = a[less];
+                a[less] = t;
+                less++;
+            } else if (v > v2) {
+                while (x[a[great]] > v2) {
+                    if (great-- == k) {
+                        // Done
+                        break SORTING;
+                    }
+                }
+                // swap(a, k, great--)
+                // if a[k] < v1:
+                //   swap(a, k, less++)
+                final int u = a[great];
+                a[great] = t;
+                great--;
+                if (x[u] < v1) {
+                    a[k] = a[less];
+                    a[less] = u;
+                    less++;
+                } else {
+                    a[k] = u;
+                }
+            }
+        }
+
+        // Change to inclusive ends : a[less] < P1 : a[great] > P2
+        less--;
+        great++;
+        // Move the pivots to correct locations
+        a[left] = a[less];
+        a[less] = t1;
+        a[right] = a[great];
+        a[great] = t2;
+
+        // Record the pivot locations
+        final int lower = less;
+        bounds[2] = great;
+
+        // Look for equal elements if the centre is more than 5/8 the length.
+        // 5/8 = 1/2 + 1/8. Pivots must be different.
+        if ((great - less) > (n >>> 1) + (n >>> 3) && v1 != v2) {
+
+            // Fast-forward to reduce swaps. Changes inclusive ends to exclusive ends.
+            // Since v1 != v2 these act as sentinels to prevent overrun.
+            do {
+                ++less;
+            } while (x[a[less]] == v1);
+            do {
+                --great;
+            } while (x[a[great]] == v2);
+
+            // This copies the logic in the sorting loop using == comparisons
+            EQUAL:
+            for (int k = less; k <= great; k++) {
+                final int t = a[k];
+                final double v = x[t];
+                if (v == v1) {
+                    a[k] = a[less];
+                    a[less] = t;
+                    less++;
+                } else if (v == v2) {
+                    while (x[a[great]] == v2) {
+                        if (great-- == k) {
+                            // Done
+                            break EQUAL;
+                        }
+                    }
+                    final int u = a[great];
+                    a[great] = t;
+                    great--;
+                    if (x[u] == v1) {
+                        a[k] = a[less];
+                        a[less] = u;
+                        less++;
+                    } else {
+                        a[k] = u;
+                    }
+                }
+            }
+
+            // Change to inclusive ends
+            less--;
+            great++;
+        }
+
+        // Between pivots in (less, great)
+        if (v1 != v2 && less < great - 1) {
+            // Record the pivot end points
+            bounds[0] = less;
+            bounds[1] = great;
+        } else {
+            // No unsorted internal region (set k1 = k3; k2 = k0)
+            bounds[0] = bounds[2];
+            bounds[1] = lower;
+        }
+
+        return lower;
+    }
+
+    /**
+     * Sorts the given indices using an optimal sorting network.
+     *
+     * @param x Data.
+     * @param a Indices into the data.
+     * @param i1 Index.
+     * @param i2 Index.
+     * @param i3 Index.
+     * @param i4 Index.
+     * @param i5 Index.
+     */
+    private static void sort5(double[] x, int[] a, int i1, int i2, int i3, int i4, int i5) {
+        // 9 comparisons
+        compareSwap(x, a, i1, i4);
+        compareSwap(x, a, i2, i5);
+        compareSwap(x, a, i1, i3);
+        compareSwap(x, a, i2, i4);
+        compareSwap(x, a, i1, i2);
+        compareSwap(x, a, i3, i5);
+        compareSwap(x, a, i2, i3);
+        compareSwap(x, a, i4, i5);
+        compareSwap(x, a, i3, i4);
+    }
+
+    /**
+     * Swap the indices at positions {@code i < j} if the data referenced at {@code j}
+     * is less than the data referenced at {@code i}.
+     *
+     * @param x Data.
+     * @param a Indices into the data.
+     * @param i Position.
+     * @param j Position.
+     */
+    private static void compareSwap(double[] x, int[] a, int i, int j) {
+        final int u = a[i];
+        final int v = a[j];
+        if (x[v] < x[u]) {
+            a[i] = v;
+            a[j] = u;
+        }
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a heap select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * @param x Data.
+     * @param a Indices into the data.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static void heapSelect(double[] x, int[] a, int left, int right, int ka, int kb) {
+        if (right <= left) {
+            return;
+        }
+        // Use the smallest heap
+        if (kb - left < right - ka) {
+            heapSelectLeft(x, a, left, right, ka, kb);
+        } else {
+            heapSelectRight(x, a, left, right, ka, kb);
+        }
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a heap select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * @param x Data.
+     * @param a Indices into the data.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    private static void heapSelectLeft(double[] x, int[] a, int left, int right, int ka, int kb) {
+        // Create a max heap in-place in [left, k], rooted at a[left] = max
+        int end = kb + 1;
+        for (int p = left + ((kb - left - 1) >> 1); p >= left; p--) {
+            maxHeapSiftDown(x, a, a[p], p, left, end);
+        }
+        // Scan the remaining data and insert
+        double max = x[a[left]];
+        for (int i = right; i > kb; i--) {
+            final int t = a[i];
+            if (x[t] < max) {
+                a[i] = a[left];
+                maxHeapSiftDown(x, a, t, left, left, end);
+                max = x[a[left]];
+            }
+        }
+        // Partition [ka, kb]
+        final int last = Math.max(left, ka - 1);
+        while (--end > last) {
+            final int t = a[left];
+            maxHeapSiftDown(x, a, a[end], left, left, end);
+            a[end] = t;
+        }
+    }
+
+    /**
+     * Sift the element down the max heap.
+     *
+     * <p>Assumes {@code root <= p < end}, i.e. the max heap is above root.
+     *
+     * @param x Data.
+     * @param a Heap indices into the data.
+     * @param t Index to sift.
+     * @param p Start position.
+     * @param root Root of the heap.
+     * @param end End of the heap (exclusive).
+     */
+    private static void maxHeapSiftDown(double[] x, int[] a, int t, int p, int root, int end) {
+        final double v = x[t];
+        while (true) {
+            // Right child
+            int c = (p << 1) - root + 2;
+            if (c > end) {
+                // No left child
+                break;
+            }
+            // Use the left child if right doesn't exist, or it is greater
+            if (c == end || x[a[c]] < x[a[c - 1]]) {
+                --c;
+            }
+            if (v >= x[a[c]]) {
+                // Parent greater than largest child - done
+                break;
+            }
+            // Swap and descend
+            a[p] = a[c];
+            p = c;
+        }
+        a[p] = t;
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a heap select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * @param x Data.
+     * @param a Indices into the data.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    private static void heapSelectRight(double[] x, int[] a, int left, int right, int ka, int kb) {
+        // Create a min heap in-place in [k, right], rooted at a[right] = min
+        int end = ka - 1;
+        for (int p = right - ((right - ka - 1) >> 1); p <= right; p++) {
+            minHeapSiftDown(x, a, a[p], p, right, end);
+        }
+        // Scan the remaining data and insert
+        double min = x[a[right]];
+        for (int i = left; i < ka; i++) {
+            final int t = a[i];
+            if (x[t] > min) {
+                a[i] = a[right];
+                minHeapSiftDown(x, a, t, right, right, end);
+                min = x[a[right]];
+            }
+        }
+        // Partition [ka, kb]
+        final int last = Math.min(right, kb + 1);
+        while (++end < last) {
+            final int t = a[right];
+            minHeapSiftDown(x, a, a[end], right, right, end);
+            a[end] = t;
+        }
+    }
+
+    /**
+     * Sift the element down the min heap.
+     *
+     * <p>Assumes {@code root >= p > end}, i.e. the max heap is below root.
+     *
+     * @param x Data.
+     * @param a Heap indices into the data.
+     * @param t Index to sift.
+     * @param p Start position.
+     * @param root Root of the heap.
+     * @param end End of the heap (exclusive).
+     */
+    private static void minHeapSiftDown(double[] x, int[] a, int t, int p, int root, int end) {
+        final double v = x[t];
+        while (true) {
+            // Right child
+            int c = (p << 1) - root - 2;
+            if (c < end) {
+                // No left child
+                break;
+            }
+            // Use the left child if right doesn't exist, or it is less
+            if (c == end || x[a[c]] > x[a[c + 1]]) {
+                ++c;
+            }
+            if (v <= x[a[c]]) {
+                // Parent less than smallest child - done
+                break;
+            }
+            // Swap and descend
+            a[p] = a[c];
+            p = c;
+        }
+        a[p] = t;
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a sort select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * @param x Data.
+     * @param a Indices into the data.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static void sortSelect(double[] x, int[] a, int left, int right, int ka, int kb) {
+        // Sort the smallest side
+        if (kb - left < right - ka) {
+            sortSelectLeft(x, a, left, right, kb);
+        } else {
+            sortSelectRight(x, a, left, right, ka);
+        }
+    }
+
+    /**
+     * Partition the minimum {@code n} elements below {@code k} where
+     * {@code n = k - left + 1}. Uses an insertion sort algorithm.
+     *
+     * <p>Works with any {@code k} in the range {@code left <= k <= right}
+     * and performs a full sort of the range below {@code k}.
+     *
+     * @param x Data.
+     * @param a Indices into the data.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param k Index to select.
+     */
+    private static void sortSelectLeft(double[] x, int[] a, int left, int right, int k) {
+        // Sort
+        for (int i = left; ++i <= k;) {
+            final int t = a[i];
+            final double v = x[t];
+            // Move preceding higher elements above (if required)
+            if (v < x[a[i - 1]]) {
+                int j = i;
+                while (--j >= left && v < x[a[j]]) {
+                    a[j + 1] = a[j];
+                }
+                a[j + 1] = t;
+            }
+        }
+        // Scan the remaining data and insert
+        double m = x[a[k]];
+        for (int i = right; i > k; i--) {
+            final int t = a[i];
+            final double v = x[t];
+            if (v < m) {
+                a[i] = a[k];
+                int j = k;
+                while (--j >= left && v < x[a[j]]) {
+                    a[j + 1] = a[j];
+                }
+                a[j + 1] = t;
+                m = x[a[k]];
+            }
+        }
+    }
+
+    /**
+     * Partition the maximum {@code n} elements above {@code k} where
+     * {@code n = right - k + 1}. Uses an insertion sort algorithm.
+     *
+     * <p>Works with any {@code k} in the range {@code left <= k <= right}
+     * and can be used to perform a full sort of the range above {@code k}.
+     *
+     * @param x Data.
+     * @param a Indices into the data.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param k Index to select.
+     */
+    private static void sortSelectRight(double[] x, int[] a, int left, int right, int k) {
+        // Sort
+        for (int i = right; --i >= k;) {
+            final int t = a[i];
+            final double v = x[t];
+            // Move succeeding lower elements below (if required)
+            if (v > x[a[i + 1]]) {
+                int j = i;
+                while (++j <= right && v > x[a[j]]) {
+                    a[j - 1] = a[j];
+                }
+                a[j - 1] = t;
+            }
+        }
+        // Scan the remaining data and insert
+        double m = x[a[k]];
+        for (int i = left; i < k; i++) {
+            final int t = a[i];
+            final double v = x[t];
+            if (v > m) {
+                a[i] = a[k];
+                int j = k;
+                while (++j <= right && v > x[a[j]]) {
+                    a[j - 1] = a[j];
+                }
+                a[j - 1] = t;
+                m = x[a[k]];
+            }
+        }
+    }
+
+    /**
+     * Partition the indices such that positions {@code k} correspond to their
+     * correctly sorted value in the equivalent fully sorted array.
+     *
+     * @param x Data.
+     * @param a Indices into the data.
+     * @param left Lower bound of indices (inclusive).
+     * @param right Upper bound of indices (inclusive).
+     * @param k Positions (may be destructively modified).
+     * @param n Count of positions.
+     */
+    static void select(int[] x, int[] a, int left, int right, int[] k, int n) {
+        if (n < 1 || right <= left) {
+            return;
+        }
+        final UpdatingInterval keys = IndexSupport.createUpdatingInterval(k, n);
+        dualPivotQuickSelect(x, a, left, right, keys,
+            QuickSelect.dualPivotFlags(left, right, keys.left(), keys.right()));
+    }
+
+    /**
+     * Partition the indices such that positions {@code k} correspond to their
+     * correctly sorted value in the equivalent fully sorted array.
+     *
+     * <p>See {@link QuickSelect#dualPivotQuickSelect(int[], int, int, UpdatingInterval, int)}.
+     *
+     * @param x Data.
+     * @param a Indices into the data.
+     * @param left Lower bound of indices (inclusive).
+     * @param right Upper bound of indices (inclusive, assumed to be strictly positive).
+     * @param k Interval of positions to partition (ordered).
+     * @param flags Control flags.
+     */
+    // package-private for testing
+    static void dualPivotQuickSelect(int[] x, int[] a, int left, int right, UpdatingInterval k, int flags) {
+        int l = left;
+        int r = right;
+        int f = flags;
+        int ka = k.left();
+        int kb = k.right();
+        final int[] upper = {0, 0, 0};
+        while (true) {
+            // Select when ka and kb are close to the same end,
+            // or the entire range is small
+            final int n = r - l;
+            if (Math.min(kb - l, r - ka) < QuickSelect.DP_SORTSELECT_SIZE ||
+                n < (f & QuickSelect.SORTSELECT_MASK)) {
+                sortSelect(x, a, l, r, ka, kb);
+                return;
+            }
+            if (f < 0) {
+                // Excess recursion, switch to heap select
+                heapSelect(x, a, l, r, ka, kb);
+                return;
+            }
+
+            // Dual-pivot partitioning
+            final int p0 = partition(x, a, l, r, upper);
+            final int p1 = upper[0];
+
+            // Recursion to max depth
+            //                   p0 p1               p2 p3
+            // |l|--|ka|--k----k--|P|------k--|kb|----|P|----|r|
+            //                 kb  |      ka
+            f += QuickSelect.RECURSION_INCREMENT;
+            // Recurse left side if required
+            if (ka < p0) {
+                if (kb <= p1) {
+                    // Entirely on left side
+                    r = p0 - 1;
+                    if (r < kb) {
+                        kb = k.updateRight(r);
+                    }
+                    continue;
+                }
+                dualPivotQuickSelect(x, a, l, p0 - 1, k.splitLeft(p0, p1), f);
+                // Here we must process middle and/or right
+                ka = k.left();
+            } else if (kb <= p1) {
+                // No middle/right side
+                return;
+            } else if (ka <= p1) {
+                // Advance lower bound
+                ka = k.updateLeft(p1 + 1);
+            }
+            // Recurse middle if required
+            final int p2 = upper[1];
+            final int p3 = upper[2];
+            if (ka < p2) {
+                l = p1 + 1;
+                if (kb <= p3) {
+                    // Entirely in middle
+                    r = p2 - 1;
+                    if (r < kb) {
+                        kb = k.updateRight(r);
+                    }
+                    continue;
+                }
+                dualPivotQuickSelect(x, a, l, p2 - 1, k.splitLeft(p2, p3), f);
+                ka = k.left();
+            } else if (kb <= p3) {
+                // No right side
+                return;
+            } else if (ka <= p3) {
+                ka = k.updateLeft(p3 + 1);
+            }
+            // Continue right
+            l = p3 + 1;
+        }
+    }
+
+    /**
+     * Partition the indices around 2 pivots.
+     *
+     * <p>See {@link QuickSelect} for the description of the pivot ranges of equal values
+     * returned in the bounds.
+     *
+     * @param x Data.
+     * @param a Indices into the data.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param bounds Points [k1, k2, k3].
+     * @return Lower bound (inclusive) of the pivot range [k0].
+     */
+    private static int partition(int[] x, int[] a, int left, int right, int[] bounds) {
+        // Pick 2 pivots from 5 approximately uniform through the range.
+        // Spacing is ~ 1/7 made using shifts.
+        final int n = right - left;
+        final int step = 1 + (n >>> 3) + (n >>> 6);
+        final int i3 = left + (n >>> 1);
+        final int i2 = i3 - step;
+        final int i1 = i2 - step;
+        final int i4 = i3 + step;
+        final int i5 = i4 + step;
+        sort5(x, a, i1, i2, i3, i4, i5);
+
+        // Partition using pivots P1 and P2 placed at the ends.
+        // See QuickSelect for details of the algorithm.
+        //
+        // left        less              k       great         right
+        // |P1|  <P1   |   P1 <= & <= P2 |    ???    |    >P2   |P2|
+
+        // Swap ends to the pivot locations.
+        final int t1 = a[i2];
+        a[i2] = a[left];
+        a[left] = t1;
+        final int t2 = a[i4];
+        a[i4] = a[right];
+        a[right] = t2;
+        final int v1 = x[t1];
+        final int v2 = x[t2];
+
+        // pointers
+        int less = left;
+        int great = right;
+
+        // Fast-forward ascending / descending runs to reduce swaps.
+        // Cannot overrun as end pivots (v1 <= v2) act as sentinels.
+        do {
+            ++less;
+        } while (x[a[less]] < v1);
+        do {
+            --great;
+        } while (x[a[great]] > v2);
+
+        // a[less - 1] < P1 : a[great + 1] > P2
+        // unvisited in [less, great]
+        SORTING:
+        for (int k = less; k <= great; k++) {
+            final int t = a[k];
+            final int v = x[t];
+            if (v < v1) {
+                // swap(a, k, less++)
+                a[k] = a[less];
+                a[less] = t;
+                less++;
+            } else if (v > v2) {
+                while (x[a[great]] > v2) {
+                    if (great-- == k) {
+                        // Done
+                        break SORTING;
+                    }
+                }
+                // swap(a, k, great--)
+                // if a[k] < v1:
+                //   swap(a, k, less++)
+                final int u = a[great];
+                a[great] = t;
+                great--;
+                if (x[u] < v1) {
+                    a[k] = a[less];
+                    a[less] = u;
+                    less++;
+                } else {
+                    a[k] = u;
+                }
+            }
+        }
+
+        // Change to inclusive ends : a[less] < P1 : a[great] > P2
+        less--;
+        great++;
+        // Move the pivots to correct locations
+        a[left] = a[less];
+        a[less] = t1;
+        a[right] = a[great];
+        a[great] = t2;
+
+        // Record the pivot locations
+        final int lower = less;
+        bounds[2] = great;
+
+        // Look for equal elements if the centre is more than 5/8 the length.
+        // 5/8 = 1/2 + 1/8. Pivots must be different.
+        if ((great - less) > (n >>> 1) + (n >>> 3) && v1 != v2) {
+
+            // Fast-forward to reduce swaps. Changes inclusive ends to exclusive ends.
+            // Since v1 != v2 these act as sentinels to prevent overrun.
+            do {
+                ++less;
+            } while (x[a[less]] == v1);
+            do {
+                --great;
+            } while (x[a[great]] == v2);
+
+            // This copies the logic in the sorting loop using == comparisons
+            EQUAL:
+            for (int k = less; k <= great; k++) {
+                final int t = a[k];
+                final int v = x[t];
+                if (v == v1) {
+                    a[k] = a[less];
+                    a[less] = t;
+                    less++;
+                } else if (v == v2) {
+                    while (x[a[great]] == v2) {
+                        if (great-- == k) {
+                            // Done
+                            break EQUAL;
+                        }
+                    }
+                    final int u = a[great];
+                    a[great] = t;
+                    great--;
+                    if (x[u] == v1) {
+                        a[k] = a[less];
+                        a[less] = u;
+                        less++;
+                    } else {
+                        a[k] = u;
+                    }
+                }
+            }
+
+            // Change to inclusive ends
+            less--;
+            great++;
+        }
+
+        // Between pivots in (less, great)
+        if (v1 != v2 && less < great - 1) {
+            // Record the pivot end points
+            bounds[0] = less;
+            bounds[1] = great;
+        } else {
+            // No unsorted internal region (set k1 = k3; k2 = k0)
+            bounds[0] = bounds[2];
+            bounds[1] = lower;
+        }
+
+        return lower;
+    }
+
+    /**
+     * Sorts the given indices using an optimal sorting network.
+     *
+     * @param x Data.
+     * @param a Indices into the data.
+     * @param i1 Index.
+     * @param i2 Index.
+     * @param i3 Index.
+     * @param i4 Index.
+     * @param i5 Index.
+     */
+    private static void sort5(int[] x, int[] a, int i1, int i2, int i3, int i4, int i5) {
+        // 9 comparisons
+        compareSwap(x, a, i1, i4);
+        compareSwap(x, a, i2, i5);
+        compareSwap(x, a, i1, i3);
+        compareSwap(x, a, i2, i4);
+        compareSwap(x, a, i1, i2);
+        compareSwap(x, a, i3, i5);
+        compareSwap(x, a, i2, i3);
+        compareSwap(x, a, i4, i5);
+        compareSwap(x, a, i3, i4);
+    }
+
+    /**
+     * Swap the indices at positions {@code i < j} if the data referenced at {@code j}
+     * is less than the data referenced at {@code i}.
+     *
+     * @param x Data.
+     * @param a Indices into the data.
+     * @param i Position.
+     * @param j Position.
+     */
+    private static void compareSwap(int[] x, int[] a, int i, int j) {
+        final int u = a[i];
+        final int v = a[j];
+        if (x[v] < x[u]) {
+            a[i] = v;
+            a[j] = u;
+        }
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a heap select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * @param x Data.
+     * @param a Indices into the data.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static void heapSelect(int[] x, int[] a, int left, int right, int ka, int kb) {
+        if (right <= left) {
+            return;
+        }
+        // Use the smallest heap
+        if (kb - left < right - ka) {
+            heapSelectLeft(x, a, left, right, ka, kb);
+        } else {
+            heapSelectRight(x, a, left, right, ka, kb);
+        }
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a heap select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * @param x Data.
+     * @param a Indices into the data.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    private static void heapSelectLeft(int[] x, int[] a, int left, int right, int ka, int kb) {
+        // Create a max heap in-place in [left, k], rooted at a[left] = max
+        int end = kb + 1;
+        for (int p = left + ((kb - left - 1) >> 1); p >= left; p--) {
+            maxHeapSiftDown(x, a, a[p], p, left, end);
+        }
+        // Scan the remaining data and insert
+        int max = x[a[left]];
+        for (int i = right; i > kb; i--) {
+            final int t = a[i];
+            if (x[t] < max) {
+                a[i] = a[left];
+                maxHeapSiftDown(x, a, t, left, left, end);
+                max = x[a[left]];
+            }
+        }
+        // Partition [ka, kb]
+        final int last = Math.max(left, ka - 1);
+        while (--end > last) {
+            final int t = a[left];
+            maxHeapSiftDown(x, a, a[end], left, left, end);
+            a[end] = t;
+        }
+    }
+
+    /**
+     * Sift the element down the max heap.
+     *
+     * <p>Assumes {@code root <= p < end}, i.e. the max heap is above root.
+     *
+     * @param x Data.
+     * @param a Heap indices into the data.
+     * @param t Index to sift.
+     * @param p Start position.
+     * @param root Root of the heap.
+     * @param end End of the heap (exclusive).
+     */
+    private static void maxHeapSiftDown(int[] x, int[] a, int t, int p, int root, int end) {
+        final int v = x[t];
+        while (true) {
+            // Right child
+            int c = (p << 1) - root + 2;
+            if (c > end) {
+                // No left child
+                break;
+            }
+            // Use the left child if right doesn't exist, or it is greater
+            if (c == end || x[a[c]] < x[a[c - 1]]) {
+                --c;
+            }
+            if (v >= x[a[c]]) {
+                // Parent greater than largest child - done
+                break;
+            }
+            // Swap and descend
+            a[p] = a[c];
+            p = c;
+        }
+        a[p] = t;
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a heap select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * @param x Data.
+     * @param a Indices into the data.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    private static void heapSelectRight(int[] x, int[] a, int left, int right, int ka, int kb) {
+        // Create a min heap in-place in [k, right], rooted at a[right] = min
+        int end = ka - 1;
+        for (int p = right - ((right - ka - 1) >> 1); p <= right; p++) {
+            minHeapSiftDown(x, a, a[p], p, right, end);
+        }
+        // Scan the remaining data and insert
+        int min = x[a[right]];
+        for (int i = left; i < ka; i++) {
+            final int t = a[i];
+            if (x[t] > min) {
+                a[i] = a[right];
+                minHeapSiftDown(x, a, t, right, right, end);
+                min = x[a[right]];
+            }
+        }
+        // Partition [ka, kb]
+        final int last = Math.min(right, kb + 1);
+        while (++end < last) {
+            final int t = a[right];
+            minHeapSiftDown(x, a, a[end], right, right, end);
+            a[end] = t;
+        }
+    }
+
+    /**
+     * Sift the element down the min heap.
+     *
+     * <p>Assumes {@code root >= p > end}, i.e. the max heap is below root.
+     *
+     * @param x Data.
+     * @param a Heap indices into the data.
+     * @param t Index to sift.
+     * @param p Start position.
+     * @param root Root of the heap.
+     * @param end End of the heap (exclusive).
+     */
+    private static void minHeapSiftDown(int[] x, int[] a, int t, int p, int root, int end) {
+        final int v = x[t];
+        while (true) {
+            // Right child
+            int c = (p << 1) - root - 2;
+            if (c < end) {
+                // No left child
+                break;
+            }
+            // Use the left child if right doesn't exist, or it is less
+            if (c == end || x[a[c]] > x[a[c + 1]]) {
+                ++c;
+            }
+            if (v <= x[a[c]]) {
+                // Parent less than smallest child - done
+                break;
+            }
+            // Swap and descend
+            a[p] = a[c];
+            p = c;
+        }
+        a[p] = t;
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a sort select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * @param x Data.
+     * @param a Indices into the data.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static void sortSelect(int[] x, int[] a, int left, int right, int ka, int kb) {
+        // Sort the smallest side
+        if (kb - left < right - ka) {
+            sortSelectLeft(x, a, left, right, kb);
+        } else {
+            sortSelectRight(x, a, left, right, ka);
+        }
+    }
+
+    /**
+     * Partition the minimum {@code n} elements below {@code k} where
+     * {@code n = k - left + 1}. Uses an insertion sort algorithm.
+     *
+     * <p>Works with any {@code k} in the range {@code left <= k <= right}
+     * and performs a full sort of the range below {@code k}.
+     *
+     * @param x Data.
+     * @param a Indices into the data.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param k Index to select.
+     */
+    private static void sortSelectLeft(int[] x, int[] a, int left, int right, int k) {
+        // Sort
+        for (int i = left; ++i <= k;) {
+            final int t = a[i];
+            final int v = x[t];
+            // Move preceding higher elements above (if required)
+            if (v < x[a[i - 1]]) {
+                int j = i;
+                while (--j >= left && v < x[a[j]]) {
+                    a[j + 1] = a[j];
+                }
+                a[j + 1] = t;
+            }
+        }
+        // Scan the remaining data and insert
+        int m = x[a[k]];
+        for (int i = right; i > k; i--) {
+            final int t = a[i];
+            final int v = x[t];
+            if (v < m) {
+                a[i] = a[k];
+                int j = k;
+                while (--j >= left && v < x[a[j]]) {
+                    a[j + 1] = a[j];
+                }
+                a[j + 1] = t;
+                m = x[a[k]];
+            }
+        }
+    }
+
+    /**
+     * Partition the maximum {@code n} elements above {@code k} where
+     * {@code n = right - k + 1}. Uses an insertion sort algorithm.
+     *
+     * <p>Works with any {@code k} in the range {@code left <= k <= right}
+     * and can be used to perform a full sort of the range above {@code k}.
+     *
+     * @param x Data.
+     * @param a Indices into the data.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param k Index to select.
+     */
+    private static void sortSelectRight(int[] x, int[] a, int left, int right, int k) {
+        // Sort
+        for (int i = right; --i >= k;) {
+            final int t = a[i];
+            final int v = x[t];
+            // Move succeeding lower elements below (if required)
+            if (v > x[a[i + 1]]) {
+                int j = i;
+                while (++j <= right && v > x[a[j]]) {
+                    a[j - 1] = a[j];
+                }
+                a[j - 1] = t;
+            }
+        }
+        // Scan the remaining data and insert
+        int m = x[a[k]];
+        for (int i = left; i < k; i++) {
+            final int t = a[i];
+            final int v = x[t];
+            if (v > m) {
+                a[i] = a[k];
+                int j = k;
+                while (++j <= right && v > x[a[j]]) {
+                    a[j - 1] = a[j];
+                }
+                a[j - 1] = t;
+                m = x[a[k]];
+            }
+        }
+    }
+}
@@ -0,0 +1,463 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.numbers.arrays;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A set of non-negative {@code int} indices backed by a fixed size of bits.
+ *
+ * <p>The set supports indices within a fixed half-open range {@code [from, to)}
+ * defined on construction. Storage is allocated for one bit per index in the range
+ * with the most efficient usage of storage when the range starts above 0. Adding an
+ * index or testing for membership is a constant time operation; iteration is in
+ * ascending order of the indices.
+ *
+ * <p>This is a specialised class to implement a reduced API similar to a
+ * {@link java.util.BitSet}. It can be used in place of a {@code Set<Integer>} to
+ * remove duplicates from a collection of indices within a known range:
+ *
+ * <pre>{@code
+ * int[] keys = ...
+ * IntIndexSet set = IntIndexSet.ofRange(0, n);
+ * set.addAll(keys);
+ * // Unique keys in ascending order
+ * int[] unique = set.toArray();
+ * // Contiguous ranges of keys
+ * set.forEachRange((from, to) -> ...);
+ * }</pre>
+ *
+ * <p>See the BloomFilter code in Commons Collections for use of long[] data to store
+ * bits.
+ *
+ * @since 1.3
+ */
+public final class IntIndexSet {
+    /** All 64-bits bits set. */
+    private static final long LONG_MASK = -1L;
+    /** A bit shift to apply to an integer to divided by 64 (2^6). */
+    private static final int DIVIDE_BY_64 = 6;
+    /** Upper bound (exclusive) of supported indices. */
+    private static final int MAX_INDEX = Integer.MAX_VALUE;
+
+    /** Bit indexes. */
+    private final long[] data;
+    /** Lower bound (inclusive) of the support. This is the index offset of the data. */
+    private final int from;
+    /** Upper bound (exclusive) of the support. */
+    private final int to;
+
+    /**
+     * Represents an operation that accepts a contiguous range of indices.
+     */
+    @FunctionalInterface
+    public interface RangeConsumer {
+        /**
+         * Performs this operation on the half-open range of indices {@code [from, to)}.
+         *
+         * @param from Lower bound (inclusive).
+         * @param to Upper bound (exclusive).
+         */
+        void accept(int from, int to);
+    }
+
+    /**
+     * Create an instance to store indices within the range {@code [from, to)}.
+     *
+     * @param from Lower bound (inclusive).
+     * @param to Upper bound (exclusive).
+     */
+    private IntIndexSet(int from, int to) {
+        this.from = from;
+        this.to = to;
+        // Unsigned shift supports a length up to 2^31 - 1 without overflow
+        data = new long[(to - from + Long.SIZE - 1) >>> DIVIDE_BY_64];
+    }
+
+    /**
+     * Create an instance to store indices within the range {@code [from, to)}.
+     *
+     * @param from Lower bound (inclusive).
+     * @param to Upper bound (exclusive).
+     * @return the index set
+     * @throws IndexOutOfBoundsException if {@code from < 0} or {@code from > to}
+     */
+    public static IntIndexSet ofRange(int from, int to) {
+        IndexSupport.checkFromToIndex(from, to, MAX_INDEX);
+        return new IntIndexSet(from, to);
+    }
+
+    /**
+     * Create an instance containing the {@code indices}. The supported range of the set
+     * is from the minimum to the maximum of the indices (inclusive).
+     *
+     * <p>If the {@code indices} are empty the set has an empty range and cannot
+     * store any index.
+     *
+     * @param indices Indices.
+     * @return the index set
+     * @throws IndexOutOfBoundsException if any index is negative or equal to
+     * {@link Integer#MAX_VALUE}
+     */
+    public static IntIndexSet of(int... indices) {
+        if (indices.length == 0) {
+            return new IntIndexSet(0, 0);
+        }
+        int min = indices[0];
+        int max = min;
+        for (final int i : indices) {
+            if (i < min) {
+                min = i;
+            } else if (i > max) {
+                max = i;
+            }
+        }
+        IndexSupport.checkIndex(0, MAX_INDEX, min);
+        IndexSupport.checkIndex(0, MAX_INDEX, max);
+        final IntIndexSet set = new IntIndexSet(min, max + 1);
+        for (final int i : indices) {
+            set.set(i);
+        }
+        return set;
+    }
+
+    /**
+     * Gets the filter index for the specified bit index assuming the filter is using
+     * 64-bit longs to store bits starting at index 0.
+     *
+     * <p>The index is assumed to be positive. For a positive index the result will match
+     * {@code bitIndex / 64}.</p>
+     *
+     * @param bitIndex the bit index (assumed to be positive)
+     * @return the index of the bit map in an array of bit maps.
+     */
+    private static int getLongIndex(final int bitIndex) {
+        return bitIndex >> DIVIDE_BY_64;
+    }
+
+    /**
+     * Gets the filter bit mask for the specified bit index assuming the filter is using
+     * 64-bit longs to store bits starting at index 0. The returned value is a
+     * {@code long} with only 1 bit set.
+     *
+     * <p>The index is assumed to be positive. For a positive index the result will match
+     * {@code 1L << (bitIndex % 64)}.</p>
+     *
+     * @param bitIndex the bit index (assumed to be positive)
+     * @return the filter bit
+     */
+    private static long getLongBit(final int bitIndex) {
+        // Bit shifts only use the first 6 bits.
+        return 1L << bitIndex;
+    }
+
+    /**
+     * Gets the lower bound (inclusive) of the supported range of indices.
+     *
+     * @return the lower bound
+     */
+    public int from() {
+        return from;
+    }
+
+    /**
+     * Gets the upper bound (exclusive) of the supported range of indices.
+     *
+     * @return the upper bound
+     */
+    public int to() {
+        return to;
+    }
+
+    /**
+     * Adds the {@code index} to the set.
+     *
+     * @param index Index.
+     * @return true if the set was modified by the operation
+     * @throws IndexOutOfBoundsException if the index is outside the supported range
+     */
+    public boolean add(int index) {
+        IndexSupport.checkIndex(from, to, index);
+        return set(index);
+    }
+
+    /**
+     * Adds all the {@code indices} to the set.
+     *
+     * <p>The indices are validated before the set is modified.
+     *
+     * @param indices Indices.
+     * @return true if the set was modified by the operation
+     * @throws IndexOutOfBoundsException if any index is outside the supported range
+     */
+    public boolean addAll(int... indices) {
+        IndexSupport.checkIndices(from, to, indices);
+        boolean modified = false;
+        for (final int index : indices) {
+            modified |= set(index);
+        }
+        return modified;
+    }
+
+    /**
+     * Adds all the indices in the range {@code [fromIndex, toIndex)} to the set.
+     *
+     * @param fromIndex Lower bound (inclusive).
+     * @param toIndex Upper bound (exclusive).
+     * @throws IndexOutOfBoundsException if the range is outside the supported range
+     */
+    public void addRange(int fromIndex, int toIndex) {
+        if (fromIndex < from || fromIndex > toIndex || toIndex > to) {
+            throw new IndexOutOfBoundsException(String.format("Range [%d, %d) out of bounds for range [%d, %d)",
+                fromIndex, toIndex, from, to));
+        }
+        if (fromIndex == toIndex) {
+            return;
+        }
+        final int bitIndex1 = fromIndex - from;
+        final int bitIndex2 = toIndex - from - 1;
+        final int i1 = getLongIndex(bitIndex1);
+        final int i2 = getLongIndex(bitIndex2);
+        // Mask bits on or after the first index: 11111000 = -1L << (index % 64)
+        final long m1 = LONG_MASK << bitIndex1;
+        // Mask bits on or before the last index: 00011111 = -1L >>> (64 - ((index + 1) % 64))
+        final long m2 = LONG_MASK >>> -(bitIndex2 + 1);
+        if (i1 == i2) {
+            data[i1] |= m1 & m2;
+        } else {
+            data[i1] |= m1;
+            for (int i = i1 + 1; i < i2; i++) {
+                data[i] = LONG_MASK;
+            }
+            data[i2] |= m2;
+        }
+    }
+
+    /**
+     * Sets the bit for the specified index. The index is not validated.
+     *
+     * @param index Index.
+     * @return true if the set was modified by the operation
+     */
+    private boolean set(int index) {
+        final int bitIndex = index - from;
+        final int i = getLongIndex(bitIndex);
+        final long m = getLongBit(bitIndex);
+        final long bits = data[i];
+        data[i] = bits | m;
+        return (bits & m) == 0;
+    }
+
+    /**
+     * Returns {@code true} if the set contains the {@code index}. Any index outside
+     * the supported range is not contained in the set.
+     *
+     * @param index Index.
+     * @return true if the set contains the index
+     */
+    public boolean contains(int index) {
+        if (index < from || index >= to) {
+            return false;
+        }
+        final int bitIndex = index - from;
+        return (data[getLongIndex(bitIndex)] & getLongBit(bitIndex)) != 0;
+    }
+
+    /**
+     * Removes all the indices from the set.
+     */
+    public void clear() {
+        Arrays.fill(data, 0);
+    }
+
+    /**
+     * Returns {@code true} if the set contains no indices.
+     *
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        for (final long bits : data) {
+            if (bits != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of indices in the set.
+     *
+     * @return the cardinality
+     */
+    public int cardinality() {
+        int c = 0;
+        for (final long bits : data) {
+            c += Long.bitCount(bits);
+        }
+        return c;
+    }
+
+    /**
+     * Returns the first index in the set that occurs on or after the specified
+     * starting index. If no such index exists then {@code -1} is returned.
+     *
+     * <p>Any starting index below the supported range will search from the lower bound
+     * of the range.
+     *
+     * <p>To iterate over the indices in the set use the following loop:
+     * <pre>{@code
+     * for (int i = set.nextSetBit(0); i >= 0; i = set.nextSetBit(i + 1)) {
+     *     // operate on index i here
+     * }
+     * }</pre>
+     *
+     * @param fromIndex Index to start checking from (inclusive).
+     * @return the index of the next set bit, or {@code -1} if there is no such bit
+     */
+    public int nextSetBit(int fromIndex) {
+        final int start = Math.max(fromIndex, from);
+        if (start >= to) {
+            return -1;
+        }
+        final int bitIndex = start - from;
+        int i = getLongIndex(bitIndex);
+        // Mask bits on or after the bit index
+        long bits = data[i] & (LONG_MASK << bitIndex);
+        for (;;) {
+            if (bits != 0) {
+                return i * Long.SIZE + Long.numberOfTrailingZeros(bits) + from;
+            }
+            if (++i == data.length) {
+                return -1;
+            }
+            bits = data[i];
+        }
+    }
+
+    /**
+     * Returns the first index not in the set that occurs on or after the specified
+     * starting index. If all indices in the supported range on or after the starting
+     * index are in the set then the upper bound of the range is returned.
+     *
+     * <p>Any index outside the supported range is not in the set.
+     *
+     * @param fromIndex Index to start checking from (inclusive).
+     * @return the index of the next clear bit
+     */
+    public int nextClearBit(int fromIndex) {
+        if (fromIndex < from || fromIndex >= to) {
+            return fromIndex;
+        }
+        final int bitIndex = fromIndex - from;
+        int i = getLongIndex(bitIndex);
+        // Mask bits on or after the bit index and invert
+        long bits = ~data[i] & (LONG_MASK << bitIndex);
+        for (;;) {
+            if (bits != 0) {
+                // Any clear bit beyond the range maps to the upper bound
+                final int index = i * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                return index < to - from ? index + from : to;
+            }
+            if (++i == data.length) {
+                return to;
+            }
+            bits = ~data[i];
+        }
+    }
+
+    /**
+     * Returns the last index in the set that occurs on or before the specified
+     * starting index. If no such index exists then {@code -1} is returned.
+     *
+     * <p>Any starting index above the supported range will search from the upper bound
+     * of the range.
+     *
+     * @param fromIndex Index to start checking from (inclusive).
+     * @return the index of the previous set bit, or {@code -1} if there is no such bit
+     */
+    public int previousSetBit(int fromIndex) {
+        if (fromIndex < from || from == to) {
+            return -1;
+        }
+        final int bitIndex = Math.min(fromIndex, to - 1) - from;
+        int i = getLongIndex(bitIndex);
+        // Mask bits on or before the bit index
+        long bits = data[i] & (LONG_MASK >>> -(bitIndex + 1));
+        for (;;) {
+            if (bits != 0) {
+                return (i + 1) * Long.SIZE - Long.numberOfLeadingZeros(bits) - 1 + from;
+            }
+            if (i == 0) {
+                return -1;
+            }
+            bits = data[--i];
+        }
+    }
+
+    /**
+     * Performs the {@code action} for each index in the set in ascending order.
+     *
+     * @param action Action.
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < data.length; i++) {
+            long bits = data[i];
+            final int base = i * Long.SIZE + from;
+            while (bits != 0) {
+                action.accept(base + Long.numberOfTrailingZeros(bits));
+                // Clear the lowest set bit
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    /**
+     * Performs the {@code action} for each contiguous range of indices in the set in
+     * ascending order. Each range is maximal: the indices immediately before and after
+     * the range are not in the set.
+     *
+     * @param action Action.
+     */
+    public void forEachRange(RangeConsumer action) {
+        int i = nextSetBit(from);
+        while (i >= 0) {
+            final int j = nextClearBit(i);
+            action.accept(i, j);
+            i = nextSetBit(j);
+        }
+    }
+
+    /**
+     * Returns the indices in the set in ascending order.
+     *
+     * @return the indices
+     */
+    public int[] toArray() {
+        final int[] a = new int[cardinality()];
+        int n = 0;
+        for (int i = 0; i < data.length; i++) {
+            long bits = data[i];
+            final int base = i * Long.SIZE + from;
+            while (bits != 0) {
+                a[n++] = base + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        return a;
+    }
+}
@@ -58,6 +58,21 @@ final class KeyUpdatingInterval implements UpdatingInterval {
         this.r = r;
     }
 
+    /**
+     * Reset the interval to the first {@code n} indices. This allows the instance to be
+     * reused when the indices are updated in place.
+     *
+     * <p><strong>Warning:</strong> Indices must be sorted and distinct.
+     *
+     * @param n Number of indices.
+     * @return this instance
+     */
+    KeyUpdatingInterval reset(int n) {
+        l = 0;
+        r = n - 1;
+        return this;
+    }
+
     @Override
     public int left() {
         return keys[l];
@@ -0,0 +1,345 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.arrays;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Converter between unidimensional storage structure and multidimensional
+ * conceptual structure using a {@code long} unidimensional index.
+ *
+ * <p>This provides the same mapping as {@link MultidimensionalCounter} for structures
+ * where the total number of elements exceeds the range of an {@code int}.
+ * For example, assuming that the ranges (in 3 dimensions) of indices are 2, 4 and 3,
+ * the following correspondences, between 3-tuples indices and unidimensional
+ * indices, will hold:
+ * <ul>
+ *  <li>(0, 0, 0) corresponds to 0</li>
+ *  <li>(0, 0, 1) corresponds to 1</li>
+ *  <li>(0, 0, 2) corresponds to 2</li>
+ *  <li>(0, 1, 0) corresponds to 3</li>
+ *  <li>...</li>
+ *  <li>(1, 0, 0) corresponds to 12</li>
+ *  <li>...</li>
+ *  <li>(1, 3, 2) corresponds to 23</li>
+ * </ul>
+ *
+ * <p>The unidimensional index is the sum of each multidimensional index
+ * multiplied by the stride of the dimension. The stride of the last dimension is 1.
+ *
+ * <p>Sequential traversal of all the elements is supported by a {@link Cursor}
+ * which updates the multidimensional indices without division.
+ *
+ * @since 1.3
+ */
+public final class LongMultidimensionalCounter {
+    /** Counter sizes. */
+    private final int[] size;
+    /** Stride for each dimension. */
+    private final long[] stride;
+    /** Total number of (one-dimensional) slots. */
+    private final long totalSize;
+
+    /**
+     * Cursor over the elements of the counter in unidimensional order.
+     *
+     * <p>The cursor is positioned before the first element. Each call to
+     * {@link #nextLong()} advances the cursor and updates the multidimensional
+     * indices of the current element. The indices are updated incrementally
+     * and no objects are allocated.
+     */
+    public final class Cursor implements PrimitiveIterator.OfLong {
+        /** Multidimensional indices of the current element. */
+        private final int[] counts;
+        /** Unidimensional index of the current element. */
+        private long index = -1;
+
+        /** Create an instance. */
+        Cursor() {
+            counts = new int[size.length];
+            // Set before the first element
+            counts[counts.length - 1] = -1;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < totalSize - 1;
+        }
+
+        /**
+         * Advance to the next element.
+         *
+         * @return the unidimensional index of the element
+         * @throws NoSuchElementException if there are no more elements
+         */
+        @Override
+        public long nextLong() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            // Increment with carry
+            for (int i = counts.length; --i >= 0;) {
+                if (++counts[i] < size[i]) {
+                    break;
+                }
+                counts[i] = 0;
+            }
+            return ++index;
+        }
+
+        /**
+         * Gets the unidimensional index of the current element. This is {@code -1}
+         * before the first call to {@link #nextLong()}.
+         *
+         * @return the index
+         */
+        public long getIndex() {
+            return index;
+        }
+
+        /**
+         * Gets the index in the specified dimension of the current element.
+         *
+         * @param dim Dimension.
+         * @return the index
+         * @throws IndexOutOfBoundsException if {@code dim} is not a valid dimension
+         */
+        public int getCount(int dim) {
+            return counts[dim];
+        }
+
+        /**
+         * Gets the multidimensional indices of the current element.
+         *
+         * @return the indices
+         */
+        public int[] getCounts() {
+            return counts.clone();
+        }
+    }
+
+    /**
+     * Creates a counter.
+     *
+     * @param size Counter sizes (number of slots in each dimension).
+     * @throws IllegalArgumentException if one of the sizes is negative
+     * or zero; or the total size is too large for a {@code long}.
+     */
+    private LongMultidimensionalCounter(int... size) {
+        final int dimension = size.length;
+        this.size = Arrays.copyOf(size, dimension);
+        stride = new long[dimension];
+
+        final int last = dimension - 1;
+        stride[last] = 1;
+        long tS = 1;
+        for (int i = last; i > 0; i--) {
+            tS = multiply(tS, size[i]);
+            stride[i - 1] = tS;
+        }
+        totalSize = multiply(tS, size[0]);
+    }
+
+    /**
+     * Creates a counter.
+     *
+     * @param size Counter sizes (number of slots in each dimension).
+     * @return a new instance.
+     * @throws IllegalArgumentException if one of the sizes is negative
+     * or zero; or the total size is too large for a {@code long}.
+     */
+    public static LongMultidimensionalCounter of(int... size) {
+        return new LongMultidimensionalCounter(size);
+    }
+
+    /**
+     * Gets the number of dimensions of the multidimensional counter.
+     *
+     * @return the number of dimensions.
+     */
+    public int getDimension() {
+        return size.length;
+    }
+
+    /**
+     * Converts to a multidimensional counter.
+     *
+     * @param index Index in unidimensional counter.
+     * @return the multidimensional counts.
+     * @throws IndexOutOfBoundsException if {@code index} is not between
+     * {@code 0} and the value returned by {@link #getSize()} (excluded).
+     */
+    public int[] toMulti(long index) {
+        return toMulti(index, new int[size.length]);
+    }
+
+    /**
+     * Converts to a multidimensional counter. The counts are written to the
+     * provided array.
+     *
+     * @param index Index in unidimensional counter.
+     * @param counts Multidimensional counts (output).
+     * @return the multidimensional counts.
+     * @throws IllegalArgumentException if the size of {@code counts}
+     * does not match the number of dimensions.
+     * @throws IndexOutOfBoundsException if {@code index} is not between
+     * {@code 0} and the value returned by {@link #getSize()} (excluded).
+     */
+    public int[] toMulti(long index, int[] counts) {
+        checkDimension(counts.length);
+        if (index < 0 ||
+            index >= totalSize) {
+            throw new IndexOutOfBoundsException(createIndexOutOfBoundsMessage(totalSize, index));
+        }
+        final int last = size.length - 1;
+        long pos = index;
+        for (int i = 0; i < last; i++) {
+            final long c = pos / stride[i];
+            counts[i] = (int) c;
+            // pos = pos % stride[i]
+            pos -= c * stride[i];
+        }
+        counts[last] = (int) pos;
+        return counts;
+    }
+
+    /**
+     * Converts to a unidimensional counter.
+     *
+     * @param c Indices in multidimensional counter.
+     * @return the index within the unidimensional counter.
+     * @throws IllegalArgumentException if the size of {@code c}
+     * does not match the size of the array given in the constructor.
+     * @throws IndexOutOfBoundsException if a value of {@code c} is not in
+     * the range of the corresponding dimension, as defined in the
+     * {@link LongMultidimensionalCounter#of(int...) constructor}.
+     */
+    public long toUni(int... c) {
+        checkDimension(c.length);
+        long count = 0;
+        for (int i = 0; i < c.length; i++) {
+            final int index = c[i];
+            if (index < 0 ||
+                index >= size[i]) {
+                throw new IndexOutOfBoundsException(createIndexOutOfBoundsMessage(size[i], index));
+            }
+            count += stride[i] * index;
+        }
+        return count;
+    }
+
+    /**
+     * Gets the total number of elements.
+     *
+     * @return the total size of the unidimensional counter.
+     */
+    public long getSize() {
+        return totalSize;
+    }
+
+    /**
+     * Gets the number of multidimensional counter slots in each dimension.
+     *
+     * @return the number of slots in each dimension.
+     */
+    public int[] getSizes() {
+        return Arrays.copyOf(size, size.length);
+    }
+
+    /**
+     * Gets the stride of the specified dimension. This is the difference in the
+     * unidimensional index when the index of the dimension is incremented by 1.
+     *
+     * @param dim Dimension.
+     * @return the stride
+     * @throws IndexOutOfBoundsException if {@code dim} is not a valid dimension
+     */
+    public long getStride(int dim) {
+        return stride[dim];
+    }
+
+    /**
+     * Gets the stride of each dimension.
+     *
+     * @return the strides
+     * @see #getStride(int)
+     */
+    public long[] getStrides() {
+        return Arrays.copyOf(stride, stride.length);
+    }
+
+    /**
+     * Create a cursor over all the elements in unidimensional order.
+     *
+     * @return the cursor
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return Arrays.toString(size);
+    }
+
+    /**
+     * Check the number of dimensions.
+     *
+     * @param n Number of dimensions.
+     * @throws IllegalArgumentException if the number does not match the dimension.
+     */
+    private void checkDimension(int n) {
+        if (n != size.length) {
+            throw new IllegalArgumentException("Wrong number of arguments: " + n +
+                                               "(expected: " + size.length + ")");
+        }
+    }
+
+    /**
+     * Multiply the cumulative size by the size of a dimension.
+     *
+     * @param cumulative Cumulative size.
+     * @param size Size of the dimension.
+     * @return the product
+     * @throws IllegalArgumentException if the size is not strictly positive or
+     * the product overflows.
+     */
+    private static long multiply(long cumulative, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Not positive index size: " + size);
+        }
+        if (cumulative > Long.MAX_VALUE / size) {
+            throw new IllegalArgumentException("Total size overflow: " + cumulative + " * " + size);
+        }
+        return cumulative * size;
+    }
+
+    /**
+     * Creates the message for the index out of bounds exception.
+     *
+     * @param size the size
+     * @param index the index
+     * @return the message
+     */
+    private static String createIndexOutOfBoundsMessage(long size, long index) {
+        return "Index out of bounds [0, " + (size - 1) + "]: " + index;
+    }
+}
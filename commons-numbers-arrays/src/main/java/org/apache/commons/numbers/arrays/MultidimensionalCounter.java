@@ -37,6 +37,9 @@ import java.util.Arrays;
  *  <li>...</li>
  *  <li>(1, 3, 2) corresponds to 23</li>
  * </ul>
+ *
+ * <p>Use {@link LongMultidimensionalCounter} if the total number of elements
+ * exceeds the range of an {@code int}.
  */
 public final class MultidimensionalCounter {
     /**
@@ -60,6 +63,22 @@ public final class MultidimensionalCounter {
      */
     private final int last;
 
+    /**
+     * Represents an operation that accepts a contiguous run of unidimensional indices.
+     *
+     * @since 1.3
+     */
+    @FunctionalInterface
+    public interface RunConsumer {
+        /**
+         * Performs this operation on the run of indices.
+         *
+         * @param start Unidimensional index of the first element.
+         * @param length Number of elements in the run.
+         */
+        void accept(int start, int length);
+    }
+
     /**
      * Creates a counter.
      *
@@ -119,13 +138,29 @@ public final class MultidimensionalCounter {
      * {@code 0} and the value returned by {@link #getSize()} (excluded).
      */
     public int[] toMulti(int index) {
+        return toMulti(index, new int[dimension]);
+    }
+
+    /**
+     * Converts to a multidimensional counter. The counts are written to the
+     * provided array.
+     *
+     * @param index Index in unidimensional counter.
+     * @param indices Multidimensional counts (output).
+     * @return the multidimensional counts.
+     * @throws IllegalArgumentException if the size of {@code indices}
+     * does not match the number of dimensions.
+     * @throws IndexOutOfBoundsException if {@code index} is not between
+     * {@code 0} and the value returned by {@link #getSize()} (excluded).
+     * @since 1.3
+     */
+    public int[] toMulti(int index, int[] indices) {
+        checkDimension(indices.length);
         if (index < 0 ||
             index >= totalSize) {
             throw new IndexOutOfBoundsException(createIndexOutOfBoundsMessage(totalSize, index));
         }
 
-        final int[] indices = new int[dimension];
-
         int pos = index;
         for (int i = 0; i < last; i++) {
             indices[i] = pos / uniCounterOffset[i];
@@ -150,10 +185,7 @@ public final class MultidimensionalCounter {
      * {@link MultidimensionalCounter#of(int...) constructor}.
      */
     public int toUni(int... c) {
-        if (c.length != dimension) {
-            throw new IllegalArgumentException("Wrong number of arguments: " + c.length +
-                                               "(expected: " + dimension + ")");
-        }
+        checkDimension(c.length);
         int count = 0;
         for (int i = 0; i < dimension; i++) {
             final int index = c[i];
@@ -184,12 +216,109 @@ public final class MultidimensionalCounter {
         return Arrays.copyOf(size, size.length);
     }
 
+    /**
+     * Gets the stride of each dimension. This is the difference in the
+     * unidimensional index when the index of the dimension is incremented by 1.
+     *
+     * @return the strides
+     * @since 1.3
+     */
+    public int[] getStrides() {
+        return Arrays.copyOf(uniCounterOffset, dimension);
+    }
+
+    /**
+     * Performs the action for each contiguous run of unidimensional indices in the
+     * sub-block of the counter defined by the multidimensional range
+     * {@code [from, to)}. The lower bound of each dimension is inclusive and the
+     * upper bound is exclusive.
+     *
+     * <p>Runs are provided in increasing order of the unidimensional index.
+     * Each run is a {@code [start, length]} pair that covers the range of the last
+     * dimension; consecutive runs are merged if the sub-block spans the entire
+     * range of the trailing dimensions. This allows the sub-block to be processed
+     * using bulk operations, for example:
+     * <pre>
+     * // Copy the sub-block of the source to a compact destination
+     * int[] pos = {0};
+     * counter.forEachRun(from, to, (start, length) -&gt; {
+     *     System.arraycopy(src, start, dest, pos[0], length);
+     *     pos[0] += length;
+     * });
+     * </pre>
+     *
+     * <p>No action is performed if the sub-block is empty.
+     *
+     * @param from Lower bound (inclusive) of each dimension.
+     * @param to Upper bound (exclusive) of each dimension.
+     * @param action Action for each run.
+     * @throws IllegalArgumentException if the size of {@code from} or {@code to}
+     * does not match the number of dimensions.
+     * @throws IndexOutOfBoundsException if a range {@code [from, to)} is out of bounds
+     * of the corresponding dimension.
+     * @since 1.3
+     */
+    public void forEachRun(int[] from, int[] to, RunConsumer action) {
+        checkDimension(from.length);
+        checkDimension(to.length);
+        boolean empty = false;
+        int start = 0;
+        for (int i = 0; i < dimension; i++) {
+            IndexSupport.checkFromToIndex(from[i], to[i], size[i]);
+            empty |= from[i] == to[i];
+            start += uniCounterOffset[i] * from[i];
+        }
+        if (empty) {
+            return;
+        }
+
+        // Merge trailing dimensions that are entirely spanned by the sub-block
+        int d = last;
+        while (d > 0 && from[d] == 0 && to[d] == size[d]) {
+            d--;
+        }
+        final int length = (to[d] - from[d]) * uniCounterOffset[d];
+
+        // Iterate over the outer dimensions [0, d) with carry
+        final int[] counts = Arrays.copyOf(from, d);
+        int pos = start;
+        for (;;) {
+            action.accept(pos, length);
+            int i = d;
+            for (;;) {
+                if (--i < 0) {
+                    return;
+                }
+                pos += uniCounterOffset[i];
+                if (++counts[i] < to[i]) {
+                    break;
+                }
+                // Reset this dimension and carry to the next
+                pos -= (to[i] - from[i]) * uniCounterOffset[i];
+                counts[i] = from[i];
+            }
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public String toString() {
         return Arrays.toString(size);
     }
 
+    /**
+     * Check the number of dimensions.
+     *
+     * @param n Number of dimensions.
+     * @throws IllegalArgumentException if the number does not match the dimension.
+     */
+    private void checkDimension(int n) {
+        if (n != dimension) {
+            throw new IllegalArgumentException("Wrong number of arguments: " + n +
+                                               "(expected: " + dimension + ")");
+        }
+    }
+
     /**
      * Check the size is strictly positive: {@code size > 0}.
      *
@@ -0,0 +1,636 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.arrays;
+
+import java.util.Comparator;
+
+/**
+ * Partition object array data using a {@link Comparator}.
+ *
+ * <p>This uses the dual-pivot introselect algorithm of {@link QuickSelect}. Excess
+ * recursion will trigger use of a heapselect on the remaining range of indices.
+ *
+ * <p>Note: The comparator may be user supplied. Partitioning does not rely on sentinel
+ * values to bound scans of the data so that a comparator that violates its contract
+ * cannot cause an index out of bounds error. In this case the result is undefined.
+ *
+ * @since 1.3
+ */
+final class ObjectQuickSelect {
+
+    /** No instances. */
+    private ObjectQuickSelect() {}
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param <T> Type of the data.
+     * @param a Values.
+     * @param c Comparator.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param k Indices (may be destructively modified).
+     * @param n Count of indices.
+     */
+    static <T> void select(T[] a, Comparator<? super T> c, int left, int right, int[] k, int n) {
+        if (n < 1 || right <= left) {
+            return;
+        }
+        final UpdatingInterval keys = IndexSupport.createUpdatingInterval(k, n);
+        dualPivotQuickSelect(a, c, left, right, keys,
+            QuickSelect.dualPivotFlags(left, right, keys.left(), keys.right()));
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their
+     * correctly sorted value in the equivalent fully sorted array.
+     *
+     * <p>See {@link QuickSelect#dualPivotQuickSelect(double[], int, int, UpdatingInterval, int)}.
+     *
+     * @param <T> Type of the data.
+     * @param a Values.
+     * @param c Comparator.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive, assumed to be strictly positive).
+     * @param k Interval of indices to partition (ordered).
+     * @param flags Control flags.
+     */
+    // package-private for testing
+    static <T> void dualPivotQuickSelect(T[] a, Comparator<? super T> c, int left, int right,
+                                         UpdatingInterval k, int flags) {
+        int l = left;
+        int r = right;
+        int f = flags;
+        int ka = k.left();
+        int kb = k.right();
+        final int[] upper = {0, 0, 0};
+        while (true) {
+            // Select when ka and kb are close to the same end,
+            // or the entire range is small
+            final int n = r - l;
+            if (Math.min(kb - l, r - ka) < QuickSelect.DP_SORTSELECT_SIZE ||
+                n < (f & QuickSelect.SORTSELECT_MASK)) {
+                sortSelect(a, c, l, r, ka, kb);
+                return;
+            }
+            if (f < 0) {
+                // Excess recursion, switch to heap select
+                heapSelect(a, c, l, r, ka, kb);
+                return;
+            }
+
+            // Dual-pivot partitioning
+            final int p0 = partition(a, c, l, r, upper);
+            final int p1 = upper[0];
+
+            // Recursion to max depth
+            //                   p0 p1               p2 p3
+            // |l|--|ka|--k----k--|P|------k--|kb|----|P|----|r|
+            //                 kb  |      ka
+            f += QuickSelect.RECURSION_INCREMENT;
+            // Recurse left side if required
+            if (ka < p0) {
+                if (kb <= p1) {
+                    // Entirely on left side
+                    r = p0 - 1;
+                    if (r < kb) {
+                        kb = k.updateRight(r);
+                    }
+                    continue;
+                }
+                dualPivotQuickSelect(a, c, l, p0 - 1, k.splitLeft(p0, p1), f);
+                // Here we must process middle and/or right
+                ka = k.left();
+            } else if (kb <= p1) {
+                // No middle/right side
+                return;
+            } else if (ka <= p1) {
+                // Advance lower bound
+                ka = k.updateLeft(p1 + 1);
+            }
+            // Recurse middle if required
+            final int p2 = upper[1];
+            final int p3 = upper[2];
+            if (ka < p2) {
+                l = p1 + 1;
+                if (kb <= p3) {
+                    // Entirely in middle
+                    r = p2 - 1;
+                    if (r < kb) {
+                        kb = k.updateRight(r);
+                    }
+                    continue;
+                }
+                dualPivotQuickSelect(a, c, l, p2 - 1, k.splitLeft(p2, p3), f);
+                ka = k.left();
+            } else if (kb <= p3) {
+                // No right side
+                return;
+            } else if (ka <= p3) {
+                ka = k.updateLeft(p3 + 1);
+            }
+            // Continue right
+            l = p3 + 1;
+        }
+    }
+
+    /**
+     * Partition an array slice around 2 pivots.
+     *
+     * <p>See {@link QuickSelect} for the description of the pivot ranges of equal values
+     * returned in the bounds.
+     *
+     * @param <T> Type of the data.
+     * @param a Data array.
+     * @param c Comparator.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param bounds Points [k1, k2, k3].
+     * @return Lower bound (inclusive) of the pivot range [k0].
+     */
+    private static <T> int partition(T[] a, Comparator<? super T> c, int left, int right, int[] bounds) {
+        // Pick 2 pivots from 5 approximately uniform through the range.
+        // Spacing is ~ 1/7 made using shifts.
+        final int n = right - left;
+        final int step = 1 + (n >>> 3) + (n >>> 6);
+        final int i3 = left + (n >>> 1);
+        final int i2 = i3 - step;
+        final int i1 = i2 - step;
+        final int i4 = i3 + step;
+        final int i5 = i4 + step;
+        sort5(a, c, i1, i2, i3, i4, i5);
+
+        // Partition using pivots P1 and P2 placed at the ends.
+        // See QuickSelect for details of the algorithm.
+        //
+        // left        less              k       great         right
+        // |P1|  <P1   |   P1 <= & <= P2 |    ???    |    >P2   |P2|
+
+        // Swap ends to the pivot locations.
+        final T v1 = a[i2];
+        a[i2] = a[left];
+        a[left] = v1;
+        final T v2 = a[i4];
+        a[i4] = a[right];
+        a[right] = v2;
+        // Pivots are sorted: v1 <= v2
+        final boolean distinct = c.compare(v1, v2) != 0;
+
+        // pointers
+        int less = left;
+        int great = right;
+
+        // Fast-forward ascending / descending runs to reduce swaps.
+        // The end pivots (v1 <= v2) act as sentinels; scans are also bounded
+        // to protect against an inconsistent comparator.
+        do {
+            ++less;
+        } while (less < great && c.compare(a[less], v1) < 0);
+        do {
+            --great;
+        } while (great > less && c.compare(a[great], v2) > 0);
+
+        // a[less - 1] < P1 : a[great + 1] > P2
+        // unvisited in [less, great]
+        SORTING:
+        for (int k = less; k <= great; k++) {
+            final T v = a[k];
+            if (c.compare(v, v1) < 0) {
+                // swap(a, k, less++)
+                a[k] = a[less];
+                a[less] = v;
+                less++;
+            } else if (c.compare(v, v2) > 0) {
+                while (c.compare(a[great], v2) > 0) {
+                    if (great-- == k) {
+                        // Done
+                        break SORTING;
+                    }
+                }
+                // swap(a, k, great--)
+                // if a[k] < v1:
+                //   swap(a, k, less++)
+                final T w = a[great];
+                a[great] = v;
+                great--;
+                if (c.compare(w, v1) < 0) {
+                    a[k] = a[less];
+                    a[less] = w;
+                    less++;
+                } else {
+                    a[k] = w;
+                }
+            }
+        }
+
+        // Change to inclusive ends : a[less] < P1 : a[great] > P2
+        less--;
+        great++;
+        // Move the pivots to correct locations
+        a[left] = a[less];
+        a[less] = v1;
+        a[right] = a[great];
+        a[great] = v2;
+
+        // Record the pivot locations
+        final int lower = less;
+        bounds[2] = great;
+
+        // Look for equal elements if the centre is more than 5/8 the length.
+        // 5/8 = 1/2 + 1/8. Pivots must be different.
+        if ((great - less) > (n >>> 1) + (n >>> 3) && distinct) {
+
+            // Fast-forward to reduce swaps. Changes inclusive ends to exclusive ends.
+            // Since v1 != v2 these act as sentinels to prevent overrun.
+            final int end = great;
+            do {
+                ++less;
+            } while (less < end && c.compare(a[less], v1) == 0);
+            do {
+                --great;
+            } while (great > less && c.compare(a[great], v2) == 0);
+
+            // This copies the logic in the sorting loop using == comparisons
+            EQUAL:
+            for (int k = less; k <= great; k++) {
+                final T v = a[k];
+                if (c.compare(v, v1) == 0) {
+                    a[k] = a[less];
+                    a[less] = v;
+                    less++;
+                } else if (c.compare(v, v2) == 0) {
+                    while (c.compare(a[great], v2) == 0) {
+                        if (great-- == k) {
+                            // Done
+                            break EQUAL;
+                        }
+                    }
+                    final T w = a[great];
+                    a[great] = v;
+                    great--;
+                    if (c.compare(w, v1) == 0) {
+                        a[k] = a[less];
+                        a[less] = w;
+                        less++;
+                    } else {
+                        a[k] = w;
+                    }
+                }
+            }
+
+            // Change to inclusive ends
+            less--;
+            great++;
+        }
+
+        // Between pivots in (less, great)
+        if (distinct && less < great - 1) {
+            // Record the pivot end points
+            bounds[0] = less;
+            bounds[1] = great;
+        } else {
+            // No unsorted internal region (set k1 = k3; k2 = k0)
+            bounds[0] = bounds[2];
+            bounds[1] = lower;
+        }
+
+        return lower;
+    }
+
+    /**
+     * Sorts the given indices in an array using an optimal sorting network.
+     *
+     * @param <T> Type of the data.
+     * @param a Data array.
+     * @param c Comparator.
+     * @param i1 Index.
+     * @param i2 Index.
+     * @param i3 Index.
+     * @param i4 Index.
+     * @param i5 Index.
+     */
+    private static <T> void sort5(T[] a, Comparator<? super T> c, int i1, int i2, int i3, int i4, int i5) {
+        // 9 comparisons
+        compareSwap(a, c, i1, i4);
+        compareSwap(a, c, i2, i5);
+        compareSwap(a, c, i1, i3);
+        compareSwap(a, c, i2, i4);
+        compareSwap(a, c, i1, i2);
+        compareSwap(a, c, i3, i5);
+        compareSwap(a, c, i2, i3);
+        compareSwap(a, c, i4, i5);
+        compareSwap(a, c, i3, i4);
+    }
+
+    /**
+     * Swap the values at positions {@code i < j} if the value at {@code j}
+     * is less than the value at {@code i}.
+     *
+     * @param <T> Type of the data.
+     * @param a Data array.
+     * @param c Comparator.
+     * @param i Position.
+     * @param j Position.
+     */
+    private static <T> void compareSwap(T[] a, Comparator<? super T> c, int i, int j) {
+        final T u = a[i];
+        final T v = a[j];
+        if (c.compare(v, u) < 0) {
+            a[i] = v;
+            a[j] = u;
+        }
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a heap select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * @param <T> Type of the data.
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param c Comparator.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static <T> void heapSelect(T[] a, Comparator<? super T> c, int left, int right, int ka, int kb) {
+        if (right <= left) {
+            return;
+        }
+        // Use the smallest heap
+        if (kb - left < right - ka) {
+            heapSelectLeft(a, c, left, right, ka, kb);
+        } else {
+            heapSelectRight(a, c, left, right, ka, kb);
+        }
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a heap select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * @param <T> Type of the data.
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param c Comparator.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    private static <T> void heapSelectLeft(T[] a, Comparator<? super T> c, int left, int right, int ka, int kb) {
+        // Create a max heap in-place in [left, k], rooted at a[left] = max
+        int end = kb + 1;
+        for (int p = left + ((kb - left - 1) >> 1); p >= left; p--) {
+            maxHeapSiftDown(a, c, a[p], p, left, end);
+        }
+        // Scan the remaining data and insert
+        T max = a[left];
+        for (int i = right; i > kb; i--) {
+            final T v = a[i];
+            if (c.compare(v, max) < 0) {
+                a[i] = max;
+                maxHeapSiftDown(a, c, v, left, left, end);
+                max = a[left];
+            }
+        }
+        // Partition [ka, kb]
+        final int last = Math.max(left, ka - 1);
+        while (--end > last) {
+            maxHeapSiftDown(a, c, a[end], left, left, end);
+            a[end] = max;
+            max = a[left];
+        }
+    }
+
+    /**
+     * Sift the element down the max heap.
+     *
+     * <p>Assumes {@code root <= p < end}, i.e. the max heap is above root.
+     *
+     * @param <T> Type of the data.
+     * @param a Heap data.
+     * @param c Comparator.
+     * @param v Value to sift.
+     * @param p Start position.
+     * @param root Root of the heap.
+     * @param end End of the heap (exclusive).
+     */
+    private static <T> void maxHeapSiftDown(T[] a, Comparator<? super T> c, T v, int p, int root, int end) {
+        while (true) {
+            // Right child
+            int ch = (p << 1) - root + 2;
+            if (ch > end) {
+                // No left child
+                break;
+            }
+            // Use the left child if right doesn't exist, or it is greater
+            if (ch == end || c.compare(a[ch], a[ch - 1]) < 0) {
+                --ch;
+            }
+            if (c.compare(v, a[ch]) >= 0) {
+                // Parent greater than largest child - done
+                break;
+            }
+            // Swap and descend
+            a[p] = a[ch];
+            p = ch;
+        }
+        a[p] = v;
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a heap select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * @param <T> Type of the data.
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param c Comparator.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    private static <T> void heapSelectRight(T[] a, Comparator<? super T> c, int left, int right, int ka, int kb) {
+        // Create a min heap in-place in [k, right], rooted at a[right] = min
+        int end = ka - 1;
+        for (int p = right - ((right - ka - 1) >> 1); p <= right; p++) {
+            minHeapSiftDown(a, c, a[p], p, right, end);
+        }
+        // Scan the remaining data and insert
+        T min = a[right];
+        for (int i = left; i < ka; i++) {
+            final T v = a[i];
+            if (c.compare(v, min) > 0) {
+                a[i] = min;
+                minHeapSiftDown(a, c, v, right, right, end);
+                min = a[right];
+            }
+        }
+        // Partition [ka, kb]
+        final int last = Math.min(right, kb + 1);
+        while (++end < last) {
+            minHeapSiftDown(a, c, a[end], right, right, end);
+            a[end] = min;
+            min = a[right];
+        }
+    }
+
+    /**
+     * Sift the element down the min heap.
+     *
+     * <p>Assumes {@code root >= p > end}, i.e. the max heap is below root.
+     *
+     * @param <T> Type of the data.
+     * @param a Heap data.
+     * @param c Comparator.
+     * @param v Value to sift.
+     * @param p Start position.
+     * @param root Root of the heap.
+     * @param end End of the heap (exclusive).
+     */
+    private static <T> void minHeapSiftDown(T[] a, Comparator<? super T> c, T v, int p, int root, int end) {
+        while (true) {
+            // Right child
+            int ch = (p << 1) - root - 2;
+            if (ch < end) {
+                // No left child
+                break;
+            }
+            // Use the left child if right doesn't exist, or it is less
+            if (ch == end || c.compare(a[ch], a[ch + 1]) > 0) {
+                ++ch;
+            }
+            if (c.compare(v, a[ch]) <= 0) {
+                // Parent less than smallest child - done
+                break;
+            }
+            // Swap and descend
+            a[p] = a[ch];
+            p = ch;
+        }
+        a[p] = v;
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a sort select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * @param <T> Type of the data.
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param c Comparator.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static <T> void sortSelect(T[] a, Comparator<? super T> c, int left, int right, int ka, int kb) {
+        // Sort the smallest side
+        if (kb - left < right - ka) {
+            sortSelectLeft(a, c, left, right, kb);
+        } else {
+            sortSelectRight(a, c, left, right, ka);
+        }
+    }
+
+    /**
+     * Partition the minimum {@code n} elements below {@code k} where
+     * {@code n = k - left + 1}. Uses an insertion sort algorithm.
+     *
+     * <p>Works with any {@code k} in the range {@code left <= k <= right}
+     * and performs a full sort of the range below {@code k}.
+     *
+     * @param <T> Type of the data.
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param c Comparator.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param k Index to select.
+     */
+    private static <T> void sortSelectLeft(T[] a, Comparator<? super T> c, int left, int right, int k) {
+        // Sort
+        for (int i = left; ++i <= k;) {
+            final T v = a[i];
+            // Move preceding higher elements above (if required)
+            if (c.compare(v, a[i - 1]) < 0) {
+                int j = i;
+                while (--j >= left && c.compare(v, a[j]) < 0) {
+                    a[j + 1] = a[j];
+                }
+                a[j + 1] = v;
+            }
+        }
+        // Scan the remaining data and insert
+        T m = a[k];
+        for (int i = right; i > k; i--) {
+            final T v = a[i];
+            if (c.compare(v, m) < 0) {
+                a[i] = m;
+                int j = k;
+                while (--j >= left && c.compare(v, a[j]) < 0) {
+                    a[j + 1] = a[j];
+                }
+                a[j + 1] = v;
+                m = a[k];
+            }
+        }
+    }
+
+    /**
+     * Partition the maximum {@code n} elements above {@code k} where
+     * {@code n = right - k + 1}. Uses an insertion sort algorithm.
+     *
+     * <p>Works with any {@code k} in the range {@code left <= k <= right}
+     * and can be used to perform a full sort of the range above {@code k}.
+     *
+     * @param <T> Type of the data.
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param c Comparator.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param k Index to select.
+     */
+    private static <T> void sortSelectRight(T[] a, Comparator<? super T> c, int left, int right, int k) {
+        // Sort
+        for (int i = right; --i >= k;) {
+            final T v = a[i];
+            // Move succeeding lower elements below (if required)
+            if (c.compare(v, a[i + 1]) > 0) {
+                int j = i;
+                while (++j <= right && c.compare(v, a[j]) > 0) {
+                    a[j - 1] = a[j];
+                }
+                a[j - 1] = v;
+            }
+        }
+        // Scan the remaining data and insert
+        T m = a[k];
+        for (int i = left; i < k; i++) {
+            final T v = a[i];
+            if (c.compare(v, m) > 0) {
+                a[i] = m;
+                int j = k;
+                while (++j <= right && c.compare(v, a[j]) > 0) {
+                    a[j - 1] = a[j];
+                }
+                a[j - 1] = v;
+                m = a[k];
+            }
+        }
+    }
+}
@@ -0,0 +1,431 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.arrays;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Streaming approximate quantiles of {@code double} values with bounded memory.
+ *
+ * <p>Values are stored in a sketch of compactors. A compactor at level {@code h}
+ * stores values with a weight of 2<sup>h</sup>. When the sketch is full a compactor
+ * is sorted and every second value, starting at a random offset, is promoted to the
+ * next level; the remaining values are discarded. The capacity of the compactors
+ * decreases geometrically from the top level using a factor of 2/3 from the
+ * maximum capacity {@code k}. The memory used is approximately {@code 3k} values.
+ *
+ * <p>Until the first compaction all values are retained and quantiles are exact.
+ * In this case quantiles are computed using {@link Selection}. After compaction the
+ * quantile estimate has a rank error that is approximately bounded by
+ * {@link #getRankError()} with a confidence of 99%. The bound is independent of
+ * the number of values and the order in which they are observed.
+ *
+ * <p>The quantile {@code p} is defined as the smallest value {@code x} such that at
+ * least a fraction {@code p} of the values are {@code <= x}. The minimum and maximum
+ * values are always exact.
+ *
+ * <p>Sketches can be combined. This allows separate sketches to be built for parts of
+ * a data stream, for example in different threads, and then merged. This class is not
+ * thread-safe.
+ *
+ * <p>{@code NaN} values are ignored.
+ *
+ * <p>References
+ *
+ * <ol>
+ * <li>Karnin, Lang and Liberty (2016)
+ * Optimal Quantile Approximation in Streams.
+ * <a href="https://arxiv.org/abs/1603.05346">arXiv:1603.05346</a>.</li>
+ * <li>Ivkin, Liberty, Lang, Karnin and Braverman (2019)
+ * Streaming Quantiles Algorithms with Small Space and Update Time.
+ * <a href="https://arxiv.org/abs/1907.00236">arXiv:1907.00236</a>.</li>
+ * <li><a href="https://datasketches.apache.org/docs/KLL/KLLSketch.html">Apache DataSketches KLL sketch</a>.</li>
+ * </ol>
+ *
+ * @since 1.3
+ */
+public final class QuantileSketch implements DoubleConsumer {
+    /** Default maximum compactor capacity. */
+    private static final int DEFAULT_K = 200;
+    /** Minimum compactor capacity. */
+    private static final int MIN_CAPACITY = 8;
+    /** Maximum value for the maximum compactor capacity. */
+    private static final int MAX_K = 1 << 16;
+    /** Factor for the capacity of compactors below the top level. */
+    private static final double CAPACITY_FACTOR = 2.0 / 3;
+
+    /** Source of randomness for the compaction offset. */
+    private final SplittableRandom rng;
+    /** Maximum compactor capacity. */
+    private int k;
+    /** Values for each level. */
+    private double[][] items;
+    /** Number of values at each level. */
+    private int[] sizes;
+    /** Capacity of each level. */
+    private int[] capacities;
+    /** Number of levels. */
+    private int levels;
+    /** Number of retained values. */
+    private int size;
+    /** Total capacity of all levels. */
+    private int capacity;
+    /** Number of values observed. */
+    private long n;
+    /** Minimum value. */
+    private double min;
+    /** Maximum value. */
+    private double max;
+
+    /**
+     * Create an instance.
+     *
+     * @param k Maximum compactor capacity.
+     * @param rng Source of randomness.
+     */
+    private QuantileSketch(int k, SplittableRandom rng) {
+        this.k = k;
+        this.rng = rng;
+        items = new double[1][MIN_CAPACITY];
+        sizes = new int[1];
+        levels = 1;
+        updateCapacity();
+    }
+
+    /**
+     * Create an instance with a default accuracy. This has a rank error of
+     * approximately 1.3%.
+     *
+     * @return the sketch
+     */
+    public static QuantileSketch create() {
+        return create(DEFAULT_K);
+    }
+
+    /**
+     * Create an instance with the specified maximum compactor capacity {@code k}.
+     * The rank error is approximately inversely proportional to {@code k}.
+     *
+     * @param k Maximum compactor capacity.
+     * @return the sketch
+     * @throws IllegalArgumentException if {@code k < 8} or {@code k > 65536}
+     * @see #getRankError()
+     */
+    public static QuantileSketch create(int k) {
+        return create(k, new SplittableRandom());
+    }
+
+    /**
+     * Create an instance with the specified maximum compactor capacity {@code k}.
+     *
+     * @param k Maximum compactor capacity.
+     * @param rng Source of randomness.
+     * @return the sketch
+     * @throws IllegalArgumentException if {@code k < 8} or {@code k > 65536}
+     */
+    // package-private for testing
+    static QuantileSketch create(int k, SplittableRandom rng) {
+        if (k < MIN_CAPACITY || k > MAX_K) {
+            throw new IllegalArgumentException("Invalid capacity: " + k);
+        }
+        return new QuantileSketch(k, rng);
+    }
+
+    /**
+     * Adds the value to the sketch. {@code NaN} values are ignored.
+     *
+     * @param value Value.
+     */
+    @Override
+    public void accept(double value) {
+        if (value != value) {
+            return;
+        }
+        if (n == 0) {
+            min = value;
+            max = value;
+        } else {
+            // Respects the order of signed zeros
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        n++;
+        if (size == capacity) {
+            compress();
+        }
+        add(0, value);
+        size++;
+    }
+
+    /**
+     * Combine with the other sketch. The other sketch is not modified.
+     *
+     * <p>If the sketches have a different maximum compactor capacity {@code k} the
+     * result uses the smaller value.
+     *
+     * @param other Other sketch.
+     * @return this instance
+     */
+    public QuantileSketch combine(QuantileSketch other) {
+        if (other.n == 0) {
+            return this;
+        }
+        if (n == 0) {
+            min = other.min;
+            max = other.max;
+        } else {
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+        n += other.n;
+        k = Math.min(k, other.k);
+        while (levels < other.levels) {
+            addLevel();
+        }
+        // Note: Use the initial state of the other sketch to support self-combination
+        final int otherLevels = other.levels;
+        for (int h = 0; h < otherLevels; h++) {
+            final double[] x = other.items[h];
+            final int s = other.sizes[h];
+            for (int i = 0; i < s; i++) {
+                add(h, x[i]);
+            }
+            size += s;
+        }
+        updateCapacity();
+        while (size > capacity) {
+            compress();
+        }
+        return this;
+    }
+
+    /**
+     * Gets the number of values observed.
+     *
+     * @return the count
+     */
+    public long getN() {
+        return n;
+    }
+
+    /**
+     * Gets the approximate bound on the normalized rank error of a quantile estimate.
+     *
+     * <p>A quantile estimate for {@code p} has a rank {@code r} in the observed values
+     * such that {@code |r/n - p| <= e} with a confidence of 99%. The bound {@code e}
+     * was empirically determined for this type of sketch by Apache DataSketches as
+     * {@code 2.296 / k^0.9723}. This is zero if the quantiles are exact.
+     *
+     * @return the rank error
+     */
+    public double getRankError() {
+        return levels == 1 ? 0 : 2.296 / Math.pow(k, 0.9723);
+    }
+
+    /**
+     * Gets the estimate of the quantile {@code p}.
+     *
+     * <p>Returns {@code NaN} if no values have been observed.
+     *
+     * @param p Probability in {@code [0, 1]}.
+     * @return the quantile
+     * @throws IllegalArgumentException if the probability is not in the range {@code [0, 1]}
+     */
+    public double quantile(double p) {
+        return quantiles(p)[0];
+    }
+
+    /**
+     * Gets the estimates of the quantiles {@code p}. This is more efficient than
+     * querying each quantile separately.
+     *
+     * <p>Returns {@code NaN} if no values have been observed.
+     *
+     * @param p Probabilities in {@code [0, 1]}.
+     * @return the quantiles
+     * @throws IllegalArgumentException if any probability is not in the range {@code [0, 1]}
+     */
+    public double[] quantiles(double... p) {
+        final long[] r = new long[p.length];
+        for (int i = 0; i < p.length; i++) {
+            final double pi = p[i];
+            if (!(pi >= 0 && pi <= 1)) {
+                throw new IllegalArgumentException("Invalid probability: " + pi);
+            }
+            // Rank in [1, n]
+            r[i] = Math.max(1, (long) Math.ceil(pi * n));
+        }
+        final double[] q = new double[p.length];
+        if (n == 0) {
+            Arrays.fill(q, Double.NaN);
+            return q;
+        }
+        if (levels == 1) {
+            // Exact. The order of values in the compactor is not significant.
+            final double[] x = items[0];
+            final int[] ranks = new int[p.length];
+            for (int i = 0; i < p.length; i++) {
+                ranks[i] = (int) r[i] - 1;
+            }
+            Selection.select(x, 0, size, ranks.clone());
+            for (int i = 0; i < p.length; i++) {
+                q[i] = x[ranks[i]];
+            }
+        } else {
+            // Sorted values with cumulative weights
+            final double[] values = new double[size];
+            final long[] weights = new long[size];
+            sortedView(values, weights);
+            for (int i = 0; i < p.length; i++) {
+                int j = Arrays.binarySearch(weights, r[i]);
+                if (j < 0) {
+                    // Insertion point: first cumulative weight above the rank
+                    j = ~j;
+                }
+                q[i] = values[Math.min(j, size - 1)];
+            }
+        }
+        // Exact end points
+        for (int i = 0; i < p.length; i++) {
+            if (p[i] == 0) {
+                q[i] = min;
+            } else if (p[i] == 1) {
+                q[i] = max;
+            }
+        }
+        return q;
+    }
+
+    /**
+     * Create the sorted values with the cumulative weights.
+     *
+     * @param values Values.
+     * @param weights Cumulative weights.
+     */
+    private void sortedView(double[] values, long[] weights) {
+        // The order of values in each compactor is not significant
+        final int[] pos = new int[levels];
+        for (int h = 0; h < levels; h++) {
+            Arrays.sort(items[h], 0, sizes[h]);
+        }
+        // Merge the sorted levels
+        long cumulative = 0;
+        for (int i = 0; i < size; i++) {
+            int level = -1;
+            double v = Double.POSITIVE_INFINITY;
+            for (int h = 0; h < levels; h++) {
+                if (pos[h] < sizes[h]) {
+                    final double x = items[h][pos[h]];
+                    if (level < 0 || Double.compare(x, v) < 0) {
+                        level = h;
+                        v = x;
+                    }
+                }
+            }
+            pos[level]++;
+            cumulative += 1L << level;
+            values[i] = v;
+            weights[i] = cumulative;
+        }
+    }
+
+    /**
+     * Compact the lowest level that is at or above capacity.
+     */
+    private void compress() {
+        for (int h = 0; h < levels; h++) {
+            if (sizes[h] >= capacities[h]) {
+                compact(h);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Compact the level. Values are sorted and every second value is promoted to
+     * the next level. An odd value is retained at the current level.
+     *
+     * @param h Level.
+     */
+    private void compact(int h) {
+        if (h + 1 == levels) {
+            addLevel();
+            updateCapacity();
+        }
+        final double[] x = items[h];
+        final int s = sizes[h];
+        Arrays.sort(x, 0, s);
+        // Odd size retains the smallest value
+        final int start = s & 1;
+        for (int i = start + (rng.nextBoolean() ? 1 : 0); i < s; i += 2) {
+            add(h + 1, x[i]);
+        }
+        sizes[h] = start;
+        // Half the values are discarded
+        size -= (s - start) >>> 1;
+    }
+
+    /**
+     * Adds the value to the level.
+     *
+     * @param h Level.
+     * @param value Value.
+     */
+    private void add(int h, double value) {
+        double[] x = items[h];
+        final int s = sizes[h];
+        if (s == x.length) {
+            x = Arrays.copyOf(x, s * 2);
+            items[h] = x;
+        }
+        x[s] = value;
+        sizes[h] = s + 1;
+    }
+
+    /**
+     * Adds a level.
+     */
+    private void addLevel() {
+        if (levels == items.length) {
+            items = Arrays.copyOf(items, levels * 2);
+            sizes = Arrays.copyOf(sizes, levels * 2);
+        }
+        items[levels] = new double[MIN_CAPACITY];
+        levels++;
+    }
+
+    /**
+     * Update the capacity of each level using the current number of levels.
+     */
+    private void updateCapacity() {
+        if (capacities == null || capacities.length < levels) {
+            capacities = new int[items.length];
+        }
+        int total = 0;
+        double c = k;
+        for (int h = levels; --h >= 0;) {
+            final int ch = Math.max(MIN_CAPACITY, (int) Math.ceil(c));
+            capacities[h] = ch;
+            total += ch;
+            c *= CAPACITY_FACTOR;
+        }
+        capacity = total;
+    }
+}
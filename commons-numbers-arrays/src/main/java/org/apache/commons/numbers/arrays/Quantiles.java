@@ -0,0 +1,339 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.arrays;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Computes quantiles of {@code double} data using the sample quantile estimators
+ * described by Hyndman and Fan.
+ *
+ * <p>The order statistics required for all the probabilities are identified and
+ * computed using a single multi-key partition with {@link Selection#select(double[], int[])};
+ * the quantiles are then computed directly from the partitioned data. The expected
+ * run time is linear in the data length.
+ *
+ * <p>The ordering is that imposed by {@link Double#compare(double, double)}. If the
+ * data contains {@code NaN} values these are the largest values and may be returned
+ * as the quantile.
+ *
+ * <p>Instances are immutable and thread-safe.
+ *
+ * <p>References
+ *
+ * <ol>
+ * <li>Hyndman and Fan (1996)
+ * Sample Quantiles in Statistical Packages.
+ * The American Statistician, 50, 361-365.
+ * <a href="https://doi.org/10.2307/2684934">doi.org/10.2307/2684934</a></li>
+ * <li><a href="https://en.wikipedia.org/wiki/Quantile#Estimating_quantiles_from_a_sample">
+ * Quantile (Wikipedia)</a></li>
+ * </ol>
+ *
+ * @since 1.3
+ */
+public final class Quantiles {
+    /** Default instance. Uses {@link EstimationMethod#HF8} and copies the input data. */
+    private static final Quantiles DEFAULT = new Quantiles(EstimationMethod.HF8, true);
+
+    /** Estimation method. */
+    private final EstimationMethod method;
+    /** Set to true to copy the input data. */
+    private final boolean copy;
+
+    /**
+     * Estimation methods for a quantile. Provides the nine quantile algorithms
+     * defined in Hyndman and Fan (1996) [1] as {@code HF1 - HF9}.
+     *
+     * <p>Samples quantiles are defined by:
+     *
+     * <p>\[ Q(p) = (1 - \gamma) x_j + \gamma x_{j+1} \]
+     *
+     * <p>where \( \frac{j-m}{n} \leq p \le \frac{j-m+1}{n} \), \( x_j \) is the \( j \)th
+     * order statistic, \( n \) is the sample size, the value of \( \gamma \) is a function
+     * of \( j = \lfloor np+m \rfloor \) and \( g = np + m - j \), and \( m \) is a constant
+     * determined by the sample quantile type. The order statistics are clipped to
+     * \( [x_1, x_n] \).
+     *
+     * <p>Types 1-3 are discontinuous functions of \( p \); types 4-9 are continuous
+     * functions of \( p \) using linear interpolation between adjacent order statistics.
+     *
+     * <ol>
+     * <li>Hyndman and Fan (1996)
+     *     Sample Quantiles in Statistical Packages.
+     *     The American Statistician, 50, 361-365.
+     *     <a href="https://www.jstor.org/stable/2684934">doi.org/10.2307/2684934</a>
+     * </ol>
+     */
+    public enum EstimationMethod {
+        /**
+         * Inverse of the empirical distribution function.
+         *
+         * <p>\( m = 0 \). \( \gamma = 0 \) if \( g = 0 \), and 1 otherwise.
+         */
+        HF1,
+        /**
+         * Similar to {@link #HF1} with averaging at discontinuities.
+         *
+         * <p>\( m = 0 \). \( \gamma = 0.5 \) if \( g = 0 \), and 1 otherwise.
+         */
+        HF2,
+        /**
+         * The observation closest to \( np \). Ties are resolved to the nearest even order statistic.
+         *
+         * <p>\( m = -1/2 \). \( \gamma = 0 \) if \( g = 0 \) and \( j \) is even, and 1 otherwise.
+         */
+        HF3,
+        /**
+         * Linear interpolation of the inverse of the empirical CDF.
+         *
+         * <p>\( m = 0 \). \( p_k = \frac{k}{n} \).
+         */
+        HF4,
+        /**
+         * A piecewise linear function where the knots are the values midway through the
+         * steps of the empirical CDF.
+         *
+         * <p>\( m = 1/2 \). \( p_k = \frac{k - 1/2}{n} \).
+         */
+        HF5,
+        /**
+         * The mean of the order statistic is the expected value of the quantile.
+         *
+         * <p>\( m = p \). \( p_k = \frac{k}{n + 1} \).
+         */
+        HF6,
+        /**
+         * The mode of the order statistic is the quantile. This is the default in R and
+         * in many other packages.
+         *
+         * <p>\( m = 1 - p \). \( p_k = \frac{k - 1}{n - 1} \).
+         */
+        HF7,
+        /**
+         * The quantile is approximately median-unbiased regardless of the distribution.
+         *
+         * <p>\( m = (p + 1)/3 \). \( p_k = \frac{k - 1/3}{n + 1/3} \).
+         */
+        HF8,
+        /**
+         * The quantile is approximately unbiased if the distribution is normal.
+         *
+         * <p>\( m = p/4 + 3/8 \). \( p_k = \frac{k - 3/8}{n + 1/4} \).
+         */
+        HF9;
+
+        /**
+         * Compute the position of the quantile in the sorted data (zero-based).
+         * The position is clipped to {@code [0, n-1]}. Any fractional part
+         * is the interpolation weight of the next order statistic.
+         *
+         * @param p Probability in {@code [0, 1]}.
+         * @param n Size (must be strictly positive).
+         * @return the position
+         */
+        double index(double p, int n) {
+            final double pos;
+            switch (this) {
+            case HF1:
+                // ceil(np) - 1
+                pos = Math.ceil(n * p) - 1;
+                break;
+            case HF2:
+                pos = indexHF2(n * p);
+                break;
+            case HF3:
+                pos = indexHF3(n * p - 0.5);
+                break;
+            case HF4:
+                pos = n * p - 1;
+                break;
+            case HF5:
+                pos = n * p - 0.5;
+                break;
+            case HF6:
+                pos = (n + 1.0) * p - 1;
+                break;
+            case HF7:
+                pos = (n - 1) * p;
+                break;
+            case HF8:
+                pos = (n + 1.0 / 3) * p - 2.0 / 3;
+                break;
+            case HF9:
+                pos = (n + 0.25) * p - 0.625;
+                break;
+            default:
+                throw new IllegalStateException(String.valueOf(this));
+            }
+            // Clip to the range of the data
+            return Math.min(n - 1, Math.max(0, pos));
+        }
+
+        /**
+         * Compute the position of the quantile for {@link #HF2}.
+         *
+         * @param np Product of the size and the probability.
+         * @return the position
+         */
+        private static double indexHF2(double np) {
+            final double j = Math.floor(np);
+            final double g = np - j;
+            // Average of x(j) and x(j+1) if np is an integer.
+            // Note the position is zero-based.
+            return g == 0 ? j - 0.5 : j;
+        }
+
+        /**
+         * Compute the position of the quantile for {@link #HF3}.
+         *
+         * @param np Product of the size and the probability, minus 1/2.
+         * @return the position
+         */
+        private static double indexHF3(double np) {
+            final double j = Math.floor(np);
+            final double g = np - j;
+            // Round half to even
+            return g == 0 && (((long) j) & 0x1) == 0 ? j - 1 : j;
+        }
+    }
+
+    /**
+     * @param method Estimation method.
+     * @param copy Set to true to copy the input data.
+     */
+    private Quantiles(EstimationMethod method, boolean copy) {
+        this.method = method;
+        this.copy = copy;
+    }
+
+    /**
+     * Return an instance with the default options.
+     *
+     * <ul>
+     * <li>{@linkplain EstimationMethod#HF8 Estimation method HF8}
+     * <li>{@linkplain #withCopy(boolean) Copy = true}
+     * </ul>
+     *
+     * @return the quantile implementation
+     */
+    public static Quantiles withDefaults() {
+        return DEFAULT;
+    }
+
+    /**
+     * Return an instance with the configured estimation method.
+     *
+     * @param v Value.
+     * @return an instance
+     */
+    public Quantiles with(EstimationMethod v) {
+        return new Quantiles(Objects.requireNonNull(v), copy);
+    }
+
+    /**
+     * Return an instance with the configured copy behaviour. If {@code false} then
+     * the input array will be partitioned in-place by the evaluation; otherwise a
+     * copy of the data is partitioned and the input array is unchanged.
+     *
+     * @param v Value.
+     * @return an instance
+     */
+    public Quantiles withCopy(boolean v) {
+        return new Quantiles(method, v);
+    }
+
+    /**
+     * Evaluate the {@code p}-th quantile of the values.
+     *
+     * <p>Returns {@code NaN} if the values are empty.
+     *
+     * @param values Values.
+     * @param p Probability in {@code [0, 1]}.
+     * @return the quantile
+     * @throws IllegalArgumentException if the probability is not in the range {@code [0, 1]}
+     */
+    public double evaluate(double[] values, double p) {
+        return evaluate(values, new double[] {p})[0];
+    }
+
+    /**
+     * Evaluate the {@code p}-th quantiles of the values.
+     *
+     * <p>Returns {@code NaN} for each quantile if the values are empty.
+     *
+     * @param values Values.
+     * @param p Probabilities in {@code [0, 1]}.
+     * @return the quantiles
+     * @throws IllegalArgumentException if any probability is not in the range {@code [0, 1]}
+     */
+    public double[] evaluate(double[] values, double... p) {
+        final int n = values.length;
+        final int m = p.length;
+        final double[] pos = new double[m];
+        // Up to two order statistics per quantile
+        final int[] k = new int[2 * m];
+        int c = 0;
+        for (int i = 0; i < m; i++) {
+            final double pi = p[i];
+            if (!(pi >= 0 && pi <= 1)) {
+                throw new IllegalArgumentException("Invalid probability: " + pi);
+            }
+            if (n != 0) {
+                final double x = method.index(pi, n);
+                final int j = (int) x;
+                pos[i] = x;
+                k[c++] = j;
+                if (x != j) {
+                    k[c++] = j + 1;
+                }
+            }
+        }
+        final double[] q = new double[m];
+        if (n == 0) {
+            Arrays.fill(q, Double.NaN);
+            return q;
+        }
+        final double[] x = copy ? values.clone() : values;
+        Selection.select(x, c == k.length ? k : Arrays.copyOf(k, c));
+        for (int i = 0; i < m; i++) {
+            final double pi = pos[i];
+            final int j = (int) pi;
+            q[i] = interpolate(x[j], j + 1 < n ? x[j + 1] : x[j], pi - j);
+        }
+        return q;
+    }
+
+    /**
+     * Linear interpolation between {@code a} and {@code b} using the fraction {@code t}.
+     *
+     * @param a Lower value.
+     * @param b Upper value.
+     * @param t Fraction in {@code [0, 1)}.
+     * @return the value
+     */
+    private static double interpolate(double a, double b, double t) {
+        // Avoid interpolation of infinite values and also return the correct
+        // signed zero when the fraction is zero
+        if (t == 0 || a == b) {
+            return a;
+        }
+        return a + t * (b - a);
+    }
+}
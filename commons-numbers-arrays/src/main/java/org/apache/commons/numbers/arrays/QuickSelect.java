@@ -17,6 +17,10 @@
 
 package org.apache.commons.numbers.arrays;
 
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 /**
  * Partition array data.
  *
@@ -133,6 +137,16 @@ final class QuickSelect {
     // multiple indices. If heapselect is used for small range handling the performance on
     // saturated indices is significantly slower. Hence the presence of two final selection
     // methods for different purposes.
+    //
+    // Parallel selection
+    //
+    // The dual-pivot quickselect on multiple indices divides the data into independent
+    // regions, each with a separate interval of indices. The regions can be processed
+    // concurrently. Regions split from the current range are forked as tasks if they are
+    // large enough to justify the overhead; the current task continues processing the
+    // right-most region. Small regions are processed using the serial method. The interval
+    // structures can be shared between tasks as they are only read after construction;
+    // each task has exclusive ownership of the bounds of its own interval.
 
     /** Sampling mode using Floyd-Rivest sampling. */
     static final int MODE_FR_SAMPLING = -1;
@@ -142,6 +156,26 @@ final class QuickSelect {
     static final int MODE_ADAPTION = 1;
     /** No sampling and no adaption of target k (strict margins). */
     static final int MODE_STRICT = 2;
+    /** Dual-pivot sortselect size for the distance of a single k from the edge of the
+     * range length n. Benchmarking in range [81+81, 243+243] suggests a value of ~20 (or
+     * higher on some hardware). Ranges are chosen based on third interval spacing between
+     * powers of 3.
+     *
+     * <p>Sortselect is faster at this small size than heapselect. A second advantage is
+     * that all indices closer to the edge than the target index are also sorted. This
+     * allows selection of multiple close indices to be performed with effectively the
+     * same speed. High density indices will result in recursion to very short fragments
+     * which also trigger use of sort select. The threshold for sorting short lengths is
+     * configured in {@link #dualPivotSortSelectSize(int, int)}. */
+    static final int DP_SORTSELECT_SIZE = 20;
+    /** Increment used for the recursion counter. The counter will overflow to negative when
+     * recursion has exceeded the maximum level. The counter is maintained in the upper bits
+     * of the dual-pivot control flags. */
+    static final int RECURSION_INCREMENT = 1 << 20;
+    /** Mask to extract the sort select size from the dual-pivot control flags. Currently
+     * the bits below those used for the recursion counter are only used for the sort select size
+     * so this can use a mask with all bits below the increment. */
+    static final int SORTSELECT_MASK = RECURSION_INCREMENT - 1;
 
     /** Minimum size for sortselect.
      * Below this perform a sort rather than selection. This is used to avoid
@@ -155,33 +189,32 @@ final class QuickSelect {
      * to ensure it contains a 12-th tile of length 2. Thus the absolute minimum for the
      * distance from the edge is 12. */
     private static final int LINEAR_SORTSELECT_SIZE = 24;
-    /** Dual-pivot sortselect size for the distance of a single k from the edge of the
-     * range length n. Benchmarking in range [81+81, 243+243] suggests a value of ~20 (or
-     * higher on some hardware). Ranges are chosen based on third interval spacing between
-     * powers of 3.
-     *
-     * <p>Sortselect is faster at this small size than heapselect. A second advantage is
-     * that all indices closer to the edge than the target index are also sorted. This
-     * allows selection of multiple close indices to be performed with effectively the
-     * same speed. High density indices will result in recursion to very short fragments
-     * which also trigger use of sort select. The threshold for sorting short lengths is
-     * configured in {@link #dualPivotSortSelectSize(int, int)}. */
-    private static final int DP_SORTSELECT_SIZE = 20;
     /** Threshold to use Floyd-Rivest sub-sampling. This partitions a sample of the data to
      * identify a pivot so that the target element is in the smaller set after partitioning.
      * The original FR paper used 600 otherwise reverted to the target index as the pivot.
      * This implementation reverts to quickselect adaptive which increases robustness
      * at small size on a variety of data and allows raising the original FR threshold. */
     private static final int FR_SAMPLING_SIZE = 1200;
-
-    /** Increment used for the recursion counter. The counter will overflow to negative when
-     * recursion has exceeded the maximum level. The counter is maintained in the upper bits
-     * of the dual-pivot control flags. */
-    private static final int RECURSION_INCREMENT = 1 << 20;
-    /** Mask to extract the sort select size from the dual-pivot control flags. Currently
-     * the bits below those used for the recursion counter are only used for the sort select size
-     * so this can use a mask with all bits below the increment. */
-    private static final int SORTSELECT_MASK = RECURSION_INCREMENT - 1;
+    /** Minimum length of a range to partition using a parallel task. Smaller ranges
+     * are processed using the serial method. The value matches the minimum granularity
+     * used by {@link java.util.Arrays#parallelSort(double[])} where the overhead of task
+     * creation is small compared to the work to partition the range. */
+    private static final int MIN_PARALLEL_SIZE = 1 << 13;
+    /** Minimum length of a range of 16-bit values to sort using a histogram of all
+     * 2<sup>16</sup> possible values. The histogram has a fixed cost to initialise and scan
+     * the counts. Smaller ranges are copied to an {@code int[]} workspace and processed
+     * using selection. */
+    private static final int HISTOGRAM_SORT_SIZE = 1 << 12;
+    /** Maximum number of extreme values to select using a heap select. The heap select
+     * makes a single pass over the data and is faster than partitioning followed by a sort
+     * when the heap is small; the cost of insertion into a large heap is high on
+     * unfavourable data. Benchmarking on random data shows heap select is faster up to
+     * approximately 1000 values, or 1/4 of the length on short data. */
+    private static final int TOP_HEAPSELECT_SIZE = 1 << 10;
+    /** Maximum length of an unsorted tail after the initial sorted run of the data that is
+     * merged into the run to sort the data. This is limited to 1/16 of the length. The tail
+     * is sorted and merged using a copy; the merge moves at most the length of the data. */
+    private static final int PRESORTED_TAIL = 16;
 
     /** Threshold to use repeated step left: 7 / 16. */
     private static final double STEP_LEFT = 0.4375;
@@ -510,9 +543,108 @@ final class QuickSelect {
      * @param k Index.
      */
     static void select(double[] a, int left, int right, int k) {
+        if (presorted(a, left, right)) {
+            return;
+        }
         quickSelectAdaptive(a, left, right, k, k, new int[1], MODE_FR_SAMPLING);
     }
 
+    /**
+     * Test if the data is already sorted. Data in descending order is reversed.
+     *
+     * <p>This scans the initial run of the data; selection is not required if the
+     * run covers the entire range. A short unsorted tail after the run is sorted and
+     * merged into the run; this handles sorted data with a few values appended.
+     * A sample of points is tested before the scan; the scan is skipped if the sample
+     * is not ordered as the run cannot reach the tail. This avoids the cost of
+     * scanning the first run of data composed of multiple sorted runs.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @return true if the data is sorted
+     */
+    static boolean presorted(double[] a, int left, int right) {
+        // Test a sample of points before the tail. If the sample is not ordered
+        // then the initial run cannot reach the tail.
+        final int step = (right - left) >>> 3;
+        if (step != 0) {
+            boolean up = false;
+            boolean down = false;
+            for (int j = left, end = left + 7 * step; j < end; j += step) {
+                up |= a[j] < a[j + step];
+                down |= a[j] > a[j + step];
+            }
+            if (up && down) {
+                return false;
+            }
+        }
+        int i = left;
+        // Ascending run
+        while (i < right && a[i] <= a[i + 1]) {
+            i++;
+        }
+        if (i == right) {
+            return true;
+        }
+        final int tail = Math.min(PRESORTED_TAIL, (right - left) >>> 4);
+        if (i == left) {
+            // Descending run
+            do {
+                i++;
+            } while (i < right && a[i] >= a[i + 1]);
+            if (right - i <= tail) {
+                // Reverse
+                for (int j = left - 1, k = i + 1; ++j < --k;) {
+                    final double v = a[j];
+                    a[j] = a[k];
+                    a[k] = v;
+                }
+            }
+        }
+        if (right - i > tail) {
+            return false;
+        }
+        if (i < right) {
+            mergeTail(a, left, i, right);
+        }
+        return true;
+    }
+
+    /**
+     * Sort the data given an initial sorted run. The tail after the run is sorted
+     * and merged into the run from the end. Each tail value is inserted using a binary
+     * search of the run; the run is moved in blocks and each element moves at most once.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param end Upper bound of the sorted run (inclusive).
+     * @param right Upper bound of data (inclusive).
+     */
+    private static void mergeTail(double[] a, int left, int end, int right) {
+        Sorting.sort(a, end + 1, right);
+        final double[] b = Arrays.copyOfRange(a, end + 1, right + 1);
+        // Unmerged run is [left, i]; positions (i, i + j + 1] are free for b[0, j]
+        int i = end;
+        for (int j = b.length - 1; j >= 0; j--) {
+            final double v = b[j];
+            // First position in the run above v
+            int lo = left;
+            int hi = i + 1;
+            while (lo < hi) {
+                final int m = (lo + hi) >>> 1;
+                if (a[m] > v) {
+                    hi = m;
+                } else {
+                    lo = m + 1;
+                }
+            }
+            System.arraycopy(a, lo, a, lo + j + 1, i - lo + 1);
+            a[lo + j] = v;
+            i = lo - 1;
+        }
+    }
+
     /**
      * Partition the array such that indices {@code k} correspond to their correctly
      * sorted value in the equivalent fully sorted array.
@@ -531,6 +663,10 @@ final class QuickSelect {
         if (n < 1) {
             return 0;
         }
+        if (presorted(a, left, right)) {
+            // Indices are not used
+            return n;
+        }
         if (n == 1) {
             quickSelectAdaptive(a, left, right, k[0], k[0], new int[1], MODE_FR_SAMPLING);
             return -1;
@@ -542,6 +678,23 @@ final class QuickSelect {
         // Save number of used indices
         final int count = IndexSupport.countIndices(keys, n);
 
+        select(a, left, right, keys);
+        return count;
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>The indices must be within {@code [left, right]}. This allows the caller to
+     * supply an interval created from a reusable workspace.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param keys Interval of indices to partition (ordered).
+     */
+    static void select(double[] a, int left, int right, UpdatingInterval keys) {
         // Note: If the keys are not separated then they are effectively a single key.
         // Any split of keys separated by the sort select size
         // will be finished on the next iteration.
@@ -553,9 +706,149 @@ final class QuickSelect {
             // Dual-pivot mode with small range sort length configured using index density
             dualPivotQuickSelect(a, left, right, keys, dualPivotFlags(left, right, k1, kn));
         }
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Regions of the data containing indices are partitioned concurrently using the
+     * {@link ForkJoinPool#commonPool() common pool}.
+     *
+     * <p>The count of the number of used indices is returned. If the keys are sorted in-place,
+     * the count is returned as a negative.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param k Indices (may be destructively modified).
+     * @param n Count of indices.
+     * @return the count of used indices
+     */
+    static int parallelSelect(double[] a, int left, int right, int[] k, int n) {
+        if (n < 1) {
+            return 0;
+        }
+        if (presorted(a, left, right)) {
+            // Indices are not used
+            return n;
+        }
+        if (n == 1) {
+            quickSelectAdaptive(a, left, right, k[0], k[0], new int[1], MODE_FR_SAMPLING);
+            return -1;
+        }
+
+        // Interval creation validates the indices are in [left, right]
+        final UpdatingInterval keys = IndexSupport.createUpdatingInterval(k, n);
+
+        // Save number of used indices
+        final int count = IndexSupport.countIndices(keys, n);
+
+        final int k1 = keys.left();
+        final int kn = keys.right();
+        if (kn - k1 < DP_SORTSELECT_SIZE) {
+            quickSelectAdaptive(a, left, right, k1, kn, new int[1], MODE_FR_SAMPLING);
+        } else if (right - left < MIN_PARALLEL_SIZE) {
+            dualPivotQuickSelect(a, left, right, keys, dualPivotFlags(left, right, k1, kn));
+        } else {
+            ForkJoinPool.commonPool().invoke(
+                new DoubleSelectTask(a, left, right, keys, dualPivotFlags(left, right, k1, kn)));
+        }
         return count;
     }
 
+    /**
+     * Sort the array.
+     *
+     * <p>This is a dual-pivot introsort using the partitioning of
+     * {@link #dualPivotQuickSelect(double[], int, int, UpdatingInterval, int)} with all
+     * indices in the range. Excess recursion will trigger use of a heapsort
+     * on the remaining range.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     */
+    static void sort(double[] a, int left, int right) {
+        if (right - left < DP_SORTSELECT_SIZE) {
+            Sorting.sort(a, left, right);
+        } else {
+            dualPivotQuickSelect(a, left, right, new RangeUpdatingInterval(left, right),
+                dualPivotFlags(left, right, left, right));
+        }
+    }
+
+    /**
+     * Sort the array.
+     *
+     * <p>Regions of the data are sorted concurrently using the
+     * {@link ForkJoinPool#commonPool() common pool}.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @see #sort(double[], int, int)
+     */
+    static void parallelSort(double[] a, int left, int right) {
+        if (right - left < MIN_PARALLEL_SIZE) {
+            sort(a, left, right);
+        } else {
+            ForkJoinPool.commonPool().invoke(
+                new DoubleSelectTask(a, left, right, new RangeUpdatingInterval(left, right),
+                    dualPivotFlags(left, right, left, right)));
+        }
+    }
+
+    /**
+     * Partition the array such that the {@code k} largest values are at the end of the
+     * range and sorted in ascending order. It is assumed {@code 0 < k <= right - left + 1}.
+     *
+     * <p>A small number of values relative to the length is selected using a heap select;
+     * otherwise the range is partitioned at the smallest of the {@code k} values using
+     * Floyd-Rivest sampling and the remaining values are sorted.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param k Number of values.
+     */
+    static void selectTop(double[] a, int left, int right, int k) {
+        final int ka = right - k + 1;
+        if (k <= TOP_HEAPSELECT_SIZE && k <= (right - left + 1) >>> 2) {
+            heapSelectRight(a, left, right, ka, right);
+        } else {
+            if (ka > left) {
+                quickSelectAdaptive(a, left, right, ka, ka, new int[1], MODE_FR_SAMPLING);
+            }
+            sort(a, ka, right);
+        }
+    }
+
+    /**
+     * Partition the array such that the {@code k} smallest values are at the start of the
+     * range and sorted in ascending order. It is assumed {@code 0 < k <= right - left + 1}.
+     *
+     * <p>A small number of values relative to the length is selected using a heap select;
+     * otherwise the range is partitioned at the largest of the {@code k} values using
+     * Floyd-Rivest sampling and the remaining values are sorted.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param k Number of values.
+     */
+    static void selectBottom(double[] a, int left, int right, int k) {
+        final int kb = left + k - 1;
+        if (k <= TOP_HEAPSELECT_SIZE && k <= (right - left + 1) >>> 2) {
+            heapSelectLeft(a, left, right, left, kb);
+        } else {
+            if (kb < right) {
+                quickSelectAdaptive(a, left, right, kb, kb, new int[1], MODE_FR_SAMPLING);
+            }
+            sort(a, left, kb);
+        }
+    }
+
     /**
      * Partition the array such that indices {@code k} correspond to their
      * correctly sorted value in the equivalent fully sorted array.
@@ -1145,6 +1438,23 @@ final class QuickSelect {
         return p0;
     }
 
+    /**
+     * Partition the array such that indices {@code k} correspond to their
+     * correctly sorted value in the equivalent fully sorted array.
+     *
+     * <p>See {@link #dualPivotQuickSelect(double[], int, int, UpdatingInterval, int, int[])}.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive, assumed to be strictly positive).
+     * @param right Upper bound of data (inclusive, assumed to be strictly positive).
+     * @param k Interval of indices to partition (ordered).
+     * @param flags Control flags.
+     */
+    // package-private for testing
+    static void dualPivotQuickSelect(double[] a, int left, int right, UpdatingInterval k, int flags) {
+        dualPivotQuickSelect(a, left, right, k, flags, new int[3]);
+    }
+
     /**
      * Partition the array such that indices {@code k} correspond to their
      * correctly sorted value in the equivalent fully sorted array.
@@ -1172,9 +1482,11 @@ final class QuickSelect {
      * @param right Upper bound of data (inclusive, assumed to be strictly positive).
      * @param k Interval of indices to partition (ordered).
      * @param flags Control flags.
+     * @param upper Upper bounds of the partition (length at least 3). This is used as
+     * scratch space and is shared with recursive calls.
      */
-    // package-private for testing
-    static void dualPivotQuickSelect(double[] a, int left, int right, UpdatingInterval k, int flags) {
+    static void dualPivotQuickSelect(double[] a, int left, int right, UpdatingInterval k, int flags,
+        int[] upper) {
         // If partitioning splits the interval then recursion is used for the left-most side(s)
         // and the right-most side remains within this function. If partitioning does
         // not split the interval then it remains within this function.
@@ -1183,7 +1495,6 @@ final class QuickSelect {
         int f = flags;
         int ka = k.left();
         int kb = k.right();
-        final int[] upper = {0, 0, 0};
         while (true) {
             // Select when ka and kb are close to the same end,
             // or the entire range is small
@@ -1208,6 +1519,8 @@ final class QuickSelect {
             // Dual-pivot partitioning
             final int p0 = partition(a, l, r, upper);
             final int p1 = upper[0];
+            final int p2 = upper[1];
+            final int p3 = upper[2];
 
             // Recursion to max depth
             // Note: Here we possibly branch left, middle and right with multiple keys.
@@ -1227,7 +1540,7 @@ final class QuickSelect {
                     }
                     continue;
                 }
-                dualPivotQuickSelect(a, l, p0 - 1, k.splitLeft(p0, p1), f);
+                dualPivotQuickSelect(a, l, p0 - 1, k.splitLeft(p0, p1), f, upper);
                 // Here we must process middle and/or right
                 ka = k.left();
             } else if (kb <= p1) {
@@ -1238,8 +1551,6 @@ final class QuickSelect {
                 ka = k.updateLeft(p1 + 1);
             }
             // Recurse middle if required
-            final int p2 = upper[1];
-            final int p3 = upper[2];
             if (ka < p2) {
                 l = p1 + 1;
                 if (kb <= p3) {
@@ -1250,7 +1561,7 @@ final class QuickSelect {
                     }
                     continue;
                 }
-                dualPivotQuickSelect(a, l, p2 - 1, k.splitLeft(p2, p3), f);
+                dualPivotQuickSelect(a, l, p2 - 1, k.splitLeft(p2, p3), f, upper);
                 ka = k.left();
             } else if (kb <= p3) {
                 // No right side
@@ -1263,6 +1574,153 @@ final class QuickSelect {
         }
     }
 
+    /**
+     * Task to partition the array such that indices {@code k} correspond to their
+     * correctly sorted value in the equivalent fully sorted array.
+     *
+     * <p>This is a parallel variant of
+     * {@link #dualPivotQuickSelect(double[], int, int, UpdatingInterval, int)}. Regions
+     * containing indices that are split from the range are forked as new tasks if they are
+     * large enough; otherwise they are processed using the serial method. The task
+     * completes when all forked tasks have completed.
+     */
+    private static final class DoubleSelectTask extends RecursiveAction {
+        /** Serializable version identifier. */
+        private static final long serialVersionUID = 20261016L;
+
+        /** Values. */
+        private final double[] a;
+        /** Lower bound of data (inclusive). */
+        private final int left;
+        /** Upper bound of data (inclusive). */
+        private final int right;
+        /** Interval of indices to partition (ordered). */
+        private final transient UpdatingInterval k;
+        /** Control flags. */
+        private final int flags;
+        /** Previous task forked by the parent task (to be joined by the parent). */
+        private DoubleSelectTask next;
+
+        /**
+         * @param a Values.
+         * @param left Lower bound of data (inclusive).
+         * @param right Upper bound of data (inclusive).
+         * @param k Interval of indices to partition (ordered).
+         * @param flags Control flags.
+         */
+        DoubleSelectTask(double[] a, int left, int right, UpdatingInterval k, int flags) {
+            this.a = a;
+            this.left = left;
+            this.right = right;
+            this.k = k;
+            this.flags = flags;
+        }
+
+        @Override
+        protected void compute() {
+            // Forked tasks are stored as a stack (linked list) to be joined in reverse order
+            DoubleSelectTask forked = null;
+            int l = left;
+            int r = right;
+            int f = flags;
+            int ka = k.left();
+            int kb = k.right();
+            final int[] upper = {0, 0, 0};
+            while (true) {
+                // Use the serial method for small ranges, or when the current
+                // range can be finished using a single selection.
+                // Note: This matches the loop in the serial method but defers
+                // all terminal steps to the serial method.
+                if (r - l < MIN_PARALLEL_SIZE ||
+                    Math.min(kb - l, r - ka) < DP_SORTSELECT_SIZE ||
+                    kb - ka < DP_SORTSELECT_SIZE ||
+                    f < 0) {
+                    dualPivotQuickSelect(a, l, r, k, f);
+                    break;
+                }
+
+                // Dual-pivot partitioning
+                final int p0 = partition(a, l, r, upper);
+                final int p1 = upper[0];
+
+                // See the serial method for details of processing the regions
+                //                   p0 p1               p2 p3
+                // |l|--|ka|--k----k--|P|------k--|kb|----|P|----|r|
+                //                 kb  |      ka
+                f += RECURSION_INCREMENT;
+                // Fork left side if required
+                if (ka < p0) {
+                    if (kb <= p1) {
+                        // Entirely on left side
+                        r = p0 - 1;
+                        if (r < kb) {
+                            kb = k.updateRight(r);
+                        }
+                        continue;
+                    }
+                    forked = split(forked, l, p0 - 1, k.splitLeft(p0, p1), f);
+                    ka = k.left();
+                } else if (kb <= p1) {
+                    // No middle/right side
+                    break;
+                } else if (ka <= p1) {
+                    // Advance lower bound
+                    ka = k.updateLeft(p1 + 1);
+                }
+                // Fork middle if required
+                final int p2 = upper[1];
+                final int p3 = upper[2];
+                if (ka < p2) {
+                    l = p1 + 1;
+                    if (kb <= p3) {
+                        // Entirely in middle
+                        r = p2 - 1;
+                        if (r < kb) {
+                            kb = k.updateRight(r);
+                        }
+                        continue;
+                    }
+                    forked = split(forked, l, p2 - 1, k.splitLeft(p2, p3), f);
+                    ka = k.left();
+                } else if (kb <= p3) {
+                    // No right side
+                    break;
+                } else if (ka <= p3) {
+                    ka = k.updateLeft(p3 + 1);
+                }
+                // Continue right
+                l = p3 + 1;
+            }
+            // Wait for completion of the sub-tasks
+            for (DoubleSelectTask t = forked; t != null; t = t.next) {
+                t.join();
+            }
+        }
+
+        /**
+         * Process the range {@code [l, r]} containing the interval of indices {@code k}.
+         * The range is processed asynchronously as a forked task if it is large enough,
+         * otherwise it is processed immediately using the serial method.
+         *
+         * @param forked Previous forked task (can be null).
+         * @param l Lower bound of data (inclusive).
+         * @param r Upper bound of data (inclusive).
+         * @param keys Interval of indices to partition (ordered).
+         * @param f Control flags.
+         * @return the most recent forked task (can be null)
+         */
+        private DoubleSelectTask split(DoubleSelectTask forked, int l, int r, UpdatingInterval keys, int f) {
+            if (r - l < MIN_PARALLEL_SIZE) {
+                dualPivotQuickSelect(a, l, r, keys, f);
+                return forked;
+            }
+            final DoubleSelectTask t = new DoubleSelectTask(a, l, r, keys, f);
+            t.next = forked;
+            t.fork();
+            return t;
+        }
+    }
+
     /**
      * Partition an array slice around 2 pivots. Partitioning exchanges array elements
      * such that all elements smaller than pivot are before it and all elements larger
@@ -1472,7 +1930,7 @@ final class QuickSelect {
      * @param ka Lower index to select.
      * @param kb Upper index to select.
      */
-    static void heapSelect(int[] a, int left, int right, int ka, int kb) {
+    static void heapSelect(float[] a, int left, int right, int ka, int kb) {
         if (right <= left) {
             return;
         }
@@ -1497,7 +1955,7 @@ final class QuickSelect {
      * @param ka Lower index to select.
      * @param kb Upper index to select.
      */
-    static void heapSelectLeft(int[] a, int left, int right, int ka, int kb) {
+    static void heapSelectLeft(float[] a, int left, int right, int ka, int kb) {
         // Create a max heap in-place in [left, k], rooted at a[left] = max
         // |l|-max-heap-|k|--------------|
         // Build the heap using Floyd's heap-construction algorithm for heap size n.
@@ -1509,9 +1967,9 @@ final class QuickSelect {
         }
         // Scan the remaining data and insert
         // Mitigate worst case performance on descending data by backward sweep
-        int max = a[left];
+        float max = a[left];
         for (int i = right; i > kb; i--) {
-            final int v = a[i];
+            final float v = a[i];
             if (v < max) {
                 a[i] = max;
                 maxHeapSiftDown(a, v, left, left, end);
@@ -1541,7 +1999,7 @@ final class QuickSelect {
      * @param root Root of the heap.
      * @param end End of the heap (exclusive).
      */
-    private static void maxHeapSiftDown(int[] a, int v, int p, int root, int end) {
+    private static void maxHeapSiftDown(float[] a, float v, int p, int root, int end) {
         // child2 = root + 2 * (parent - root) + 2
         //        = 2 * parent - root + 2
         while (true) {
@@ -1579,7 +2037,7 @@ final class QuickSelect {
      * @param ka Lower index to select.
      * @param kb Upper index to select.
      */
-    static void heapSelectRight(int[] a, int left, int right, int ka, int kb) {
+    static void heapSelectRight(float[] a, int left, int right, int ka, int kb) {
         // Create a min heap in-place in [k, right], rooted at a[right] = min
         // |--------------|k|-min-heap-|r|
         // Build the heap using Floyd's heap-construction algorithm for heap size n.
@@ -1591,9 +2049,9 @@ final class QuickSelect {
         }
         // Scan the remaining data and insert
         // Mitigate worst case performance on descending data by backward sweep
-        int min = a[right];
+        float min = a[right];
         for (int i = left; i < ka; i++) {
-            final int v = a[i];
+            final float v = a[i];
             if (v > min) {
                 a[i] = min;
                 minHeapSiftDown(a, v, right, right, end);
@@ -1623,7 +2081,7 @@ final class QuickSelect {
      * @param root Root of the heap.
      * @param end End of the heap (exclusive).
      */
-    private static void minHeapSiftDown(int[] a, int v, int p, int root, int end) {
+    private static void minHeapSiftDown(float[] a, float v, int p, int root, int end) {
         // child2 = root - 2 * (root - parent) - 2
         //        = 2 * parent - root - 2
         while (true) {
@@ -1658,7 +2116,7 @@ final class QuickSelect {
      * @param ka Lower index to select.
      * @param kb Upper index to select.
      */
-    static void sortSelect(int[] a, int left, int right, int ka, int kb) {
+    static void sortSelect(float[] a, int left, int right, int ka, int kb) {
         // Combine the test for right <= left with
         // avoiding the overhead of sort select on tiny data.
         if (right - left <= MIN_SORTSELECT_SIZE) {
@@ -1689,10 +2147,10 @@ final class QuickSelect {
      * @param right Upper bound (inclusive).
      * @param k Index to select.
      */
-    static void sortSelectLeft(int[] a, int left, int right, int k) {
+    static void sortSelectLeft(float[] a, int left, int right, int k) {
         // Sort
         for (int i = left; ++i <= k;) {
-            final int v = a[i];
+            final float v = a[i];
             // Move preceding higher elements above (if required)
             if (v < a[i - 1]) {
                 int j = i;
@@ -1704,9 +2162,9 @@ final class QuickSelect {
         }
         // Scan the remaining data and insert
         // Mitigate worst case performance on descending data by backward sweep
-        int m = a[k];
+        float m = a[k];
         for (int i = right; i > k; i--) {
-            final int v = a[i];
+            final float v = a[i];
             if (v < m) {
                 a[i] = m;
                 int j = k;
@@ -1735,10 +2193,10 @@ final class QuickSelect {
      * @param right Upper bound (inclusive).
      * @param k Index to select.
      */
-    static void sortSelectRight(int[] a, int left, int right, int k) {
+    static void sortSelectRight(float[] a, int left, int right, int k) {
         // Sort
         for (int i = right; --i >= k;) {
-            final int v = a[i];
+            final float v = a[i];
             // Move succeeding lower elements below (if required)
             if (v > a[i + 1]) {
                 int j = i;
@@ -1750,9 +2208,9 @@ final class QuickSelect {
         }
         // Scan the remaining data and insert
         // Mitigate worst case performance on descending data by backward sweep
-        int m = a[k];
+        float m = a[k];
         for (int i = left; i < k; i++) {
-            final int v = a[i];
+            final float v = a[i];
             if (v > m) {
                 a[i] = m;
                 int j = k;
@@ -1776,33 +2234,3192 @@ final class QuickSelect {
      * @param right Upper bound of data (inclusive).
      * @param k Index.
      */
-    static void select(int[] a, int left, int right, int k) {
+    static void select(float[] a, int left, int right, int k) {
+        if (presorted(a, left, right)) {
+            return;
+        }
         quickSelectAdaptive(a, left, right, k, k, new int[1], MODE_FR_SAMPLING);
     }
 
     /**
-     * Partition the array such that indices {@code k} correspond to their correctly
-     * sorted value in the equivalent fully sorted array.
+     * Test if the data is already sorted. Data in descending order is reversed.
      *
-     * <p>The count of the number of used indices is returned. If the keys are sorted in-place,
-     * the count is returned as a negative.
+     * <p>This scans the initial run of the data; selection is not required if the
+     * run covers the entire range. A short unsorted tail after the run is sorted and
+     * merged into the run; this handles sorted data with a few values appended.
+     * A sample of points is tested before the scan; the scan is skipped if the sample
+     * is not ordered as the run cannot reach the tail. This avoids the cost of
+     * scanning the first run of data composed of multiple sorted runs.
      *
      * @param a Values.
      * @param left Lower bound of data (inclusive).
      * @param right Upper bound of data (inclusive).
-     * @param k Indices (may be destructively modified).
-     * @param n Count of indices.
+     * @return true if the data is sorted
      */
-    static void select(int[] a, int left, int right, int[] k, int n) {
-        if (n == 1) {
-            quickSelectAdaptive(a, left, right, k[0], k[0], new int[1], MODE_FR_SAMPLING);
-            return;
+    static boolean presorted(float[] a, int left, int right) {
+        // Test a sample of points before the tail. If the sample is not ordered
+        // then the initial run cannot reach the tail.
+        final int step = (right - left) >>> 3;
+        if (step != 0) {
+            boolean up = false;
+            boolean down = false;
+            for (int j = left, end = left + 7 * step; j < end; j += step) {
+                up |= a[j] < a[j + step];
+                down |= a[j] > a[j + step];
+            }
+            if (up && down) {
+                return false;
+            }
         }
-
-        // Interval creation validates the indices are in [left, right]
-        final UpdatingInterval keys = IndexSupport.createUpdatingInterval(k, n);
-
-        // Note: If the keys are not separated then they are effectively a single key.
+        int i = left;
+        // Ascending run
+        while (i < right && a[i] <= a[i + 1]) {
+            i++;
+        }
+        if (i == right) {
+            return true;
+        }
+        final int tail = Math.min(PRESORTED_TAIL, (right - left) >>> 4);
+        if (i == left) {
+            // Descending run
+            do {
+                i++;
+            } while (i < right && a[i] >= a[i + 1]);
+            if (right - i <= tail) {
+                // Reverse
+                for (int j = left - 1, k = i + 1; ++j < --k;) {
+                    final float v = a[j];
+                    a[j] = a[k];
+                    a[k] = v;
+                }
+            }
+        }
+        if (right - i > tail) {
+            return false;
+        }
+        if (i < right) {
+            mergeTail(a, left, i, right);
+        }
+        return true;
+    }
+
+    /**
+     * Sort the data given an initial sorted run. The tail after the run is sorted
+     * and merged into the run from the end. Each tail value is inserted using a binary
+     * search of the run; the run is moved in blocks and each element moves at most once.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param end Upper bound of the sorted run (inclusive).
+     * @param right Upper bound of data (inclusive).
+     */
+    private static void mergeTail(float[] a, int left, int end, int right) {
+        Sorting.sort(a, end + 1, right);
+        final float[] b = Arrays.copyOfRange(a, end + 1, right + 1);
+        // Unmerged run is [left, i]; positions (i, i + j + 1] are free for b[0, j]
+        int i = end;
+        for (int j = b.length - 1; j >= 0; j--) {
+            final float v = b[j];
+            // First position in the run above v
+            int lo = left;
+            int hi = i + 1;
+            while (lo < hi) {
+                final int m = (lo + hi) >>> 1;
+                if (a[m] > v) {
+                    hi = m;
+                } else {
+                    lo = m + 1;
+                }
+            }
+            System.arraycopy(a, lo, a, lo + j + 1, i - lo + 1);
+            a[lo + j] = v;
+            i = lo - 1;
+        }
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>The count of the number of used indices is returned. If the keys are sorted in-place,
+     * the count is returned as a negative.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param k Indices (may be destructively modified).
+     * @param n Count of indices.
+     * @return the count of used indices
+     */
+    static int select(float[] a, int left, int right, int[] k, int n) {
+        if (n < 1) {
+            return 0;
+        }
+        if (presorted(a, left, right)) {
+            // Indices are not used
+            return n;
+        }
+        if (n == 1) {
+            quickSelectAdaptive(a, left, right, k[0], k[0], new int[1], MODE_FR_SAMPLING);
+            return -1;
+        }
+
+        // Interval creation validates the indices are in [left, right]
+        final UpdatingInterval keys = IndexSupport.createUpdatingInterval(k, n);
+
+        // Save number of used indices
+        final int count = IndexSupport.countIndices(keys, n);
+
+        // Note: If the keys are not separated then they are effectively a single key.
+        // Any split of keys separated by the sort select size
+        // will be finished on the next iteration.
+        final int k1 = keys.left();
+        final int kn = keys.right();
+        if (kn - k1 < DP_SORTSELECT_SIZE) {
+            quickSelectAdaptive(a, left, right, k1, kn, new int[1], MODE_FR_SAMPLING);
+        } else {
+            // Dual-pivot mode with small range sort length configured using index density
+            dualPivotQuickSelect(a, left, right, keys, dualPivotFlags(left, right, k1, kn));
+        }
+        return count;
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their
+     * correctly sorted value in the equivalent fully sorted array.
+     *
+     * <p>For all indices {@code [ka, kb]} and any index {@code i}:
+     *
+     * <pre>{@code
+     * data[i < ka] <= data[ka] <= data[kb] <= data[kb < i]
+     * }</pre>
+     *
+     * <p>This function accepts indices {@code [ka, kb]} that define the
+     * range of indices to partition. It is expected that the range is small.
+     *
+     * <p>The {@code flags} are used to control the sampling mode and adaption of
+     * the index within the sample.
+     *
+     * <p>Returns the bounds containing {@code [ka, kb]}. These may be lower/higher
+     * than the keys if equal values are present in the data.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive, assumed to be strictly positive).
+     * @param right Upper bound of data (inclusive, assumed to be strictly positive).
+     * @param ka First key of interest.
+     * @param kb Last key of interest.
+     * @param bounds Upper bound of the range containing {@code [ka, kb]} (inclusive).
+     * @param flags Adaption flags.
+     * @return Lower bound of the range containing {@code [ka, kb]} (inclusive).
+     */
+    static int quickSelectAdaptive(float[] a, int left, int right, int ka, int kb,
+            int[] bounds, int flags) {
+        int l = left;
+        int r = right;
+        int m = flags;
+        while (true) {
+            // Select when ka and kb are close to the same end
+            // |l|-----|ka|kkkkkkkk|kb|------|r|
+            if (Math.min(kb - l, r - ka) < LINEAR_SORTSELECT_SIZE) {
+                sortSelect(a, l, r, ka, kb);
+                bounds[0] = kb;
+                return ka;
+            }
+
+            // Only target ka; kb is assumed to be close
+            int p0;
+            final int n = r - l;
+            // f in [0, 1]
+            final double f = (double) (ka - l) / n;
+            // Record the larger margin (start at 1/4) to create the estimated size.
+            // step        L     R
+            // far left    1/12  1/3   (use 1/4 + 1/32 + 1/64 ~ 0.328)
+            // left        1/6   1/4
+            // middle      2/9   2/9   (use 1/4 - 1/32 ~ 0.219)
+            int margin = n >> 2;
+            if (m < MODE_SAMPLING && r - l > FR_SAMPLING_SIZE) {
+                // Floyd-Rivest sample step uses the same margins
+                p0 = sampleStep(a, l, r, ka, bounds);
+                if (f <= STEP_FAR_LEFT || f >= STEP_FAR_RIGHT) {
+                    margin += (n >> 5) + (n >> 6);
+                } else if (f > STEP_LEFT && f < STEP_RIGHT) {
+                    margin -= n >> 5;
+                }
+            } else if (f <= STEP_LEFT) {
+                if (f <= STEP_FAR_LEFT) {
+                    margin += (n >> 5) + (n >> 6);
+                    p0 = repeatedStepFarLeft(a, l, r, ka, bounds, m);
+                } else {
+                    p0 = repeatedStepLeft(a, l, r, ka, bounds, m);
+                }
+            } else if (f >= STEP_RIGHT) {
+                if (f >= STEP_FAR_RIGHT) {
+                    margin += (n >> 5) + (n >> 6);
+                    p0 = repeatedStepFarRight(a, l, r, ka, bounds, m);
+                } else {
+                    p0 = repeatedStepRight(a, l, r, ka, bounds, m);
+                }
+            } else {
+                margin -= n >> 5;
+                p0 = repeatedStep(a, l, r, ka, bounds, m);
+            }
+
+            // Note: Here we expect [ka, kb] to be small and splitting is unlikely.
+            //                   p0 p1
+            // |l|--|ka|kkkk|kb|--|P|-------------------|r|
+            // |l|----------------|P|--|ka|kkk|kb|------|r|
+            // |l|-----------|ka|k|P|k|kb|--------------|r|
+            final int p1 = bounds[0];
+            if (kb < p0) {
+                // Entirely on left side
+                r = p0 - 1;
+            } else if (ka > p1) {
+                // Entirely on right side
+                l = p1 + 1;
+            } else {
+                // Pivot splits [ka, kb]. Expect ends to be close to the pivot and finish.
+                // Here we set the bounds for use after median-of-medians pivot selection.
+                // In the event there are many equal values this allows collecting those
+                // known to be equal together when moving around the medians sample.
+                if (kb > p1) {
+                    sortSelectLeft(a, p1 + 1, r, kb);
+                    bounds[0] = kb;
+                }
+                if (ka < p0) {
+                    sortSelectRight(a, l, p0 - 1, ka);
+                    p0 = ka;
+                }
+                return p0;
+            }
+            // Update mode based on target partition size
+            if (r - l > n - margin) {
+                m++;
+            }
+        }
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Partitions a Floyd-Rivest sample around a pivot offset so that the input {@code k} will
+     * fall in the smaller partition when the entire range is partitioned.
+     *
+     * <p>Assumes the range {@code r - l} is large.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int sampleStep(float[] a, int l, int r, int k, int[] upper) {
+        // Floyd-Rivest: use SELECT recursively on a sample of size S to get an estimate
+        // for the (k-l+1)-th smallest element into a[k], biased slightly so that the
+        // (k-l+1)-th element is expected to lie in the smaller set after partitioning.
+        final int n = r - l + 1;
+        final int ith = k - l + 1;
+        final double z = Math.log(n);
+        // sample size = 0.5 * n^(2/3)
+        final double s = 0.5 * Math.exp(0.6666666666666666 * z);
+        final double sd = 0.5 * Math.sqrt(z * s * (n - s) / n) * Integer.signum(ith - (n >> 1));
+        final int ll = Math.max(l, (int) (k - ith * s / n + sd));
+        final int rr = Math.min(r, (int) (k + (n - ith) * s / n + sd));
+        // Sample recursion restarts from [ll, rr]
+        final int p = quickSelectAdaptive(a, ll, rr, k, k, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, ll, rr, p, upper[0], upper);
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Assumes the range {@code r - l >= 8}; the caller is responsible for selection on a smaller
+     * range. If using a 12th-tile for sampling then assumes {@code r - l >= 11}.
+     *
+     * <p>Uses the Chen and Dumitrescu repeated step median-of-medians-of-medians algorithm
+     * with the median of 3 then median of 3; the final sample is placed in the
+     * 5th 9th-tile; the pivot chosen from the sample is adaptive using the input {@code k}.
+     *
+     * <p>Given a pivot in the middle of the sample this has margins of 2/9 and 2/9.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @param flags Control flags.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int repeatedStep(float[] a, int l, int r, int k, int[] upper, int flags) {
+        // Adapted from Alexandrescu (2016), algorithm 8.
+        final int fp;
+        final int s;
+        int p;
+        if (flags <= MODE_SAMPLING) {
+            // Median into a 12th-tile
+            fp = (r - l + 1) / 12;
+            // Position the sample around the target k
+            s = k - mapDistance(k - l, l, r, fp);
+            p = k;
+        } else {
+            // i in tertile [3f':6f')
+            fp = (r - l + 1) / 9;
+            final int f3 = 3 * fp;
+            final int end = l + (f3 << 1);
+            for (int i = l + f3; i < end; i++) {
+                Sorting.sort3(a, i - f3, i, i + f3);
+            }
+            // 5th 9th-tile: [4f':5f')
+            s = l + (fp << 2);
+            // No adaption uses the middle to enforce strict margins
+            p = s + (flags == MODE_ADAPTION ? mapDistance(k - l, l, r, fp) : (fp >>> 1));
+        }
+        final int e = s + fp - 1;
+        for (int i = s; i <= e; i++) {
+            Sorting.sort3(a, i - fp, i, i + fp);
+        }
+        p = quickSelectAdaptive(a, s, e, p, p, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, s, e, p, upper[0], upper);
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Assumes the range {@code r - l >= 11}; the caller is responsible for selection on a smaller
+     * range.
+     *
+     * <p>Uses the Chen and Dumitrescu repeated step median-of-medians-of-medians algorithm
+     * with the lower median of 4 then either median of 3 with the final sample placed in the
+     * 5th 12th-tile, or min of 3 with the final sample in the 4th 12th-tile;
+     * the pivot chosen from the sample is adaptive using the input {@code k}.
+     *
+     * <p>Given a pivot in the middle of the sample this has margins of 1/6 and 1/4.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @param flags Control flags.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int repeatedStepLeft(float[] a, int l, int r, int k, int[] upper, int flags) {
+        // Adapted from Alexandrescu (2016), algorithm 9.
+        final int fp;
+        final int s;
+        int p;
+        if (flags <= MODE_SAMPLING) {
+            // Median into a 12th-tile
+            fp = (r - l + 1) / 12;
+            // Position the sample around the target k
+            // Avoid bounds error due to rounding as (k-l)/(r-l) -> 1/12
+            s = Math.max(k - mapDistance(k - l, l, r, fp), l + fp);
+            p = k;
+        } else {
+            // i in 2nd quartile
+            final int f = (r - l + 1) >> 2;
+            final int f2 = f + f;
+            final int end = l + f2;
+            for (int i = l + f; i < end; i++) {
+                Sorting.lowerMedian4(a, i - f, i, i + f, i + f2);
+            }
+            // i in 5th 12th-tile
+            fp = f / 3;
+            s = l + f + fp;
+            // No adaption uses the middle to enforce strict margins
+            p = s + (flags == MODE_ADAPTION ? mapDistance(k - l, l, r, fp) : (fp >>> 1));
+        }
+        final int e = s + fp - 1;
+        for (int i = s; i <= e; i++) {
+            Sorting.sort3(a, i - fp, i, i + fp);
+        }
+        p = quickSelectAdaptive(a, s, e, p, p, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, s, e, p, upper[0], upper);
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Assumes the range {@code r - l >= 11}; the caller is responsible for selection on a smaller
+     * range.
+     *
+     * <p>Uses the Chen and Dumitrescu repeated step median-of-medians-of-medians algorithm
+     * with the upper median of 4 then either median of 3 with the final sample placed in the
+     * 8th 12th-tile, or max of 3 with the final sample in the 9th 12th-tile;
+     * the pivot chosen from the sample is adaptive using the input {@code k}.
+     *
+     * <p>Given a pivot in the middle of the sample this has margins of 1/4 and 1/6.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @param flags Control flags.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int repeatedStepRight(float[] a, int l, int r, int k, int[] upper, int flags) {
+        // Mirror image repeatedStepLeft using upper median into 3rd quartile
+        final int fp;
+        final int e;
+        int p;
+        if (flags <= MODE_SAMPLING) {
+            // Median into a 12th-tile
+            fp = (r - l + 1) / 12;
+            // Position the sample around the target k
+            // Avoid bounds error due to rounding as (r-k)/(r-l) -> 11/12
+            e = Math.min(k + mapDistance(r - k, l, r, fp), r - fp);
+            p = k;
+        } else {
+            // i in 3rd quartile
+            final int f = (r - l + 1) >> 2;
+            final int f2 = f + f;
+            final int end = r - f2;
+            for (int i = r - f; i > end; i--) {
+                Sorting.upperMedian4(a, i - f2, i - f, i, i + f);
+            }
+            // i in 8th 12th-tile
+            fp = f / 3;
+            e = r - f - fp;
+            // No adaption uses the middle to enforce strict margins
+            p = e - (flags == MODE_ADAPTION ? mapDistance(r - k, l, r, fp) : (fp >>> 1));
+        }
+        final int s = e - fp + 1;
+        for (int i = s; i <= e; i++) {
+            Sorting.sort3(a, i - fp, i, i + fp);
+        }
+        p = quickSelectAdaptive(a, s, e, p, p, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, s, e, p, upper[0], upper);
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Assumes the range {@code r - l >= 11}; the caller is responsible for selection on a smaller
+     * range.
+     *
+     * <p>Uses the Chen and Dumitrescu repeated step median-of-medians-of-medians algorithm
+     * with the minimum of 4 then median of 3; the final sample is placed in the
+     * 2nd 12th-tile; the pivot chosen from the sample is adaptive using the input {@code k}.
+     *
+     * <p>Given a pivot in the middle of the sample this has margins of 1/12 and 1/3.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @param flags Control flags.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int repeatedStepFarLeft(float[] a, int l, int r, int k, int[] upper, int flags) {
+        // Far step has been changed from the Alexandrescu (2016) step of lower-median-of-4, min-of-3
+        // into the 4th 12th-tile to a min-of-4, median-of-3 into the 2nd 12th-tile.
+        // The differences are:
+        // - The upper margin when not sampling is 8/24 vs. 9/24; the lower margin remains at 1/12.
+        // - The position of the sample is closer to the expected location of k < |A| / 12.
+        // - Sampling mode uses a median-of-3 with adaptive k, matching the other step methods.
+        //   A min-of-3 sample can create a pivot too small if used with adaption of k leaving
+        //   k in the larger parition and a wasted iteration.
+        // - Adaption is adjusted to force use of the lower margin when not sampling.
+        final int fp;
+        final int s;
+        int p;
+        if (flags <= MODE_SAMPLING) {
+            // 2nd 12th-tile
+            fp = (r - l + 1) / 12;
+            s = l + fp;
+            // Use adaption
+            p = s + mapDistance(k - l, l, r, fp);
+        } else {
+            // i in 2nd quartile; min into i-f (1st quartile)
+            final int f = (r - l + 1) >> 2;
+            final int f2 = f + f;
+            final int end = l + f2;
+            for (int i = l + f; i < end; i++) {
+                if (a[i + f] < a[i - f]) {
+                    final float u = a[i + f];
+                    a[i + f] = a[i - f];
+                    a[i - f] = u;
+                }
+                if (a[i + f2] < a[i]) {
+                    final float v = a[i + f2];
+                    a[i + f2] = a[i];
+                    a[i] = v;
+                }
+                if (a[i] < a[i - f]) {
+                    final float u = a[i];
+                    a[i] = a[i - f];
+                    a[i - f] = u;
+                }
+            }
+            // 2nd 12th-tile
+            fp = f / 3;
+            s = l + fp;
+            // Lower margin has 2(d+1) elements; d == (position in sample) - s
+            // Force k into the lower margin
+            p = s + ((k - l) >>> 1);
+        }
+        final int e = s + fp - 1;
+        for (int i = s; i <= e; i++) {
+            Sorting.sort3(a, i - fp, i, i + fp);
+        }
+        p = quickSelectAdaptive(a, s, e, p, p, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, s, e, p, upper[0], upper);
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Assumes the range {@code r - l >= 11}; the caller is responsible for selection on a smaller
+     * range.
+     *
+     * <p>Uses the Chen and Dumitrescu repeated step median-of-medians-of-medians algorithm
+     * with the maximum of 4 then median of 3; the final sample is placed in the
+     * 11th 12th-tile; the pivot chosen from the sample is adaptive using the input {@code k}.
+     *
+     * <p>Given a pivot in the middle of the sample this has margins of 1/3 and 1/12.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @param flags Control flags.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int repeatedStepFarRight(float[] a, int l, int r, int k, int[] upper, int flags) {
+        // Mirror image repeatedStepFarLeft
+        final int fp;
+        final int e;
+        int p;
+        if (flags <= MODE_SAMPLING) {
+            // 11th 12th-tile
+            fp = (r - l + 1) / 12;
+            e = r - fp;
+            // Use adaption
+            p = e - mapDistance(r - k, l, r, fp);
+        } else {
+            // i in 3rd quartile; max into i+f (4th quartile)
+            final int f = (r - l + 1) >> 2;
+            final int f2 = f + f;
+            final int end = r - f2;
+            for (int i = r - f; i > end; i--) {
+                if (a[i - f] > a[i + f]) {
+                    final float u = a[i - f];
+                    a[i - f] = a[i + f];
+                    a[i + f] = u;
+                }
+                if (a[i - f2] > a[i]) {
+                    final float v = a[i - f2];
+                    a[i - f2] = a[i];
+                    a[i] = v;
+                }
+                if (a[i] > a[i + f]) {
+                    final float u = a[i];
+                    a[i] = a[i + f];
+                    a[i + f] = u;
+                }
+            }
+            // 11th 12th-tile
+            fp = f / 3;
+            e = r - fp;
+            // Upper margin has 2(d+1) elements; d == e - (position in sample)
+            // Force k into the upper margin
+            p = e - ((r - k) >>> 1);
+        }
+        final int s = e - fp + 1;
+        for (int i = s; i <= e; i++) {
+            Sorting.sort3(a, i - fp, i, i + fp);
+        }
+        p = quickSelectAdaptive(a, s, e, p, p, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, s, e, p, upper[0], upper);
+    }
+
+    /**
+     * Expand a partition around a single pivot. Partitioning exchanges array
+     * elements such that all elements smaller than pivot are before it and all
+     * elements larger than pivot are after it. The central region is already
+     * partitioned.
+     *
+     * <pre>{@code
+     * |l             |s   |p0 p1|   e|                r|
+     * |    ???       | <P | ==P | >P |        ???      |
+     * }</pre>
+     *
+     * <p>This requires that {@code start != end}. However it handles
+     * {@code left == start} and/or {@code end == right}.
+     *
+     * @param a Data array.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param start Start of the partition range (inclusive).
+     * @param end End of the partitioned range (inclusive).
+     * @param pivot0 Lower pivot location (inclusive).
+     * @param pivot1 Upper pivot location (inclusive).
+     * @param upper Upper bound (inclusive) of the pivot range [k1].
+     * @return Lower bound (inclusive) of the pivot range [k0].
+     */
+    // package-private for testing
+    static int expandPartition(float[] a, int left, int right, int start, int end,
+        int pivot0, int pivot1, int[] upper) {
+        // 3-way partition of the data using a pivot value into
+        // less-than, equal or greater-than.
+        // Based on Sedgewick's Bentley-McIroy partitioning: always swap i<->j then
+        // check for equal to the pivot and move again.
+        //
+        // Move sentinels from start and end to left and right. Scan towards the
+        // sentinels until >=,<=. Swap then move == to the pivot region.
+        //           <-i                           j->
+        // |l |        |            |p0  p1|       |             | r|
+        // |>=|   ???  |     <      |  ==  |   >   |     ???     |<=|
+        //
+        // When either i or j reach the edge perform finishing loop.
+        // Finish loop for a[j] <= v replaces j with p1+1, optionally moves value
+        // to p0 for < and updates the pivot range p1 (and optionally p0):
+        //                                             j->
+        // |l                       |p0  p1|           |         | r|
+        // |         <              |  ==  |       >   |   ???   |<=|
+
+        final float v = a[pivot0];
+        // Use start/end as sentinels (requires start != end)
+        float vi = a[start];
+        float vj = a[end];
+        a[start] = a[left];
+        a[end] = a[right];
+        a[left] = vj;
+        a[right] = vi;
+
+        int i = start + 1;
+        int j = end - 1;
+
+        // Positioned for pre-in/decrement to write to pivot region
+        int p0 = pivot0 == start ? i : pivot0;
+        int p1 = pivot1 == end ? j : pivot1;
+
+        while (true) {
+            do {
+                --i;
+            } while (a[i] < v);
+            do {
+                ++j;
+            } while (a[j] > v);
+            vj = a[i];
+            vi = a[j];
+            a[i] = vi;
+            a[j] = vj;
+            // Move the equal values to pivot region
+            if (vi == v) {
+                a[i] = a[--p0];
+                a[p0] = v;
+            }
+            if (vj == v) {
+                a[j] = a[++p1];
+                a[p1] = v;
+            }
+            // Termination check and finishing loops.
+            // Note: This works even if pivot region is zero length (p1 == p0-1 due to
+            // length 1 pivot region at either start/end) because we pre-inc/decrement
+            // one side and post-inc/decrement the other side.
+            if (i == left) {
+                while (j < right) {
+                    do {
+                        ++j;
+                    } while (a[j] > v);
+                    final float w = a[j];
+                    // Move upper bound of pivot region
+                    a[j] = a[++p1];
+                    a[p1] = v;
+                    // Move lower bound of pivot region
+                    if (w != v) {
+                        a[p0] = w;
+                        p0++;
+                    }
+                }
+                break;
+            }
+            if (j == right) {
+                while (i > left) {
+                    do {
+                        --i;
+                    } while (a[i] < v);
+                    final float w = a[i];
+                    // Move lower bound of pivot region
+                    a[i] = a[--p0];
+                    a[p0] = v;
+                    // Move upper bound of pivot region
+                    if (w != v) {
+                        a[p1] = w;
+                        p1--;
+                    }
+                }
+                break;
+            }
+        }
+
+        upper[0] = p1;
+        return p0;
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their
+     * correctly sorted value in the equivalent fully sorted array.
+     *
+     * <p>See {@link #dualPivotQuickSelect(float[], int, int, UpdatingInterval, int, int[])}.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive, assumed to be strictly positive).
+     * @param right Upper bound of data (inclusive, assumed to be strictly positive).
+     * @param k Interval of indices to partition (ordered).
+     * @param flags Control flags.
+     */
+    // package-private for testing
+    static void dualPivotQuickSelect(float[] a, int left, int right, UpdatingInterval k, int flags) {
+        dualPivotQuickSelect(a, left, right, k, flags, new int[3]);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their
+     * correctly sorted value in the equivalent fully sorted array.
+     *
+     * <p>For all indices {@code k} and any index {@code i}:
+     *
+     * <pre>{@code
+     * data[i < k] <= data[k] <= data[k < i]
+     * }</pre>
+     *
+     * <p>This function accepts a {@link UpdatingInterval} of indices {@code k} that define the
+     * range of indices to partition. The {@link UpdatingInterval} can be narrowed or split as
+     * partitioning divides the range.
+     *
+     * <p>Uses an introselect variant. The quickselect is a dual-pivot quicksort
+     * partition method by Vladimir Yaroslavskiy; the fall-back on poor convergence of
+     * the quickselect is a heapselect.
+     *
+     * <p>The {@code flags} contain the current recursion count and the configured
+     * length threshold for {@code r - l} to perform sort select. The count is in the upper
+     * bits and the threshold is in the lower bits.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive, assumed to be strictly positive).
+     * @param right Upper bound of data (inclusive, assumed to be strictly positive).
+     * @param k Interval of indices to partition (ordered).
+     * @param flags Control flags.
+     * @param upper Upper bounds of the partition (length at least 3). This is used as
+     * scratch space and is shared with recursive calls.
+     */
+    static void dualPivotQuickSelect(float[] a, int left, int right, UpdatingInterval k, int flags,
+        int[] upper) {
+        // If partitioning splits the interval then recursion is used for the left-most side(s)
+        // and the right-most side remains within this function. If partitioning does
+        // not split the interval then it remains within this function.
+        int l = left;
+        int r = right;
+        int f = flags;
+        int ka = k.left();
+        int kb = k.right();
+        while (true) {
+            // Select when ka and kb are close to the same end,
+            // or the entire range is small
+            // |l|-----|ka|--------|kb|------|r|
+            final int n = r - l;
+            if (Math.min(kb - l, r - ka) < DP_SORTSELECT_SIZE ||
+                n < (f & SORTSELECT_MASK)) {
+                sortSelect(a, l, r, ka, kb);
+                return;
+            }
+            if (kb - ka < DP_SORTSELECT_SIZE) {
+                // Switch to single-pivot mode with Floyd-Rivest sub-sampling
+                quickSelectAdaptive(a, l, r, ka, kb, upper, MODE_FR_SAMPLING);
+                return;
+            }
+            if (f < 0) {
+                // Excess recursion, switch to heap select
+                heapSelect(a, l, r, ka, kb);
+                return;
+            }
+
+            // Dual-pivot partitioning
+            final int p0 = partition(a, l, r, upper);
+            final int p1 = upper[0];
+            final int p2 = upper[1];
+            final int p3 = upper[2];
+
+            // Recursion to max depth
+            // Note: Here we possibly branch left, middle and right with multiple keys.
+            // It is possible that the partition has split the keys
+            // and the recursion proceeds with a reduced set in each region.
+            //                   p0 p1               p2 p3
+            // |l|--|ka|--k----k--|P|------k--|kb|----|P|----|r|
+            //                 kb  |      ka
+            f += RECURSION_INCREMENT;
+            // Recurse left side if required
+            if (ka < p0) {
+                if (kb <= p1) {
+                    // Entirely on left side
+                    r = p0 - 1;
+                    if (r < kb) {
+                        kb = k.updateRight(r);
+                    }
+                    continue;
+                }
+                dualPivotQuickSelect(a, l, p0 - 1, k.splitLeft(p0, p1), f, upper);
+                // Here we must process middle and/or right
+                ka = k.left();
+            } else if (kb <= p1) {
+                // No middle/right side
+                return;
+            } else if (ka <= p1) {
+                // Advance lower bound
+                ka = k.updateLeft(p1 + 1);
+            }
+            // Recurse middle if required
+            if (ka < p2) {
+                l = p1 + 1;
+                if (kb <= p3) {
+                    // Entirely in middle
+                    r = p2 - 1;
+                    if (r < kb) {
+                        kb = k.updateRight(r);
+                    }
+                    continue;
+                }
+                dualPivotQuickSelect(a, l, p2 - 1, k.splitLeft(p2, p3), f, upper);
+                ka = k.left();
+            } else if (kb <= p3) {
+                // No right side
+                return;
+            } else if (ka <= p3) {
+                ka = k.updateLeft(p3 + 1);
+            }
+            // Continue right
+            l = p3 + 1;
+        }
+    }
+
+    /**
+     * Partition an array slice around 2 pivots. Partitioning exchanges array elements
+     * such that all elements smaller than pivot are before it and all elements larger
+     * than pivot are after it.
+     *
+     * <p>This method returns 4 points describing the pivot ranges of equal values.
+     *
+     * <pre>{@code
+     *         |k0  k1|                |k2  k3|
+     * |   <P  | ==P1 |  <P1 && <P2    | ==P2 |   >P   |
+     * }</pre>
+     *
+     * <ul>
+     * <li>k0: lower pivot1 point</li>
+     * <li>k1: upper pivot1 point (inclusive)</li>
+     * <li>k2: lower pivot2 point</li>
+     * <li>k3: upper pivot2 point (inclusive)</li>
+     * </ul>
+     *
+     * <p>Bounds are set so {@code i < k0}, {@code i > k3} and {@code k1 < i < k2} are
+     * unsorted. When the range {@code [k0, k3]} contains fully sorted elements the result
+     * is set to {@code k1 = k3; k2 == k0}. This can occur if
+     * {@code P1 == P2} or there are zero or one value between the pivots
+     * {@code P1 < v < P2}. Any sort/partition of ranges [left, k0-1], [k1+1, k2-1] and
+     * [k3+1, right] must check the length is {@code > 1}.
+     *
+     * @param a Data array.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param bounds Points [k1, k2, k3].
+     * @return Lower bound (inclusive) of the pivot range [k0].
+     */
+    private static int partition(float[] a, int left, int right, int[] bounds) {
+        // Pick 2 pivots from 5 approximately uniform through the range.
+        // Spacing is ~ 1/7 made using shifts. Other strategies are equal or much
+        // worse. 1/7 = 5/35 ~ 1/8 + 1/64 : 0.1429 ~ 0.1406
+        // Ensure the value is above zero to choose different points!
+        final int n = right - left;
+        final int step = 1 + (n >>> 3) + (n >>> 6);
+        final int i3 = left + (n >>> 1);
+        final int i2 = i3 - step;
+        final int i1 = i2 - step;
+        final int i4 = i3 + step;
+        final int i5 = i4 + step;
+        Sorting.sort5(a, i1, i2, i3, i4, i5);
+
+        // Partition data using pivots P1 and P2 into less-than, greater-than or between.
+        // Pivot values P1 & P2 are placed at the end. If P1 < P2, P2 acts as a sentinel.
+        // k traverses the unknown region ??? and values moved if less-than or
+        // greater-than:
+        //
+        // left        less              k       great         right
+        // |P1|  <P1   |   P1 <= & <= P2 |    ???    |    >P2   |P2|
+        //
+        // <P1            (left, lt)
+        // P1 <= & <= P2  [lt, k)
+        // >P2            (gt, right)
+        //
+        // At the end pivots are swapped back to behind the less and great pointers.
+        //
+        // |  <P1        |P1|     P1<= & <= P2    |P2|      >P2    |
+
+        // Swap ends to the pivot locations.
+        final float v1 = a[i2];
+        a[i2] = a[left];
+        a[left] = v1;
+        final float v2 = a[i4];
+        a[i4] = a[right];
+        a[right] = v2;
+
+        // pointers
+        int less = left;
+        int great = right;
+
+        // Fast-forward ascending / descending runs to reduce swaps.
+        // Cannot overrun as end pivots (v1 <= v2) act as sentinels.
+        do {
+            ++less;
+        } while (a[less] < v1);
+        do {
+            --great;
+        } while (a[great] > v2);
+
+        // a[less - 1] < P1 : a[great + 1] > P2
+        // unvisited in [less, great]
+        SORTING:
+        for (int k = less; k <= great; k++) {
+            final float v = a[k];
+            if (v < v1) {
+                // swap(a, k, less++)
+                a[k] = a[less];
+                a[less] = v;
+                less++;
+            } else if (v > v2) {
+                // while k < great and a[great] > v2:
+                //   great--
+                while (a[great] > v2) {
+                    if (great-- == k) {
+                        // Done
+                        break SORTING;
+                    }
+                }
+                // swap(a, k, great--)
+                // if a[k] < v1:
+                //   swap(a, k, less++)
+                final float w = a[great];
+                a[great] = v;
+                great--;
+                // delay a[k] = w
+                if (w < v1) {
+                    a[k] = a[less];
+                    a[less] = w;
+                    less++;
+                } else {
+                    a[k] = w;
+                }
+            }
+        }
+
+        // Change to inclusive ends : a[less] < P1 : a[great] > P2
+        less--;
+        great++;
+        // Move the pivots to correct locations
+        a[left] = a[less];
+        a[less] = v1;
+        a[right] = a[great];
+        a[great] = v2;
+
+        // Record the pivot locations
+        final int lower = less;
+        bounds[2] = great;
+
+        // equal elements
+        // Original paper: If middle partition is bigger than a threshold
+        // then check for equal elements.
+
+        // Note: This is extra work. When performing partitioning the region of interest
+        // may be entirely above or below the central region and this can be skipped.
+
+        // Here we look for equal elements if the centre is more than 5/8 the length.
+        // 5/8 = 1/2 + 1/8. Pivots must be different.
+        if ((great - less) > (n >>> 1) + (n >>> 3) && v1 != v2) {
+
+            // Fast-forward to reduce swaps. Changes inclusive ends to exclusive ends.
+            // Since v1 != v2 these act as sentinels to prevent overrun.
+            do {
+                ++less;
+            } while (a[less] == v1);
+            do {
+                --great;
+            } while (a[great] == v2);
+
+            // This copies the logic in the sorting loop using == comparisons
+            EQUAL:
+            for (int k = less; k <= great; k++) {
+                final float v = a[k];
+                if (v == v1) {
+                    a[k] = a[less];
+                    a[less] = v;
+                    less++;
+                } else if (v == v2) {
+                    while (a[great] == v2) {
+                        if (great-- == k) {
+                            // Done
+                            break EQUAL;
+                        }
+                    }
+                    final float w = a[great];
+                    a[great] = v;
+                    great--;
+                    if (w == v1) {
+                        a[k] = a[less];
+                        a[less] = w;
+                        less++;
+                    } else {
+                        a[k] = w;
+                    }
+                }
+            }
+
+            // Change to inclusive ends
+            less--;
+            great++;
+        }
+
+        // Between pivots in (less, great)
+        if (v1 != v2 && less < great - 1) {
+            // Record the pivot end points
+            bounds[0] = less;
+            bounds[1] = great;
+        } else {
+            // No unsorted internal region (set k1 = k3; k2 = k0)
+            bounds[0] = bounds[2];
+            bounds[1] = lower;
+        }
+
+        return lower;
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a heap select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static void heapSelect(int[] a, int left, int right, int ka, int kb) {
+        if (right <= left) {
+            return;
+        }
+        // Use the smallest heap
+        if (kb - left < right - ka) {
+            heapSelectLeft(a, left, right, ka, kb);
+        } else {
+            heapSelectRight(a, left, right, ka, kb);
+        }
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a heap select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * <p>For best performance this should be called with {@code k} in the lower
+     * half of the range.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static void heapSelectLeft(int[] a, int left, int right, int ka, int kb) {
+        // Create a max heap in-place in [left, k], rooted at a[left] = max
+        // |l|-max-heap-|k|--------------|
+        // Build the heap using Floyd's heap-construction algorithm for heap size n.
+        // Start at parent of the last element in the heap (k),
+        // i.e. start = parent(n-1) : parent(c) = floor((c - 1) / 2) : c = k - left
+        int end = kb + 1;
+        for (int p = left + ((kb - left - 1) >> 1); p >= left; p--) {
+            maxHeapSiftDown(a, a[p], p, left, end);
+        }
+        // Scan the remaining data and insert
+        // Mitigate worst case performance on descending data by backward sweep
+        int max = a[left];
+        for (int i = right; i > kb; i--) {
+            final int v = a[i];
+            if (v < max) {
+                a[i] = max;
+                maxHeapSiftDown(a, v, left, left, end);
+                max = a[left];
+            }
+        }
+        // Partition [ka, kb]
+        // |l|-max-heap-|k|--------------|
+        //  |  <-swap->  |   then sift down reduced size heap
+        // Avoid sifting heap of size 1
+        final int last = Math.max(left, ka - 1);
+        while (--end > last) {
+            maxHeapSiftDown(a, a[end], left, left, end);
+            a[end] = max;
+            max = a[left];
+        }
+    }
+
+    /**
+     * Sift the element down the max heap.
+     *
+     * <p>Assumes {@code root <= p < end}, i.e. the max heap is above root.
+     *
+     * @param a Heap data.
+     * @param v Value to sift.
+     * @param p Start position.
+     * @param root Root of the heap.
+     * @param end End of the heap (exclusive).
+     */
+    private static void maxHeapSiftDown(int[] a, int v, int p, int root, int end) {
+        // child2 = root + 2 * (parent - root) + 2
+        //        = 2 * parent - root + 2
+        while (true) {
+            // Right child
+            int c = (p << 1) - root + 2;
+            if (c > end) {
+                // No left child
+                break;
+            }
+            // Use the left child if right doesn't exist, or it is greater
+            if (c == end || a[c] < a[c - 1]) {
+                --c;
+            }
+            if (v >= a[c]) {
+                // Parent greater than largest child - done
+                break;
+            }
+            // Swap and descend
+            a[p] = a[c];
+            p = c;
+        }
+        a[p] = v;
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a heap select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * <p>For best performance this should be called with {@code k} in the upper
+     * half of the range.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static void heapSelectRight(int[] a, int left, int right, int ka, int kb) {
+        // Create a min heap in-place in [k, right], rooted at a[right] = min
+        // |--------------|k|-min-heap-|r|
+        // Build the heap using Floyd's heap-construction algorithm for heap size n.
+        // Start at parent of the last element in the heap (k),
+        // i.e. start = parent(n-1) : parent(c) = floor((c - 1) / 2) : c = right - k
+        int end = ka - 1;
+        for (int p = right - ((right - ka - 1) >> 1); p <= right; p++) {
+            minHeapSiftDown(a, a[p], p, right, end);
+        }
+        // Scan the remaining data and insert
+        // Mitigate worst case performance on descending data by backward sweep
+        int min = a[right];
+        for (int i = left; i < ka; i++) {
+            final int v = a[i];
+            if (v > min) {
+                a[i] = min;
+                minHeapSiftDown(a, v, right, right, end);
+                min = a[right];
+            }
+        }
+        // Partition [ka, kb]
+        // |--------------|k|-min-heap-|r|
+        //                 |  <-swap->  |   then sift down reduced size heap
+        // Avoid sifting heap of size 1
+        final int last = Math.min(right, kb + 1);
+        while (++end < last) {
+            minHeapSiftDown(a, a[end], right, right, end);
+            a[end] = min;
+            min = a[right];
+        }
+    }
+
+    /**
+     * Sift the element down the min heap.
+     *
+     * <p>Assumes {@code root >= p > end}, i.e. the max heap is below root.
+     *
+     * @param a Heap data.
+     * @param v Value to sift.
+     * @param p Start position.
+     * @param root Root of the heap.
+     * @param end End of the heap (exclusive).
+     */
+    private static void minHeapSiftDown(int[] a, int v, int p, int root, int end) {
+        // child2 = root - 2 * (root - parent) - 2
+        //        = 2 * parent - root - 2
+        while (true) {
+            // Right child
+            int c = (p << 1) - root - 2;
+            if (c < end) {
+                // No left child
+                break;
+            }
+            // Use the left child if right doesn't exist, or it is less
+            if (c == end || a[c] > a[c + 1]) {
+                ++c;
+            }
+            if (v <= a[c]) {
+                // Parent less than smallest child - done
+                break;
+            }
+            // Swap and descend
+            a[p] = a[c];
+            p = c;
+        }
+        a[p] = v;
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a sort select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static void sortSelect(int[] a, int left, int right, int ka, int kb) {
+        // Combine the test for right <= left with
+        // avoiding the overhead of sort select on tiny data.
+        if (right - left <= MIN_SORTSELECT_SIZE) {
+            Sorting.sort(a, left, right);
+            return;
+        }
+        // Sort the smallest side
+        if (kb - left < right - ka) {
+            sortSelectLeft(a, left, right, kb);
+        } else {
+            sortSelectRight(a, left, right, ka);
+        }
+    }
+
+    /**
+     * Partition the minimum {@code n} elements below {@code k} where
+     * {@code n = k - left + 1}. Uses an insertion sort algorithm.
+     *
+     * <p>Works with any {@code k} in the range {@code left <= k <= right}
+     * and performs a full sort of the range below {@code k}.
+     *
+     * <p>For best performance this should be called with
+     * {@code k - left < right - k}, i.e.
+     * to partition a value in the lower half of the range.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param k Index to select.
+     */
+    static void sortSelectLeft(int[] a, int left, int right, int k) {
+        // Sort
+        for (int i = left; ++i <= k;) {
+            final int v = a[i];
+            // Move preceding higher elements above (if required)
+            if (v < a[i - 1]) {
+                int j = i;
+                while (--j >= left && v < a[j]) {
+                    a[j + 1] = a[j];
+                }
+                a[j + 1] = v;
+            }
+        }
+        // Scan the remaining data and insert
+        // Mitigate worst case performance on descending data by backward sweep
+        int m = a[k];
+        for (int i = right; i > k; i--) {
+            final int v = a[i];
+            if (v < m) {
+                a[i] = m;
+                int j = k;
+                while (--j >= left && v < a[j]) {
+                    a[j + 1] = a[j];
+                }
+                a[j + 1] = v;
+                m = a[k];
+            }
+        }
+    }
+
+    /**
+     * Partition the maximum {@code n} elements above {@code k} where
+     * {@code n = right - k + 1}. Uses an insertion sort algorithm.
+     *
+     * <p>Works with any {@code k} in the range {@code left <= k <= right}
+     * and can be used to perform a full sort of the range above {@code k}.
+     *
+     * <p>For best performance this should be called with
+     * {@code k - left > right - k}, i.e.
+     * to partition a value in the upper half of the range.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param k Index to select.
+     */
+    static void sortSelectRight(int[] a, int left, int right, int k) {
+        // Sort
+        for (int i = right; --i >= k;) {
+            final int v = a[i];
+            // Move succeeding lower elements below (if required)
+            if (v > a[i + 1]) {
+                int j = i;
+                while (++j <= right && v > a[j]) {
+                    a[j - 1] = a[j];
+                }
+                a[j - 1] = v;
+            }
+        }
+        // Scan the remaining data and insert
+        // Mitigate worst case performance on descending data by backward sweep
+        int m = a[k];
+        for (int i = left; i < k; i++) {
+            final int v = a[i];
+            if (v > m) {
+                a[i] = m;
+                int j = k;
+                while (++j <= right && v > a[j]) {
+                    a[j - 1] = a[j];
+                }
+                a[j - 1] = v;
+                m = a[k];
+            }
+        }
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Assumes {@code k} is a valid index into [left, right].
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param k Index.
+     */
+    static void select(int[] a, int left, int right, int k) {
+        if (presorted(a, left, right)) {
+            return;
+        }
+        quickSelectAdaptive(a, left, right, k, k, new int[1], MODE_FR_SAMPLING);
+    }
+
+    /**
+     * Test if the data is already sorted. Data in descending order is reversed.
+     *
+     * <p>This scans the initial run of the data; selection is not required if the
+     * run covers the entire range. A short unsorted tail after the run is sorted and
+     * merged into the run; this handles sorted data with a few values appended.
+     * A sample of points is tested before the scan; the scan is skipped if the sample
+     * is not ordered as the run cannot reach the tail. This avoids the cost of
+     * scanning the first run of data composed of multiple sorted runs.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @return true if the data is sorted
+     */
+    static boolean presorted(int[] a, int left, int right) {
+        // Test a sample of points before the tail. If the sample is not ordered
+        // then the initial run cannot reach the tail.
+        final int step = (right - left) >>> 3;
+        if (step != 0) {
+            boolean up = false;
+            boolean down = false;
+            for (int j = left, end = left + 7 * step; j < end; j += step) {
+                up |= a[j] < a[j + step];
+                down |= a[j] > a[j + step];
+            }
+            if (up && down) {
+                return false;
+            }
+        }
+        int i = left;
+        // Ascending run
+        while (i < right && a[i] <= a[i + 1]) {
+            i++;
+        }
+        if (i == right) {
+            return true;
+        }
+        final int tail = Math.min(PRESORTED_TAIL, (right - left) >>> 4);
+        if (i == left) {
+            // Descending run
+            do {
+                i++;
+            } while (i < right && a[i] >= a[i + 1]);
+            if (right - i <= tail) {
+                // Reverse
+                for (int j = left - 1, k = i + 1; ++j < --k;) {
+                    final int v = a[j];
+                    a[j] = a[k];
+                    a[k] = v;
+                }
+            }
+        }
+        if (right - i > tail) {
+            return false;
+        }
+        if (i < right) {
+            mergeTail(a, left, i, right);
+        }
+        return true;
+    }
+
+    /**
+     * Sort the data given an initial sorted run. The tail after the run is sorted
+     * and merged into the run from the end. Each tail value is inserted using a binary
+     * search of the run; the run is moved in blocks and each element moves at most once.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param end Upper bound of the sorted run (inclusive).
+     * @param right Upper bound of data (inclusive).
+     */
+    private static void mergeTail(int[] a, int left, int end, int right) {
+        Sorting.sort(a, end + 1, right);
+        final int[] b = Arrays.copyOfRange(a, end + 1, right + 1);
+        // Unmerged run is [left, i]; positions (i, i + j + 1] are free for b[0, j]
+        int i = end;
+        for (int j = b.length - 1; j >= 0; j--) {
+            final int v = b[j];
+            // First position in the run above v
+            int lo = left;
+            int hi = i + 1;
+            while (lo < hi) {
+                final int m = (lo + hi) >>> 1;
+                if (a[m] > v) {
+                    hi = m;
+                } else {
+                    lo = m + 1;
+                }
+            }
+            System.arraycopy(a, lo, a, lo + j + 1, i - lo + 1);
+            a[lo + j] = v;
+            i = lo - 1;
+        }
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>The count of the number of used indices is returned. If the keys are sorted in-place,
+     * the count is returned as a negative.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param k Indices (may be destructively modified).
+     * @param n Count of indices.
+     */
+    static void select(int[] a, int left, int right, int[] k, int n) {
+        if (presorted(a, left, right)) {
+            return;
+        }
+        if (n == 1) {
+            quickSelectAdaptive(a, left, right, k[0], k[0], new int[1], MODE_FR_SAMPLING);
+            return;
+        }
+
+        // Interval creation validates the indices are in [left, right]
+        select(a, left, right, IndexSupport.createUpdatingInterval(k, n));
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>The indices must be within {@code [left, right]}. This allows the caller to
+     * supply an interval created from a reusable workspace.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param keys Interval of indices to partition (ordered).
+     */
+    static void select(int[] a, int left, int right, UpdatingInterval keys) {
+        // Note: If the keys are not separated then they are effectively a single key.
+        // Any split of keys separated by the sort select size
+        // will be finished on the next iteration.
+        final int k1 = keys.left();
+        final int kn = keys.right();
+        if (kn - k1 < DP_SORTSELECT_SIZE) {
+            quickSelectAdaptive(a, left, right, k1, kn, new int[1], MODE_FR_SAMPLING);
+        } else {
+            // Dual-pivot mode with small range sort length configured using index density
+            dualPivotQuickSelect(a, left, right, keys, dualPivotFlags(left, right, k1, kn));
+        }
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Regions of the data containing indices are partitioned concurrently using the
+     * {@link ForkJoinPool#commonPool() common pool}.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param k Indices (may be destructively modified).
+     * @param n Count of indices.
+     */
+    static void parallelSelect(int[] a, int left, int right, int[] k, int n) {
+        if (presorted(a, left, right)) {
+            return;
+        }
+        if (n == 1) {
+            quickSelectAdaptive(a, left, right, k[0], k[0], new int[1], MODE_FR_SAMPLING);
+            return;
+        }
+
+        // Interval creation validates the indices are in [left, right]
+        final UpdatingInterval keys = IndexSupport.createUpdatingInterval(k, n);
+
+        final int k1 = keys.left();
+        final int kn = keys.right();
+        if (kn - k1 < DP_SORTSELECT_SIZE) {
+            quickSelectAdaptive(a, left, right, k1, kn, new int[1], MODE_FR_SAMPLING);
+        } else if (right - left < MIN_PARALLEL_SIZE) {
+            dualPivotQuickSelect(a, left, right, keys, dualPivotFlags(left, right, k1, kn));
+        } else {
+            ForkJoinPool.commonPool().invoke(
+                new IntSelectTask(a, left, right, keys, dualPivotFlags(left, right, k1, kn)));
+        }
+    }
+
+    /**
+     * Sort the array.
+     *
+     * <p>This is a dual-pivot introsort using the partitioning of
+     * {@link #dualPivotQuickSelect(int[], int, int, UpdatingInterval, int)} with all
+     * indices in the range. Excess recursion will trigger use of a heapsort
+     * on the remaining range.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     */
+    static void sort(int[] a, int left, int right) {
+        if (right - left < DP_SORTSELECT_SIZE) {
+            Sorting.sort(a, left, right);
+        } else {
+            dualPivotQuickSelect(a, left, right, new RangeUpdatingInterval(left, right),
+                dualPivotFlags(left, right, left, right));
+        }
+    }
+
+    /**
+     * Sort the array.
+     *
+     * <p>Regions of the data are sorted concurrently using the
+     * {@link ForkJoinPool#commonPool() common pool}.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @see #sort(int[], int, int)
+     */
+    static void parallelSort(int[] a, int left, int right) {
+        if (right - left < MIN_PARALLEL_SIZE) {
+            sort(a, left, right);
+        } else {
+            ForkJoinPool.commonPool().invoke(
+                new IntSelectTask(a, left, right, new RangeUpdatingInterval(left, right),
+                    dualPivotFlags(left, right, left, right)));
+        }
+    }
+
+    /**
+     * Partition the array such that the {@code k} largest values are at the end of the
+     * range and sorted in ascending order. It is assumed {@code 0 < k <= right - left + 1}.
+     *
+     * <p>A small number of values relative to the length is selected using a heap select;
+     * otherwise the range is partitioned at the smallest of the {@code k} values using
+     * Floyd-Rivest sampling and the remaining values are sorted.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param k Number of values.
+     */
+    static void selectTop(int[] a, int left, int right, int k) {
+        final int ka = right - k + 1;
+        if (k <= TOP_HEAPSELECT_SIZE && k <= (right - left + 1) >>> 2) {
+            heapSelectRight(a, left, right, ka, right);
+        } else {
+            if (ka > left) {
+                quickSelectAdaptive(a, left, right, ka, ka, new int[1], MODE_FR_SAMPLING);
+            }
+            sort(a, ka, right);
+        }
+    }
+
+    /**
+     * Partition the array such that the {@code k} smallest values are at the start of the
+     * range and sorted in ascending order. It is assumed {@code 0 < k <= right - left + 1}.
+     *
+     * <p>A small number of values relative to the length is selected using a heap select;
+     * otherwise the range is partitioned at the largest of the {@code k} values using
+     * Floyd-Rivest sampling and the remaining values are sorted.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param k Number of values.
+     */
+    static void selectBottom(int[] a, int left, int right, int k) {
+        final int kb = left + k - 1;
+        if (k <= TOP_HEAPSELECT_SIZE && k <= (right - left + 1) >>> 2) {
+            heapSelectLeft(a, left, right, left, kb);
+        } else {
+            if (kb < right) {
+                quickSelectAdaptive(a, left, right, kb, kb, new int[1], MODE_FR_SAMPLING);
+            }
+            sort(a, left, kb);
+        }
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their
+     * correctly sorted value in the equivalent fully sorted array.
+     *
+     * <p>For all indices {@code [ka, kb]} and any index {@code i}:
+     *
+     * <pre>{@code
+     * data[i < ka] <= data[ka] <= data[kb] <= data[kb < i]
+     * }</pre>
+     *
+     * <p>This function accepts indices {@code [ka, kb]} that define the
+     * range of indices to partition. It is expected that the range is small.
+     *
+     * <p>The {@code flags} are used to control the sampling mode and adaption of
+     * the index within the sample.
+     *
+     * <p>Returns the bounds containing {@code [ka, kb]}. These may be lower/higher
+     * than the keys if equal values are present in the data.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive, assumed to be strictly positive).
+     * @param right Upper bound of data (inclusive, assumed to be strictly positive).
+     * @param ka First key of interest.
+     * @param kb Last key of interest.
+     * @param bounds Upper bound of the range containing {@code [ka, kb]} (inclusive).
+     * @param flags Adaption flags.
+     * @return Lower bound of the range containing {@code [ka, kb]} (inclusive).
+     */
+    static int quickSelectAdaptive(int[] a, int left, int right, int ka, int kb,
+            int[] bounds, int flags) {
+        int l = left;
+        int r = right;
+        int m = flags;
+        while (true) {
+            // Select when ka and kb are close to the same end
+            // |l|-----|ka|kkkkkkkk|kb|------|r|
+            if (Math.min(kb - l, r - ka) < LINEAR_SORTSELECT_SIZE) {
+                sortSelect(a, l, r, ka, kb);
+                bounds[0] = kb;
+                return ka;
+            }
+
+            // Only target ka; kb is assumed to be close
+            int p0;
+            final int n = r - l;
+            // f in [0, 1]
+            final double f = (double) (ka - l) / n;
+            // Record the larger margin (start at 1/4) to create the estimated size.
+            // step        L     R
+            // far left    1/12  1/3   (use 1/4 + 1/32 + 1/64 ~ 0.328)
+            // left        1/6   1/4
+            // middle      2/9   2/9   (use 1/4 - 1/32 ~ 0.219)
+            int margin = n >> 2;
+            if (m < MODE_SAMPLING && r - l > FR_SAMPLING_SIZE) {
+                // Floyd-Rivest sample step uses the same margins
+                p0 = sampleStep(a, l, r, ka, bounds);
+                if (f <= STEP_FAR_LEFT || f >= STEP_FAR_RIGHT) {
+                    margin += (n >> 5) + (n >> 6);
+                } else if (f > STEP_LEFT && f < STEP_RIGHT) {
+                    margin -= n >> 5;
+                }
+            } else if (f <= STEP_LEFT) {
+                if (f <= STEP_FAR_LEFT) {
+                    margin += (n >> 5) + (n >> 6);
+                    p0 = repeatedStepFarLeft(a, l, r, ka, bounds, m);
+                } else {
+                    p0 = repeatedStepLeft(a, l, r, ka, bounds, m);
+                }
+            } else if (f >= STEP_RIGHT) {
+                if (f >= STEP_FAR_RIGHT) {
+                    margin += (n >> 5) + (n >> 6);
+                    p0 = repeatedStepFarRight(a, l, r, ka, bounds, m);
+                } else {
+                    p0 = repeatedStepRight(a, l, r, ka, bounds, m);
+                }
+            } else {
+                margin -= n >> 5;
+                p0 = repeatedStep(a, l, r, ka, bounds, m);
+            }
+
+            // Note: Here we expect [ka, kb] to be small and splitting is unlikely.
+            //                   p0 p1
+            // |l|--|ka|kkkk|kb|--|P|-------------------|r|
+            // |l|----------------|P|--|ka|kkk|kb|------|r|
+            // |l|-----------|ka|k|P|k|kb|--------------|r|
+            final int p1 = bounds[0];
+            if (kb < p0) {
+                // Entirely on left side
+                r = p0 - 1;
+            } else if (ka > p1) {
+                // Entirely on right side
+                l = p1 + 1;
+            } else {
+                // Pivot splits [ka, kb]. Expect ends to be close to the pivot and finish.
+                // Here we set the bounds for use after median-of-medians pivot selection.
+                // In the event there are many equal values this allows collecting those
+                // known to be equal together when moving around the medians sample.
+                if (kb > p1) {
+                    sortSelectLeft(a, p1 + 1, r, kb);
+                    bounds[0] = kb;
+                }
+                if (ka < p0) {
+                    sortSelectRight(a, l, p0 - 1, ka);
+                    p0 = ka;
+                }
+                return p0;
+            }
+            // Update mode based on target partition size
+            if (r - l > n - margin) {
+                m++;
+            }
+        }
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Partitions a Floyd-Rivest sample around a pivot offset so that the input {@code k} will
+     * fall in the smaller partition when the entire range is partitioned.
+     *
+     * <p>Assumes the range {@code r - l} is large.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int sampleStep(int[] a, int l, int r, int k, int[] upper) {
+        // Floyd-Rivest: use SELECT recursively on a sample of size S to get an estimate
+        // for the (k-l+1)-th smallest element into a[k], biased slightly so that the
+        // (k-l+1)-th element is expected to lie in the smaller set after partitioning.
+        final int n = r - l + 1;
+        final int ith = k - l + 1;
+        final double z = Math.log(n);
+        // sample size = 0.5 * n^(2/3)
+        final double s = 0.5 * Math.exp(0.6666666666666666 * z);
+        final double sd = 0.5 * Math.sqrt(z * s * (n - s) / n) * Integer.signum(ith - (n >> 1));
+        final int ll = Math.max(l, (int) (k - ith * s / n + sd));
+        final int rr = Math.min(r, (int) (k + (n - ith) * s / n + sd));
+        // Sample recursion restarts from [ll, rr]
+        final int p = quickSelectAdaptive(a, ll, rr, k, k, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, ll, rr, p, upper[0], upper);
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Assumes the range {@code r - l >= 8}; the caller is responsible for selection on a smaller
+     * range. If using a 12th-tile for sampling then assumes {@code r - l >= 11}.
+     *
+     * <p>Uses the Chen and Dumitrescu repeated step median-of-medians-of-medians algorithm
+     * with the median of 3 then median of 3; the final sample is placed in the
+     * 5th 9th-tile; the pivot chosen from the sample is adaptive using the input {@code k}.
+     *
+     * <p>Given a pivot in the middle of the sample this has margins of 2/9 and 2/9.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @param flags Control flags.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int repeatedStep(int[] a, int l, int r, int k, int[] upper, int flags) {
+        // Adapted from Alexandrescu (2016), algorithm 8.
+        final int fp;
+        final int s;
+        int p;
+        if (flags <= MODE_SAMPLING) {
+            // Median into a 12th-tile
+            fp = (r - l + 1) / 12;
+            // Position the sample around the target k
+            s = k - mapDistance(k - l, l, r, fp);
+            p = k;
+        } else {
+            // i in tertile [3f':6f')
+            fp = (r - l + 1) / 9;
+            final int f3 = 3 * fp;
+            final int end = l + (f3 << 1);
+            for (int i = l + f3; i < end; i++) {
+                Sorting.sort3(a, i - f3, i, i + f3);
+            }
+            // 5th 9th-tile: [4f':5f')
+            s = l + (fp << 2);
+            // No adaption uses the middle to enforce strict margins
+            p = s + (flags == MODE_ADAPTION ? mapDistance(k - l, l, r, fp) : (fp >>> 1));
+        }
+        final int e = s + fp - 1;
+        for (int i = s; i <= e; i++) {
+            Sorting.sort3(a, i - fp, i, i + fp);
+        }
+        p = quickSelectAdaptive(a, s, e, p, p, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, s, e, p, upper[0], upper);
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Assumes the range {@code r - l >= 11}; the caller is responsible for selection on a smaller
+     * range.
+     *
+     * <p>Uses the Chen and Dumitrescu repeated step median-of-medians-of-medians algorithm
+     * with the lower median of 4 then either median of 3 with the final sample placed in the
+     * 5th 12th-tile, or min of 3 with the final sample in the 4th 12th-tile;
+     * the pivot chosen from the sample is adaptive using the input {@code k}.
+     *
+     * <p>Given a pivot in the middle of the sample this has margins of 1/6 and 1/4.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @param flags Control flags.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int repeatedStepLeft(int[] a, int l, int r, int k, int[] upper, int flags) {
+        // Adapted from Alexandrescu (2016), algorithm 9.
+        final int fp;
+        final int s;
+        int p;
+        if (flags <= MODE_SAMPLING) {
+            // Median into a 12th-tile
+            fp = (r - l + 1) / 12;
+            // Position the sample around the target k
+            // Avoid bounds error due to rounding as (k-l)/(r-l) -> 1/12
+            s = Math.max(k - mapDistance(k - l, l, r, fp), l + fp);
+            p = k;
+        } else {
+            // i in 2nd quartile
+            final int f = (r - l + 1) >> 2;
+            final int f2 = f + f;
+            final int end = l + f2;
+            for (int i = l + f; i < end; i++) {
+                Sorting.lowerMedian4(a, i - f, i, i + f, i + f2);
+            }
+            // i in 5th 12th-tile
+            fp = f / 3;
+            s = l + f + fp;
+            // No adaption uses the middle to enforce strict margins
+            p = s + (flags == MODE_ADAPTION ? mapDistance(k - l, l, r, fp) : (fp >>> 1));
+        }
+        final int e = s + fp - 1;
+        for (int i = s; i <= e; i++) {
+            Sorting.sort3(a, i - fp, i, i + fp);
+        }
+        p = quickSelectAdaptive(a, s, e, p, p, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, s, e, p, upper[0], upper);
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Assumes the range {@code r - l >= 11}; the caller is responsible for selection on a smaller
+     * range.
+     *
+     * <p>Uses the Chen and Dumitrescu repeated step median-of-medians-of-medians algorithm
+     * with the upper median of 4 then either median of 3 with the final sample placed in the
+     * 8th 12th-tile, or max of 3 with the final sample in the 9th 12th-tile;
+     * the pivot chosen from the sample is adaptive using the input {@code k}.
+     *
+     * <p>Given a pivot in the middle of the sample this has margins of 1/4 and 1/6.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @param flags Control flags.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int repeatedStepRight(int[] a, int l, int r, int k, int[] upper, int flags) {
+        // Mirror image repeatedStepLeft using upper median into 3rd quartile
+        final int fp;
+        final int e;
+        int p;
+        if (flags <= MODE_SAMPLING) {
+            // Median into a 12th-tile
+            fp = (r - l + 1) / 12;
+            // Position the sample around the target k
+            // Avoid bounds error due to rounding as (r-k)/(r-l) -> 11/12
+            e = Math.min(k + mapDistance(r - k, l, r, fp), r - fp);
+            p = k;
+        } else {
+            // i in 3rd quartile
+            final int f = (r - l + 1) >> 2;
+            final int f2 = f + f;
+            final int end = r - f2;
+            for (int i = r - f; i > end; i--) {
+                Sorting.upperMedian4(a, i - f2, i - f, i, i + f);
+            }
+            // i in 8th 12th-tile
+            fp = f / 3;
+            e = r - f - fp;
+            // No adaption uses the middle to enforce strict margins
+            p = e - (flags == MODE_ADAPTION ? mapDistance(r - k, l, r, fp) : (fp >>> 1));
+        }
+        final int s = e - fp + 1;
+        for (int i = s; i <= e; i++) {
+            Sorting.sort3(a, i - fp, i, i + fp);
+        }
+        p = quickSelectAdaptive(a, s, e, p, p, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, s, e, p, upper[0], upper);
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Assumes the range {@code r - l >= 11}; the caller is responsible for selection on a smaller
+     * range.
+     *
+     * <p>Uses the Chen and Dumitrescu repeated step median-of-medians-of-medians algorithm
+     * with the minimum of 4 then median of 3; the final sample is placed in the
+     * 2nd 12th-tile; the pivot chosen from the sample is adaptive using the input {@code k}.
+     *
+     * <p>Given a pivot in the middle of the sample this has margins of 1/12 and 1/3.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @param flags Control flags.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int repeatedStepFarLeft(int[] a, int l, int r, int k, int[] upper, int flags) {
+        // Far step has been changed from the Alexandrescu (2016) step of lower-median-of-4, min-of-3
+        // into the 4th 12th-tile to a min-of-4, median-of-3 into the 2nd 12th-tile.
+        // The differences are:
+        // - The upper margin when not sampling is 8/24 vs. 9/24; the lower margin remains at 1/12.
+        // - The position of the sample is closer to the expected location of k < |A| / 12.
+        // - Sampling mode uses a median-of-3 with adaptive k, matching the other step methods.
+        //   A min-of-3 sample can create a pivot too small if used with adaption of k leaving
+        //   k in the larger parition and a wasted iteration.
+        // - Adaption is adjusted to force use of the lower margin when not sampling.
+        final int fp;
+        final int s;
+        int p;
+        if (flags <= MODE_SAMPLING) {
+            // 2nd 12th-tile
+            fp = (r - l + 1) / 12;
+            s = l + fp;
+            // Use adaption
+            p = s + mapDistance(k - l, l, r, fp);
+        } else {
+            // i in 2nd quartile; min into i-f (1st quartile)
+            final int f = (r - l + 1) >> 2;
+            final int f2 = f + f;
+            final int end = l + f2;
+            for (int i = l + f; i < end; i++) {
+                if (a[i + f] < a[i - f]) {
+                    final int u = a[i + f];
+                    a[i + f] = a[i - f];
+                    a[i - f] = u;
+                }
+                if (a[i + f2] < a[i]) {
+                    final int v = a[i + f2];
+                    a[i + f2] = a[i];
+                    a[i] = v;
+                }
+                if (a[i] < a[i - f]) {
+                    final int u = a[i];
+                    a[i] = a[i - f];
+                    a[i - f] = u;
+                }
+            }
+            // 2nd 12th-tile
+            fp = f / 3;
+            s = l + fp;
+            // Lower margin has 2(d+1) elements; d == (position in sample) - s
+            // Force k into the lower margin
+            p = s + ((k - l) >>> 1);
+        }
+        final int e = s + fp - 1;
+        for (int i = s; i <= e; i++) {
+            Sorting.sort3(a, i - fp, i, i + fp);
+        }
+        p = quickSelectAdaptive(a, s, e, p, p, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, s, e, p, upper[0], upper);
+    }
+
+    /**
+     * Partition an array slice around a pivot. Partitioning exchanges array elements such
+     * that all elements smaller than pivot are before it and all elements larger than
+     * pivot are after it.
+     *
+     * <p>Assumes the range {@code r - l >= 11}; the caller is responsible for selection on a smaller
+     * range.
+     *
+     * <p>Uses the Chen and Dumitrescu repeated step median-of-medians-of-medians algorithm
+     * with the maximum of 4 then median of 3; the final sample is placed in the
+     * 11th 12th-tile; the pivot chosen from the sample is adaptive using the input {@code k}.
+     *
+     * <p>Given a pivot in the middle of the sample this has margins of 1/3 and 1/12.
+     *
+     * @param a Data array.
+     * @param l Lower bound (inclusive).
+     * @param r Upper bound (inclusive).
+     * @param k Target index.
+     * @param upper Upper bound (inclusive) of the pivot range.
+     * @param flags Control flags.
+     * @return Lower bound (inclusive) of the pivot range.
+     */
+    private static int repeatedStepFarRight(int[] a, int l, int r, int k, int[] upper, int flags) {
+        // Mirror image repeatedStepFarLeft
+        final int fp;
+        final int e;
+        int p;
+        if (flags <= MODE_SAMPLING) {
+            // 11th 12th-tile
+            fp = (r - l + 1) / 12;
+            e = r - fp;
+            // Use adaption
+            p = e - mapDistance(r - k, l, r, fp);
+        } else {
+            // i in 3rd quartile; max into i+f (4th quartile)
+            final int f = (r - l + 1) >> 2;
+            final int f2 = f + f;
+            final int end = r - f2;
+            for (int i = r - f; i > end; i--) {
+                if (a[i - f] > a[i + f]) {
+                    final int u = a[i - f];
+                    a[i - f] = a[i + f];
+                    a[i + f] = u;
+                }
+                if (a[i - f2] > a[i]) {
+                    final int v = a[i - f2];
+                    a[i - f2] = a[i];
+                    a[i] = v;
+                }
+                if (a[i] > a[i + f]) {
+                    final int u = a[i];
+                    a[i] = a[i + f];
+                    a[i + f] = u;
+                }
+            }
+            // 11th 12th-tile
+            fp = f / 3;
+            e = r - fp;
+            // Upper margin has 2(d+1) elements; d == e - (position in sample)
+            // Force k into the upper margin
+            p = e - ((r - k) >>> 1);
+        }
+        final int s = e - fp + 1;
+        for (int i = s; i <= e; i++) {
+            Sorting.sort3(a, i - fp, i, i + fp);
+        }
+        p = quickSelectAdaptive(a, s, e, p, p, upper, MODE_FR_SAMPLING);
+        return expandPartition(a, l, r, s, e, p, upper[0], upper);
+    }
+
+    /**
+     * Expand a partition around a single pivot. Partitioning exchanges array
+     * elements such that all elements smaller than pivot are before it and all
+     * elements larger than pivot are after it. The central region is already
+     * partitioned.
+     *
+     * <pre>{@code
+     * |l             |s   |p0 p1|   e|                r|
+     * |    ???       | <P | ==P | >P |        ???      |
+     * }</pre>
+     *
+     * <p>This requires that {@code start != end}. However it handles
+     * {@code left == start} and/or {@code end == right}.
+     *
+     * @param a Data array.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param start Start of the partition range (inclusive).
+     * @param end End of the partitioned range (inclusive).
+     * @param pivot0 Lower pivot location (inclusive).
+     * @param pivot1 Upper pivot location (inclusive).
+     * @param upper Upper bound (inclusive) of the pivot range [k1].
+     * @return Lower bound (inclusive) of the pivot range [k0].
+     */
+    // package-private for testing
+    static int expandPartition(int[] a, int left, int right, int start, int end,
+        int pivot0, int pivot1, int[] upper) {
+        // 3-way partition of the data using a pivot value into
+        // less-than, equal or greater-than.
+        // Based on Sedgewick's Bentley-McIroy partitioning: always swap i<->j then
+        // check for equal to the pivot and move again.
+        //
+        // Move sentinels from start and end to left and right. Scan towards the
+        // sentinels until >=,<=. Swap then move == to the pivot region.
+        //           <-i                           j->
+        // |l |        |            |p0  p1|       |             | r|
+        // |>=|   ???  |     <      |  ==  |   >   |     ???     |<=|
+        //
+        // When either i or j reach the edge perform finishing loop.
+        // Finish loop for a[j] <= v replaces j with p1+1, optionally moves value
+        // to p0 for < and updates the pivot range p1 (and optionally p0):
+        //                                             j->
+        // |l                       |p0  p1|           |         | r|
+        // |         <              |  ==  |       >   |   ???   |<=|
+
+        final int v = a[pivot0];
+        // Use start/end as sentinels (requires start != end)
+        int vi = a[start];
+        int vj = a[end];
+        a[start] = a[left];
+        a[end] = a[right];
+        a[left] = vj;
+        a[right] = vi;
+
+        int i = start + 1;
+        int j = end - 1;
+
+        // Positioned for pre-in/decrement to write to pivot region
+        int p0 = pivot0 == start ? i : pivot0;
+        int p1 = pivot1 == end ? j : pivot1;
+
+        while (true) {
+            do {
+                --i;
+            } while (a[i] < v);
+            do {
+                ++j;
+            } while (a[j] > v);
+            vj = a[i];
+            vi = a[j];
+            a[i] = vi;
+            a[j] = vj;
+            // Move the equal values to pivot region
+            if (vi == v) {
+                a[i] = a[--p0];
+                a[p0] = v;
+            }
+            if (vj == v) {
+                a[j] = a[++p1];
+                a[p1] = v;
+            }
+            // Termination check and finishing loops.
+            // Note: This works even if pivot region is zero length (p1 == p0-1 due to
+            // length 1 pivot region at either start/end) because we pre-inc/decrement
+            // one side and post-inc/decrement the other side.
+            if (i == left) {
+                while (j < right) {
+                    do {
+                        ++j;
+                    } while (a[j] > v);
+                    final int w = a[j];
+                    // Move upper bound of pivot region
+                    a[j] = a[++p1];
+                    a[p1] = v;
+                    // Move lower bound of pivot region
+                    if (w != v) {
+                        a[p0] = w;
+                        p0++;
+                    }
+                }
+                break;
+            }
+            if (j == right) {
+                while (i > left) {
+                    do {
+                        --i;
+                    } while (a[i] < v);
+                    final int w = a[i];
+                    // Move lower bound of pivot region
+                    a[i] = a[--p0];
+                    a[p0] = v;
+                    // Move upper bound of pivot region
+                    if (w != v) {
+                        a[p1] = w;
+                        p1--;
+                    }
+                }
+                break;
+            }
+        }
+
+        upper[0] = p1;
+        return p0;
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their
+     * correctly sorted value in the equivalent fully sorted array.
+     *
+     * <p>See {@link #dualPivotQuickSelect(int[], int, int, UpdatingInterval, int, int[])}.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive, assumed to be strictly positive).
+     * @param right Upper bound of data (inclusive, assumed to be strictly positive).
+     * @param k Interval of indices to partition (ordered).
+     * @param flags Control flags.
+     */
+    // package-private for testing
+    static void dualPivotQuickSelect(int[] a, int left, int right, UpdatingInterval k, int flags) {
+        dualPivotQuickSelect(a, left, right, k, flags, new int[3]);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their
+     * correctly sorted value in the equivalent fully sorted array.
+     *
+     * <p>For all indices {@code k} and any index {@code i}:
+     *
+     * <pre>{@code
+     * data[i < k] <= data[k] <= data[k < i]
+     * }</pre>
+     *
+     * <p>This function accepts a {@link UpdatingInterval} of indices {@code k} that define the
+     * range of indices to partition. The {@link UpdatingInterval} can be narrowed or split as
+     * partitioning divides the range.
+     *
+     * <p>Uses an introselect variant. The quickselect is a dual-pivot quicksort
+     * partition method by Vladimir Yaroslavskiy; the fall-back on poor convergence of
+     * the quickselect is a heapselect.
+     *
+     * <p>The {@code flags} contain the current recursion count and the configured
+     * length threshold for {@code r - l} to perform sort select. The count is in the upper
+     * bits and the threshold is in the lower bits.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive, assumed to be strictly positive).
+     * @param right Upper bound of data (inclusive, assumed to be strictly positive).
+     * @param k Interval of indices to partition (ordered).
+     * @param flags Control flags.
+     * @param upper Upper bounds of the partition (length at least 3). This is used as
+     * scratch space and is shared with recursive calls.
+     */
+    static void dualPivotQuickSelect(int[] a, int left, int right, UpdatingInterval k, int flags,
+        int[] upper) {
+        // If partitioning splits the interval then recursion is used for the left-most side(s)
+        // and the right-most side remains within this function. If partitioning does
+        // not split the interval then it remains within this function.
+        int l = left;
+        int r = right;
+        int f = flags;
+        int ka = k.left();
+        int kb = k.right();
+        while (true) {
+            // Select when ka and kb are close to the same end,
+            // or the entire range is small
+            // |l|-----|ka|--------|kb|------|r|
+            final int n = r - l;
+            if (Math.min(kb - l, r - ka) < DP_SORTSELECT_SIZE ||
+                n < (f & SORTSELECT_MASK)) {
+                sortSelect(a, l, r, ka, kb);
+                return;
+            }
+            if (kb - ka < DP_SORTSELECT_SIZE) {
+                // Switch to single-pivot mode with Floyd-Rivest sub-sampling
+                quickSelectAdaptive(a, l, r, ka, kb, upper, MODE_FR_SAMPLING);
+                return;
+            }
+            if (f < 0) {
+                // Excess recursion, switch to heap select
+                heapSelect(a, l, r, ka, kb);
+                return;
+            }
+
+            // Dual-pivot partitioning
+            final int p0 = partition(a, l, r, upper);
+            final int p1 = upper[0];
+            final int p2 = upper[1];
+            final int p3 = upper[2];
+
+            // Recursion to max depth
+            // Note: Here we possibly branch left, middle and right with multiple keys.
+            // It is possible that the partition has split the keys
+            // and the recursion proceeds with a reduced set in each region.
+            //                   p0 p1               p2 p3
+            // |l|--|ka|--k----k--|P|------k--|kb|----|P|----|r|
+            //                 kb  |      ka
+            f += RECURSION_INCREMENT;
+            // Recurse left side if required
+            if (ka < p0) {
+                if (kb <= p1) {
+                    // Entirely on left side
+                    r = p0 - 1;
+                    if (r < kb) {
+                        kb = k.updateRight(r);
+                    }
+                    continue;
+                }
+                dualPivotQuickSelect(a, l, p0 - 1, k.splitLeft(p0, p1), f, upper);
+                // Here we must process middle and/or right
+                ka = k.left();
+            } else if (kb <= p1) {
+                // No middle/right side
+                return;
+            } else if (ka <= p1) {
+                // Advance lower bound
+                ka = k.updateLeft(p1 + 1);
+            }
+            // Recurse middle if required
+            if (ka < p2) {
+                l = p1 + 1;
+                if (kb <= p3) {
+                    // Entirely in middle
+                    r = p2 - 1;
+                    if (r < kb) {
+                        kb = k.updateRight(r);
+                    }
+                    continue;
+                }
+                dualPivotQuickSelect(a, l, p2 - 1, k.splitLeft(p2, p3), f, upper);
+                ka = k.left();
+            } else if (kb <= p3) {
+                // No right side
+                return;
+            } else if (ka <= p3) {
+                ka = k.updateLeft(p3 + 1);
+            }
+            // Continue right
+            l = p3 + 1;
+        }
+    }
+
+    /**
+     * Task to partition the array such that indices {@code k} correspond to their
+     * correctly sorted value in the equivalent fully sorted array.
+     *
+     * <p>This is a parallel variant of
+     * {@link #dualPivotQuickSelect(int[], int, int, UpdatingInterval, int)}. Regions
+     * containing indices that are split from the range are forked as new tasks if they are
+     * large enough; otherwise they are processed using the serial method. The task
+     * completes when all forked tasks have completed.
+     */
+    private static final class IntSelectTask extends RecursiveAction {
+        /** Serializable version identifier. */
+        private static final long serialVersionUID = 20261016L;
+
+        /** Values. */
+        private final int[] a;
+        /** Lower bound of data (inclusive). */
+        private final int left;
+        /** Upper bound of data (inclusive). */
+        private final int right;
+        /** Interval of indices to partition (ordered). */
+        private final transient UpdatingInterval k;
+        /** Control flags. */
+        private final int flags;
+        /** Previous task forked by the parent task (to be joined by the parent). */
+        private IntSelectTask next;
+
+        /**
+         * @param a Values.
+         * @param left Lower bound of data (inclusive).
+         * @param right Upper bound of data (inclusive).
+         * @param k Interval of indices to partition (ordered).
+         * @param flags Control flags.
+         */
+        IntSelectTask(int[] a, int left, int right, UpdatingInterval k, int flags) {
+            this.a = a;
+            this.left = left;
+            this.right = right;
+            this.k = k;
+            this.flags = flags;
+        }
+
+        @Override
+        protected void compute() {
+            // Forked tasks are stored as a stack (linked list) to be joined in reverse order
+            IntSelectTask forked = null;
+            int l = left;
+            int r = right;
+            int f = flags;
+            int ka = k.left();
+            int kb = k.right();
+            final int[] upper = {0, 0, 0};
+            while (true) {
+                // Use the serial method for small ranges, or when the current
+                // range can be finished using a single selection.
+                // Note: This matches the loop in the serial method but defers
+                // all terminal steps to the serial method.
+                if (r - l < MIN_PARALLEL_SIZE ||
+                    Math.min(kb - l, r - ka) < DP_SORTSELECT_SIZE ||
+                    kb - ka < DP_SORTSELECT_SIZE ||
+                    f < 0) {
+                    dualPivotQuickSelect(a, l, r, k, f);
+                    break;
+                }
+
+                // Dual-pivot partitioning
+                final int p0 = partition(a, l, r, upper);
+                final int p1 = upper[0];
+
+                // See the serial method for details of processing the regions
+                //                   p0 p1               p2 p3
+                // |l|--|ka|--k----k--|P|------k--|kb|----|P|----|r|
+                //                 kb  |      ka
+                f += RECURSION_INCREMENT;
+                // Fork left side if required
+                if (ka < p0) {
+                    if (kb <= p1) {
+                        // Entirely on left side
+                        r = p0 - 1;
+                        if (r < kb) {
+                            kb = k.updateRight(r);
+                        }
+                        continue;
+                    }
+                    forked = split(forked, l, p0 - 1, k.splitLeft(p0, p1), f);
+                    ka = k.left();
+                } else if (kb <= p1) {
+                    // No middle/right side
+                    break;
+                } else if (ka <= p1) {
+                    // Advance lower bound
+                    ka = k.updateLeft(p1 + 1);
+                }
+                // Fork middle if required
+                final int p2 = upper[1];
+                final int p3 = upper[2];
+                if (ka < p2) {
+                    l = p1 + 1;
+                    if (kb <= p3) {
+                        // Entirely in middle
+                        r = p2 - 1;
+                        if (r < kb) {
+                            kb = k.updateRight(r);
+                        }
+                        continue;
+                    }
+                    forked = split(forked, l, p2 - 1, k.splitLeft(p2, p3), f);
+                    ka = k.left();
+                } else if (kb <= p3) {
+                    // No right side
+                    break;
+                } else if (ka <= p3) {
+                    ka = k.updateLeft(p3 + 1);
+                }
+                // Continue right
+                l = p3 + 1;
+            }
+            // Wait for completion of the sub-tasks
+            for (IntSelectTask t = forked; t != null; t = t.next) {
+                t.join();
+            }
+        }
+
+        /**
+         * Process the range {@code [l, r]} containing the interval of indices {@code k}.
+         * The range is processed asynchronously as a forked task if it is large enough,
+         * otherwise it is processed immediately using the serial method.
+         *
+         * @param forked Previous forked task (can be null).
+         * @param l Lower bound of data (inclusive).
+         * @param r Upper bound of data (inclusive).
+         * @param keys Interval of indices to partition (ordered).
+         * @param f Control flags.
+         * @return the most recent forked task (can be null)
+         */
+        private IntSelectTask split(IntSelectTask forked, int l, int r, UpdatingInterval keys, int f) {
+            if (r - l < MIN_PARALLEL_SIZE) {
+                dualPivotQuickSelect(a, l, r, keys, f);
+                return forked;
+            }
+            final IntSelectTask t = new IntSelectTask(a, l, r, keys, f);
+            t.next = forked;
+            t.fork();
+            return t;
+        }
+    }
+
+    /**
+     * Partition an array slice around 2 pivots. Partitioning exchanges array elements
+     * such that all elements smaller than pivot are before it and all elements larger
+     * than pivot are after it.
+     *
+     * <p>This method returns 4 points describing the pivot ranges of equal values.
+     *
+     * <pre>{@code
+     *         |k0  k1|                |k2  k3|
+     * |   <P  | ==P1 |  <P1 && <P2    | ==P2 |   >P   |
+     * }</pre>
+     *
+     * <ul>
+     * <li>k0: lower pivot1 point</li>
+     * <li>k1: upper pivot1 point (inclusive)</li>
+     * <li>k2: lower pivot2 point</li>
+     * <li>k3: upper pivot2 point (inclusive)</li>
+     * </ul>
+     *
+     * <p>Bounds are set so {@code i < k0}, {@code i > k3} and {@code k1 < i < k2} are
+     * unsorted. When the range {@code [k0, k3]} contains fully sorted elements the result
+     * is set to {@code k1 = k3; k2 == k0}. This can occur if
+     * {@code P1 == P2} or there are zero or one value between the pivots
+     * {@code P1 < v < P2}. Any sort/partition of ranges [left, k0-1], [k1+1, k2-1] and
+     * [k3+1, right] must check the length is {@code > 1}.
+     *
+     * @param a Data array.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param bounds Points [k1, k2, k3].
+     * @return Lower bound (inclusive) of the pivot range [k0].
+     */
+    private static int partition(int[] a, int left, int right, int[] bounds) {
+        // Pick 2 pivots from 5 approximately uniform through the range.
+        // Spacing is ~ 1/7 made using shifts. Other strategies are equal or much
+        // worse. 1/7 = 5/35 ~ 1/8 + 1/64 : 0.1429 ~ 0.1406
+        // Ensure the value is above zero to choose different points!
+        final int n = right - left;
+        final int step = 1 + (n >>> 3) + (n >>> 6);
+        final int i3 = left + (n >>> 1);
+        final int i2 = i3 - step;
+        final int i1 = i2 - step;
+        final int i4 = i3 + step;
+        final int i5 = i4 + step;
+        Sorting.sort5(a, i1, i2, i3, i4, i5);
+
+        // Partition data using pivots P1 and P2 into less-than, greater-than or between.
+        // Pivot values P1 & P2 are placed at the end. If P1 < P2, P2 acts as a sentinel.
+        // k traverses the unknown region ??? and values moved if less-than or
+        // greater-than:
+        //
+        // left        less              k       great         right
+        // |P1|  <P1   |   P1 <= & <= P2 |    ???    |    >P2   |P2|
+        //
+        // <P1            (left, lt)
+        // P1 <= & <= P2  [lt, k)
+        // >P2            (gt, right)
+        //
+        // At the end pivots are swapped back to behind the less and great pointers.
+        //
+        // |  <P1        |P1|     P1<= & <= P2    |P2|      >P2    |
+
+        // Swap ends to the pivot locations.
+        final int v1 = a[i2];
+        a[i2] = a[left];
+        a[left] = v1;
+        final int v2 = a[i4];
+        a[i4] = a[right];
+        a[right] = v2;
+
+        // pointers
+        int less = left;
+        int great = right;
+
+        // Fast-forward ascending / descending runs to reduce swaps.
+        // Cannot overrun as end pivots (v1 <= v2) act as sentinels.
+        do {
+            ++less;
+        } while (a[less] < v1);
+        do {
+            --great;
+        } while (a[great] > v2);
+
+        // a[less - 1] < P1 : a[great + 1] > P2
+        // unvisited in [less, great]
+        SORTING:
+        for (int k = less; k <= great; k++) {
+            final int v = a[k];
+            if (v < v1) {
+                // swap(a, k, less++)
+                a[k] = a[less];
+                a[less] = v;
+                less++;
+            } else if (v > v2) {
+                // while k < great and a[great] > v2:
+                //   great--
+                while (a[great] > v2) {
+                    if (great-- == k) {
+                        // Done
+                        break SORTING;
+                    }
+                }
+                // swap(a, k, great--)
+                // if a[k] < v1:
+                //   swap(a, k, less++)
+                final int w = a[great];
+                a[great] = v;
+                great--;
+                // delay a[k] = w
+                if (w < v1) {
+                    a[k] = a[less];
+                    a[less] = w;
+                    less++;
+                } else {
+                    a[k] = w;
+                }
+            }
+        }
+
+        // Change to inclusive ends : a[less] < P1 : a[great] > P2
+        less--;
+        great++;
+        // Move the pivots to correct locations
+        a[left] = a[less];
+        a[less] = v1;
+        a[right] = a[great];
+        a[great] = v2;
+
+        // Record the pivot locations
+        final int lower = less;
+        bounds[2] = great;
+
+        // equal elements
+        // Original paper: If middle partition is bigger than a threshold
+        // then check for equal elements.
+
+        // Note: This is extra work. When performing partitioning the region of interest
+        // may be entirely above or below the central region and this can be skipped.
+
+        // Here we look for equal elements if the centre is more than 5/8 the length.
+        // 5/8 = 1/2 + 1/8. Pivots must be different.
+        if ((great - less) > (n >>> 1) + (n >>> 3) && v1 != v2) {
+
+            // Fast-forward to reduce swaps. Changes inclusive ends to exclusive ends.
+            // Since v1 != v2 these act as sentinels to prevent overrun.
+            do {
+                ++less;
+            } while (a[less] == v1);
+            do {
+                --great;
+            } while (a[great] == v2);
+
+            // This copies the logic in the sorting loop using == comparisons
+            EQUAL:
+            for (int k = less; k <= great; k++) {
+                final int v = a[k];
+                if (v == v1) {
+                    a[k] = a[less];
+                    a[less] = v;
+                    less++;
+                } else if (v == v2) {
+                    while (a[great] == v2) {
+                        if (great-- == k) {
+                            // Done
+                            break EQUAL;
+                        }
+                    }
+                    final int w = a[great];
+                    a[great] = v;
+                    great--;
+                    if (w == v1) {
+                        a[k] = a[less];
+                        a[less] = w;
+                        less++;
+                    } else {
+                        a[k] = w;
+                    }
+                }
+            }
+
+            // Change to inclusive ends
+            less--;
+            great++;
+        }
+
+        // Between pivots in (less, great)
+        if (v1 != v2 && less < great - 1) {
+            // Record the pivot end points
+            bounds[0] = less;
+            bounds[1] = great;
+        } else {
+            // No unsorted internal region (set k1 = k3; k2 = k0)
+            bounds[0] = bounds[2];
+            bounds[1] = lower;
+        }
+
+        return lower;
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a heap select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static void heapSelect(long[] a, int left, int right, int ka, int kb) {
+        if (right <= left) {
+            return;
+        }
+        // Use the smallest heap
+        if (kb - left < right - ka) {
+            heapSelectLeft(a, left, right, ka, kb);
+        } else {
+            heapSelectRight(a, left, right, ka, kb);
+        }
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a heap select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * <p>For best performance this should be called with {@code k} in the lower
+     * half of the range.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static void heapSelectLeft(long[] a, int left, int right, int ka, int kb) {
+        // Create a max heap in-place in [left, k], rooted at a[left] = max
+        // |l|-max-heap-|k|--------------|
+        // Build the heap using Floyd's heap-construction algorithm for heap size n.
+        // Start at parent of the last element in the heap (k),
+        // i.e. start = parent(n-1) : parent(c) = floor((c - 1) / 2) : c = k - left
+        int end = kb + 1;
+        for (int p = left + ((kb - left - 1) >> 1); p >= left; p--) {
+            maxHeapSiftDown(a, a[p], p, left, end);
+        }
+        // Scan the remaining data and insert
+        // Mitigate worst case performance on descending data by backward sweep
+        long max = a[left];
+        for (int i = right; i > kb; i--) {
+            final long v = a[i];
+            if (v < max) {
+                a[i] = max;
+                maxHeapSiftDown(a, v, left, left, end);
+                max = a[left];
+            }
+        }
+        // Partition [ka, kb]
+        // |l|-max-heap-|k|--------------|
+        //  |  <-swap->  |   then sift down reduced size heap
+        // Avoid sifting heap of size 1
+        final int last = Math.max(left, ka - 1);
+        while (--end > last) {
+            maxHeapSiftDown(a, a[end], left, left, end);
+            a[end] = max;
+            max = a[left];
+        }
+    }
+
+    /**
+     * Sift the element down the max heap.
+     *
+     * <p>Assumes {@code root <= p < end}, i.e. the max heap is above root.
+     *
+     * @param a Heap data.
+     * @param v Value to sift.
+     * @param p Start position.
+     * @param root Root of the heap.
+     * @param end End of the heap (exclusive).
+     */
+    private static void maxHeapSiftDown(long[] a, long v, int p, int root, int end) {
+        // child2 = root + 2 * (parent - root) + 2
+        //        = 2 * parent - root + 2
+        while (true) {
+            // Right child
+            int c = (p << 1) - root + 2;
+            if (c > end) {
+                // No left child
+                break;
+            }
+            // Use the left child if right doesn't exist, or it is greater
+            if (c == end || a[c] < a[c - 1]) {
+                --c;
+            }
+            if (v >= a[c]) {
+                // Parent greater than largest child - done
+                break;
+            }
+            // Swap and descend
+            a[p] = a[c];
+            p = c;
+        }
+        a[p] = v;
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a heap select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * <p>For best performance this should be called with {@code k} in the upper
+     * half of the range.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static void heapSelectRight(long[] a, int left, int right, int ka, int kb) {
+        // Create a min heap in-place in [k, right], rooted at a[right] = min
+        // |--------------|k|-min-heap-|r|
+        // Build the heap using Floyd's heap-construction algorithm for heap size n.
+        // Start at parent of the last element in the heap (k),
+        // i.e. start = parent(n-1) : parent(c) = floor((c - 1) / 2) : c = right - k
+        int end = ka - 1;
+        for (int p = right - ((right - ka - 1) >> 1); p <= right; p++) {
+            minHeapSiftDown(a, a[p], p, right, end);
+        }
+        // Scan the remaining data and insert
+        // Mitigate worst case performance on descending data by backward sweep
+        long min = a[right];
+        for (int i = left; i < ka; i++) {
+            final long v = a[i];
+            if (v > min) {
+                a[i] = min;
+                minHeapSiftDown(a, v, right, right, end);
+                min = a[right];
+            }
+        }
+        // Partition [ka, kb]
+        // |--------------|k|-min-heap-|r|
+        //                 |  <-swap->  |   then sift down reduced size heap
+        // Avoid sifting heap of size 1
+        final int last = Math.min(right, kb + 1);
+        while (++end < last) {
+            minHeapSiftDown(a, a[end], right, right, end);
+            a[end] = min;
+            min = a[right];
+        }
+    }
+
+    /**
+     * Sift the element down the min heap.
+     *
+     * <p>Assumes {@code root >= p > end}, i.e. the max heap is below root.
+     *
+     * @param a Heap data.
+     * @param v Value to sift.
+     * @param p Start position.
+     * @param root Root of the heap.
+     * @param end End of the heap (exclusive).
+     */
+    private static void minHeapSiftDown(long[] a, long v, int p, int root, int end) {
+        // child2 = root - 2 * (root - parent) - 2
+        //        = 2 * parent - root - 2
+        while (true) {
+            // Right child
+            int c = (p << 1) - root - 2;
+            if (c < end) {
+                // No left child
+                break;
+            }
+            // Use the left child if right doesn't exist, or it is less
+            if (c == end || a[c] > a[c + 1]) {
+                ++c;
+            }
+            if (v <= a[c]) {
+                // Parent less than smallest child - done
+                break;
+            }
+            // Swap and descend
+            a[p] = a[c];
+            p = c;
+        }
+        a[p] = v;
+    }
+
+    /**
+     * Partition the elements between {@code ka} and {@code kb} using a sort select
+     * algorithm. It is assumed {@code left <= ka <= kb <= right}.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param ka Lower index to select.
+     * @param kb Upper index to select.
+     */
+    static void sortSelect(long[] a, int left, int right, int ka, int kb) {
+        // Combine the test for right <= left with
+        // avoiding the overhead of sort select on tiny data.
+        if (right - left <= MIN_SORTSELECT_SIZE) {
+            Sorting.sort(a, left, right);
+            return;
+        }
+        // Sort the smallest side
+        if (kb - left < right - ka) {
+            sortSelectLeft(a, left, right, kb);
+        } else {
+            sortSelectRight(a, left, right, ka);
+        }
+    }
+
+    /**
+     * Partition the minimum {@code n} elements below {@code k} where
+     * {@code n = k - left + 1}. Uses an insertion sort algorithm.
+     *
+     * <p>Works with any {@code k} in the range {@code left <= k <= right}
+     * and performs a full sort of the range below {@code k}.
+     *
+     * <p>For best performance this should be called with
+     * {@code k - left < right - k}, i.e.
+     * to partition a value in the lower half of the range.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param k Index to select.
+     */
+    static void sortSelectLeft(long[] a, int left, int right, int k) {
+        // Sort
+        for (int i = left; ++i <= k;) {
+            final long v = a[i];
+            // Move preceding higher elements above (if required)
+            if (v < a[i - 1]) {
+                int j = i;
+                while (--j >= left && v < a[j]) {
+                    a[j + 1] = a[j];
+                }
+                a[j + 1] = v;
+            }
+        }
+        // Scan the remaining data and insert
+        // Mitigate worst case performance on descending data by backward sweep
+        long m = a[k];
+        for (int i = right; i > k; i--) {
+            final long v = a[i];
+            if (v < m) {
+                a[i] = m;
+                int j = k;
+                while (--j >= left && v < a[j]) {
+                    a[j + 1] = a[j];
+                }
+                a[j + 1] = v;
+                m = a[k];
+            }
+        }
+    }
+
+    /**
+     * Partition the maximum {@code n} elements above {@code k} where
+     * {@code n = right - k + 1}. Uses an insertion sort algorithm.
+     *
+     * <p>Works with any {@code k} in the range {@code left <= k <= right}
+     * and can be used to perform a full sort of the range above {@code k}.
+     *
+     * <p>For best performance this should be called with
+     * {@code k - left > right - k}, i.e.
+     * to partition a value in the upper half of the range.
+     *
+     * @param a Data array to use to find out the K<sup>th</sup> value.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param k Index to select.
+     */
+    static void sortSelectRight(long[] a, int left, int right, int k) {
+        // Sort
+        for (int i = right; --i >= k;) {
+            final long v = a[i];
+            // Move succeeding lower elements below (if required)
+            if (v > a[i + 1]) {
+                int j = i;
+                while (++j <= right && v > a[j]) {
+                    a[j - 1] = a[j];
+                }
+                a[j - 1] = v;
+            }
+        }
+        // Scan the remaining data and insert
+        // Mitigate worst case performance on descending data by backward sweep
+        long m = a[k];
+        for (int i = left; i < k; i++) {
+            final long v = a[i];
+            if (v > m) {
+                a[i] = m;
+                int j = k;
+                while (++j <= right && v > a[j]) {
+                    a[j - 1] = a[j];
+                }
+                a[j - 1] = v;
+                m = a[k];
+            }
+        }
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Assumes {@code k} is a valid index into [left, right].
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param k Index.
+     */
+    static void select(long[] a, int left, int right, int k) {
+        if (presorted(a, left, right)) {
+            return;
+        }
+        quickSelectAdaptive(a, left, right, k, k, new int[1], MODE_FR_SAMPLING);
+    }
+
+    /**
+     * Test if the data is already sorted. Data in descending order is reversed.
+     *
+     * <p>This scans the initial run of the data; selection is not required if the
+     * run covers the entire range. A short unsorted tail after the run is sorted and
+     * merged into the run; this handles sorted data with a few values appended.
+     * A sample of points is tested before the scan; the scan is skipped if the sample
+     * is not ordered as the run cannot reach the tail. This avoids the cost of
+     * scanning the first run of data composed of multiple sorted runs.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @return true if the data is sorted
+     */
+    static boolean presorted(long[] a, int left, int right) {
+        // Test a sample of points before the tail. If the sample is not ordered
+        // then the initial run cannot reach the tail.
+        final int step = (right - left) >>> 3;
+        if (step != 0) {
+            boolean up = false;
+            boolean down = false;
+            for (int j = left, end = left + 7 * step; j < end; j += step) {
+                up |= a[j] < a[j + step];
+                down |= a[j] > a[j + step];
+            }
+            if (up && down) {
+                return false;
+            }
+        }
+        int i = left;
+        // Ascending run
+        while (i < right && a[i] <= a[i + 1]) {
+            i++;
+        }
+        if (i == right) {
+            return true;
+        }
+        final int tail = Math.min(PRESORTED_TAIL, (right - left) >>> 4);
+        if (i == left) {
+            // Descending run
+            do {
+                i++;
+            } while (i < right && a[i] >= a[i + 1]);
+            if (right - i <= tail) {
+                // Reverse
+                for (int j = left - 1, k = i + 1; ++j < --k;) {
+                    final long v = a[j];
+                    a[j] = a[k];
+                    a[k] = v;
+                }
+            }
+        }
+        if (right - i > tail) {
+            return false;
+        }
+        if (i < right) {
+            mergeTail(a, left, i, right);
+        }
+        return true;
+    }
+
+    /**
+     * Sort the data given an initial sorted run. The tail after the run is sorted
+     * and merged into the run from the end. Each tail value is inserted using a binary
+     * search of the run; the run is moved in blocks and each element moves at most once.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param end Upper bound of the sorted run (inclusive).
+     * @param right Upper bound of data (inclusive).
+     */
+    private static void mergeTail(long[] a, int left, int end, int right) {
+        Sorting.sort(a, end + 1, right);
+        final long[] b = Arrays.copyOfRange(a, end + 1, right + 1);
+        // Unmerged run is [left, i]; positions (i, i + j + 1] are free for b[0, j]
+        int i = end;
+        for (int j = b.length - 1; j >= 0; j--) {
+            final long v = b[j];
+            // First position in the run above v
+            int lo = left;
+            int hi = i + 1;
+            while (lo < hi) {
+                final int m = (lo + hi) >>> 1;
+                if (a[m] > v) {
+                    hi = m;
+                } else {
+                    lo = m + 1;
+                }
+            }
+            System.arraycopy(a, lo, a, lo + j + 1, i - lo + 1);
+            a[lo + j] = v;
+            i = lo - 1;
+        }
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>The count of the number of used indices is returned. If the keys are sorted in-place,
+     * the count is returned as a negative.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param k Indices (may be destructively modified).
+     * @param n Count of indices.
+     */
+    static void select(long[] a, int left, int right, int[] k, int n) {
+        if (presorted(a, left, right)) {
+            return;
+        }
+        if (n == 1) {
+            quickSelectAdaptive(a, left, right, k[0], k[0], new int[1], MODE_FR_SAMPLING);
+            return;
+        }
+
+        // Interval creation validates the indices are in [left, right]
+        final UpdatingInterval keys = IndexSupport.createUpdatingInterval(k, n);
+
+        // Note: If the keys are not separated then they are effectively a single key.
         // Any split of keys separated by the sort select size
         // will be finished on the next iteration.
         final int k1 = keys.left();
@@ -1843,7 +5460,7 @@ final class QuickSelect {
      * @param flags Adaption flags.
      * @return Lower bound of the range containing {@code [ka, kb]} (inclusive).
      */
-    static int quickSelectAdaptive(int[] a, int left, int right, int ka, int kb,
+    static int quickSelectAdaptive(long[] a, int left, int right, int ka, int kb,
             int[] bounds, int flags) {
         int l = left;
         int r = right;
@@ -1946,7 +5563,7 @@ final class QuickSelect {
      * @param upper Upper bound (inclusive) of the pivot range.
      * @return Lower bound (inclusive) of the pivot range.
      */
-    private static int sampleStep(int[] a, int l, int r, int k, int[] upper) {
+    private static int sampleStep(long[] a, int l, int r, int k, int[] upper) {
         // Floyd-Rivest: use SELECT recursively on a sample of size S to get an estimate
         // for the (k-l+1)-th smallest element into a[k], biased slightly so that the
         // (k-l+1)-th element is expected to lie in the smaller set after partitioning.
@@ -1985,7 +5602,7 @@ final class QuickSelect {
      * @param flags Control flags.
      * @return Lower bound (inclusive) of the pivot range.
      */
-    private static int repeatedStep(int[] a, int l, int r, int k, int[] upper, int flags) {
+    private static int repeatedStep(long[] a, int l, int r, int k, int[] upper, int flags) {
         // Adapted from Alexandrescu (2016), algorithm 8.
         final int fp;
         final int s;
@@ -2040,7 +5657,7 @@ final class QuickSelect {
      * @param flags Control flags.
      * @return Lower bound (inclusive) of the pivot range.
      */
-    private static int repeatedStepLeft(int[] a, int l, int r, int k, int[] upper, int flags) {
+    private static int repeatedStepLeft(long[] a, int l, int r, int k, int[] upper, int flags) {
         // Adapted from Alexandrescu (2016), algorithm 9.
         final int fp;
         final int s;
@@ -2097,7 +5714,7 @@ final class QuickSelect {
      * @param flags Control flags.
      * @return Lower bound (inclusive) of the pivot range.
      */
-    private static int repeatedStepRight(int[] a, int l, int r, int k, int[] upper, int flags) {
+    private static int repeatedStepRight(long[] a, int l, int r, int k, int[] upper, int flags) {
         // Mirror image repeatedStepLeft using upper median into 3rd quartile
         final int fp;
         final int e;
@@ -2153,7 +5770,7 @@ final class QuickSelect {
      * @param flags Control flags.
      * @return Lower bound (inclusive) of the pivot range.
      */
-    private static int repeatedStepFarLeft(int[] a, int l, int r, int k, int[] upper, int flags) {
+    private static int repeatedStepFarLeft(long[] a, int l, int r, int k, int[] upper, int flags) {
         // Far step has been changed from the Alexandrescu (2016) step of lower-median-of-4, min-of-3
         // into the 4th 12th-tile to a min-of-4, median-of-3 into the 2nd 12th-tile.
         // The differences are:
@@ -2179,17 +5796,17 @@ final class QuickSelect {
             final int end = l + f2;
             for (int i = l + f; i < end; i++) {
                 if (a[i + f] < a[i - f]) {
-                    final int u = a[i + f];
+                    final long u = a[i + f];
                     a[i + f] = a[i - f];
                     a[i - f] = u;
                 }
                 if (a[i + f2] < a[i]) {
-                    final int v = a[i + f2];
+                    final long v = a[i + f2];
                     a[i + f2] = a[i];
                     a[i] = v;
                 }
                 if (a[i] < a[i - f]) {
-                    final int u = a[i];
+                    final long u = a[i];
                     a[i] = a[i - f];
                     a[i - f] = u;
                 }
@@ -2231,7 +5848,7 @@ final class QuickSelect {
      * @param flags Control flags.
      * @return Lower bound (inclusive) of the pivot range.
      */
-    private static int repeatedStepFarRight(int[] a, int l, int r, int k, int[] upper, int flags) {
+    private static int repeatedStepFarRight(long[] a, int l, int r, int k, int[] upper, int flags) {
         // Mirror image repeatedStepFarLeft
         final int fp;
         final int e;
@@ -2249,17 +5866,17 @@ final class QuickSelect {
             final int end = r - f2;
             for (int i = r - f; i > end; i--) {
                 if (a[i - f] > a[i + f]) {
-                    final int u = a[i - f];
+                    final long u = a[i - f];
                     a[i - f] = a[i + f];
                     a[i + f] = u;
                 }
                 if (a[i - f2] > a[i]) {
-                    final int v = a[i - f2];
+                    final long v = a[i - f2];
                     a[i - f2] = a[i];
                     a[i] = v;
                 }
                 if (a[i] > a[i + f]) {
-                    final int u = a[i];
+                    final long u = a[i];
                     a[i] = a[i + f];
                     a[i + f] = u;
                 }
@@ -2304,7 +5921,7 @@ final class QuickSelect {
      * @return Lower bound (inclusive) of the pivot range [k0].
      */
     // package-private for testing
-    static int expandPartition(int[] a, int left, int right, int start, int end,
+    static int expandPartition(long[] a, int left, int right, int start, int end,
         int pivot0, int pivot1, int[] upper) {
         // 3-way partition of the data using a pivot value into
         // less-than, equal or greater-than.
@@ -2324,10 +5941,10 @@ final class QuickSelect {
         // |l                       |p0  p1|           |         | r|
         // |         <              |  ==  |       >   |   ???   |<=|
 
-        final int v = a[pivot0];
+        final long v = a[pivot0];
         // Use start/end as sentinels (requires start != end)
-        int vi = a[start];
-        int vj = a[end];
+        long vi = a[start];
+        long vj = a[end];
         a[start] = a[left];
         a[end] = a[right];
         a[left] = vj;
@@ -2369,7 +5986,7 @@ final class QuickSelect {
                     do {
                         ++j;
                     } while (a[j] > v);
-                    final int w = a[j];
+                    final long w = a[j];
                     // Move upper bound of pivot region
                     a[j] = a[++p1];
                     a[p1] = v;
@@ -2386,7 +6003,7 @@ final class QuickSelect {
                     do {
                         --i;
                     } while (a[i] < v);
-                    final int w = a[i];
+                    final long w = a[i];
                     // Move lower bound of pivot region
                     a[i] = a[--p0];
                     a[p0] = v;
@@ -2404,6 +6021,23 @@ final class QuickSelect {
         return p0;
     }
 
+    /**
+     * Partition the array such that indices {@code k} correspond to their
+     * correctly sorted value in the equivalent fully sorted array.
+     *
+     * <p>See {@link #dualPivotQuickSelect(long[], int, int, UpdatingInterval, int, int[])}.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive, assumed to be strictly positive).
+     * @param right Upper bound of data (inclusive, assumed to be strictly positive).
+     * @param k Interval of indices to partition (ordered).
+     * @param flags Control flags.
+     */
+    // package-private for testing
+    static void dualPivotQuickSelect(long[] a, int left, int right, UpdatingInterval k, int flags) {
+        dualPivotQuickSelect(a, left, right, k, flags, new int[3]);
+    }
+
     /**
      * Partition the array such that indices {@code k} correspond to their
      * correctly sorted value in the equivalent fully sorted array.
@@ -2431,9 +6065,11 @@ final class QuickSelect {
      * @param right Upper bound of data (inclusive, assumed to be strictly positive).
      * @param k Interval of indices to partition (ordered).
      * @param flags Control flags.
+     * @param upper Upper bounds of the partition (length at least 3). This is used as
+     * scratch space and is shared with recursive calls.
      */
-    // package-private for testing
-    static void dualPivotQuickSelect(int[] a, int left, int right, UpdatingInterval k, int flags) {
+    static void dualPivotQuickSelect(long[] a, int left, int right, UpdatingInterval k, int flags,
+        int[] upper) {
         // If partitioning splits the interval then recursion is used for the left-most side(s)
         // and the right-most side remains within this function. If partitioning does
         // not split the interval then it remains within this function.
@@ -2442,7 +6078,6 @@ final class QuickSelect {
         int f = flags;
         int ka = k.left();
         int kb = k.right();
-        final int[] upper = {0, 0, 0};
         while (true) {
             // Select when ka and kb are close to the same end,
             // or the entire range is small
@@ -2467,6 +6102,8 @@ final class QuickSelect {
             // Dual-pivot partitioning
             final int p0 = partition(a, l, r, upper);
             final int p1 = upper[0];
+            final int p2 = upper[1];
+            final int p3 = upper[2];
 
             // Recursion to max depth
             // Note: Here we possibly branch left, middle and right with multiple keys.
@@ -2486,7 +6123,7 @@ final class QuickSelect {
                     }
                     continue;
                 }
-                dualPivotQuickSelect(a, l, p0 - 1, k.splitLeft(p0, p1), f);
+                dualPivotQuickSelect(a, l, p0 - 1, k.splitLeft(p0, p1), f, upper);
                 // Here we must process middle and/or right
                 ka = k.left();
             } else if (kb <= p1) {
@@ -2497,8 +6134,6 @@ final class QuickSelect {
                 ka = k.updateLeft(p1 + 1);
             }
             // Recurse middle if required
-            final int p2 = upper[1];
-            final int p3 = upper[2];
             if (ka < p2) {
                 l = p1 + 1;
                 if (kb <= p3) {
@@ -2509,7 +6144,7 @@ final class QuickSelect {
                     }
                     continue;
                 }
-                dualPivotQuickSelect(a, l, p2 - 1, k.splitLeft(p2, p3), f);
+                dualPivotQuickSelect(a, l, p2 - 1, k.splitLeft(p2, p3), f, upper);
                 ka = k.left();
             } else if (kb <= p3) {
                 // No right side
@@ -2554,7 +6189,7 @@ final class QuickSelect {
      * @param bounds Points [k1, k2, k3].
      * @return Lower bound (inclusive) of the pivot range [k0].
      */
-    private static int partition(int[] a, int left, int right, int[] bounds) {
+    private static int partition(long[] a, int left, int right, int[] bounds) {
         // Pick 2 pivots from 5 approximately uniform through the range.
         // Spacing is ~ 1/7 made using shifts. Other strategies are equal or much
         // worse. 1/7 = 5/35 ~ 1/8 + 1/64 : 0.1429 ~ 0.1406
@@ -2585,10 +6220,10 @@ final class QuickSelect {
         // |  <P1        |P1|     P1<= & <= P2    |P2|      >P2    |
 
         // Swap ends to the pivot locations.
-        final int v1 = a[i2];
+        final long v1 = a[i2];
         a[i2] = a[left];
         a[left] = v1;
-        final int v2 = a[i4];
+        final long v2 = a[i4];
         a[i4] = a[right];
         a[right] = v2;
 
@@ -2609,7 +6244,7 @@ final class QuickSelect {
         // unvisited in [less, great]
         SORTING:
         for (int k = less; k <= great; k++) {
-            final int v = a[k];
+            final long v = a[k];
             if (v < v1) {
                 // swap(a, k, less++)
                 a[k] = a[less];
@@ -2627,7 +6262,7 @@ final class QuickSelect {
                 // swap(a, k, great--)
                 // if a[k] < v1:
                 //   swap(a, k, less++)
-                final int w = a[great];
+                final long w = a[great];
                 a[great] = v;
                 great--;
                 // delay a[k] = w
@@ -2677,7 +6312,7 @@ final class QuickSelect {
             // This copies the logic in the sorting loop using == comparisons
             EQUAL:
             for (int k = less; k <= great; k++) {
-                final int v = a[k];
+                final long v = a[k];
                 if (v == v1) {
                     a[k] = a[less];
                     a[less] = v;
@@ -2689,7 +6324,7 @@ final class QuickSelect {
                             break EQUAL;
                         }
                     }
-                    final int w = a[great];
+                    final long w = a[great];
                     a[great] = v;
                     great--;
                     if (w == v1) {
@@ -2721,6 +6356,212 @@ final class QuickSelect {
         return lower;
     }
 
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Assumes {@code k} is a valid index into [left, right].
+     *
+     * <p>Large ranges are sorted using a histogram of the 16-bit values. Small ranges
+     * are processed using selection on an {@code int[]} copy of the range.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param k Index.
+     */
+    static void select(short[] a, int left, int right, int k) {
+        if (right - left >= HISTOGRAM_SORT_SIZE) {
+            histogramSort(a, left, right);
+            return;
+        }
+        final int[] x = copy(a, left, right);
+        select(x, 0, x.length - 1, k - left);
+        copy(x, a, left);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Large ranges are sorted using a histogram of the 16-bit values. Small ranges
+     * are processed using selection on an {@code int[]} copy of the range.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param k Indices (may be destructively modified).
+     * @param n Count of indices.
+     */
+    static void select(short[] a, int left, int right, int[] k, int n) {
+        if (n < 1) {
+            return;
+        }
+        if (right - left >= HISTOGRAM_SORT_SIZE) {
+            histogramSort(a, left, right);
+            return;
+        }
+        final int[] x = copy(a, left, right);
+        // Map indices to the workspace
+        for (int i = 0; i < n; i++) {
+            k[i] -= left;
+        }
+        select(x, 0, x.length - 1, k, n);
+        copy(x, a, left);
+    }
+
+    /**
+     * Sort the array using a histogram of the values.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     */
+    static void histogramSort(short[] a, int left, int right) {
+        final int[] h = new int[1 << 16];
+        for (int i = left; i <= right; i++) {
+            h[a[i] - Short.MIN_VALUE]++;
+        }
+        // Rewrite the range using the counts
+        for (int v = 0, i = left; i <= right; v++) {
+            for (int c = h[v]; c > 0; c--) {
+                a[i++] = (short) (v + Short.MIN_VALUE);
+            }
+        }
+    }
+
+    /**
+     * Copy the range to a new {@code int[]} array.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @return the copy
+     */
+    private static int[] copy(short[] a, int left, int right) {
+        final int[] x = new int[right - left + 1];
+        for (int i = left; i <= right; i++) {
+            x[i - left] = a[i];
+        }
+        return x;
+    }
+
+    /**
+     * Copy the {@code int[]} workspace values to the array.
+     *
+     * @param x Workspace values.
+     * @param a Destination.
+     * @param left Lower bound of destination (inclusive).
+     */
+    private static void copy(int[] x, short[] a, int left) {
+        for (int i = 0; i < x.length; i++) {
+            a[left + i] = (short) x[i];
+        }
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Assumes {@code k} is a valid index into [left, right].
+     *
+     * <p>Large ranges are sorted using a histogram of the 16-bit values. Small ranges
+     * are processed using selection on an {@code int[]} copy of the range.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param k Index.
+     */
+    static void select(char[] a, int left, int right, int k) {
+        if (right - left >= HISTOGRAM_SORT_SIZE) {
+            histogramSort(a, left, right);
+            return;
+        }
+        final int[] x = copy(a, left, right);
+        select(x, 0, x.length - 1, k - left);
+        copy(x, a, left);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Large ranges are sorted using a histogram of the 16-bit values. Small ranges
+     * are processed using selection on an {@code int[]} copy of the range.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param k Indices (may be destructively modified).
+     * @param n Count of indices.
+     */
+    static void select(char[] a, int left, int right, int[] k, int n) {
+        if (n < 1) {
+            return;
+        }
+        if (right - left >= HISTOGRAM_SORT_SIZE) {
+            histogramSort(a, left, right);
+            return;
+        }
+        final int[] x = copy(a, left, right);
+        // Map indices to the workspace
+        for (int i = 0; i < n; i++) {
+            k[i] -= left;
+        }
+        select(x, 0, x.length - 1, k, n);
+        copy(x, a, left);
+    }
+
+    /**
+     * Sort the array using a histogram of the values.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     */
+    static void histogramSort(char[] a, int left, int right) {
+        final int[] h = new int[1 << 16];
+        for (int i = left; i <= right; i++) {
+            h[a[i]]++;
+        }
+        // Rewrite the range using the counts
+        for (int v = 0, i = left; i <= right; v++) {
+            for (int c = h[v]; c > 0; c--) {
+                a[i++] = (char) v;
+            }
+        }
+    }
+
+    /**
+     * Copy the range to a new {@code int[]} array.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @return the copy
+     */
+    private static int[] copy(char[] a, int left, int right) {
+        final int[] x = new int[right - left + 1];
+        for (int i = left; i <= right; i++) {
+            x[i - left] = a[i];
+        }
+        return x;
+    }
+
+    /**
+     * Copy the {@code int[]} workspace values to the array.
+     *
+     * @param x Workspace values.
+     * @param a Destination.
+     * @param left Lower bound of destination (inclusive).
+     */
+    private static void copy(int[] x, char[] a, int left) {
+        for (int i = 0; i < x.length; i++) {
+            a[left + i] = (char) x[i];
+        }
+    }
+
     /**
      * Map the distance from the edge of {@code [l, r]} to a new distance in {@code [0, n)}.
      *
@@ -2749,7 +6590,7 @@ final class QuickSelect {
      * @param kn Last key of interest.
      * @return the flags
      */
-    private static int dualPivotFlags(int left, int right, int k1, int kn) {
+    static int dualPivotFlags(int left, int right, int k1, int kn) {
         final int maxDepth = dualPivotMaxDepth(right - left);
         final int ss = dualPivotSortSelectSize(k1, kn);
         return dualPivotFlags(maxDepth, ss);
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.numbers.arrays;
+
+/**
+ * An {@link UpdatingInterval} containing all indices in a range.
+ *
+ * <p>Partitioning an array using all indices in the range is a full sort of the range.
+ *
+ * @since 1.3
+ */
+final class RangeUpdatingInterval implements UpdatingInterval {
+    /** Left bound of the interval. */
+    private int left;
+    /** Right bound of the interval. */
+    private int right;
+
+    /**
+     * Create an instance containing all indices within the range {@code [left, right]}.
+     * The range is not validated.
+     *
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     */
+    RangeUpdatingInterval(int left, int right) {
+        this.left = left;
+        this.right = right;
+    }
+
+    @Override
+    public int left() {
+        return left;
+    }
+
+    @Override
+    public int right() {
+        return right;
+    }
+
+    @Override
+    public int updateLeft(int k) {
+        // Assume left < k <= right
+        left = k;
+        return k;
+    }
+
+    @Override
+    public int updateRight(int k) {
+        // Assume left <= k < right
+        right = k;
+        return k;
+    }
+
+    @Override
+    public UpdatingInterval splitLeft(int ka, int kb) {
+        // Assume left < ka <= kb < right
+        final RangeUpdatingInterval lower = new RangeUpdatingInterval(left, ka - 1);
+        left = kb + 1;
+        return lower;
+    }
+}
@@ -0,0 +1,361 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.arrays;
+
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Order statistics of a sliding window of {@code double} values.
+ *
+ * <p>Values are added to the end of the window. When the window is full the oldest value
+ * is evicted to make space. The oldest value can also be explicitly evicted. The
+ * K<sup>th</sup> smallest value in the window can be obtained at any time.
+ *
+ * <p>Values are stored in a treap (a randomised binary search tree) ordered by value
+ * and augmented with the size of each subtree. Add, evict and select operations have
+ * an expected cost of {@code O(log w)} for a window of size {@code w}. The tree nodes are
+ * held in arrays allocated on construction; no allocation is performed on update.
+ *
+ * <p>The ordering is that imposed by {@link Double#compare(double, double)}: {@code -0.0}
+ * is treated as less than {@code 0.0}; and {@code NaN} is considered greater than any
+ * other value. The result of {@link #select(int)} is the same as the value at index
+ * {@code k} after using {@link Selection#select(double[], int)} on the window contents.
+ *
+ * <p>The quantile {@code p} is defined as the smallest value {@code x} such that at
+ * least a fraction {@code p} of the values in the window are {@code <= x}.
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @since 1.3
+ */
+public final class RollingSelection implements DoubleConsumer {
+    /** Sentinel for no node. */
+    private static final int NIL = -1;
+
+    /** Values in a circular buffer. The buffer index is the node of the tree. */
+    private final double[] values;
+    /** Sort key for each value. */
+    private final long[] keys;
+    /** Left child of each node. */
+    private final int[] left;
+    /** Right child of each node. */
+    private final int[] right;
+    /** Size of the subtree rooted at each node. */
+    private final int[] size;
+    /** Heap priority of each node. */
+    private final int[] priority;
+    /** Root of the tree. */
+    private int root = NIL;
+    /** Index of the oldest value. */
+    private int head;
+    /** Number of values in the window. */
+    private int n;
+
+    /**
+     * @param w Window size.
+     */
+    private RollingSelection(int w) {
+        values = new double[w];
+        keys = new long[w];
+        left = new int[w];
+        right = new int[w];
+        size = new int[w];
+        // Priorities are fixed for each node. Each node is reused for the values
+        // added at the same window position and the priority is independent of the value.
+        priority = new SplittableRandom().ints(w).toArray();
+    }
+
+    /**
+     * Create an instance with the specified window size.
+     *
+     * @param w Window size.
+     * @return the instance
+     * @throws IllegalArgumentException if {@code w < 1}
+     */
+    public static RollingSelection create(int w) {
+        if (w < 1) {
+            throw new IllegalArgumentException("Invalid window size: " + w);
+        }
+        return new RollingSelection(w);
+    }
+
+    /**
+     * Adds the value to the window. If the window is full the oldest value is
+     * evicted.
+     *
+     * @param value Value.
+     */
+    @Override
+    public void accept(double value) {
+        final int w = values.length;
+        if (n == w) {
+            evict();
+        }
+        int x = head + n;
+        if (x >= w) {
+            x -= w;
+        }
+        values[x] = value;
+        keys[x] = sortKey(value);
+        root = insert(root, x);
+        n++;
+    }
+
+    /**
+     * Evicts the oldest value from the window.
+     *
+     * @return the value
+     * @throws NoSuchElementException if the window is empty
+     */
+    public double evict() {
+        if (n == 0) {
+            throw new NoSuchElementException("Empty window");
+        }
+        final int x = head;
+        root = remove(root, x);
+        if (++head == values.length) {
+            head = 0;
+        }
+        n--;
+        return values[x];
+    }
+
+    /**
+     * Removes all values from the window.
+     */
+    public void clear() {
+        root = NIL;
+        head = 0;
+        n = 0;
+    }
+
+    /**
+     * Gets the number of values in the window.
+     *
+     * @return the size
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Gets the maximum number of values in the window.
+     *
+     * @return the window size
+     */
+    public int getWindowSize() {
+        return values.length;
+    }
+
+    /**
+     * Gets the K<sup>th</sup> smallest value in the window.
+     *
+     * @param k Index.
+     * @return the value
+     * @throws IndexOutOfBoundsException if index {@code k} is not within the
+     * sub-range {@code [0, size())}
+     */
+    public double select(int k) {
+        IndexSupport.checkIndex(0, n, k);
+        return values[find(k)];
+    }
+
+    /**
+     * Gets the quantile {@code p} of the values in the window.
+     *
+     * <p>Returns {@code NaN} if the window is empty.
+     *
+     * @param p Probability in {@code [0, 1]}.
+     * @return the quantile
+     * @throws IllegalArgumentException if the probability is not in the range {@code [0, 1]}
+     */
+    public double quantile(double p) {
+        return quantiles(p)[0];
+    }
+
+    /**
+     * Gets the quantiles {@code p} of the values in the window.
+     *
+     * <p>Returns {@code NaN} if the window is empty.
+     *
+     * @param p Probabilities in {@code [0, 1]}.
+     * @return the quantiles
+     * @throws IllegalArgumentException if any probability is not in the range {@code [0, 1]}
+     */
+    public double[] quantiles(double... p) {
+        final double[] q = new double[p.length];
+        for (int i = 0; i < p.length; i++) {
+            final double pi = p[i];
+            if (!(pi >= 0 && pi <= 1)) {
+                throw new IllegalArgumentException("Invalid probability: " + pi);
+            }
+            // Rank in [1, n]
+            q[i] = n == 0 ?
+                Double.NaN :
+                values[find(Math.max(1, (int) Math.ceil(pi * n)) - 1)];
+        }
+        return q;
+    }
+
+    /**
+     * Create a key that orders values using {@link Double#compare(double, double)}.
+     * All NaN values are mapped to the canonical NaN representation.
+     *
+     * @param v Value.
+     * @return the key
+     */
+    private static long sortKey(double v) {
+        final long bits = Double.doubleToLongBits(v);
+        // Negative values: flip the magnitude bits to reverse the order
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    /**
+     * Test if node {@code x} is ordered before node {@code y}. Equal values are
+     * ordered using the node index.
+     *
+     * @param x Node.
+     * @param y Node.
+     * @return true if {@code x < y}
+     */
+    private boolean isBefore(int x, int y) {
+        final long kx = keys[x];
+        final long ky = keys[y];
+        return kx < ky || kx == ky && x < y;
+    }
+
+    /**
+     * Gets the size of the subtree rooted at node {@code t}.
+     *
+     * @param t Node.
+     * @return the size
+     */
+    private int sizeOf(int t) {
+        return t == NIL ? 0 : size[t];
+    }
+
+    /**
+     * Find the node with the K<sup>th</sup> smallest value.
+     *
+     * @param k Index (assumed to be valid).
+     * @return the node
+     */
+    private int find(int k) {
+        int t = root;
+        int i = k;
+        while (true) {
+            final int s = sizeOf(left[t]);
+            if (i < s) {
+                t = left[t];
+            } else if (i == s) {
+                return t;
+            } else {
+                i -= s + 1;
+                t = right[t];
+            }
+        }
+    }
+
+    /**
+     * Insert the node {@code x} into the subtree rooted at node {@code t}.
+     *
+     * @param t Root of the subtree.
+     * @param x Node.
+     * @return the root of the subtree
+     */
+    private int insert(int t, int x) {
+        if (t == NIL) {
+            left[x] = NIL;
+            right[x] = NIL;
+            size[x] = 1;
+            return x;
+        }
+        size[t]++;
+        if (isBefore(x, t)) {
+            final int c = insert(left[t], x);
+            left[t] = c;
+            if (priority[c] > priority[t]) {
+                // Rotate right
+                left[t] = right[c];
+                right[c] = t;
+                size[c] = size[t];
+                size[t] = sizeOf(left[t]) + sizeOf(right[t]) + 1;
+                return c;
+            }
+        } else {
+            final int c = insert(right[t], x);
+            right[t] = c;
+            if (priority[c] > priority[t]) {
+                // Rotate left
+                right[t] = left[c];
+                left[c] = t;
+                size[c] = size[t];
+                size[t] = sizeOf(left[t]) + sizeOf(right[t]) + 1;
+                return c;
+            }
+        }
+        return t;
+    }
+
+    /**
+     * Remove the node {@code x} from the subtree rooted at node {@code t}.
+     * The node must be present in the subtree.
+     *
+     * @param t Root of the subtree.
+     * @param x Node.
+     * @return the root of the subtree
+     */
+    private int remove(int t, int x) {
+        if (t == x) {
+            return merge(left[t], right[t]);
+        }
+        size[t]--;
+        if (isBefore(x, t)) {
+            left[t] = remove(left[t], x);
+        } else {
+            right[t] = remove(right[t], x);
+        }
+        return t;
+    }
+
+    /**
+     * Merge two subtrees. All nodes in {@code a} are ordered before the nodes in {@code b}.
+     *
+     * @param a Root of the lower subtree.
+     * @param b Root of the upper subtree.
+     * @return the root of the merged subtree
+     */
+    private int merge(int a, int b) {
+        if (a == NIL) {
+            return b;
+        }
+        if (b == NIL) {
+            return a;
+        }
+        if (priority[a] > priority[b]) {
+            size[a] += size[b];
+            right[a] = merge(right[a], b);
+            return a;
+        }
+        size[b] += size[a];
+        left[b] = merge(a, left[b]);
+        return b;
+    }
+}
@@ -17,6 +17,13 @@
 
 package org.apache.commons.numbers.arrays;
 
+import java.nio.DoubleBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToDoubleFunction;
+
 /**
  * Select indices in array data.
  *
@@ -61,14 +68,22 @@ package org.apache.commons.numbers.arrays;
  * maximum number of times that {@code n} indices can be split is {@code n - 1} before all
  * indices are handled as singles.
  *
+ * <p>Partitioning of multiple keys divides the data into independent regions. The parallel
+ * methods process these regions concurrently using fork-join tasks. This can provide a
+ * speed-up for large arrays with many separated indices.
+ *
  * <p>Floating-point order
  *
  * <p>The {@code <} relation does not impose a total order on all floating-point values.
- * This class respects the ordering imposed by {@link Double#compare(double, double)}.
- * {@code -0.0} is treated as less than value {@code 0.0}; {@code Double.NaN} is
- * considered greater than any other value; and all {@code Double.NaN} values are
+ * This class respects the ordering imposed by {@link Double#compare(double, double)}
+ * and {@link Float#compare(float, float)}.
+ * {@code -0.0} is treated as less than value {@code 0.0}; {@code NaN} is
+ * considered greater than any other value; and all {@code NaN} values are
  * considered equal.
  *
+ * <p>Integral types with 16-bit values ({@code short} and {@code char}) are sorted using
+ * a histogram of the values when the range is large.
+ *
  * <p>References
  *
  * <p>Quickselect is introduced in Hoare [1]. This selects an element {@code k} from {@code n}
@@ -148,7 +163,7 @@ public final class Selection {
      */
     public static void select(double[] a, int[] k) {
         IndexSupport.checkIndices(0, a.length, k);
-        doSelect(a, 0, a.length, k);
+        doSelect(a, 0, a.length, k, false);
     }
 
     /**
@@ -184,7 +199,54 @@ public final class Selection {
     public static void select(double[] a, int fromIndex, int toIndex, int[] k) {
         IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
         IndexSupport.checkIndices(fromIndex, toIndex, k);
-        doSelect(a, fromIndex, toIndex, k);
+        doSelect(a, fromIndex, toIndex, k, false);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Regions of the array containing indices are partitioned concurrently using the
+     * {@link ForkJoinPool#commonPool() ForkJoin common pool}. The
+     * result satisfies the same ordering guarantees as {@link #select(double[], int[])}.
+     * Parallel processing is only used when the array is large and there are multiple
+     * separated indices; otherwise the method is equivalent to the serial method.
+     *
+     * @param a Values.
+     * @param k Indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.3
+     */
+    public static void parallelSelect(double[] a, int[] k) {
+        IndexSupport.checkIndices(0, a.length, k);
+        doSelect(a, 0, a.length, k, isParallel());
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Regions of the array containing indices are partitioned concurrently using the
+     * {@link ForkJoinPool#commonPool() ForkJoin common pool}. The
+     * result satisfies the same ordering guarantees as
+     * {@link #select(double[], int, int, int[])}.
+     * Parallel processing is only used when the range is large and there are multiple
+     * separated indices; otherwise the method is equivalent to the serial method.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if any index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @since 1.3
+     */
+    public static void parallelSelect(double[] a, int fromIndex, int toIndex, int[] k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndices(fromIndex, toIndex, k);
+        doSelect(a, fromIndex, toIndex, k, isParallel());
     }
 
     /**
@@ -230,7 +292,7 @@ public final class Selection {
         // Restore signed zeros
         if (cn != 0) {
             // Use partition index below zero to fast-forward to zero as much as possible
-            for (int j = a[k] < 0 ? k : -1;;) {
+            for (int j = a[k] < 0 ? k : fromIndex - 1;;) {
                 if (a[++j] == 0) {
                     a[j] = -0.0;
                     if (--cn == 0) {
@@ -252,8 +314,9 @@ public final class Selection {
      * @param toIndex Index of the last element (exclusive).
      * @param a Values.
      * @param k Indices (may be destructively modified).
+     * @param parallel Set to true to use parallel partitioning.
      */
-    private static void doSelect(double[] a, int fromIndex, int toIndex, int[] k) {
+    private static void doSelect(double[] a, int fromIndex, int toIndex, int[] k, boolean parallel) {
         if (k.length == 0 || toIndex - fromIndex <= 1) {
             return;
         }
@@ -293,13 +356,15 @@ public final class Selection {
             }
             // Return n, the count of used indices in k.
             // Use this to post-process zeros.
-            n = QuickSelect.select(a, fromIndex, end - 1, k, n);
+            n = parallel ?
+                QuickSelect.parallelSelect(a, fromIndex, end - 1, k, n) :
+                QuickSelect.select(a, fromIndex, end - 1, k, n);
         }
 
         // Restore signed zeros
         if (cn != 0) {
             // Use partition indices below zero to fast-forward to zero as much as possible
-            int j = -1;
+            int j = fromIndex - 1;
             if (n < 0) {
                 // Binary search on -n sorted indices: hi = (-n) - 1
                 int lo = 0;
@@ -307,7 +372,7 @@ public final class Selection {
                 while (lo <= hi) {
                     final int mid = (lo + hi) >>> 1;
                     if (a[k[mid]] < 0) {
-                        j = mid;
+                        j = k[mid];
                         lo = mid + 1;
                     } else {
                         hi = mid - 1;
@@ -333,78 +398,1800 @@ public final class Selection {
     }
 
     /**
-     * Partition the array such that index {@code k} corresponds to its correctly
-     * sorted value in the equivalent fully sorted array.
+     * Partition the buffer such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted data.
+     *
+     * <p>The data is the remaining elements of the buffer, from the current position
+     * (inclusive) to the limit (exclusive). The index is relative to the current position.
+     * Elements are accessed using the absolute get and put methods; the position and limit
+     * of the buffer are not modified. This allows partitioning of data that is not held
+     * in an array, for example a direct buffer or a memory-mapped file.
      *
      * @param a Values.
      * @param k Index.
      * @throws IndexOutOfBoundsException if index {@code k} is not within the
-     * sub-range {@code [0, a.length)}
+     * sub-range {@code [0, a.remaining())}
+     * @throws ReadOnlyBufferException if the buffer is read-only
+     * @since 1.3
      */
-    public static void select(int[] a, int k) {
-        IndexSupport.checkIndex(0, a.length, k);
-        if (a.length <= 1) {
-            return;
-        }
-        QuickSelect.select(a, 0, a.length - 1, k);
+    public static void select(DoubleBuffer a, int k) {
+        IndexSupport.checkIndex(0, a.remaining(), k);
+        doSelect(a, new int[] {k});
     }
 
     /**
-     * Partition the array such that indices {@code k} correspond to their correctly
-     * sorted value in the equivalent fully sorted array.
+     * Partition the buffer such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted data.
+     *
+     * <p>The data is the remaining elements of the buffer, from the current position
+     * (inclusive) to the limit (exclusive). Indices are relative to the current position.
+     * Elements are accessed using the absolute get and put methods; the position and limit
+     * of the buffer are not modified. This allows partitioning of data that is not held
+     * in an array, for example a direct buffer or a memory-mapped file.
      *
      * @param a Values.
      * @param k Indices (may be destructively modified).
      * @throws IndexOutOfBoundsException if any index {@code k} is not within the
-     * sub-range {@code [0, a.length)}
+     * sub-range {@code [0, a.remaining())}
+     * @throws ReadOnlyBufferException if the buffer is read-only
+     * @since 1.3
      */
-    public static void select(int[] a, int[] k) {
-        IndexSupport.checkIndices(0, a.length, k);
-        if (k.length == 0 || a.length <= 1) {
+    public static void select(DoubleBuffer a, int[] k) {
+        IndexSupport.checkIndices(0, a.remaining(), k);
+        doSelect(a, k);
+    }
+
+    /**
+     * Partition the buffer such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted data.
+     *
+     * <p>This method pre/post-processes the data and indices to respect the ordering
+     * imposed by {@link Double#compare(double, double)}.
+     *
+     * @param a Values.
+     * @param k Indices relative to the buffer position (may be destructively modified).
+     */
+    private static void doSelect(DoubleBuffer a, int[] k) {
+        if (a.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        final int fromIndex = a.position();
+        final int toIndex = a.limit();
+        if (k.length == 0 || toIndex - fromIndex <= 1) {
             return;
         }
-        QuickSelect.select(a, 0, a.length - 1, k, k.length);
+        // Sort NaN / count signed zeros.
+        int cn = 0;
+        int end = toIndex;
+        for (int i = toIndex; --i >= fromIndex;) {
+            final double v = a.get(i);
+            // Count negative zeros using a sign bit check
+            if (Double.doubleToRawLongBits(v) == Long.MIN_VALUE) {
+                cn++;
+                // Change to positive zero.
+                // Data must be repaired after selection.
+                a.put(i, 0.0);
+            } else if (v != v) {
+                // Move NaN to end
+                a.put(i, a.get(--end));
+                a.put(end, v);
+            }
+        }
+
+        // Partition
+        int n = 0;
+        if (end - fromIndex > 1) {
+            // Convert to absolute indices.
+            // Filter indices invalidated by NaN check.
+            n = k.length;
+            for (int i = n; --i >= 0;) {
+                final int index = k[i] + fromIndex;
+                k[i] = index;
+                if (index >= end) {
+                    // Move to end
+                    k[i] = k[--n];
+                    k[n] = index;
+                }
+            }
+            // Return n, the count of used indices in k.
+            // Use this to post-process zeros.
+            n = Math.abs(BufferQuickSelect.select(a, fromIndex, end - 1, k, n));
+        }
+
+        // Restore signed zeros
+        if (cn != 0) {
+            // Use partition indices below zero to fast-forward to zero as much as possible
+            int j = fromIndex - 1;
+            for (int i = n; --i >= 0;) {
+                if (a.get(k[i]) < 0) {
+                    j = Math.max(j, k[i]);
+                }
+            }
+            for (;;) {
+                if (a.get(++j) == 0) {
+                    a.put(j, -0.0);
+                    if (--cn == 0) {
+                        break;
+                    }
+                }
+            }
+        }
     }
 
     /**
-     * Partition the array such that index {@code k} corresponds to its correctly
-     * sorted value in the equivalent fully sorted array.
+     * Sort the array into ascending order.
+     *
+     * <p>This is equivalent to partitioning all indices of the array, and uses the same
+     * dual-pivot partitioning as {@link #select(double[], int[])}. The sort is not stable.
+     * The ordering is the same as {@link Arrays#sort(double[])}.
+     *
+     * @param a Values.
+     * @since 1.3
+     */
+    public static void sort(double[] a) {
+        doSort(a, 0, a.length, false);
+    }
+
+    /**
+     * Sort the range of the array into ascending order.
+     *
+     * <p>This is equivalent to partitioning all indices of the range, and uses the same
+     * dual-pivot partitioning as {@link #select(double[], int, int, int[])}. The sort is not
+     * stable. The ordering is the same as {@link Arrays#sort(double[], int, int)}.
      *
      * @param a Values.
      * @param fromIndex Index of the first element (inclusive).
      * @param toIndex Index of the last element (exclusive).
-     * @param k Index.
      * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
-     * bounds of range {@code [0, a.length)}; or if index {@code k} is not within the
-     * sub-range {@code [fromIndex, toIndex)}
+     * bounds of range {@code [0, a.length)}
+     * @since 1.3
      */
-    public static void select(int[] a, int fromIndex, int toIndex, int k) {
+    public static void sort(double[] a, int fromIndex, int toIndex) {
         IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
-        IndexSupport.checkIndex(fromIndex, toIndex, k);
+        doSort(a, fromIndex, toIndex, false);
+    }
+
+    /**
+     * Sort the array into ascending order.
+     *
+     * <p>Regions of the array are sorted concurrently using the
+     * {@link ForkJoinPool#commonPool() ForkJoin common pool}. The
+     * result is the same as {@link #sort(double[])}.
+     * Parallel processing is only used when the array is large; otherwise the method is
+     * equivalent to the serial method.
+     *
+     * @param a Values.
+     * @since 1.3
+     */
+    public static void parallelSort(double[] a) {
+        doSort(a, 0, a.length, isParallel());
+    }
+
+    /**
+     * Sort the range of the array into ascending order.
+     *
+     * <p>Regions of the array are sorted concurrently using the
+     * {@link ForkJoinPool#commonPool() ForkJoin common pool}. The
+     * result is the same as {@link #sort(double[], int, int)}.
+     * Parallel processing is only used when the range is large; otherwise the method is
+     * equivalent to the serial method.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}
+     * @since 1.3
+     */
+    public static void parallelSort(double[] a, int fromIndex, int toIndex) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        doSort(a, fromIndex, toIndex, isParallel());
+    }
+
+    /**
+     * Sort the range of the array into ascending order.
+     *
+     * <p>This method pre/post-processes the data to respect the ordering
+     * imposed by {@link Double#compare(double, double)}.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param parallel Set to true to use parallel sorting.
+     */
+    private static void doSort(double[] a, int fromIndex, int toIndex, boolean parallel) {
         if (toIndex - fromIndex <= 1) {
             return;
         }
-        QuickSelect.select(a, fromIndex, toIndex - 1, k);
+        // Sort NaN / count signed zeros
+        int cn = 0;
+        int end = toIndex;
+        for (int i = toIndex; --i >= fromIndex;) {
+            final double v = a[i];
+            // Count negative zeros using a sign bit check
+            if (Double.doubleToRawLongBits(v) == Long.MIN_VALUE) {
+                cn++;
+                // Change to positive zero.
+                // Data must be repaired after sorting.
+                a[i] = 0.0;
+            } else if (v != v) {
+                // Move NaN to end
+                a[i] = a[--end];
+                a[end] = v;
+            }
+        }
+
+        // Sort
+        if (end - fromIndex > 1) {
+            if (parallel) {
+                QuickSelect.parallelSort(a, fromIndex, end - 1);
+            } else {
+                QuickSelect.sort(a, fromIndex, end - 1);
+            }
+        }
+
+        // Restore signed zeros at the start of the sorted zeros
+        if (cn != 0) {
+            int j = Arrays.binarySearch(a, fromIndex, end, 0.0);
+            while (j > fromIndex && a[j - 1] == 0) {
+                j--;
+            }
+            Arrays.fill(a, j, j + cn, -0.0);
+        }
     }
 
     /**
-     * Partition the array such that indices {@code k} correspond to their correctly
-     * sorted value in the equivalent fully sorted array.
+     * Partition the array such that the {@code k} largest values are sorted in ascending
+     * order at the end of the array. The remaining values are smaller than or equal to the
+     * selected values and are in no particular order.
+     *
+     * <p>This is equivalent to selection of the indices {@code [n - k, n)} and a sort of
+     * that range. A small number of values is selected using a heap without partitioning
+     * the array.
+     *
+     * @param a Values.
+     * @param k Number of values.
+     * @throws IllegalArgumentException if {@code k} is negative or exceeds the array length
+     * @since 1.3
+     */
+    public static void selectTop(double[] a, int k) {
+        IndexSupport.checkCount(0, a.length, k);
+        doSelectTop(a, 0, a.length, k);
+    }
+
+    /**
+     * Partition the range of the array such that the {@code k} largest values are sorted in
+     * ascending order at the end of the range. The remaining values are smaller than or
+     * equal to the selected values and are in no particular order.
+     *
+     * <p>This is equivalent to selection of the indices {@code [toIndex - k, toIndex)} and a
+     * sort of that range. A small number of values is selected using a heap without
+     * partitioning the range.
      *
      * @param a Values.
      * @param fromIndex Index of the first element (inclusive).
      * @param toIndex Index of the last element (exclusive).
-     * @param k Indices (may be destructively modified).
+     * @param k Number of values.
      * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
-     * bounds of range {@code [0, a.length)}; or if any index {@code k} is not within the
-     * sub-range {@code [fromIndex, toIndex)}
+     * bounds of range {@code [0, a.length)}
+     * @throws IllegalArgumentException if {@code k} is negative or exceeds the range length
+     * @since 1.3
      */
-    public static void select(int[] a, int fromIndex, int toIndex, int[] k) {
+    public static void selectTop(double[] a, int fromIndex, int toIndex, int k) {
         IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
-        IndexSupport.checkIndices(fromIndex, toIndex, k);
-        if (k.length == 0 || toIndex - fromIndex <= 1) {
+        IndexSupport.checkCount(fromIndex, toIndex, k);
+        doSelectTop(a, fromIndex, toIndex, k);
+    }
+
+    /**
+     * Partition the array such that the {@code k} smallest values are sorted in ascending
+     * order at the start of the array. The remaining values are greater than or equal to the
+     * selected values and are in no particular order.
+     *
+     * <p>This is equivalent to selection of the indices {@code [0, k)} and a sort of
+     * that range. A small number of values is selected using a heap without partitioning
+     * the array.
+     *
+     * @param a Values.
+     * @param k Number of values.
+     * @throws IllegalArgumentException if {@code k} is negative or exceeds the array length
+     * @since 1.3
+     */
+    public static void selectBottom(double[] a, int k) {
+        IndexSupport.checkCount(0, a.length, k);
+        doSelectBottom(a, 0, a.length, k);
+    }
+
+    /**
+     * Partition the range of the array such that the {@code k} smallest values are sorted in
+     * ascending order at the start of the range. The remaining values are greater than or
+     * equal to the selected values and are in no particular order.
+     *
+     * <p>This is equivalent to selection of the indices {@code [fromIndex, fromIndex + k)}
+     * and a sort of that range. A small number of values is selected using a heap without
+     * partitioning the range.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Number of values.
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}
+     * @throws IllegalArgumentException if {@code k} is negative or exceeds the range length
+     * @since 1.3
+     */
+    public static void selectBottom(double[] a, int fromIndex, int toIndex, int k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkCount(fromIndex, toIndex, k);
+        doSelectBottom(a, fromIndex, toIndex, k);
+    }
+
+    /**
+     * Partition the range of the array such that the {@code k} largest values are sorted in
+     * ascending order at the end of the range.
+     *
+     * <p>This method pre/post-processes the data to respect the ordering
+     * imposed by {@link Double#compare(double, double)}.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Number of values.
+     */
+    private static void doSelectTop(double[] a, int fromIndex, int toIndex, int k) {
+        if (k == 0 || toIndex - fromIndex <= 1) {
             return;
         }
-        QuickSelect.select(a, fromIndex, toIndex - 1, k, k.length);
+        // Sort NaN / count signed zeros
+        int cn = 0;
+        int end = toIndex;
+        for (int i = toIndex; --i >= fromIndex;) {
+            final double v = a[i];
+            // Count negative zeros using a sign bit check
+            if (Double.doubleToRawLongBits(v) == Long.MIN_VALUE) {
+                cn++;
+                // Change to positive zero.
+                // Data must be repaired after selection.
+                a[i] = 0.0;
+            } else if (v != v) {
+                // Move NaN to end
+                a[i] = a[--end];
+                a[end] = v;
+            }
+        }
+        // NaN are the largest values. Select the remaining count from the non-NaN data.
+        final int n = k - (toIndex - end);
+        if (n > 0 && end - fromIndex > 1) {
+            QuickSelect.selectTop(a, fromIndex, end - 1, n);
+        }
+
+        // Restore signed zeros.
+        // The selected range is sorted and other values are unordered. Zeros can be
+        // restored in the order they occur from the start of the range.
+        for (int j = fromIndex - 1; cn != 0;) {
+            if (a[++j] == 0) {
+                a[j] = -0.0;
+                cn--;
+            }
+        }
+    }
+
+    /**
+     * Partition the range of the array such that the {@code k} smallest values are sorted in
+     * ascending order at the start of the range.
+     *
+     * <p>This method pre/post-processes the data to respect the ordering
+     * imposed by {@link Double#compare(double, double)}.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Number of values.
+     */
+    private static void doSelectBottom(double[] a, int fromIndex, int toIndex, int k) {
+        if (k == 0 || toIndex - fromIndex <= 1) {
+            return;
+        }
+        // Sort NaN / count signed zeros
+        int cn = 0;
+        int end = toIndex;
+        for (int i = toIndex; --i >= fromIndex;) {
+            final double v = a[i];
+            // Count negative zeros using a sign bit check
+            if (Double.doubleToRawLongBits(v) == Long.MIN_VALUE) {
+                cn++;
+                // Change to positive zero.
+                // Data must be repaired after selection.
+                a[i] = 0.0;
+            } else if (v != v) {
+                // Move NaN to end
+                a[i] = a[--end];
+                a[end] = v;
+            }
+        }
+        // NaN are the largest values. Select at most all the non-NaN data.
+        final int n = Math.min(k, end - fromIndex);
+        if (n > 0 && end - fromIndex > 1) {
+            QuickSelect.selectBottom(a, fromIndex, end - 1, n);
+        }
+
+        // Restore signed zeros.
+        // The selected range is sorted and other values are unordered. Zeros can be
+        // restored in the order they occur from the start of the range.
+        for (int j = fromIndex - 1; cn != 0;) {
+            if (a[++j] == 0) {
+                a[j] = -0.0;
+                cn--;
+            }
+        }
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param k Index.
+     * @throws IndexOutOfBoundsException if index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.3
+     */
+    public static void select(float[] a, int k) {
+        IndexSupport.checkIndex(0, a.length, k);
+        doSelect(a, 0, a.length, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param k Indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.3
+     */
+    public static void select(float[] a, int[] k) {
+        IndexSupport.checkIndices(0, a.length, k);
+        doSelect(a, 0, a.length, k);
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Index.
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @since 1.3
+     */
+    public static void select(float[] a, int fromIndex, int toIndex, int k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndex(fromIndex, toIndex, k);
+        doSelect(a, fromIndex, toIndex, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if any index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @since 1.3
+     */
+    public static void select(float[] a, int fromIndex, int toIndex, int[] k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndices(fromIndex, toIndex, k);
+        doSelect(a, fromIndex, toIndex, k);
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>This method pre/post-processes the data and indices to respect the ordering
+     * imposed by {@link Float#compare(float, float)}.
+     *
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param a Values.
+     * @param k Index.
+     */
+    private static void doSelect(float[] a, int fromIndex, int toIndex, int k) {
+        if (toIndex - fromIndex <= 1) {
+            return;
+        }
+        // Sort NaN / count signed zeros.
+        // Caution: This loop contributes significantly to the runtime.
+        int cn = 0;
+        int end = toIndex;
+        for (int i = toIndex; --i >= fromIndex;) {
+            final float v = a[i];
+            // Count negative zeros using a sign bit check
+            if (Float.floatToRawIntBits(v) == Integer.MIN_VALUE) {
+                cn++;
+                // Change to positive zero.
+                // Data must be repaired after selection.
+                a[i] = 0.0f;
+            } else if (v != v) {
+                // Move NaN to end
+                a[i] = a[--end];
+                a[end] = v;
+            }
+        }
+
+        // Partition
+        if (end - fromIndex > 1 && k < end) {
+            QuickSelect.select(a, fromIndex, end - 1, k);
+        }
+
+        // Restore signed zeros
+        if (cn != 0) {
+            // Use partition index below zero to fast-forward to zero as much as possible
+            for (int j = a[k] < 0 ? k : fromIndex - 1;;) {
+                if (a[++j] == 0) {
+                    a[j] = -0.0f;
+                    if (--cn == 0) {
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>This method pre/post-processes the data and indices to respect the ordering
+     * imposed by {@link Float#compare(float, float)}.
+     *
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param a Values.
+     * @param k Indices (may be destructively modified).
+     */
+    private static void doSelect(float[] a, int fromIndex, int toIndex, int[] k) {
+        if (k.length == 0 || toIndex - fromIndex <= 1) {
+            return;
+        }
+        // Sort NaN / count signed zeros.
+        // Caution: This loop contributes significantly to the runtime for single indices.
+        int cn = 0;
+        int end = toIndex;
+        for (int i = toIndex; --i >= fromIndex;) {
+            final float v = a[i];
+            // Count negative zeros using a sign bit check
+            if (Float.floatToRawIntBits(v) == Integer.MIN_VALUE) {
+                cn++;
+                // Change to positive zero.
+                // Data must be repaired after selection.
+                a[i] = 0.0f;
+            } else if (v != v) {
+                // Move NaN to end
+                a[i] = a[--end];
+                a[end] = v;
+            }
+        }
+
+        // Partition
+        int n = 0;
+        if (end - fromIndex > 1) {
+            n = k.length;
+            // Filter indices invalidated by NaN check
+            if (end < toIndex) {
+                for (int i = n; --i >= 0;) {
+                    final int index = k[i];
+                    if (index >= end) {
+                        // Move to end
+                        k[i] = k[--n];
+                        k[n] = index;
+                    }
+                }
+            }
+            // Return n, the count of used indices in k.
+            // Use this to post-process zeros.
+            n = QuickSelect.select(a, fromIndex, end - 1, k, n);
+        }
+
+        // Restore signed zeros
+        if (cn != 0) {
+            // Use partition indices below zero to fast-forward to zero as much as possible
+            int j = fromIndex - 1;
+            if (n < 0) {
+                // Binary search on -n sorted indices: hi = (-n) - 1
+                int lo = 0;
+                int hi = ~n;
+                while (lo <= hi) {
+                    final int mid = (lo + hi) >>> 1;
+                    if (a[k[mid]] < 0) {
+                        j = k[mid];
+                        lo = mid + 1;
+                    } else {
+                        hi = mid - 1;
+                    }
+                }
+            } else {
+                // Unsorted, process all indices
+                for (int i = n; --i >= 0;) {
+                    if (a[k[i]] < 0) {
+                        j = k[i];
+                    }
+                }
+            }
+            for (;;) {
+                if (a[++j] == 0) {
+                    a[j] = -0.0f;
+                    if (--cn == 0) {
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param k Index.
+     * @throws IndexOutOfBoundsException if index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     */
+    public static void select(int[] a, int k) {
+        IndexSupport.checkIndex(0, a.length, k);
+        if (a.length <= 1) {
+            return;
+        }
+        QuickSelect.select(a, 0, a.length - 1, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param k Indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     */
+    public static void select(int[] a, int[] k) {
+        IndexSupport.checkIndices(0, a.length, k);
+        if (k.length == 0 || a.length <= 1) {
+            return;
+        }
+        QuickSelect.select(a, 0, a.length - 1, k, k.length);
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Index.
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     */
+    public static void select(int[] a, int fromIndex, int toIndex, int k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndex(fromIndex, toIndex, k);
+        if (toIndex - fromIndex <= 1) {
+            return;
+        }
+        QuickSelect.select(a, fromIndex, toIndex - 1, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if any index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     */
+    public static void select(int[] a, int fromIndex, int toIndex, int[] k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndices(fromIndex, toIndex, k);
+        if (k.length == 0 || toIndex - fromIndex <= 1) {
+            return;
+        }
+        QuickSelect.select(a, fromIndex, toIndex - 1, k, k.length);
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param k Index.
+     * @throws IndexOutOfBoundsException if index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.3
+     */
+    public static void select(long[] a, int k) {
+        IndexSupport.checkIndex(0, a.length, k);
+        if (a.length <= 1) {
+            return;
+        }
+        QuickSelect.select(a, 0, a.length - 1, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param k Indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.3
+     */
+    public static void select(long[] a, int[] k) {
+        IndexSupport.checkIndices(0, a.length, k);
+        if (k.length == 0 || a.length <= 1) {
+            return;
+        }
+        QuickSelect.select(a, 0, a.length - 1, k, k.length);
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Index.
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @since 1.3
+     */
+    public static void select(long[] a, int fromIndex, int toIndex, int k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndex(fromIndex, toIndex, k);
+        if (toIndex - fromIndex <= 1) {
+            return;
+        }
+        QuickSelect.select(a, fromIndex, toIndex - 1, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if any index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @since 1.3
+     */
+    public static void select(long[] a, int fromIndex, int toIndex, int[] k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndices(fromIndex, toIndex, k);
+        if (k.length == 0 || toIndex - fromIndex <= 1) {
+            return;
+        }
+        QuickSelect.select(a, fromIndex, toIndex - 1, k, k.length);
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param k Index.
+     * @throws IndexOutOfBoundsException if index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.3
+     */
+    public static void select(short[] a, int k) {
+        IndexSupport.checkIndex(0, a.length, k);
+        if (a.length <= 1) {
+            return;
+        }
+        QuickSelect.select(a, 0, a.length - 1, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param k Indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.3
+     */
+    public static void select(short[] a, int[] k) {
+        IndexSupport.checkIndices(0, a.length, k);
+        if (k.length == 0 || a.length <= 1) {
+            return;
+        }
+        QuickSelect.select(a, 0, a.length - 1, k, k.length);
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Index.
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @since 1.3
+     */
+    public static void select(short[] a, int fromIndex, int toIndex, int k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndex(fromIndex, toIndex, k);
+        if (toIndex - fromIndex <= 1) {
+            return;
+        }
+        QuickSelect.select(a, fromIndex, toIndex - 1, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if any index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @since 1.3
+     */
+    public static void select(short[] a, int fromIndex, int toIndex, int[] k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndices(fromIndex, toIndex, k);
+        if (k.length == 0 || toIndex - fromIndex <= 1) {
+            return;
+        }
+        QuickSelect.select(a, fromIndex, toIndex - 1, k, k.length);
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param k Index.
+     * @throws IndexOutOfBoundsException if index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.3
+     */
+    public static void select(char[] a, int k) {
+        IndexSupport.checkIndex(0, a.length, k);
+        if (a.length <= 1) {
+            return;
+        }
+        QuickSelect.select(a, 0, a.length - 1, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param k Indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.3
+     */
+    public static void select(char[] a, int[] k) {
+        IndexSupport.checkIndices(0, a.length, k);
+        if (k.length == 0 || a.length <= 1) {
+            return;
+        }
+        QuickSelect.select(a, 0, a.length - 1, k, k.length);
+    }
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Index.
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @since 1.3
+     */
+    public static void select(char[] a, int fromIndex, int toIndex, int k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndex(fromIndex, toIndex, k);
+        if (toIndex - fromIndex <= 1) {
+            return;
+        }
+        QuickSelect.select(a, fromIndex, toIndex - 1, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if any index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @since 1.3
+     */
+    public static void select(char[] a, int fromIndex, int toIndex, int[] k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndices(fromIndex, toIndex, k);
+        if (k.length == 0 || toIndex - fromIndex <= 1) {
+            return;
+        }
+        QuickSelect.select(a, fromIndex, toIndex - 1, k, k.length);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Regions of the array containing indices are partitioned concurrently using the
+     * {@link ForkJoinPool#commonPool() ForkJoin common pool}. The
+     * result satisfies the same ordering guarantees as {@link #select(int[], int[])}.
+     * Parallel processing is only used when the array is large and there are multiple
+     * separated indices; otherwise the method is equivalent to the serial method.
+     *
+     * @param a Values.
+     * @param k Indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.3
+     */
+    public static void parallelSelect(int[] a, int[] k) {
+        parallelSelect(a, 0, a.length, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Regions of the array containing indices are partitioned concurrently using the
+     * {@link ForkJoinPool#commonPool() ForkJoin common pool}. The
+     * result satisfies the same ordering guarantees as
+     * {@link #select(int[], int, int, int[])}.
+     * Parallel processing is only used when the range is large and there are multiple
+     * separated indices; otherwise the method is equivalent to the serial method.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if any index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     * @since 1.3
+     */
+    public static void parallelSelect(int[] a, int fromIndex, int toIndex, int[] k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndices(fromIndex, toIndex, k);
+        if (k.length == 0 || toIndex - fromIndex <= 1) {
+            return;
+        }
+        if (isParallel()) {
+            QuickSelect.parallelSelect(a, fromIndex, toIndex - 1, k, k.length);
+        } else {
+            QuickSelect.select(a, fromIndex, toIndex - 1, k, k.length);
+        }
+    }
+
+    /**
+     * Sort the array into ascending order.
+     *
+     * <p>This is equivalent to partitioning all indices of the array, and uses the same
+     * dual-pivot partitioning as {@link #select(int[], int[])}. The sort is not stable.
+     *
+     * @param a Values.
+     * @since 1.3
+     */
+    public static void sort(int[] a) {
+        QuickSelect.sort(a, 0, a.length - 1);
+    }
+
+    /**
+     * Sort the range of the array into ascending order.
+     *
+     * <p>This is equivalent to partitioning all indices of the range, and uses the same
+     * dual-pivot partitioning as {@link #select(int[], int, int, int[])}. The sort is not
+     * stable.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}
+     * @since 1.3
+     */
+    public static void sort(int[] a, int fromIndex, int toIndex) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        QuickSelect.sort(a, fromIndex, toIndex - 1);
+    }
+
+    /**
+     * Sort the array into ascending order.
+     *
+     * <p>Regions of the array are sorted concurrently using the
+     * {@link ForkJoinPool#commonPool() ForkJoin common pool}. The
+     * result is the same as {@link #sort(int[])}.
+     * Parallel processing is only used when the array is large; otherwise the method is
+     * equivalent to the serial method.
+     *
+     * @param a Values.
+     * @since 1.3
+     */
+    public static void parallelSort(int[] a) {
+        doSort(a, 0, a.length);
+    }
+
+    /**
+     * Sort the range of the array into ascending order.
+     *
+     * <p>Regions of the array are sorted concurrently using the
+     * {@link ForkJoinPool#commonPool() ForkJoin common pool}. The
+     * result is the same as {@link #sort(int[], int, int)}.
+     * Parallel processing is only used when the range is large; otherwise the method is
+     * equivalent to the serial method.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}
+     * @since 1.3
+     */
+    public static void parallelSort(int[] a, int fromIndex, int toIndex) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        doSort(a, fromIndex, toIndex);
+    }
+
+    /**
+     * Sort the range of the array into ascending order using parallel sorting
+     * if supported.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     */
+    private static void doSort(int[] a, int fromIndex, int toIndex) {
+        if (isParallel()) {
+            QuickSelect.parallelSort(a, fromIndex, toIndex - 1);
+        } else {
+            QuickSelect.sort(a, fromIndex, toIndex - 1);
+        }
+    }
+
+    /**
+     * Partition the array such that the {@code k} largest values are sorted in ascending
+     * order at the end of the array. The remaining values are smaller than or equal to the
+     * selected values and are in no particular order.
+     *
+     * <p>This is equivalent to selection of the indices {@code [n - k, n)} and a sort of
+     * that range. A small number of values is selected using a heap without partitioning
+     * the array.
+     *
+     * @param a Values.
+     * @param k Number of values.
+     * @throws IllegalArgumentException if {@code k} is negative or exceeds the array length
+     * @since 1.3
+     */
+    public static void selectTop(int[] a, int k) {
+        IndexSupport.checkCount(0, a.length, k);
+        if (k != 0) {
+            QuickSelect.selectTop(a, 0, a.length - 1, k);
+        }
+    }
+
+    /**
+     * Partition the range of the array such that the {@code k} largest values are sorted in
+     * ascending order at the end of the range. The remaining values are smaller than or
+     * equal to the selected values and are in no particular order.
+     *
+     * <p>This is equivalent to selection of the indices {@code [toIndex - k, toIndex)} and a
+     * sort of that range. A small number of values is selected using a heap without
+     * partitioning the range.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Number of values.
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}
+     * @throws IllegalArgumentException if {@code k} is negative or exceeds the range length
+     * @since 1.3
+     */
+    public static void selectTop(int[] a, int fromIndex, int toIndex, int k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkCount(fromIndex, toIndex, k);
+        if (k != 0) {
+            QuickSelect.selectTop(a, fromIndex, toIndex - 1, k);
+        }
+    }
+
+    /**
+     * Partition the array such that the {@code k} smallest values are sorted in ascending
+     * order at the start of the array. The remaining values are greater than or equal to the
+     * selected values and are in no particular order.
+     *
+     * <p>This is equivalent to selection of the indices {@code [0, k)} and a sort of
+     * that range. A small number of values is selected using a heap without partitioning
+     * the array.
+     *
+     * @param a Values.
+     * @param k Number of values.
+     * @throws IllegalArgumentException if {@code k} is negative or exceeds the array length
+     * @since 1.3
+     */
+    public static void selectBottom(int[] a, int k) {
+        IndexSupport.checkCount(0, a.length, k);
+        if (k != 0) {
+            QuickSelect.selectBottom(a, 0, a.length - 1, k);
+        }
+    }
+
+    /**
+     * Partition the range of the array such that the {@code k} smallest values are sorted in
+     * ascending order at the start of the range. The remaining values are greater than or
+     * equal to the selected values and are in no particular order.
+     *
+     * <p>This is equivalent to selection of the indices {@code [fromIndex, fromIndex + k)}
+     * and a sort of that range. A small number of values is selected using a heap without
+     * partitioning the range.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Number of values.
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}
+     * @throws IllegalArgumentException if {@code k} is negative or exceeds the range length
+     * @since 1.3
+     */
+    public static void selectBottom(int[] a, int fromIndex, int toIndex, int k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkCount(fromIndex, toIndex, k);
+        if (k != 0) {
+            QuickSelect.selectBottom(a, fromIndex, toIndex - 1, k);
+        }
+    }
+
+    /**
+     * Partition the array of indices such that positions {@code k} reference their
+     * correctly sorted value in the equivalent fully sorted data. For all positions
+     * {@code k} and any position {@code i}:
+     *
+     * <pre>{@code
+     * data[indices[i < k]] <= data[indices[k]] <= data[indices[k < i]]
+     * }</pre>
+     *
+     * <p>The data is not modified. The indices are typically a permutation of
+     * {@code [0, data.length)} but may reference any subset of the data.
+     *
+     * <p>This method respects the ordering imposed by {@link Double#compare(double, double)}.
+     *
+     * @param data Values.
+     * @param indices Indices into the data.
+     * @param k Positions in the indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if any position {@code k} is not within the
+     * sub-range {@code [0, indices.length)}; or if any of the {@code indices} is not
+     * within the sub-range {@code [0, data.length)}
+     * @since 1.3
+     */
+    public static void selectIndices(double[] data, int[] indices, int[] k) {
+        selectIndices(data, indices, 0, indices.length, k);
+    }
+
+    /**
+     * Partition the array of indices such that positions {@code k} reference their
+     * correctly sorted value in the equivalent fully sorted data. For all positions
+     * {@code k} and any position {@code i} within {@code [fromIndex, toIndex)}:
+     *
+     * <pre>{@code
+     * data[indices[i < k]] <= data[indices[k]] <= data[indices[k < i]]
+     * }</pre>
+     *
+     * <p>The data is not modified. The indices are typically a permutation of
+     * {@code [0, data.length)} but may reference any subset of the data.
+     *
+     * <p>This method respects the ordering imposed by {@link Double#compare(double, double)}.
+     *
+     * @param data Values.
+     * @param indices Indices into the data.
+     * @param fromIndex Index of the first element of the indices (inclusive).
+     * @param toIndex Index of the last element of the indices (exclusive).
+     * @param k Positions in the indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, indices.length)}; or if any position {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}; or if any of the {@code indices} in the sub-range
+     * is not within the sub-range {@code [0, data.length)}
+     * @since 1.3
+     */
+    public static void selectIndices(double[] data, int[] indices, int fromIndex, int toIndex, int[] k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, indices.length);
+        IndexSupport.checkIndices(fromIndex, toIndex, k);
+        checkDataIndices(data.length, indices, fromIndex, toIndex);
+        doSelectIndices(data, indices, fromIndex, toIndex, k);
+    }
+
+    /**
+     * Partition the array of indices such that positions {@code k} reference their
+     * correctly sorted value in the equivalent fully sorted data.
+     *
+     * <p>This method pre/post-processes the indices to respect the ordering
+     * imposed by {@link Double#compare(double, double)}.
+     *
+     * @param x Values.
+     * @param a Indices into the data.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Positions (may be destructively modified).
+     */
+    private static void doSelectIndices(double[] x, int[] a, int fromIndex, int toIndex, int[] k) {
+        if (k.length == 0 || toIndex - fromIndex <= 1) {
+            return;
+        }
+        // Sort NaN / count signed zeros.
+        int cn = 0;
+        int end = toIndex;
+        for (int i = toIndex; --i >= fromIndex;) {
+            final int t = a[i];
+            final double v = x[t];
+            // Count negative zeros using a sign bit check
+            if (Double.doubleToRawLongBits(v) == Long.MIN_VALUE) {
+                cn++;
+            } else if (v != v) {
+                // Move NaN to end
+                a[i] = a[--end];
+                a[end] = t;
+            }
+        }
+        if (end - fromIndex <= 1) {
+            return;
+        }
+
+        int n = k.length;
+        // Filter indices invalidated by NaN check
+        if (end < toIndex) {
+            for (int i = n; --i >= 0;) {
+                final int index = k[i];
+                if (index >= end) {
+                    // Move to end
+                    k[i] = k[--n];
+                    k[n] = index;
+                }
+            }
+        }
+
+        // Signed zeros cannot be repaired by overwriting the data.
+        // If any index lies within the block of zeros [lo, hi) in the sorted order,
+        // partition the ends of the block and then order the zeros within the block.
+        int[] keys = k;
+        int lo = 0;
+        int hi = 0;
+        if (cn != 0) {
+            int cl = 0;
+            int cz = 0;
+            for (int i = fromIndex; i < end; i++) {
+                final double v = x[a[i]];
+                if (v < 0) {
+                    cl++;
+                } else if (v == 0) {
+                    cz++;
+                }
+            }
+            // Ordering is only required for a mixture of signed zeros
+            if (cz != cn) {
+                final int z0 = fromIndex + cl;
+                final int z1 = z0 + cz;
+                for (int i = n; --i >= 0;) {
+                    if (k[i] >= z0 && k[i] < z1) {
+                        lo = z0;
+                        hi = z1;
+                        break;
+                    }
+                }
+                if (lo != hi) {
+                    keys = Arrays.copyOf(k, n + 2);
+                    if (lo > fromIndex) {
+                        keys[n++] = lo - 1;
+                    }
+                    if (hi < end) {
+                        keys[n++] = hi;
+                    }
+                }
+            }
+        }
+
+        IndirectQuickSelect.select(x, a, fromIndex, end - 1, keys, n);
+
+        // Move negative zeros to the start of the block of zeros
+        for (int i = lo; i < hi; i++) {
+            final int t = a[i];
+            if (Double.doubleToRawLongBits(x[t]) < 0) {
+                a[i] = a[lo];
+                a[lo++] = t;
+            }
+        }
+    }
+
+    /**
+     * Partition the array of indices such that positions {@code k} reference their
+     * correctly sorted value in the equivalent fully sorted data. For all positions
+     * {@code k} and any position {@code i}:
+     *
+     * <pre>{@code
+     * data[indices[i < k]] <= data[indices[k]] <= data[indices[k < i]]
+     * }</pre>
+     *
+     * <p>The data is not modified. The indices are typically a permutation of
+     * {@code [0, data.length)} but may reference any subset of the data.
+     *
+     * @param data Values.
+     * @param indices Indices into the data.
+     * @param k Positions in the indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if any position {@code k} is not within the
+     * sub-range {@code [0, indices.length)}; or if any of the {@code indices} is not
+     * within the sub-range {@code [0, data.length)}
+     * @since 1.3
+     */
+    public static void selectIndices(int[] data, int[] indices, int[] k) {
+        selectIndices(data, indices, 0, indices.length, k);
+    }
+
+    /**
+     * Partition the array of indices such that positions {@code k} reference their
+     * correctly sorted value in the equivalent fully sorted data. For all positions
+     * {@code k} and any position {@code i} within {@code [fromIndex, toIndex)}:
+     *
+     * <pre>{@code
+     * data[indices[i < k]] <= data[indices[k]] <= data[indices[k < i]]
+     * }</pre>
+     *
+     * <p>The data is not modified. The indices are typically a permutation of
+     * {@code [0, data.length)} but may reference any subset of the data.
+     *
+     * @param data Values.
+     * @param indices Indices into the data.
+     * @param fromIndex Index of the first element of the indices (inclusive).
+     * @param toIndex Index of the last element of the indices (exclusive).
+     * @param k Positions in the indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, indices.length)}; or if any position {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}; or if any of the {@code indices} in the sub-range
+     * is not within the sub-range {@code [0, data.length)}
+     * @since 1.3
+     */
+    public static void selectIndices(int[] data, int[] indices, int fromIndex, int toIndex, int[] k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, indices.length);
+        IndexSupport.checkIndices(fromIndex, toIndex, k);
+        checkDataIndices(data.length, indices, fromIndex, toIndex);
+        if (k.length == 0 || toIndex - fromIndex <= 1) {
+            return;
+        }
+        IndirectQuickSelect.select(data, indices, fromIndex, toIndex - 1, k, k.length);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array. Elements are sorted by the
+     * natural order of the elements.
+     *
+     * @param <T> Type of the elements.
+     * @param a Values.
+     * @param k Indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @throws NullPointerException if any element is null
+     * @since 1.3
+     */
+    public static <T extends Comparable<? super T>> void select(T[] a, int[] k) {
+        select(a, Comparator.naturalOrder(), k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array. Elements are sorted using
+     * the comparator.
+     *
+     * @param <T> Type of the elements.
+     * @param a Values.
+     * @param c Comparator.
+     * @param k Indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.3
+     */
+    public static <T> void select(T[] a, Comparator<? super T> c, int[] k) {
+        IndexSupport.checkIndices(0, a.length, k);
+        if (k.length == 0 || a.length <= 1) {
+            return;
+        }
+        ObjectQuickSelect.select(a, c, 0, a.length - 1, k, k.length);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array. Elements are sorted using
+     * a {@code double} key extracted from each element.
+     *
+     * <p>Keys are extracted once for each element and partitioned indirectly; the
+     * elements are then rearranged in a single pass. This respects the ordering imposed
+     * by {@link Double#compare(double, double)} on the keys.
+     *
+     * @param <T> Type of the elements.
+     * @param a Values.
+     * @param key Function to extract the key.
+     * @param k Indices (may be destructively modified).
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     * @since 1.3
+     */
+    public static <T> void select(T[] a, ToDoubleFunction<? super T> key, int[] k) {
+        IndexSupport.checkIndices(0, a.length, k);
+        final int n = a.length;
+        if (k.length == 0 || n <= 1) {
+            return;
+        }
+        final double[] x = new double[n];
+        final int[] indices = new int[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = key.applyAsDouble(a[i]);
+            indices[i] = i;
+        }
+        doSelectIndices(x, indices, 0, n, k);
+        permute(a, indices);
+    }
+
+    /**
+     * Partition the keys such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array, and perform the same reordering
+     * of entries on the companion arrays.
+     *
+     * <p>The keys are partitioned indirectly using an index permutation; all arrays are
+     * then rearranged in a single pass. This respects the ordering imposed by
+     * {@link Double#compare(double, double)} on the keys.
+     *
+     * @param keys Values.
+     * @param k Indices (may be destructively modified).
+     * @param companions Arrays whose entries are reordered to follow the keys.
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * sub-range {@code [0, keys.length)}
+     * @throws IllegalArgumentException if any companion array is not the same size as the keys
+     * @since 1.3
+     */
+    public static void select(double[] keys, int[] k, double[]... companions) {
+        IndexSupport.checkIndices(0, keys.length, k);
+        final int n = keys.length;
+        for (final double[] y : companions) {
+            checkSameLength(y.length, n);
+        }
+        if (companions.length == 0) {
+            doSelect(keys, 0, n, k, false);
+            return;
+        }
+        if (k.length == 0 || n <= 1) {
+            return;
+        }
+        final int[] indices = new int[n];
+        for (int i = 0; i < n; i++) {
+            indices[i] = i;
+        }
+        doSelectIndices(keys, indices, 0, n, k);
+        final double[][] data = new double[companions.length + 1][];
+        data[0] = keys;
+        System.arraycopy(companions, 0, data, 1, companions.length);
+        permute(data, indices);
+    }
+
+    /**
+     * Check the array length is the same as the expected length.
+     *
+     * @param length Array length.
+     * @param n Expected length.
+     * @throws IllegalArgumentException if the lengths are different
+     */
+    private static void checkSameLength(int length, int n) {
+        if (length != n) {
+            throw new IllegalArgumentException("Size mismatch: " + length + " != " + n);
+        }
+    }
+
+    /**
+     * Partition the values and weights to locate the weighted quantile {@code p}.
+     * The returned index {@code k} is the first position in the sorted values where
+     * the cumulative weight is at least {@code p} of the total weight:
+     *
+     * <pre>{@code
+     * k = min(i : sum(w[0..i]) >= p * sum(w) && sum(w[0..i]) > 0)
+     * }</pre>
+     *
+     * <p>On return the values are partitioned about {@code k}, i.e.
+     * {@code a[i < k] <= a[k] <= a[k < i]}, and the weights are rearranged to follow
+     * the values. The weighted median is {@code a[k]} for {@code p = 0.5}.
+     *
+     * <p>Partitioning uses repeated selection on the remaining range containing the
+     * target cumulative weight; the expected run time is linear in the data length.
+     * The ordering imposed by {@link Double#compare(double, double)} is respected.
+     *
+     * @param a Values.
+     * @param w Weights.
+     * @param p Probability in {@code [0, 1]}.
+     * @return the index of the weighted quantile
+     * @throws IllegalArgumentException if the arrays are empty or not the same size;
+     * if any weight is negative or not finite; if the sum of the weights is zero or not
+     * finite; or if the probability is not in the range {@code [0, 1]}
+     * @since 1.3
+     */
+    public static int selectWeighted(double[] a, double[] w, double p) {
+        final int n = a.length;
+        checkSameLength(w.length, n);
+        if (n == 0) {
+            throw new IllegalArgumentException("No data");
+        }
+        if (!(p >= 0 && p <= 1)) {
+            throw new IllegalArgumentException("Invalid probability: " + p);
+        }
+        // Validate weights. Move NaN to end and count signed zeros.
+        double total = 0;
+        int cn = 0;
+        int end = n;
+        for (int i = n; --i >= 0;) {
+            final double wi = w[i];
+            if (!(wi >= 0 && wi <= Double.MAX_VALUE)) {
+                throw new IllegalArgumentException("Invalid weight: " + wi);
+            }
+            total += wi;
+            final double v = a[i];
+            if (Double.doubleToRawLongBits(v) == Long.MIN_VALUE) {
+                cn++;
+            } else if (v != v) {
+                a[i] = a[--end];
+                a[end] = v;
+                w[i] = w[end];
+                w[end] = wi;
+            }
+        }
+        if (!(total > 0 && total <= Double.MAX_VALUE)) {
+            throw new IllegalArgumentException("Invalid total weight: " + total);
+        }
+        final double target = p * total;
+
+        // Weighted quickselect on an index permutation.
+        // Invariant: all values before l are <= values in [l, r] <= values after r;
+        // the cumulative weight before l does not reach the target.
+        final int[] indices = new int[n];
+        for (int i = 0; i < n; i++) {
+            indices[i] = i;
+        }
+        final int[] km = {0};
+        int l = 0;
+        int r = end - 1;
+        double cl = 0;
+        while (l < r) {
+            final int m = (l + r) >>> 1;
+            km[0] = m;
+            IndirectQuickSelect.select(a, indices, l, r, km, 1);
+            double c = cl;
+            for (int i = l; i <= m; i++) {
+                c += w[indices[i]];
+            }
+            if (c >= target && c > 0) {
+                r = m;
+            } else {
+                cl = c;
+                l = m + 1;
+            }
+        }
+        int k = l;
+        if (end < n && (end == 0 || !isWeightedQuantile(cl + w[indices[l]], target))) {
+            // Target is within the NaN values.
+            // Note: The limit on k protects against rounding in the cumulative sum.
+            k = end;
+            for (double c = sum(w, 0, end) + w[k]; k < n - 1 && !isWeightedQuantile(c, target); c += w[k]) {
+                k++;
+            }
+        } else if (cn != 0 && a[indices[k]] == 0) {
+            // Order signed zeros: -0.0 < 0.0
+            k = orderZeros(a, w, indices, end, target);
+        }
+
+        permute(new double[][] {a, w}, indices);
+        return k;
+    }
+
+    /**
+     * Test if the cumulative weight has reached the target weight.
+     *
+     * @param c Cumulative weight.
+     * @param target Target weight.
+     * @return true if the target is reached
+     */
+    private static boolean isWeightedQuantile(double c, double target) {
+        return c >= target && c > 0;
+    }
+
+    /**
+     * Compute the sum of the values in the range {@code [from, to)}.
+     *
+     * @param w Values.
+     * @param from Index of the first element (inclusive).
+     * @param to Index of the last element (exclusive).
+     * @return the sum
+     */
+    private static double sum(double[] w, int from, int to) {
+        double s = 0;
+        for (int i = from; i < to; i++) {
+            s += w[i];
+        }
+        return s;
+    }
+
+    /**
+     * Arrange the indices into the values as {@code v < 0 | -0.0 | 0.0 | v > 0} and find
+     * the position within the block of zeros where the cumulative weight reaches the target.
+     * It is assumed the target is reached within the block of zeros.
+     *
+     * @param a Values.
+     * @param w Weights.
+     * @param indices Indices into the values.
+     * @param end Upper limit of the non-NaN values (exclusive).
+     * @param target Target weight.
+     * @return the position of the weighted quantile
+     */
+    private static int orderZeros(double[] a, double[] w, int[] indices, int end, double target) {
+        // Move negatives (including -0.0) to the front
+        int z = 0;
+        for (int i = 0; i < end; i++) {
+            final int t = indices[i];
+            if (Double.doubleToRawLongBits(a[t]) < 0) {
+                indices[i] = indices[z];
+                indices[z++] = t;
+            }
+        }
+        // Move -0.0 to the end of the negatives
+        int z0 = z;
+        for (int i = z; --i >= 0;) {
+            final int t = indices[i];
+            if (a[t] == 0) {
+                indices[i] = indices[--z0];
+                indices[z0] = t;
+            }
+        }
+        // Move 0.0 to the start of the positives
+        int z1 = z;
+        for (int i = z; i < end; i++) {
+            final int t = indices[i];
+            if (a[t] == 0) {
+                indices[i] = indices[z1];
+                indices[z1++] = t;
+            }
+        }
+        double c = 0;
+        for (int i = 0; i < z0; i++) {
+            c += w[indices[i]];
+        }
+        int k = z0;
+        for (c += w[indices[k]]; k < z1 - 1 && !isWeightedQuantile(c, target); c += w[indices[k]]) {
+            k++;
+        }
+        return k;
+    }
+
+    /**
+     * Rearrange the array such that {@code a[i] = b[indices[i]]} where {@code b} is
+     * the original array. Each cycle of the permutation is followed in-place.
+     *
+     * @param <T> Type of the elements.
+     * @param a Values.
+     * @param indices Permutation of the indices of the values (destroyed).
+     */
+    private static <T> void permute(T[] a, int[] indices) {
+        for (int i = 0; i < indices.length; i++) {
+            if (indices[i] != i) {
+                final T v = a[i];
+                int j = i;
+                int s;
+                while ((s = indices[j]) != i) {
+                    a[j] = a[s];
+                    // Mark as done
+                    indices[j] = j;
+                    j = s;
+                }
+                a[j] = v;
+                indices[j] = j;
+            }
+        }
+    }
+
+    /**
+     * Rearrange the arrays such that {@code a[i] = b[indices[i]]} where {@code b} is
+     * the original array. Each cycle of the permutation is followed in-place and applied
+     * to all the arrays.
+     *
+     * @param data Arrays of values (each the same length as the indices).
+     * @param indices Permutation of the indices of the values (destroyed).
+     */
+    static void permute(double[][] data, int[] indices) {
+        final int m = data.length;
+        final double[] v = new double[m];
+        for (int i = 0; i < indices.length; i++) {
+            if (indices[i] != i) {
+                for (int l = 0; l < m; l++) {
+                    v[l] = data[l][i];
+                }
+                int j = i;
+                int s;
+                while ((s = indices[j]) != i) {
+                    for (final double[] a : data) {
+                        a[j] = a[s];
+                    }
+                    // Mark as done
+                    indices[j] = j;
+                    j = s;
+                }
+                for (int l = 0; l < m; l++) {
+                    data[l][j] = v[l];
+                }
+                indices[j] = j;
+            }
+        }
+    }
+
+    /**
+     * Checks each of the indices in the sub-range {@code [fromIndex, toIndex)} is
+     * within the bounds of range {@code [0, length)}.
+     *
+     * @param length Length of the data.
+     * @param indices Indices into the data.
+     * @param fromIndex Index of the first element of the indices (inclusive).
+     * @param toIndex Index of the last element of the indices (exclusive).
+     * @throws IndexOutOfBoundsException if any index is out of bounds
+     */
+    private static void checkDataIndices(int length, int[] indices, int fromIndex, int toIndex) {
+        for (int i = fromIndex; i < toIndex; i++) {
+            IndexSupport.checkIndex(0, length, indices[i]);
+        }
+    }
+
+    /**
+     * Checks if parallel processing is supported. This is false if the
+     * {@link ForkJoinPool#commonPool() common pool} has a target parallelism of 1.
+     *
+     * @return true if parallel processing is supported
+     */
+    private static boolean isParallel() {
+        return ForkJoinPool.getCommonPoolParallelism() > 1;
     }
 }
@@ -0,0 +1,527 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.arrays;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Select indices from array data using a reusable workspace.
+ *
+ * <p>This provides the same partitioning as the static methods in {@link Selection}.
+ * The indices to partition are copied to a workspace owned by the instance and are
+ * not modified. The workspace is sorted and used directly to track the indices during
+ * partitioning; it is grown as required and reused for subsequent calls. The structure
+ * that tracks the indices and the scratch space used by partitioning are also reused.
+ * This avoids allocation on each call and is suitable for repeated selection on small
+ * arrays, for example a sliding window.
+ *
+ * <p>The partition algorithm can be configured. The default options use the same
+ * algorithm as {@link Selection}. Alternative options may be faster for some data
+ * distributions and patterns of indices. All options produce a correct partition.
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @since 1.3
+ */
+public final class Selector {
+    /** The upper threshold to use an insertion sort to find unique indices. */
+    private static final int INSERTION_SORT_SIZE = 20;
+    /** Default initial workspace size. */
+    private static final int DEFAULT_SIZE = 16;
+    /** Sort select size to signal automatic configuration. */
+    private static final int AUTO = -1;
+    /** Maximum sort select size. Insertion sort of longer lengths is slow. */
+    private static final int MAX_SORTSELECT_SIZE = 1024;
+
+    /** Partition strategy. */
+    private final Strategy strategy;
+    /** Adaption mode for single-pivot selection. */
+    private final AdaptMode mode;
+    /** Structure used to store the indices during partitioning. */
+    private final KeyStructure structure;
+    /** Sort select size for dual-pivot partitioning. */
+    private final int sortSelectSize;
+    /** Workspace for the indices. */
+    private int[] keys;
+    /** Interval over the indices in the workspace. */
+    private KeyUpdatingInterval keyInterval;
+    /** Bit set interval over the indices in the workspace. Created when first used. */
+    private BitIndexUpdatingInterval bitInterval;
+    /** Scratch space for the partition bounds. */
+    private final int[] bounds = new int[3];
+
+    /**
+     * Strategy used to partition multiple indices.
+     */
+    public enum Strategy {
+        /**
+         * Partition using dual-pivot introselect to divide the range into regions containing
+         * indices. Indices that are close together are selected using single-pivot
+         * selection. This is the default used by {@link Selection}.
+         */
+        DUAL_PIVOT,
+        /**
+         * Select each index in ascending order using single-pivot selection. The range for
+         * each index is bracketed by the previous index. This has a linear worst case
+         * per index and can be faster when there are few indices, or on data where
+         * dual-pivot partitioning converges slowly.
+         *
+         * <p>Each partition is 3-way: all values equal to the pivot are settled in a
+         * single pass, and the range for the next index starts after the values equal
+         * to the previous index. This is efficient for data with few distinct values.
+         */
+        SINGLE_PIVOT
+    }
+
+    /**
+     * Adaption mode used by single-pivot selection. Modes are ordered from fastest
+     * on random data to most robust on adverse data. Modes other than
+     * {@link #FR_SAMPLING} guarantee a linear worst case run time.
+     */
+    public enum AdaptMode {
+        /** Identify the pivot using Floyd-Rivest sampling of a small range around the index.
+         * Poor convergence switches to {@link #SAMPLING}. This is the default. */
+        FR_SAMPLING(QuickSelect.MODE_FR_SAMPLING),
+        /** Identify the pivot using a sample of the data. Poor convergence switches to
+         * {@link #ADAPTION}. */
+        SAMPLING(QuickSelect.MODE_SAMPLING),
+        /** Identify the pivot using all of the data with adaption of the target within the
+         * sample. */
+        ADAPTION(QuickSelect.MODE_ADAPTION),
+        /** Identify the pivot using all of the data with strict margins. */
+        STRICT(QuickSelect.MODE_STRICT);
+
+        /** Mode flags. */
+        private final int flags;
+
+        /**
+         * @param flags Mode flags.
+         */
+        AdaptMode(int flags) {
+            this.flags = flags;
+        }
+    }
+
+    /**
+     * Structure used to store the indices during partitioning.
+     */
+    public enum KeyStructure {
+        /** Sorted unique indices held in the reusable workspace. This is the default. */
+        SORTED_KEYS,
+        /** A bit set covering the range of the indices. This can be faster when the
+         * indices are dense; the storage is grown as required and reused. */
+        BIT_SET,
+        /** Choose the structure using the same heuristic as {@link Selection}. For the
+         * sorted indices in the workspace this chooses {@link #SORTED_KEYS}. */
+        AUTO
+    }
+
+    /**
+     * @param strategy Partition strategy.
+     * @param mode Adaption mode.
+     * @param structure Key structure.
+     * @param sortSelectSize Sort select size.
+     * @param size Initial workspace size.
+     */
+    private Selector(Strategy strategy, AdaptMode mode, KeyStructure structure,
+            int sortSelectSize, int size) {
+        this.strategy = strategy;
+        this.mode = mode;
+        this.structure = structure;
+        this.sortSelectSize = sortSelectSize;
+        keys = new int[size];
+        keyInterval = new KeyUpdatingInterval(keys, 0);
+    }
+
+    /**
+     * Create an instance with the default options.
+     *
+     * <ul>
+     * <li>{@linkplain #with(Strategy) Strategy DUAL_PIVOT}
+     * <li>{@linkplain #with(AdaptMode) Adaption mode FR_SAMPLING}
+     * <li>{@linkplain #with(KeyStructure) Key structure SORTED_KEYS}
+     * <li>{@linkplain #withSortSelectSize(int) Sort select size} configured automatically
+     * </ul>
+     *
+     * @return the instance
+     */
+    public static Selector create() {
+        return new Selector(Strategy.DUAL_PIVOT, AdaptMode.FR_SAMPLING, KeyStructure.SORTED_KEYS,
+            AUTO, DEFAULT_SIZE);
+    }
+
+    /**
+     * Return an instance with the configured partition strategy.
+     * The new instance has a separate workspace.
+     *
+     * @param v Value.
+     * @return an instance
+     */
+    public Selector with(Strategy v) {
+        return new Selector(Objects.requireNonNull(v), mode, structure, sortSelectSize, DEFAULT_SIZE);
+    }
+
+    /**
+     * Return an instance with the configured adaption mode for single-pivot selection.
+     * The new instance has a separate workspace.
+     *
+     * @param v Value.
+     * @return an instance
+     */
+    public Selector with(AdaptMode v) {
+        return new Selector(strategy, Objects.requireNonNull(v), structure, sortSelectSize, DEFAULT_SIZE);
+    }
+
+    /**
+     * Return an instance with the configured structure to store the indices.
+     * The new instance has a separate workspace.
+     *
+     * <p>This applies to the {@link Strategy#DUAL_PIVOT DUAL_PIVOT} strategy.
+     *
+     * @param v Value.
+     * @return an instance
+     */
+    public Selector with(KeyStructure v) {
+        return new Selector(strategy, mode, Objects.requireNonNull(v), sortSelectSize, DEFAULT_SIZE);
+    }
+
+    /**
+     * Return an instance with the configured sort select size for dual-pivot
+     * partitioning. Ranges below this length are sorted to finish selection, rather
+     * than partitioned. Larger values may be faster when the indices are dense.
+     * A negative value restores the default where the size is configured automatically
+     * using the density of the indices. The new instance has a separate workspace.
+     *
+     * <p>This applies to the {@link Strategy#DUAL_PIVOT DUAL_PIVOT} strategy.
+     *
+     * @param v Value.
+     * @return an instance
+     * @throws IllegalArgumentException if the value is above 1024
+     */
+    public Selector withSortSelectSize(int v) {
+        if (v > MAX_SORTSELECT_SIZE) {
+            throw new IllegalArgumentException("Invalid sort select size: " + v);
+        }
+        return new Selector(strategy, mode, structure, v < 0 ? AUTO : v, DEFAULT_SIZE);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>The ordering is the same as {@link Selection#select(double[], int[])}.
+     * The indices are not modified.
+     *
+     * @param a Values.
+     * @param k Indices.
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     */
+    public void select(double[] a, int[] k) {
+        IndexSupport.checkIndices(0, a.length, k);
+        doSelect(a, 0, a.length, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>The ordering is the same as {@link Selection#select(double[], int, int, int[])}.
+     * The indices are not modified.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices.
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if any index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     */
+    public void select(double[] a, int fromIndex, int toIndex, int[] k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndices(fromIndex, toIndex, k);
+        doSelect(a, fromIndex, toIndex, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>The ordering is the same as {@link Selection#select(int[], int[])}.
+     * The indices are not modified.
+     *
+     * @param a Values.
+     * @param k Indices.
+     * @throws IndexOutOfBoundsException if any index {@code k} is not within the
+     * sub-range {@code [0, a.length)}
+     */
+    public void select(int[] a, int[] k) {
+        IndexSupport.checkIndices(0, a.length, k);
+        doSelect(a, 0, a.length, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>The ordering is the same as {@link Selection#select(int[], int, int, int[])}.
+     * The indices are not modified.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices.
+     * @throws IndexOutOfBoundsException if the sub-range {@code [fromIndex, toIndex)} is out of
+     * bounds of range {@code [0, a.length)}; or if any index {@code k} is not within the
+     * sub-range {@code [fromIndex, toIndex)}
+     */
+    public void select(int[] a, int fromIndex, int toIndex, int[] k) {
+        IndexSupport.checkFromToIndex(fromIndex, toIndex, a.length);
+        IndexSupport.checkIndices(fromIndex, toIndex, k);
+        doSelect(a, fromIndex, toIndex, k);
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>This method pre/post-processes the data and indices to respect the ordering
+     * imposed by {@link Double#compare(double, double)}.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices.
+     */
+    private void doSelect(double[] a, int fromIndex, int toIndex, int[] k) {
+        if (k.length == 0 || toIndex - fromIndex <= 1) {
+            return;
+        }
+        // Sort NaN / count signed zeros.
+        int cn = 0;
+        int end = toIndex;
+        for (int i = toIndex; --i >= fromIndex;) {
+            final double v = a[i];
+            // Count negative zeros using a sign bit check
+            if (Double.doubleToRawLongBits(v) == Long.MIN_VALUE) {
+                cn++;
+                // Change to positive zero.
+                // Data must be repaired after selection.
+                a[i] = 0.0;
+            } else if (v != v) {
+                // Move NaN to end
+                a[i] = a[--end];
+                a[end] = v;
+            }
+        }
+
+        // Partition
+        int n = 0;
+        if (end - fromIndex > 1) {
+            // Copy the indices invalidated by NaN check to the workspace
+            n = copyKeys(k, end);
+            if (n != 0) {
+                partition(a, fromIndex, end - 1, n);
+            }
+        }
+
+        // Restore signed zeros
+        if (cn != 0) {
+            // Use partition indices below zero to fast-forward to zero as much as possible.
+            // Binary search on the n sorted indices.
+            int j = fromIndex - 1;
+            int lo = 0;
+            int hi = n - 1;
+            while (lo <= hi) {
+                final int mid = (lo + hi) >>> 1;
+                if (a[keys[mid]] < 0) {
+                    j = keys[mid];
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            for (;;) {
+                if (a[++j] == 0) {
+                    a[j] = -0.0;
+                    if (--cn == 0) {
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Partition the array such that indices {@code k} correspond to their correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param fromIndex Index of the first element (inclusive).
+     * @param toIndex Index of the last element (exclusive).
+     * @param k Indices.
+     */
+    private void doSelect(int[] a, int fromIndex, int toIndex, int[] k) {
+        if (toIndex - fromIndex <= 1) {
+            return;
+        }
+        final int n = copyKeys(k, toIndex);
+        if (n != 0) {
+            partition(a, fromIndex, toIndex - 1, n);
+        }
+    }
+
+    /**
+     * Partition the array such that the indices in the workspace correspond to their
+     * correctly sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param n Count of sorted unique indices in the workspace (must be strictly positive).
+     */
+    private void partition(double[] a, int left, int right, int n) {
+        if (QuickSelect.presorted(a, left, right)) {
+            return;
+        }
+        final int k1 = keys[0];
+        final int kn = keys[n - 1];
+        if (strategy == Strategy.SINGLE_PIVOT) {
+            // Each selection brackets the range for the next index
+            int l = left;
+            for (int i = 0; i < n; i++) {
+                final int k = keys[i];
+                if (k >= l) {
+                    QuickSelect.quickSelectAdaptive(a, l, right, k, k, bounds, mode.flags);
+                    // Elements up to the upper bound are equal to a[k]
+                    l = bounds[0] + 1;
+                }
+            }
+        } else if (kn - k1 < QuickSelect.DP_SORTSELECT_SIZE) {
+            QuickSelect.quickSelectAdaptive(a, left, right, k1, kn, bounds, mode.flags);
+        } else {
+            QuickSelect.dualPivotQuickSelect(a, left, right, createInterval(n),
+                dualPivotFlags(left, right, k1, kn), bounds);
+        }
+    }
+
+    /**
+     * Partition the array such that the indices in the workspace correspond to their
+     * correctly sorted value in the equivalent fully sorted array.
+     *
+     * @param a Values.
+     * @param left Lower bound of data (inclusive).
+     * @param right Upper bound of data (inclusive).
+     * @param n Count of sorted unique indices in the workspace (must be strictly positive).
+     */
+    private void partition(int[] a, int left, int right, int n) {
+        if (QuickSelect.presorted(a, left, right)) {
+            return;
+        }
+        final int k1 = keys[0];
+        final int kn = keys[n - 1];
+        if (strategy == Strategy.SINGLE_PIVOT) {
+            // Each selection brackets the range for the next index
+            int l = left;
+            for (int i = 0; i < n; i++) {
+                final int k = keys[i];
+                if (k >= l) {
+                    QuickSelect.quickSelectAdaptive(a, l, right, k, k, bounds, mode.flags);
+                    // Elements up to the upper bound are equal to a[k]
+                    l = bounds[0] + 1;
+                }
+            }
+        } else if (kn - k1 < QuickSelect.DP_SORTSELECT_SIZE) {
+            QuickSelect.quickSelectAdaptive(a, left, right, k1, kn, bounds, mode.flags);
+        } else {
+            QuickSelect.dualPivotQuickSelect(a, left, right, createInterval(n),
+                dualPivotFlags(left, right, k1, kn), bounds);
+        }
+    }
+
+    /**
+     * Create the interval covering the indices in the workspace. The interval
+     * is reused between calls.
+     *
+     * @param n Count of sorted unique indices in the workspace.
+     * @return the interval
+     */
+    private UpdatingInterval createInterval(int n) {
+        if (structure == KeyStructure.BIT_SET) {
+            if (bitInterval == null) {
+                bitInterval = new BitIndexUpdatingInterval(keys[0], keys[n - 1]);
+            } else {
+                bitInterval.reset(keys[0], keys[n - 1]);
+            }
+            for (int i = n; --i >= 0;) {
+                bitInterval.set(keys[i]);
+            }
+            return bitInterval;
+        }
+        // Note: The heuristic used for AUTO always chooses sorted keys for
+        // sorted unique indices
+        return keyInterval.reset(n);
+    }
+
+    /**
+     * Configure the dual-pivot control flags.
+     *
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param k1 First key of interest.
+     * @param kn Last key of interest.
+     * @return the flags
+     */
+    private int dualPivotFlags(int left, int right, int k1, int kn) {
+        if (sortSelectSize == AUTO) {
+            return QuickSelect.dualPivotFlags(left, right, k1, kn);
+        }
+        return QuickSelect.dualPivotFlags(QuickSelect.dualPivotMaxDepth(right - left), sortSelectSize);
+    }
+
+    /**
+     * Copy the indices below the {@code end} to the workspace. The workspace is sorted
+     * and duplicates are removed.
+     *
+     * @param k Indices.
+     * @param end Upper limit on the indices (exclusive).
+     * @return the number of unique indices in the workspace
+     */
+    private int copyKeys(int[] k, int end) {
+        if (keys.length < k.length) {
+            keys = new int[Math.max(k.length, keys.length * 2)];
+            keyInterval = new KeyUpdatingInterval(keys, 0);
+        }
+        final int[] x = keys;
+        int n = 0;
+        for (final int i : k) {
+            if (i < end) {
+                x[n++] = i;
+            }
+        }
+        if (n <= 1) {
+            return n;
+        }
+        if (n <= INSERTION_SORT_SIZE) {
+            return Sorting.insertionSortIndices(x, n);
+        }
+        Arrays.sort(x, 0, n);
+        return IndexSupport.compressDuplicates(x, n);
+    }
+}
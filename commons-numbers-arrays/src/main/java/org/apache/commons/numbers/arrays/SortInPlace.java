@@ -17,12 +17,6 @@
 
 package org.apache.commons.numbers.arrays;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.List;
-
 /**
  * Sort an array and perform the same reordering of entries on other arrays.
  * For example, if
@@ -37,22 +31,16 @@ import java.util.List;
  *  <li>{@code y = [2, 3, 1]}</li>
  *  <li>{@code z = [5, 7, 0]}</li>
  * </ul>
+ *
+ * <p>The sort respects the ordering imposed by {@link Double#compare(double, double)}
+ * and is stable: entries with equal keys retain their relative order. The sort is
+ * performed on an index permutation which is then applied to all the arrays in-place.
  */
 public enum SortInPlace {
     /** Sort in ascending order. */
-    ASCENDING((o1, o2) -> Double.compare(o1.key(), o2.key())),
+    ASCENDING,
     /** Sort in descending order. */
-    DESCENDING((o1, o2) -> Double.compare(o2.key(), o1.key()));
-
-    /** Comparator. */
-    private final Comparator<PairDoubleInteger> comparator;
-
-    /**
-     * @param comparator Comparator.
-     */
-    SortInPlace(Comparator<PairDoubleInteger> comparator) {
-        this.comparator = comparator;
-    }
+    DESCENDING;
 
     /**
      * Sorts in place.
@@ -76,63 +64,103 @@ public enum SortInPlace {
             }
         }
 
-        // Associate each abscissa "x[i]" with its index "i".
-        final List<PairDoubleInteger> list = new ArrayList<>(len);
-        for (int i = 0; i < len; i++) {
-            list.add(new PairDoubleInteger(x[i], i));
+        if (len <= 1) {
+            return;
         }
 
-        // Sort.
-        Collections.sort(list, comparator);
+        // Sort the indices of the original locations.
+        final int[] indices = sortIndices(x, this == DESCENDING);
 
-        // Modify the original array so that its elements are in the prescribed order.
-        // Retrieve indices of original locations.
-        final int[] indices = new int[len];
-        for (int i = 0; i < len; i++) {
-            final PairDoubleInteger e = list.get(i);
-            x[i] = e.key();
-            indices[i] = e.value();
-        }
+        // Move the elements of every array to their new location.
+        final double[][] data = new double[yListLen + 1][];
+        data[0] = x;
+        System.arraycopy(yList, 0, data, 1, yListLen);
+        Selection.permute(data, indices);
+    }
 
-        // In every associated array, move the elements to their new location.
-        for (int j = 0; j < yListLen; j++) {
-            // Input array will be modified in place.
-            final double[] yInPlace = yList[j];
-            final double[] yOrig = Arrays.copyOf(yInPlace, len);
+    /**
+     * Create the indices of the array in sorted order. Indices of equal values
+     * are in ascending order.
+     *
+     * @param x Values.
+     * @param descending Set to true to sort in descending order.
+     * @return the sorted indices
+     */
+    private static int[] sortIndices(double[] x, boolean descending) {
+        final int n = x.length;
+        final int[] a = new int[n];
+        for (int i = 0; i < n; i++) {
+            a[i] = i;
+        }
 
-            for (int i = 0; i < len; i++) {
-                yInPlace[i] = yOrig[indices[i]];
+        // Move NaN to the end
+        int end = n;
+        for (int i = n; --i >= 0;) {
+            final int t = a[i];
+            if (Double.isNaN(x[t])) {
+                a[i] = a[--end];
+                a[end] = t;
             }
         }
-    }
 
-    /**
-     * Helper data structure holding a (double, integer) pair.
-     */
-    private static class PairDoubleInteger {
-        /** Key. */
-        private final double key;
-        /** Value. */
-        private final int value;
+        // Sort. This treats signed zeros as equal.
+        IndirectQuickSelect.sort(x, a, 0, end - 1);
 
-        /**
-         * @param key Key.
-         * @param value Value.
-         */
-        PairDoubleInteger(double key,
-                          int value) {
-            this.key = key;
-            this.value = value;
+        if (descending) {
+            for (int i = -1, j = n; ++i < --j;) {
+                final int t = a[i];
+                a[i] = a[j];
+                a[j] = t;
+            }
         }
 
-        /** @return the key. */
-        double key() {
-            return key;
+        // Restore the original order of runs of equal values.
+        for (int i = 0; i < n;) {
+            final double v = x[a[i]];
+            // Fast-forward to the end of the run
+            int j = i + 1;
+            if (v != v) {
+                while (j < n && Double.isNaN(x[a[j]])) {
+                    j++;
+                }
+            } else {
+                while (j < n && x[a[j]] == v) {
+                    j++;
+                }
+            }
+            if (j - i > 1) {
+                if (v == 0) {
+                    sortZeros(x, a, i, j, descending);
+                } else {
+                    QuickSelect.sort(a, i, j - 1);
+                }
+            }
+            i = j;
         }
+        return a;
+    }
 
-        /** @return the value. */
-        int value() {
-            return value;
+    /**
+     * Sort the indices of a run of signed zeros. Negative zeros are ordered before
+     * positive zeros (or after if {@code descending}), and indices are in ascending
+     * order within each sign.
+     *
+     * @param x Values.
+     * @param a Indices.
+     * @param from Start of the run (inclusive).
+     * @param to End of the run (exclusive).
+     * @param descending Set to true to sort in descending order.
+     */
+    private static void sortZeros(double[] x, int[] a, int from, int to, boolean descending) {
+        // Mark the indices to be ordered first using the (unused) sign bit of the index
+        for (int i = from; i < to; i++) {
+            if (Double.doubleToRawLongBits(x[a[i]]) < 0 != descending) {
+                a[i] |= Integer.MIN_VALUE;
+            }
+        }
+        QuickSelect.sort(a, from, to - 1);
+        for (int i = from; i < to; i++) {
+            a[i] &= Integer.MAX_VALUE;
         }
     }
 }
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.arrays;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Test for {@link IntIndexSet}.
+ */
+class IntIndexSetTest {
+
+    @Test
+    void testInvalidRangeThrows() {
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> IntIndexSet.ofRange(-1, 10));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> IntIndexSet.ofRange(10, 9));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> IntIndexSet.of(1, -1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> IntIndexSet.of(1, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void testInvalidIndexThrows() {
+        final IntIndexSet set = IntIndexSet.ofRange(10, 20);
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> set.add(9));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> set.add(20));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> set.add(-1));
+        // Bulk add is validated before modification
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> set.addAll(10, 11, 20));
+        Assertions.assertTrue(set.isEmpty());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> set.addRange(9, 12));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> set.addRange(12, 21));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> set.addRange(12, 11));
+    }
+
+    @Test
+    void testEmpty() {
+        for (final IntIndexSet set : new IntIndexSet[] {IntIndexSet.of(), IntIndexSet.ofRange(5, 5)}) {
+            Assertions.assertTrue(set.isEmpty());
+            Assertions.assertEquals(0, set.cardinality());
+            Assertions.assertArrayEquals(new int[0], set.toArray());
+            Assertions.assertFalse(set.contains(0));
+            Assertions.assertEquals(-1, set.nextSetBit(0));
+            Assertions.assertEquals(-1, set.previousSetBit(Integer.MAX_VALUE));
+            Assertions.assertEquals(0, set.nextClearBit(0));
+            set.forEach(i -> Assertions.fail());
+            set.forEachRange((i, j) -> Assertions.fail());
+        }
+    }
+
+    @Test
+    void testOf() {
+        final IntIndexSet set = IntIndexSet.of(70, 3, 42, 3, 69);
+        Assertions.assertEquals(3, set.from());
+        Assertions.assertEquals(71, set.to());
+        Assertions.assertEquals(4, set.cardinality());
+        Assertions.assertArrayEquals(new int[] {3, 42, 69, 70}, set.toArray());
+        Assertions.assertArrayEquals(new int[][] {{3, 4}, {42, 43}, {69, 71}}, ranges(set));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "0, 10, 5",
+        "0, 64, 30",
+        "0, 64, 200",
+        "13, 200, 50",
+        "100, 1000, 100",
+        "100, 1000, 2000",
+        "1000, 1065, 100",
+    })
+    void testAddMatchesBitSet(int from, int to, int samples) {
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create();
+        final IntIndexSet set = IntIndexSet.ofRange(from, to);
+        final BitSet ref = new BitSet();
+        Assertions.assertEquals(from, set.from());
+        Assertions.assertEquals(to, set.to());
+        for (int n = 0; n < samples; n++) {
+            final int i = rng.nextInt(from, to);
+            Assertions.assertEquals(!ref.get(i), set.add(i), () -> String.valueOf(i));
+            ref.set(i);
+        }
+        assertEquals(ref, set);
+
+        // Bulk add
+        final int[] indices = rng.ints(samples, from, to).toArray();
+        final IntIndexSet set2 = IntIndexSet.ofRange(from, to);
+        Assertions.assertTrue(set2.addAll(indices));
+        Assertions.assertFalse(set2.addAll(indices));
+        final BitSet ref2 = new BitSet();
+        for (final int i : indices) {
+            ref2.set(i);
+        }
+        assertEquals(ref2, set2);
+
+        set2.clear();
+        Assertions.assertTrue(set2.isEmpty());
+        assertEquals(new BitSet(), set2);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "0, 10",
+        "0, 64",
+        "0, 65",
+        "7, 300",
+        "64, 192",
+    })
+    void testAddRangeMatchesBitSet(int from, int to) {
+        // All ranges within the support
+        for (int i = from; i <= to; i++) {
+            for (int j = i; j <= to; j++) {
+                final IntIndexSet set = IntIndexSet.ofRange(from, to);
+                set.addRange(i, j);
+                final BitSet ref = new BitSet();
+                ref.set(i, j);
+                assertEquals(ref, set);
+            }
+        }
+        // Multiple overlapping ranges
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create();
+        final IntIndexSet set = IntIndexSet.ofRange(from, to);
+        final BitSet ref = new BitSet();
+        for (int n = 0; n < 5; n++) {
+            final int i = rng.nextInt(from, to);
+            final int j = Math.min(to, i + rng.nextInt(80));
+            set.addRange(i, j);
+            ref.set(i, j);
+        }
+        assertEquals(ref, set);
+    }
+
+    /**
+     * Assert the set matches the reference.
+     *
+     * @param ref Reference.
+     * @param set Set.
+     */
+    private static void assertEquals(BitSet ref, IntIndexSet set) {
+        final int from = set.from();
+        final int to = set.to();
+        Assertions.assertEquals(ref.cardinality(), set.cardinality());
+        Assertions.assertEquals(ref.isEmpty(), set.isEmpty());
+        Assertions.assertArrayEquals(ref.stream().toArray(), set.toArray());
+        final List<Integer> list = new ArrayList<>();
+        set.forEach(list::add);
+        Assertions.assertArrayEquals(set.toArray(), list.stream().mapToInt(Integer::intValue).toArray());
+        for (int i = Math.max(0, from - 2); i < to + 2; i++) {
+            final int k = i;
+            Assertions.assertEquals(ref.get(i), set.contains(i), () -> "contains " + k);
+            final int next = ref.nextSetBit(i);
+            Assertions.assertEquals(next, set.nextSetBit(i), () -> "nextSetBit " + k);
+            final int previous = ref.previousSetBit(i);
+            Assertions.assertEquals(previous, set.previousSetBit(i), () -> "previousSetBit " + k);
+            final int clear = ref.nextClearBit(i);
+            Assertions.assertEquals(Math.min(clear, Math.max(i, to)), set.nextClearBit(i),
+                () -> "nextClearBit " + k);
+        }
+        // Ranges
+        final List<int[]> expected = new ArrayList<>();
+        for (int i = ref.nextSetBit(0); i >= 0; i = ref.nextSetBit(i)) {
+            final int j = ref.nextClearBit(i);
+            expected.add(new int[] {i, j});
+            i = j;
+        }
+        Assertions.assertArrayEquals(expected.toArray(new int[0][]), ranges(set));
+    }
+
+    /**
+     * Gets the contiguous ranges of the set.
+     *
+     * @param set Set.
+     * @return the ranges
+     */
+    private static int[][] ranges(IntIndexSet set) {
+        final List<int[]> ranges = new ArrayList<>();
+        set.forEachRange((i, j) -> ranges.add(new int[] {i, j}));
+        return ranges.toArray(new int[0][]);
+    }
+}
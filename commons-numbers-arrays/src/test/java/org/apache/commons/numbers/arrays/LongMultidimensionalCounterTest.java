@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.arrays;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for the {@link LongMultidimensionalCounter} class.
+ */
+class LongMultidimensionalCounterTest {
+    @Test
+    void testPreconditions() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> LongMultidimensionalCounter.of(0, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> LongMultidimensionalCounter.of(2, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> LongMultidimensionalCounter.of(-1, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> LongMultidimensionalCounter.of(-1, -1));
+        final int max = Integer.MAX_VALUE;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> LongMultidimensionalCounter.of(max, max, 3));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> LongMultidimensionalCounter.of(3, max, max));
+
+        final LongMultidimensionalCounter c = LongMultidimensionalCounter.of(2, 3);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> c.toUni(1, 1, 1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> c.toUni(3, 1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> c.toUni(0, -1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> c.toMulti(-1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> c.toMulti(6));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> c.toMulti(0, new int[3]));
+    }
+
+    @Test
+    void testConversionMatchesIntCounter() {
+        final int[] sizes = {2, 4, 5, 3};
+        final MultidimensionalCounter c1 = MultidimensionalCounter.of(sizes);
+        final LongMultidimensionalCounter c2 = LongMultidimensionalCounter.of(sizes);
+        Assertions.assertEquals(c1.getSize(), c2.getSize());
+        Assertions.assertEquals(c1.getDimension(), c2.getDimension());
+        Assertions.assertArrayEquals(c1.getSizes(), c2.getSizes());
+        Assertions.assertArrayEquals(Arrays.stream(c1.getStrides()).asLongStream().toArray(), c2.getStrides());
+        Assertions.assertEquals(c1.toString(), c2.toString());
+        final int[] counts = new int[sizes.length];
+        for (int i = 0; i < c1.getSize(); i++) {
+            final int[] expected = c1.toMulti(i);
+            Assertions.assertArrayEquals(expected, c2.toMulti(i));
+            Assertions.assertSame(counts, c2.toMulti(i, counts));
+            Assertions.assertArrayEquals(expected, counts);
+            Assertions.assertEquals(i, c2.toUni(expected));
+        }
+    }
+
+    @Test
+    void testLargeSize() {
+        final int max = Integer.MAX_VALUE;
+        final LongMultidimensionalCounter c = LongMultidimensionalCounter.of(3, max, 7);
+        final long size = 3L * max * 7;
+        Assertions.assertEquals(size, c.getSize());
+        Assertions.assertEquals(7L * max, c.getStride(0));
+        Assertions.assertEquals(7, c.getStride(1));
+        Assertions.assertEquals(1, c.getStride(2));
+        final int[][] indices = {
+            {0, 0, 0},
+            {0, 0, 6},
+            {1, 0, 0},
+            {1, 12345, 3},
+            {2, max - 1, 6},
+        };
+        for (final int[] i : indices) {
+            final long index = c.toUni(i);
+            Assertions.assertEquals(i[0] * 7L * max + i[1] * 7L + i[2], index);
+            Assertions.assertArrayEquals(i, c.toMulti(index));
+        }
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> c.toMulti(size));
+    }
+
+    @Test
+    void testCursor() {
+        final LongMultidimensionalCounter c = LongMultidimensionalCounter.of(3, 1, 4, 2);
+        final LongMultidimensionalCounter.Cursor cursor = c.cursor();
+        Assertions.assertEquals(-1, cursor.getIndex());
+        for (long i = 0; i < c.getSize(); i++) {
+            Assertions.assertTrue(cursor.hasNext());
+            Assertions.assertEquals(i, cursor.nextLong());
+            Assertions.assertEquals(i, cursor.getIndex());
+            final int[] expected = c.toMulti(i);
+            Assertions.assertArrayEquals(expected, cursor.getCounts());
+            for (int d = 0; d < expected.length; d++) {
+                Assertions.assertEquals(expected[d], cursor.getCount(d));
+            }
+        }
+        Assertions.assertFalse(cursor.hasNext());
+        Assertions.assertThrows(NoSuchElementException.class, cursor::nextLong);
+    }
+
+    @Test
+    void testCursorSingleElement() {
+        final LongMultidimensionalCounter.Cursor cursor = LongMultidimensionalCounter.of(1).cursor();
+        Assertions.assertTrue(cursor.hasNext());
+        Assertions.assertEquals(0, cursor.nextLong());
+        Assertions.assertArrayEquals(new int[1], cursor.getCounts());
+        Assertions.assertFalse(cursor.hasNext());
+    }
+}
@@ -17,7 +17,9 @@
 
 package org.apache.commons.numbers.arrays;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -52,6 +54,142 @@ class MultidimensionalCounterTest {
         }
     }
 
+    @Test
+    void testToMultiWithOutput() {
+        final MultidimensionalCounter c = MultidimensionalCounter.of(2, 4, 5);
+        final int[] indices = new int[3];
+        for (int i = 0, max = c.getSize(); i < max; i++) {
+            Assertions.assertSame(indices, c.toMulti(i, indices));
+            Assertions.assertArrayEquals(c.toMulti(i), indices);
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> c.toMulti(0, new int[2]));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> c.toMulti(-1, indices));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> c.toMulti(40, indices));
+    }
+
+    @Test
+    void testStrides() {
+        final MultidimensionalCounter c = MultidimensionalCounter.of(2, 4, 5);
+        Assertions.assertArrayEquals(new int[] {20, 5, 1}, c.getStrides());
+        Assertions.assertArrayEquals(new int[] {1}, MultidimensionalCounter.of(3).getStrides());
+    }
+
+    @Test
+    void testForEachRunPreconditions() {
+        final MultidimensionalCounter c = MultidimensionalCounter.of(2, 3);
+        final MultidimensionalCounter.RunConsumer action = (start, length) -> { };
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> c.forEachRun(new int[1], new int[] {2, 3}, action));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> c.forEachRun(new int[2], new int[] {2, 3, 1}, action));
+        Assertions.assertThrows(IndexOutOfBoundsException.class,
+            () -> c.forEachRun(new int[] {-1, 0}, new int[] {2, 3}, action));
+        Assertions.assertThrows(IndexOutOfBoundsException.class,
+            () -> c.forEachRun(new int[] {0, 0}, new int[] {2, 4}, action));
+        Assertions.assertThrows(IndexOutOfBoundsException.class,
+            () -> c.forEachRun(new int[] {1, 2}, new int[] {2, 1}, action));
+    }
+
+    @Test
+    void testForEachRun() {
+        final MultidimensionalCounter c = MultidimensionalCounter.of(3, 4, 5);
+        // Sub-block
+        assertRuns(c, new int[] {1, 1, 2}, new int[] {3, 3, 4},
+            new int[][] {{27, 2}, {32, 2}, {47, 2}, {52, 2}});
+        // Full last dimension is merged with the previous dimension
+        assertRuns(c, new int[] {0, 1, 0}, new int[] {2, 3, 5},
+            new int[][] {{5, 10}, {25, 10}});
+        // Full block is a single run
+        assertRuns(c, new int[3], new int[] {3, 4, 5},
+            new int[][] {{0, 60}});
+        // Single element
+        assertRuns(c, new int[] {2, 3, 4}, new int[] {3, 4, 5},
+            new int[][] {{59, 1}});
+        // Empty
+        assertRuns(c, new int[] {1, 2, 3}, new int[] {2, 2, 4},
+            new int[0][]);
+    }
+
+    @Test
+    void testForEachRunMatchesToUni() {
+        final int[][] sizes = {{7}, {4, 6}, {3, 1, 5}, {2, 3, 4, 5}};
+        for (final int[] size : sizes) {
+            final MultidimensionalCounter c = MultidimensionalCounter.of(size);
+            final int n = size.length;
+            // Enumerate all pairs of elements as the corners of the sub-block
+            for (int i = 0; i < c.getSize(); i++) {
+                for (int j = 0; j < c.getSize(); j++) {
+                    final int[] a = c.toMulti(i);
+                    final int[] b = c.toMulti(j);
+                    final int[] from = new int[n];
+                    final int[] to = new int[n];
+                    for (int d = 0; d < n; d++) {
+                        from[d] = Math.min(a[d], b[d]);
+                        to[d] = Math.max(a[d], b[d]) + 1;
+                    }
+                    assertRunsMatchToUni(c, from, to);
+                }
+            }
+        }
+    }
+
+    /**
+     * Assert the runs of the sub-block cover the same indices as enumeration using
+     * {@link MultidimensionalCounter#toUni(int...)}.
+     *
+     * @param c Counter.
+     * @param from Lower bound.
+     * @param to Upper bound.
+     */
+    private static void assertRunsMatchToUni(MultidimensionalCounter c, int[] from, int[] to) {
+        final List<Integer> expected = new ArrayList<>();
+        addIndices(c, from, to, new int[from.length], 0, expected);
+        final List<Integer> actual = new ArrayList<>();
+        c.forEachRun(from, to, (start, length) -> {
+            for (int j = 0; j < length; j++) {
+                actual.add(start + j);
+            }
+        });
+        Assertions.assertEquals(expected, actual,
+            () -> Arrays.toString(from) + " " + Arrays.toString(to));
+    }
+
+    /**
+     * Assert the runs of the sub-block.
+     *
+     * @param c Counter.
+     * @param from Lower bound.
+     * @param to Upper bound.
+     * @param expected Expected runs.
+     */
+    private static void assertRuns(MultidimensionalCounter c, int[] from, int[] to, int[][] expected) {
+        final List<int[]> runs = new ArrayList<>();
+        c.forEachRun(from, to, (start, length) -> runs.add(new int[] {start, length}));
+        Assertions.assertArrayEquals(expected, runs.toArray(new int[0][]));
+    }
+
+    /**
+     * Add the unidimensional indices of the sub-block in order using {@link MultidimensionalCounter#toUni(int...)}.
+     *
+     * @param c Counter.
+     * @param from Lower bound.
+     * @param to Upper bound.
+     * @param counts Working multidimensional indices.
+     * @param dim Current dimension.
+     * @param indices Output indices.
+     */
+    private static void addIndices(MultidimensionalCounter c, int[] from, int[] to, int[] counts, int dim,
+                                   List<Integer> indices) {
+        if (dim == counts.length) {
+            indices.add(c.toUni(counts));
+            return;
+        }
+        for (int i = from[dim]; i < to[dim]; i++) {
+            counts[dim] = i;
+            addIndices(c, from, to, counts, dim + 1, indices);
+        }
+    }
+
     @Test
     void testAccessors() {
         final int[] originalSize = new int[] {2, 6, 5};
@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.arrays;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.sampling.ArraySampler;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test for {@link QuantileSketch}.
+ */
+class QuantileSketchTest {
+    /** Probabilities to test. */
+    private static final double[] P = IntStream.rangeClosed(0, 100).mapToDouble(i -> i / 100.0).toArray();
+
+    @Test
+    void testInvalidCapacityThrows() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> QuantileSketch.create(7));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> QuantileSketch.create((1 << 16) + 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> QuantileSketch.create(-1));
+    }
+
+    @Test
+    void testInvalidProbabilityThrows() {
+        final QuantileSketch s = QuantileSketch.create();
+        for (final double p : new double[] {-0.1, 1.5, Double.NaN}) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> s.quantile(p));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> s.quantiles(0.5, p));
+        }
+    }
+
+    @Test
+    void testEmpty() {
+        final QuantileSketch s = QuantileSketch.create();
+        Assertions.assertEquals(0, s.getN());
+        Assertions.assertEquals(0, s.getRankError());
+        Assertions.assertEquals(Double.NaN, s.quantile(0.5));
+        Assertions.assertArrayEquals(new double[] {Double.NaN, Double.NaN}, s.quantiles(0, 1));
+        // Ignored
+        s.accept(Double.NaN);
+        Assertions.assertEquals(0, s.getN());
+        Assertions.assertEquals(Double.NaN, s.quantile(0.5));
+        // Empty combine
+        s.combine(QuantileSketch.create());
+        Assertions.assertEquals(0, s.getN());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 10, 51, 200})
+    void testExact(int n) {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create(123);
+        final double[] x = rng.doubles(n).map(v -> Math.floor(v * 20) - 10).toArray();
+        // Add signed zeros and NaN
+        x[0] = -0.0;
+        x[x.length - 1] = 0.0;
+        final QuantileSketch s = QuantileSketch.create(200);
+        Arrays.stream(x).forEach(s);
+        s.accept(Double.NaN);
+        Assertions.assertEquals(n, s.getN());
+        Assertions.assertEquals(0, s.getRankError());
+        Arrays.sort(x);
+        final double[] q = s.quantiles(P);
+        for (int i = 0; i < P.length; i++) {
+            final int r = Math.max(1, (int) Math.ceil(P[i] * n));
+            Assertions.assertEquals(x[r - 1], q[i], "Quantile " + P[i]);
+            Assertions.assertEquals(q[i], s.quantile(P[i]));
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        // k, n, data: 0 = random; 1 = ascending; 2 = descending
+        "200, 200000, 0",
+        "200, 200000, 1",
+        "200, 200000, 2",
+        "50, 100000, 0",
+        "8, 50000, 0",
+    })
+    void testApproximate(int k, int n, int data) {
+        final double[] x = createData(n, data);
+        final QuantileSketch s = QuantileSketch.create(k, new SplittableRandom(k + n + data));
+        Arrays.stream(x).forEach(s);
+        Assertions.assertEquals(n, s.getN());
+        assertQuantiles(s, x);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 3, 7})
+    void testCombine(int parts) {
+        final int n = 100000;
+        final double[] x = createData(n, 0);
+        final QuantileSketch[] s = new QuantileSketch[parts];
+        for (int i = 0; i < parts; i++) {
+            s[i] = QuantileSketch.create(100, new SplittableRandom(i));
+        }
+        // Uneven split
+        for (int i = 0; i < n; i++) {
+            s[(int) ((long) i * i % parts)].accept(x[i]);
+        }
+        for (int i = 1; i < parts; i++) {
+            Assertions.assertSame(s[0], s[0].combine(s[i]));
+        }
+        Assertions.assertEquals(n, s[0].getN());
+        assertQuantiles(s[0], x);
+    }
+
+    @Test
+    void testCombineExact() {
+        final double[] x = createData(100, 0);
+        final QuantileSketch s1 = QuantileSketch.create();
+        final QuantileSketch s2 = QuantileSketch.create();
+        Arrays.stream(x, 0, 30).forEach(s1);
+        Arrays.stream(x, 30, 100).forEach(s2);
+        s1.combine(s2);
+        Assertions.assertEquals(0, s1.getRankError());
+        Arrays.sort(x);
+        Assertions.assertEquals(x[49], s1.quantile(0.5));
+        // Into an empty sketch
+        final QuantileSketch s3 = QuantileSketch.create().combine(s1);
+        Assertions.assertEquals(100, s3.getN());
+        Assertions.assertArrayEquals(s1.quantiles(P), s3.quantiles(P));
+    }
+
+    @Test
+    void testCombineSelf() {
+        final double[] x = createData(10000, 0);
+        final QuantileSketch s = QuantileSketch.create(50, new SplittableRandom(42));
+        Arrays.stream(x).forEach(s);
+        s.combine(s);
+        Assertions.assertEquals(2L * x.length, s.getN());
+        // Duplicate the data
+        final double[] y = Arrays.copyOf(x, x.length * 2);
+        System.arraycopy(x, 0, y, x.length, x.length);
+        assertQuantiles(s, y);
+    }
+
+    @Test
+    void testCombineDifferentCapacity() {
+        final double[] x = createData(50000, 0);
+        final QuantileSketch s1 = QuantileSketch.create(200, new SplittableRandom(1));
+        final QuantileSketch s2 = QuantileSketch.create(50, new SplittableRandom(2));
+        Arrays.stream(x, 0, 25000).forEach(s1);
+        Arrays.stream(x, 25000, 50000).forEach(s2);
+        final double e = s2.getRankError();
+        s1.combine(s2);
+        Assertions.assertEquals(e, s1.getRankError());
+        assertQuantiles(s1, x);
+    }
+
+    /**
+     * Creates the data.
+     *
+     * @param n Size.
+     * @param type 0 = random; 1 = ascending; 2 = descending.
+     * @return the data
+     */
+    private static double[] createData(int n, int type) {
+        final double[] x = IntStream.range(0, n).mapToDouble(i -> i + 0.5).toArray();
+        if (type == 0) {
+            ArraySampler.shuffle(RandomSource.XO_SHI_RO_128_PP.create(n), x);
+        } else if (type == 2) {
+            for (int i = 0, j = n - 1; i < j; i++, j--) {
+                final double v = x[i];
+                x[i] = x[j];
+                x[j] = v;
+            }
+        }
+        return x;
+    }
+
+    /**
+     * Assert the quantiles have a rank error within the expected bound. The data
+     * must be unique.
+     *
+     * @param s Sketch.
+     * @param x Data.
+     */
+    private static void assertQuantiles(QuantileSketch s, double[] x) {
+        final double[] sorted = x.clone();
+        Arrays.sort(sorted);
+        final int n = x.length;
+        final double e = s.getRankError();
+        Assertions.assertTrue(e > 0, "Expected compaction");
+        final double[] q = s.quantiles(P);
+        Assertions.assertEquals(sorted[0], q[0], "min");
+        Assertions.assertEquals(sorted[n - 1], q[P.length - 1], "max");
+        for (int i = 0; i < P.length; i++) {
+            final int j = Arrays.binarySearch(sorted, q[i]);
+            Assertions.assertTrue(j >= 0, "Value not observed");
+            // Ranks in [1, n] for values
+            final double p = P[i];
+            final double error = Math.abs((j + 1.0) / n - p);
+            Assertions.assertTrue(error <= e, () -> "p=" + p + " error=" + error + " bound=" + e);
+        }
+    }
+}
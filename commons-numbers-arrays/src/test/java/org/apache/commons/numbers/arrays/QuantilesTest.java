@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.arrays;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import org.apache.commons.numbers.arrays.Quantiles.EstimationMethod;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * Test for {@link Quantiles}.
+ */
+class QuantilesTest {
+    /** Probabilities to test. */
+    private static final double[] P = IntStream.rangeClosed(0, 40).mapToDouble(i -> i / 40.0).toArray();
+
+    @Test
+    void testOptions() {
+        final Quantiles q = Quantiles.withDefaults();
+        Assertions.assertSame(q, Quantiles.withDefaults());
+        Assertions.assertNotSame(q, q.with(EstimationMethod.HF7));
+        Assertions.assertNotSame(q, q.withCopy(false));
+        Assertions.assertThrows(NullPointerException.class, () -> q.with(null));
+    }
+
+    @Test
+    void testInvalidProbabilityThrows() {
+        final Quantiles q = Quantiles.withDefaults();
+        final double[] x = {1, 2, 3};
+        for (final double p : new double[] {-0.1, 1.5, Double.NaN}) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> q.evaluate(x, p));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> q.evaluate(x, 0.5, p));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> q.evaluate(new double[0], p));
+        }
+    }
+
+    @Test
+    void testEmpty() {
+        final Quantiles q = Quantiles.withDefaults();
+        Assertions.assertEquals(Double.NaN, q.evaluate(new double[0], 0.5));
+        Assertions.assertArrayEquals(new double[] {Double.NaN, Double.NaN}, q.evaluate(new double[0], 0, 1));
+        Assertions.assertArrayEquals(new double[0], q.evaluate(new double[] {1, 2}, new double[0]));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        // Values from R: quantile(c(1, 2, 3, 4, 5), c(0.25, 0.5), type = t)
+        "HF1, 2, 3",
+        "HF2, 2, 3",
+        "HF3, 1, 2",
+        "HF4, 1.25, 2.5",
+        "HF5, 1.75, 3",
+        "HF6, 1.5, 3",
+        "HF7, 2, 3",
+        "HF8, 1.6666666666666667, 3",
+        "HF9, 1.6875, 3",
+    })
+    void testKnownValues(EstimationMethod method, double q25, double q50) {
+        final double[] x = {5, 3, 1, 4, 2};
+        final double[] q = Quantiles.withDefaults().with(method).evaluate(x, 0.25, 0.5);
+        Assertions.assertEquals(q25, q[0], Math.ulp(q25));
+        Assertions.assertEquals(q50, q[1]);
+    }
+
+    @Test
+    void testCopy() {
+        final double[] x = {5, 4, 3, 2, 1};
+        final double[] y = x.clone();
+        Quantiles.withDefaults().evaluate(x, 0.5);
+        Assertions.assertArrayEquals(y, x);
+        Assertions.assertEquals(3, Quantiles.withDefaults().withCopy(false).evaluate(x, 0.5));
+        Assertions.assertEquals(3, x[2]);
+        for (int i = 0; i < 2; i++) {
+            Assertions.assertTrue(x[i] <= x[2]);
+            Assertions.assertTrue(x[i + 3] >= x[2]);
+        }
+    }
+
+    @Test
+    void testNonFinite() {
+        final Quantiles q = Quantiles.withDefaults().with(EstimationMethod.HF7);
+        final double inf = Double.POSITIVE_INFINITY;
+        Assertions.assertEquals(inf, q.evaluate(new double[] {inf, inf}, 0.5));
+        Assertions.assertEquals(-inf, q.evaluate(new double[] {-inf, -inf}, 0.5));
+        Assertions.assertEquals(Double.NaN, q.evaluate(new double[] {-inf, inf}, 0.5));
+        Assertions.assertEquals(-0.0, q.evaluate(new double[] {0.0, -0.0, 0.0}, 0));
+        // NaN is the largest value
+        Assertions.assertEquals(1, q.evaluate(new double[] {Double.NaN, 1, 1}, 0.5));
+        Assertions.assertEquals(Double.NaN, q.evaluate(new double[] {Double.NaN, 1, 1}, 1));
+    }
+
+    @ParameterizedTest
+    @EnumSource(EstimationMethod.class)
+    void testQuantiles(EstimationMethod method) {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create();
+        final Quantiles q = Quantiles.withDefaults().with(method);
+        for (final int n : new int[] {1, 2, 3, 4, 5, 10, 11, 100, 1000}) {
+            final double[] x = rng.doubles(n, -10, 10).map(Math::rint).toArray();
+            // Interpolation is computed using a different formula. The fraction g
+            // has an error relative to np. Scale by the range of the data.
+            final double delta = 4 * Math.ulp((double) n) * 20;
+            final double[] sorted = x.clone();
+            Arrays.sort(sorted);
+            final double[] actual = q.evaluate(x, P);
+            for (int i = 0; i < P.length; i++) {
+                final double p = P[i];
+                final double expected = quantile(sorted, p, method);
+                Assertions.assertEquals(expected, actual[i], delta, () -> n + ": p=" + p);
+                Assertions.assertEquals(actual[i], q.evaluate(x, p));
+            }
+        }
+    }
+
+    /**
+     * Compute the quantile using the sample quantile definition of Hyndman and Fan:
+     * {@code Q(p) = (1 - g) x[j] + g x[j+1]} using 1-based order statistics.
+     *
+     * @param sorted Sorted data.
+     * @param p Probability.
+     * @param method Estimation method.
+     * @return the quantile
+     */
+    private static double quantile(double[] sorted, double p, EstimationMethod method) {
+        final int n = sorted.length;
+        final double m;
+        switch (method) {
+        case HF1:
+        case HF2:
+        case HF4:
+            m = 0;
+            break;
+        case HF3:
+            m = -0.5;
+            break;
+        case HF5:
+            m = 0.5;
+            break;
+        case HF6:
+            m = p;
+            break;
+        case HF7:
+            m = 1 - p;
+            break;
+        case HF8:
+            m = (p + 1) / 3;
+            break;
+        case HF9:
+            m = p / 4 + 3.0 / 8;
+            break;
+        default:
+            throw new IllegalStateException();
+        }
+        final double np = n * p + m;
+        final int j = (int) Math.floor(np);
+        final double g = np - j;
+        final double gamma;
+        switch (method) {
+        case HF1:
+            gamma = g > 0 ? 1 : 0;
+            break;
+        case HF2:
+            gamma = g > 0 ? 1 : 0.5;
+            break;
+        case HF3:
+            gamma = g == 0 && (j & 1) == 0 ? 0 : 1;
+            break;
+        default:
+            gamma = g;
+        }
+        // Clip order statistics to [1, n]
+        final double xj = sorted[Math.min(n, Math.max(1, j)) - 1];
+        final double xj1 = sorted[Math.min(n, Math.max(1, j + 1)) - 1];
+        if (gamma == 0 || xj == xj1) {
+            return xj;
+        }
+        return (1 - gamma) * xj + gamma * xj1;
+    }
+}
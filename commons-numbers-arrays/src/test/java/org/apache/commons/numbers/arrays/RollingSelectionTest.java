@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.arrays;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Test for {@link RollingSelection}.
+ */
+class RollingSelectionTest {
+    /** Probabilities to test. */
+    private static final double[] P = {0, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 1};
+
+    @Test
+    void testInvalidWindowSizeThrows() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RollingSelection.create(0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RollingSelection.create(-1));
+    }
+
+    @Test
+    void testEmpty() {
+        final RollingSelection s = RollingSelection.create(3);
+        Assertions.assertEquals(0, s.size());
+        Assertions.assertEquals(3, s.getWindowSize());
+        Assertions.assertEquals(Double.NaN, s.quantile(0.5));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> s.select(0));
+        Assertions.assertThrows(NoSuchElementException.class, s::evict);
+        for (final double p : new double[] {-0.1, 1.5, Double.NaN}) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> s.quantile(p));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> s.quantiles(0.5, p));
+        }
+    }
+
+    @Test
+    void testEvictAndClear() {
+        final RollingSelection s = RollingSelection.create(3);
+        s.accept(3);
+        s.accept(1);
+        s.accept(2);
+        Assertions.assertEquals(3, s.size());
+        Assertions.assertEquals(1, s.select(0));
+        // Full: evicts 3
+        s.accept(5);
+        Assertions.assertEquals(3, s.size());
+        Assertions.assertEquals(5, s.select(2));
+        Assertions.assertEquals(1, s.evict());
+        Assertions.assertEquals(2, s.size());
+        Assertions.assertEquals(2, s.select(0));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> s.select(2));
+        s.clear();
+        Assertions.assertEquals(0, s.size());
+        s.accept(7);
+        Assertions.assertEquals(7, s.select(0));
+        Assertions.assertEquals(7, s.evict());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        // window, samples, distinct values (0 = continuous)
+        "1, 50, 0",
+        "2, 100, 0",
+        "10, 500, 0",
+        "10, 500, 3",
+        "64, 2000, 0",
+        "64, 2000, 10",
+        "1000, 5000, 0",
+        "1000, 5000, 50",
+    })
+    void testSelect(int w, int samples, int distinct) {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create();
+        final double[] x = new double[samples];
+        for (int i = 0; i < samples; i++) {
+            x[i] = distinct == 0 ? rng.nextDouble() - 0.5 : rng.nextInt(distinct) - distinct / 2;
+            final int u = rng.nextInt(20);
+            // Add signed zeros and NaN
+            if (u == 0) {
+                x[i] = -0.0;
+            } else if (u == 1) {
+                x[i] = 0.0;
+            } else if (u == 2) {
+                x[i] = Double.NaN;
+            }
+        }
+        final RollingSelection s = RollingSelection.create(w);
+        for (int i = 0; i < samples; i++) {
+            s.accept(x[i]);
+            final int from = Math.max(0, i + 1 - w);
+            final double[] window = Arrays.copyOfRange(x, from, i + 1);
+            Assertions.assertEquals(window.length, s.size());
+            assertWindow(s, window);
+            // Periodically evict the oldest values
+            if (i % 97 == 96) {
+                final int m = 1 + (window.length >>> 1);
+                for (int j = 0; j < m; j++) {
+                    Assertions.assertEquals(window[j], s.evict());
+                }
+                // Refill using the same values
+                for (int j = 0; j < m; j++) {
+                    s.accept(window[j]);
+                }
+                // Window values are rotated
+                final double[] w2 = new double[window.length];
+                System.arraycopy(window, m, w2, 0, window.length - m);
+                System.arraycopy(window, 0, w2, window.length - m, m);
+                assertWindow(s, w2);
+                // Evict and add the values in the original order
+                for (int j = 0; j < window.length; j++) {
+                    s.evict();
+                }
+                Arrays.stream(window).forEach(s);
+            }
+        }
+    }
+
+    /**
+     * Assert the order statistics of the window are the same as those obtained using
+     * {@link Selection}.
+     *
+     * @param s Rolling selection.
+     * @param window Window values.
+     */
+    private static void assertWindow(RollingSelection s, double[] window) {
+        final int n = window.length;
+        // Test the lower, upper and middle indices
+        final int[] k = {0, n - 1, n >>> 1, (n - 1) >>> 1, n / 3};
+        for (final int i : k) {
+            final double[] a = window.clone();
+            Selection.select(a, i);
+            Assertions.assertEquals(a[i], s.select(i), () -> "select " + i);
+        }
+        final double[] sorted = window.clone();
+        Arrays.sort(sorted);
+        final double[] q = s.quantiles(P);
+        for (int i = 0; i < P.length; i++) {
+            final int r = Math.max(1, (int) Math.ceil(P[i] * n));
+            Assertions.assertEquals(sorted[r - 1], q[i], "Quantile " + P[i]);
+        }
+        Assertions.assertEquals(q[4], s.quantile(P[4]));
+    }
+}
@@ -17,8 +17,13 @@
 
 package org.apache.commons.numbers.arrays;
 
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.ReadOnlyBufferException;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.apache.commons.rng.UniformRandomProvider;
@@ -29,6 +34,7 @@ import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.MethodSource;
 
 /**
@@ -39,57 +45,17 @@ class SelectionTest {
     private static final int SU = 1200;
     /** Signal to ignore the range of [from, to). */
     private static final int IGNORE_FROM = -1236481268;
-
-    /**
-     * {@link UpdatingInterval} for range {@code [left, right]}.
-     */
-    static final class RangeInterval implements UpdatingInterval {
-        /** Left bound of the interval. */
-        private int left;
-        /** Right bound of the interval. */
-        private int right;
-
-        /**
-         * @param left Left bound.
-         * @param right Right bound.
-         */
-        RangeInterval(int left, int right) {
-            this.left = left;
-            this.right = right;
-        }
-
-        @Override
-        public int left() {
-            return left;
-        }
-
-        @Override
-        public int right() {
-            return right;
-        }
-
-        @Override
-        public int updateLeft(int k) {
-            // Assume left < k <= right
-            left = k;
-            return k;
-        }
-
-        @Override
-        public int updateRight(int k) {
-            // Assume left <= k < right
-            right = k;
-            return k;
-        }
-
-        @Override
-        public UpdatingInterval splitLeft(int ka, int kb) {
-            // Assume left < ka <= kb < right
-            final int lower = left;
-            left = kb + 1;
-            return new RangeInterval(lower, ka - 1);
-        }
-    }
+    /** Selector with a workspace reused across test cases. */
+    private static final Selector SELECTOR = Selector.create();
+    /** Selectors using non-default options. */
+    private static final Selector[] SELECTORS = {
+        Selector.create().with(Selector.Strategy.SINGLE_PIVOT),
+        Selector.create().with(Selector.Strategy.SINGLE_PIVOT).with(Selector.AdaptMode.STRICT),
+        Selector.create().with(Selector.AdaptMode.SAMPLING).with(Selector.KeyStructure.BIT_SET),
+        Selector.create().with(Selector.AdaptMode.ADAPTION).with(Selector.KeyStructure.AUTO),
+        Selector.create().withSortSelectSize(0),
+        Selector.create().withSortSelectSize(100).with(Selector.KeyStructure.BIT_SET),
+    };
 
     /**
      * Partition function. Used to test different implementations.
@@ -558,7 +524,669 @@ class SelectionTest {
             if (n == 1) {
                 Assertions.assertArrayEquals(a, b, "single k mismatch");
             }
-        }, false);
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testDoublePartition", "testDoublePartitionBigData"})
+    void testDoubleSelectIndices(double[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            final double[] x = a.clone();
+            final int[] idx = IntStream.range(0, a.length).toArray();
+            Selection.selectIndices(x, idx, Arrays.copyOf(k, n));
+            Assertions.assertArrayEquals(a, x, "Data modified");
+            for (int i = 0; i < idx.length; i++) {
+                a[i] = x[idx[i]];
+            }
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testDoublePartition", "testDoublePartitionBigData"})
+    void testDoubleSelectIndicesRange(double[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            final double[] x = a.clone();
+            // Reverse order indices within a padded range
+            final int pad = 3;
+            final int[] idx = new int[a.length + 2 * pad];
+            for (int i = 0; i < a.length; i++) {
+                idx[i + pad] = a.length - 1 - i;
+            }
+            final int[] k2 = Arrays.stream(k).limit(n).map(i -> i + pad).toArray();
+            Selection.selectIndices(x, idx, pad, pad + a.length, k2);
+            Assertions.assertArrayEquals(a, x, "Data modified");
+            for (int i = 0; i < a.length; i++) {
+                a[i] = x[idx[i + pad]];
+            }
+            for (int i = 0; i < pad; i++) {
+                Assertions.assertEquals(0, idx[i], "Lower padding modified");
+                Assertions.assertEquals(0, idx[idx.length - 1 - i], "Upper padding modified");
+            }
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testDoublePartition", "testDoublePartitionBigData"})
+    void testDoubleIndirectDualPivotQuickSelectMaxRecursion(double[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            final int right = sortNaN(a);
+            // Sanitise indices
+            k = Arrays.stream(k).filter(i -> i <= right).toArray();
+            if (right < 1 || k.length == 0) {
+                return;
+            }
+            replaceNegativeZeros(a, 0, right);
+            final double[] x = a.clone();
+            final int[] idx = IntStream.range(0, a.length).toArray();
+            IndirectQuickSelect.dualPivotQuickSelect(x, idx, 0, right,
+                IndexSupport.createUpdatingInterval(k, k.length),
+                QuickSelect.dualPivotFlags(2, 5));
+            for (int i = 0; i < idx.length; i++) {
+                a[i] = x[idx[i]];
+            }
+            restoreNegativeZeros(a, 0, right);
+        }, false);
+    }
+
+    @Test
+    void testSelectIndicesThrows() {
+        final double[] x = new double[10];
+        final int[] y = new int[10];
+        final int[] idx = IntStream.range(0, 10).toArray();
+        final int[] k = {3};
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.selectIndices(x, idx, new int[] {10}));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.selectIndices(y, idx, new int[] {-1}));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.selectIndices(x, idx, 2, 11, k));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.selectIndices(y, idx, 4, 8, k));
+        idx[7] = 10;
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.selectIndices(x, idx, k));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.selectIndices(y, idx, k));
+        idx[7] = -1;
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.selectIndices(x, idx, 0, 8, k));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.selectIndices(y, idx, 0, 8, k));
+        // Out of range indices are not checked
+        Selection.selectIndices(x, idx, 0, 7, k);
+        Selection.selectIndices(y, idx, 0, 7, k);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testDoublePartition", "testDoublePartitionBigData"})
+    void testObjectSelectComparable(double[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            final Double[] x = box(a);
+            Selection.select(x, Arrays.copyOf(k, n));
+            unbox(x, a);
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testDoublePartition", "testDoublePartitionBigData"})
+    void testObjectSelectComparator(double[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            final Double[] x = box(a);
+            Selection.select(x, Comparator.comparing(Function.identity()), Arrays.copyOf(k, n));
+            unbox(x, a);
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testDoublePartition", "testDoublePartitionBigData"})
+    void testObjectSelectKey(double[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            final Double[] x = box(a);
+            Selection.select(x, Double::doubleValue, Arrays.copyOf(k, n));
+            unbox(x, a);
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testDoublePartition", "testDoublePartitionBigData"})
+    void testObjectDualPivotQuickSelectMaxRecursion(double[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            final int right = a.length - 1;
+            if (right < 1 || k.length == 0) {
+                return;
+            }
+            final Double[] x = box(a);
+            ObjectQuickSelect.dualPivotQuickSelect(x, Comparator.naturalOrder(), 0, right,
+                IndexSupport.createUpdatingInterval(k, k.length),
+                QuickSelect.dualPivotFlags(2, 5));
+            unbox(x, a);
+        }, false);
+    }
+
+    @Test
+    void testObjectSelectWithInconsistentComparator() {
+        // Result is undefined but the partition must not fail
+        final Double[] x = box(RandomSource.XO_SHI_RO_128_PP.create(123).doubles(2000).toArray());
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create(456);
+        final Comparator<Double> c = (u, v) -> rng.nextInt(3) - 1;
+        for (int i = 0; i < 20; i++) {
+            Selection.select(x, c, new int[] {100, 1000, 1990});
+        }
+        Assertions.assertEquals(2000, Arrays.stream(x).filter(v -> v != null).count());
+    }
+
+    private static Double[] box(double[] a) {
+        return Arrays.stream(a).boxed().toArray(Double[]::new);
+    }
+
+    private static void unbox(Double[] x, double[] a) {
+        for (int i = 0; i < x.length; i++) {
+            a[i] = x[i];
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testDoublePartition", "testDoublePartitionBigData"})
+    void testDoubleSelectWithCompanions(double[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            // The companion is the original index of the value
+            final double[] y = IntStream.range(0, a.length).asDoubleStream().toArray();
+            final double[] z = y.clone();
+            Selection.select(a, Arrays.copyOf(k, n), y, z);
+            Assertions.assertArrayEquals(y, z);
+            for (int i = 0; i < a.length; i++) {
+                Assertions.assertEquals(values[(int) y[i]], a[i]);
+            }
+        }, false);
+    }
+
+    @Test
+    void testDoubleSelectWithCompanionsThrows() {
+        final double[] a = new double[10];
+        final int[] k = {5};
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Selection.select(a, k, new double[9]));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> Selection.select(a, k, new double[10], new double[11]));
+        Assertions.assertThrows(IndexOutOfBoundsException.class,
+            () -> Selection.select(a, new int[] {10}, new double[10]));
+        // No companions
+        final double[] b = {3, 1, 2};
+        Selection.select(b, new int[] {0}, new double[0][]);
+        Assertions.assertEquals(1, b[0]);
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testSelectWeighted(double[] values, double[] weights) {
+        // Reference: sort pairs of (value, weight) using the value
+        final int n = values.length;
+        final Integer[] order = IntStream.range(0, n).boxed().toArray(Integer[]::new);
+        Arrays.sort(order, (i, j) -> Double.compare(values[i], values[j]));
+        double total = 0;
+        for (final double w : weights) {
+            total += w;
+        }
+        for (final double p : new double[] {0, 0.1, 0.25, 0.5, 0.5 + 0x1.0p-20, 0.75, 0.99, 1}) {
+            final double target = p * total;
+            double c = 0;
+            int i = 0;
+            for (; i < n; i++) {
+                c += weights[order[i]];
+                if (c >= target && c > 0) {
+                    break;
+                }
+            }
+            final double expected = values[order[i]];
+            final double[] a = values.clone();
+            final double[] w = weights.clone();
+            final int k = Selection.selectWeighted(a, w, p);
+            Assertions.assertEquals(expected, a[k], () -> "p=" + p);
+            for (int j = 0; j < k; j++) {
+                Assertions.assertTrue(Double.compare(a[j], a[k]) <= 0);
+            }
+            for (int j = k + 1; j < n; j++) {
+                Assertions.assertTrue(Double.compare(a[j], a[k]) >= 0);
+            }
+            // The cumulative weight crosses the target at k
+            double ck = 0;
+            for (int j = 0; j < k; j++) {
+                ck += w[j];
+            }
+            Assertions.assertTrue(ck < target || ck == 0, "Cumulative weight before k");
+            Assertions.assertTrue(ck + w[k] >= target && ck + w[k] > 0, "Cumulative weight at k");
+            // Pairs are preserved
+            Assertions.assertArrayEquals(sortPairs(values, weights), sortPairs(a, w));
+        }
+    }
+
+    static Stream<Arguments> testSelectWeighted() {
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        builder.add(Arguments.of(new double[] {1}, new double[] {1}));
+        builder.add(Arguments.of(new double[] {1, 2}, new double[] {1, 1}));
+        builder.add(Arguments.of(new double[] {3, 2, 1}, new double[] {0, 1, 0}));
+        builder.add(Arguments.of(new double[] {0.0, -0.0, 0.0, -0.0}, new double[] {1, 2, 3, 4}));
+        builder.add(Arguments.of(new double[] {Double.NaN, 1, Double.NaN}, new double[] {1, 1, 1}));
+        builder.add(Arguments.of(new double[] {Double.NaN, Double.NaN}, new double[] {1, 3}));
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create(123);
+        for (final int n : new int[] {5, 50, 500, 5000}) {
+            for (final int distinct : new int[] {3, 20, 0}) {
+                final double[] values = new double[n];
+                final double[] weights = new double[n];
+                for (int i = 0; i < n; i++) {
+                    values[i] = distinct == 0 ? rng.nextDouble() : rng.nextInt(distinct) - distinct / 2;
+                    // Integer weights have an exact sum
+                    weights[i] = rng.nextInt(10);
+                    final int u = rng.nextInt(20);
+                    if (u == 0) {
+                        values[i] = -0.0;
+                    } else if (u == 1) {
+                        values[i] = 0.0;
+                    } else if (u == 2) {
+                        values[i] = Double.NaN;
+                    }
+                }
+                weights[rng.nextInt(n)] = 1;
+                builder.add(Arguments.of(values, weights));
+            }
+        }
+        return builder.build();
+    }
+
+    @Test
+    void testSelectWeightedThrows() {
+        final double[] a = {1, 2, 3};
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Selection.selectWeighted(a, new double[2], 0.5));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> Selection.selectWeighted(new double[0], new double[0], 0.5));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Selection.selectWeighted(a, new double[3], 0.5));
+        for (final double p : new double[] {-0.1, 1.5, Double.NaN}) {
+            Assertions.assertThrows(IllegalArgumentException.class,
+                () -> Selection.selectWeighted(a, new double[] {1, 1, 1}, p));
+        }
+        for (final double w : new double[] {-1, Double.NaN, Double.POSITIVE_INFINITY}) {
+            Assertions.assertThrows(IllegalArgumentException.class,
+                () -> Selection.selectWeighted(a, new double[] {1, w, 1}, 0.5));
+        }
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> Selection.selectWeighted(a, new double[] {Double.MAX_VALUE, Double.MAX_VALUE, 1}, 0.5));
+    }
+
+    /**
+     * Sort the pairs of values and weights.
+     *
+     * @param values Values.
+     * @param weights Weights.
+     * @return the sorted pairs as [value0, weight0, value1, weight1, ...]
+     */
+    private static double[] sortPairs(double[] values, double[] weights) {
+        return IntStream.range(0, values.length).boxed()
+            .sorted(Comparator.<Integer>comparingDouble(i -> values[i]).thenComparingDouble(i -> weights[i]))
+            .flatMapToDouble(i -> Arrays.stream(new double[] {values[i], weights[i]}))
+            .toArray();
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testDoublePartition", "testDoublePartitionBigData"})
+    void testDoubleBufferSelect(double[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            double[] b = a;
+            if (n == 1) {
+                b = a.clone();
+                Selection.select(DoubleBuffer.wrap(b), k[0]);
+            }
+            Selection.select(DoubleBuffer.wrap(a), Arrays.copyOf(k, n));
+            if (n == 1) {
+                Assertions.assertArrayEquals(a, b, "single k mismatch");
+            }
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testDoublePartition", "testDoublePartitionBigData"})
+    void testDoubleBufferSelectDirect(double[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            // Data held in a direct buffer between the position and limit
+            final int offset = 3;
+            final DoubleBuffer data = ByteBuffer.allocateDirect((a.length + 2 * offset) * Double.BYTES)
+                .asDoubleBuffer();
+            data.position(offset);
+            data.put(a);
+            data.put(-1);
+            final DoubleBuffer b = data.duplicate();
+            b.position(offset).limit(offset + a.length);
+            Selection.select(b, Arrays.copyOf(k, n));
+            Assertions.assertEquals(offset, b.position(), "position");
+            Assertions.assertEquals(offset + a.length, b.limit(), "limit");
+            Assertions.assertEquals(-1, data.get(offset + a.length), "Data modified outside the limit");
+            b.get(a);
+        }, false);
+    }
+
+    @Test
+    void testDoubleBufferSelectThrows() {
+        final DoubleBuffer b = DoubleBuffer.wrap(new double[10]);
+        b.position(3);
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.select(b, 7));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.select(b, -1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.select(b, new int[] {0, 7}));
+        Assertions.assertThrows(ReadOnlyBufferException.class,
+            () -> Selection.select(b.asReadOnlyBuffer(), 1));
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testDoublePartition", "testDoublePartitionBigData"})
+    void testDoubleSelector(double[] values, int[] indices) {
+        // The workspace is reused across all test cases
+        assertPartition(values, indices, (a, k, n) -> {
+            final int[] keys = Arrays.copyOf(k, n);
+            final int[] copy = keys.clone();
+            final double[] b = a.clone();
+            SELECTOR.select(b, 0, b.length, keys);
+            SELECTOR.select(a, keys);
+            Assertions.assertArrayEquals(copy, keys, "Indices modified");
+            Assertions.assertArrayEquals(a, b, "Range mismatch");
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testDoublePartition", "testDoublePartitionBigData"})
+    void testDoubleSelectorOptions(double[] values, int[] indices) {
+        for (final Selector s : SELECTORS) {
+            assertPartition(values, indices, (a, k, n) -> s.select(a, Arrays.copyOf(k, n)), false);
+        }
+    }
+
+    @Test
+    void testSelectorOptions() {
+        final Selector s = Selector.create();
+        Assertions.assertNotSame(s, s.with(Selector.Strategy.DUAL_PIVOT));
+        Assertions.assertNotSame(s, s.with(Selector.AdaptMode.FR_SAMPLING));
+        Assertions.assertNotSame(s, s.with(Selector.KeyStructure.SORTED_KEYS));
+        Assertions.assertNotSame(s, s.withSortSelectSize(-1));
+        Assertions.assertThrows(NullPointerException.class, () -> s.with((Selector.Strategy) null));
+        Assertions.assertThrows(NullPointerException.class, () -> s.with((Selector.AdaptMode) null));
+        Assertions.assertThrows(NullPointerException.class, () -> s.with((Selector.KeyStructure) null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> s.withSortSelectSize(1025));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> s.withSortSelectSize(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void testSelectorThrows() {
+        final double[] a = new double[10];
+        final int[] b = new int[10];
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> SELECTOR.select(a, new int[] {10}));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> SELECTOR.select(a, 2, 5, new int[] {5}));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> SELECTOR.select(a, 2, 11, new int[] {5}));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> SELECTOR.select(b, new int[] {-1}));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> SELECTOR.select(b, 2, 5, new int[] {1}));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> SELECTOR.select(b, 6, 5, new int[] {5}));
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testDoublePartition", "testDoublePartitionBigData", "testDoubleParallelPartition"})
+    void testDoubleQuickSelectParallel(double[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            final int right = sortNaN(a);
+            // Sanitise indices
+            k = Arrays.stream(k).filter(i -> i <= right).toArray();
+            if (right < 1) {
+                return;
+            }
+            replaceNegativeZeros(a, 0, right);
+            QuickSelect.parallelSelect(a, 0, right, k, k.length);
+            restoreNegativeZeros(a, 0, right);
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testDoublePartition", "testDoubleParallelPartition"})
+    void testDoubleParallelSelect(double[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) ->
+            Selection.parallelSelect(a, Arrays.copyOf(k, n)), false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testDoublePartition", "testDoubleParallelPartition"})
+    void testDoubleParallelSelectRange(double[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) ->
+            Selection.parallelSelect(a, 0, a.length, Arrays.copyOf(k, n)), false);
+    }
+
+    static Stream<Arguments> testDoubleParallelPartition() {
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create(123);
+        // Sizes above the threshold for parallel partitioning
+        for (final int size : new int[] {50000, 200000}) {
+            final double[] a = IntStream.range(0, size).asDoubleStream().toArray();
+            // With repeat elements
+            final double[] b = rng.ints(size, 0, size >> 3).asDoubleStream().toArray();
+            // With signed zeros and NaN
+            final double[] c = a.clone();
+            Arrays.fill(c, 0, size >> 3, -0.0);
+            Arrays.fill(c, size >> 3, size >> 2, 0.0);
+            Arrays.fill(c, size - (size >> 4), size, Double.NaN);
+            for (final int k : new int[] {2, 10, 100, 1000}) {
+                builder.add(Arguments.of(ArraySampler.shuffle(rng, a.clone()), rng.ints(k, 0, size).toArray()));
+                builder.add(Arguments.of(b.clone(), rng.ints(k, 0, size).toArray()));
+                builder.add(Arguments.of(ArraySampler.shuffle(rng, c.clone()), rng.ints(k, 0, size).toArray()));
+            }
+            // Sorted data
+            builder.add(Arguments.of(a.clone(), rng.ints(100, 0, size).toArray()));
+            // Uniform spacing
+            builder.add(Arguments.of(ArraySampler.shuffle(rng, a.clone()),
+                IntStream.range(0, 100).map(i -> i * (size / 100)).toArray()));
+        }
+        return builder.build();
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testDoubleSort", "testDoubleSortBigData"})
+    void testDoubleSelectionSort(double[] values) {
+        final double[] sorted = sort(values);
+        final double[] a = values.clone();
+        Selection.sort(a);
+        Assertions.assertArrayEquals(sorted, a);
+        System.arraycopy(values, 0, a, 0, a.length);
+        Selection.parallelSort(a);
+        Assertions.assertArrayEquals(sorted, a);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testDoubleSort", "testDoubleSortBigData"})
+    void testDoubleSelectionSortRange(double[] values) {
+        // Sort an internal range
+        final int from = values.length >> 3;
+        final int to = values.length - from;
+        final double[] sorted = sort(values, from, to - 1);
+        final double[] a = values.clone();
+        Selection.sort(a, from, to);
+        Assertions.assertArrayEquals(sorted, a);
+        System.arraycopy(values, 0, a, 0, a.length);
+        Selection.parallelSort(a, from, to);
+        Assertions.assertArrayEquals(sorted, a);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testDoubleSort", "testDoubleSortBigData"})
+    void testDoubleQuickSelectSort(double[] values) {
+        final double[] sorted = sort(values);
+        final double[] a = values.clone();
+        final int right = sortNaN(a);
+        replaceNegativeZeros(a, 0, right);
+        QuickSelect.sort(a, 0, right);
+        restoreNegativeZeros(a, 0, right);
+        Assertions.assertArrayEquals(sorted, a);
+        System.arraycopy(values, 0, a, 0, a.length);
+        sortNaN(a);
+        replaceNegativeZeros(a, 0, right);
+        QuickSelect.parallelSort(a, 0, right);
+        restoreNegativeZeros(a, 0, right);
+        Assertions.assertArrayEquals(sorted, a);
+    }
+
+    static Stream<double[]> testDoubleSortBigData() {
+        final Stream.Builder<double[]> builder = Stream.builder();
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create(123);
+        builder.add(new double[0]);
+        builder.add(new double[] {1});
+        builder.add(new double[] {-0.0, 0.0});
+        builder.add(new double[] {0.0, -0.0, Double.NaN, -0.0});
+        builder.add(new double[] {Double.NaN, Double.NaN});
+        // Sizes around the sort select threshold and above the threshold for parallel sorting
+        for (final int size : new int[] {19, 20, 1000, 50000}) {
+            final double[] a = IntStream.range(0, size).asDoubleStream().toArray();
+            // Sorted, reverse sorted, random
+            builder.add(a.clone());
+            builder.add(IntStream.range(0, size).mapToDouble(i -> size - i).toArray());
+            builder.add(ArraySampler.shuffle(rng, a.clone()));
+            // Partially sorted: sorted runs with random insertions
+            final double[] b = a.clone();
+            for (int i = size >> 4; i >= 0; i--) {
+                b[rng.nextInt(size)] = rng.nextInt(size);
+            }
+            builder.add(b);
+            // With repeat elements
+            builder.add(rng.ints(size, 0, Math.max(1, size >> 3)).asDoubleStream().toArray());
+            // Constant
+            builder.add(new double[size]);
+            // With signed zeros and NaN
+            final double[] c = a.clone();
+            Arrays.fill(c, 0, size >> 3, -0.0);
+            Arrays.fill(c, size >> 3, size >> 2, 0.0);
+            Arrays.fill(c, size - (size >> 4), size, Double.NaN);
+            builder.add(ArraySampler.shuffle(rng, c));
+            builder.add(rng.doubles(size, -1, 1).map(x -> x < -0.5 ? -0.0 : x).toArray());
+        }
+        return builder.build();
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testDoubleSelectTop(double[] values, int k) {
+        final double[] sorted = sort(values);
+        final int n = values.length;
+        double[] a = values.clone();
+        Selection.selectTop(a, k);
+        assertTop(sorted, a, 0, n, k);
+        // Internal range
+        final int from = n >> 3;
+        final int to = n - from;
+        if (k <= to - from) {
+            a = values.clone();
+            Selection.selectTop(a, from, to, k);
+            assertTop(sort(values, from, to - 1), a, from, to, k);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testDoubleSelectTop"})
+    void testDoubleSelectBottom(double[] values, int k) {
+        final double[] sorted = sort(values);
+        final int n = values.length;
+        double[] a = values.clone();
+        Selection.selectBottom(a, k);
+        assertBottom(sorted, a, 0, n, k);
+        // Internal range
+        final int from = n >> 3;
+        final int to = n - from;
+        if (k <= to - from) {
+            a = values.clone();
+            Selection.selectBottom(a, from, to, k);
+            assertBottom(sort(values, from, to - 1), a, from, to, k);
+        }
+    }
+
+    static Stream<Arguments> testDoubleSelectTop() {
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create(123);
+        builder.add(Arguments.of(new double[0], 0));
+        builder.add(Arguments.of(new double[] {1}, 0));
+        builder.add(Arguments.of(new double[] {1}, 1));
+        builder.add(Arguments.of(new double[] {-0.0, 0.0}, 1));
+        builder.add(Arguments.of(new double[] {0.0, -0.0, Double.NaN, -0.0}, 1));
+        builder.add(Arguments.of(new double[] {0.0, -0.0, Double.NaN, -0.0}, 2));
+        builder.add(Arguments.of(new double[] {Double.NaN, 1, Double.NaN}, 3));
+        // Sizes to use heap select or partitioning for different k
+        for (final int size : new int[] {10, 50, 1000, 5000}) {
+            final double[] a = IntStream.range(0, size).asDoubleStream().toArray();
+            final double[] b = rng.ints(size, 0, Math.max(1, size >> 3)).asDoubleStream().toArray();
+            final double[] c = a.clone();
+            Arrays.fill(c, 0, size >> 3, -0.0);
+            Arrays.fill(c, size >> 3, size >> 2, 0.0);
+            Arrays.fill(c, size - (size >> 4), size, Double.NaN);
+            final double[] d = IntStream.range(0, size).mapToDouble(i -> size - i).toArray();
+            for (final int k : new int[] {1, 2, 5, size >> 4, size >> 2, (size >> 2) + 1, 1024, 1025, size}) {
+                if (k > size) {
+                    continue;
+                }
+                builder.add(Arguments.of(ArraySampler.shuffle(rng, a.clone()), k));
+                builder.add(Arguments.of(a.clone(), k));
+                builder.add(Arguments.of(d.clone(), k));
+                builder.add(Arguments.of(b.clone(), k));
+                builder.add(Arguments.of(ArraySampler.shuffle(rng, c.clone()), k));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Assert the {@code k} largest values are sorted at the end of the range
+     * {@code [from, to)}, and all other values in the range are smaller or equal.
+     *
+     * @param sorted Expected sorted values.
+     * @param a Values.
+     * @param from From (inclusive).
+     * @param to To (exclusive).
+     * @param k Number of values.
+     */
+    private static void assertTop(double[] sorted, double[] a, int from, int to, int k) {
+        final int ka = to - k;
+        Assertions.assertArrayEquals(Arrays.copyOfRange(sorted, ka, to), Arrays.copyOfRange(a, ka, to),
+            "Top values");
+        if (k != 0) {
+            for (int i = from; i < ka; i++) {
+                final int j = i;
+                Assertions.assertTrue(Double.compare(a[i], a[ka]) <= 0, () -> j + " : " + a[j]);
+            }
+        }
+        // Values outside the range are unchanged
+        Assertions.assertArrayEquals(Arrays.copyOf(sorted, from), Arrays.copyOf(a, from));
+        Assertions.assertArrayEquals(Arrays.copyOfRange(sorted, to, a.length), Arrays.copyOfRange(a, to, a.length));
+    }
+
+    /**
+     * Assert the {@code k} smallest values are sorted at the start of the range
+     * {@code [from, to)}, and all other values in the range are greater or equal.
+     *
+     * @param sorted Expected sorted values.
+     * @param a Values.
+     * @param from From (inclusive).
+     * @param to To (exclusive).
+     * @param k Number of values.
+     */
+    private static void assertBottom(double[] sorted, double[] a, int from, int to, int k) {
+        final int kb = from + k;
+        Assertions.assertArrayEquals(Arrays.copyOfRange(sorted, from, kb), Arrays.copyOfRange(a, from, kb),
+            "Bottom values");
+        if (k != 0) {
+            for (int i = kb; i < to; i++) {
+                final int j = i;
+                Assertions.assertTrue(Double.compare(a[i], a[kb - 1]) >= 0, () -> j + " : " + a[j]);
+            }
+        }
+        // Values outside the range are unchanged
+        Assertions.assertArrayEquals(Arrays.copyOf(sorted, from), Arrays.copyOf(a, from));
+        Assertions.assertArrayEquals(Arrays.copyOfRange(sorted, to, a.length), Arrays.copyOfRange(a, to, a.length));
+    }
+
+    @Test
+    void testSelectTopBottomInvalidCountThrows() {
+        final double[] a = new double[10];
+        final int[] b = new int[10];
+        for (final int k : new int[] {-1, 11}) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Selection.selectTop(a, k));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Selection.selectBottom(a, k));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Selection.selectTop(b, k));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Selection.selectBottom(b, k));
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Selection.selectTop(a, 2, 8, 7));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Selection.selectBottom(a, 2, 8, 7));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Selection.selectTop(b, 2, 8, 7));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Selection.selectBottom(b, 2, 8, 7));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.selectTop(a, 2, 11, 1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Selection.selectBottom(b, -1, 8, 1));
     }
 
     static void assertPartition(double[] values, int[] indices, DoublePartitionFunction function,
@@ -602,6 +1230,136 @@ class SelectionTest {
         Assertions.assertArrayEquals(sorted, data, "Data destroyed");
     }
 
+    @ParameterizedTest
+    @MethodSource(value = {"testDoublePartition", "testDoublePartitionBigData"})
+    void testFloatSelect(double[] values, int[] indices) {
+        assertPartition(toDouble(toFloat(values)), indices, (a, k, n) -> {
+            final float[] x = toFloat(a);
+            float[] y = x;
+            if (n == 1) {
+                y = x.clone();
+                Selection.select(y, k[0]);
+            }
+            Selection.select(x, Arrays.copyOf(k, n));
+            if (n == 1) {
+                Assertions.assertArrayEquals(x, y, "single k mismatch");
+            }
+            copy(x, a);
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testDoublePartition", "testDoublePartitionBigData"})
+    void testFloatSelectRange(double[] values, int[] indices) {
+        assertPartition(toDouble(toFloat(values)), indices, (a, k, n) -> {
+            final float[] x = toFloat(a);
+            float[] y = x;
+            if (n == 1) {
+                y = x.clone();
+                Selection.select(y, 0, y.length, k[0]);
+            }
+            Selection.select(x, 0, x.length, Arrays.copyOf(k, n));
+            if (n == 1) {
+                Assertions.assertArrayEquals(x, y, "single k mismatch");
+            }
+            copy(x, a);
+        }, false);
+    }
+
+    @Test
+    void testSelectSubRangeSignedZeros() {
+        // Negative zeros must be restored within the range
+        final float[] x = {0f, 0f, 3f, -0f, 1f};
+        Selection.select(x, 2, 5, 3);
+        Assertions.assertArrayEquals(new float[] {0f, 0f, -0f, 1f, 3f}, x);
+        final double[] a = {0, 0, 3, -0.0, 1};
+        Selection.select(a, 2, 5, 3);
+        Assertions.assertArrayEquals(new double[] {0, 0, -0.0, 1, 3}, a);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "0, 10",
+        "3, 10",
+        "5, 40",
+        "20, 60",
+    })
+    void testSelectSubRangeSignedZerosRandom(int from, int to) {
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create();
+        final double[] values = {-0.0, 0.0, -1, 1, -2, 2, Double.NaN};
+        for (int repeat = 0; repeat < 50; repeat++) {
+            final double[] data = new double[64];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = values[rng.nextInt(values.length)];
+            }
+            final int[][] keys = {
+                {rng.nextInt(from, to)},
+                rng.ints(3, from, to).toArray(),
+                IntStream.range(from, to).toArray(),
+            };
+            for (final int[] k : keys) {
+                if (k.length == 1) {
+                    final double[] a = data.clone();
+                    Selection.select(a, from, to, k[0]);
+                    assertSubRangePartition(data, a, from, to, k);
+                    final float[] x = toFloat(data);
+                    Selection.select(x, from, to, k[0]);
+                    assertSubRangePartition(data, toDouble(x), from, to, k);
+                }
+                final double[] a = data.clone();
+                Selection.select(a, from, to, k.clone());
+                assertSubRangePartition(data, a, from, to, k);
+                final float[] x = toFloat(data);
+                Selection.select(x, from, to, k.clone());
+                assertSubRangePartition(data, toDouble(x), from, to, k);
+            }
+        }
+    }
+
+    /**
+     * Assert the data is partitioned at indices {@code k} within the range {@code [from, to)},
+     * and the data outside the range is unchanged.
+     *
+     * @param data Original data.
+     * @param a Partitioned data.
+     * @param from Index of the first element (inclusive).
+     * @param to Index of the last element (exclusive).
+     * @param k Indices.
+     */
+    private static void assertSubRangePartition(double[] data, double[] a, int from, int to, int[] k) {
+        Assertions.assertArrayEquals(Arrays.copyOf(data, from), Arrays.copyOf(a, from), "Lower data modified");
+        Assertions.assertArrayEquals(Arrays.copyOfRange(data, to, data.length),
+            Arrays.copyOfRange(a, to, a.length), "Upper data modified");
+        final double[] expected = Arrays.copyOfRange(data, from, to);
+        Arrays.sort(expected);
+        for (final int i : k) {
+            Assertions.assertEquals(expected[i - from], a[i], () -> "Index " + i);
+        }
+        final double[] actual = Arrays.copyOfRange(a, from, to);
+        Arrays.sort(actual);
+        Assertions.assertArrayEquals(expected, actual, "Data destroyed");
+    }
+
+    private static float[] toFloat(double[] a) {
+        final float[] x = new float[a.length];
+        for (int i = 0; i < a.length; i++) {
+            x[i] = (float) a[i];
+        }
+        return x;
+    }
+
+    private static double[] toDouble(float[] x) {
+        final double[] a = new double[x.length];
+        copy(x, a);
+        return a;
+    }
+
+    private static void copy(float[] x, double[] a) {
+        for (int i = 0; i < x.length; i++) {
+            a[i] = x[i];
+        }
+    }
+
     static Stream<Arguments> testDoublePartition() {
         final Stream.Builder<Arguments> builder = Stream.builder();
         UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create(123);
@@ -900,7 +1658,7 @@ class SelectionTest {
                 return;
             }
             replaceNegativeZeros(a, 0, right);
-            QuickSelect.dualPivotQuickSelect(a, 0, right, new RangeInterval(0, right),
+            QuickSelect.dualPivotQuickSelect(a, 0, right, new RangeUpdatingInterval(0, right),
                 QuickSelect.dualPivotFlags(QuickSelect.dualPivotMaxDepth(right), 20));
             restoreNegativeZeros(a, 0, right);
         });
@@ -1362,6 +2120,293 @@ class SelectionTest {
         }, false);
     }
 
+    @ParameterizedTest
+    @MethodSource(value = {"testIntPartition", "testIntPartitionBigData"})
+    void testIntSelector(int[] values, int[] indices) {
+        // The workspace is reused across all test cases
+        assertPartition(values, indices, (a, k, n) -> {
+            final int[] keys = Arrays.copyOf(k, n);
+            final int[] copy = keys.clone();
+            final int[] b = a.clone();
+            SELECTOR.select(b, 0, b.length, keys);
+            SELECTOR.select(a, keys);
+            Assertions.assertArrayEquals(copy, keys, "Indices modified");
+            Assertions.assertArrayEquals(a, b, "Range mismatch");
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testIntPartition", "testIntPartitionBigData"})
+    void testIntSelectorOptions(int[] values, int[] indices) {
+        for (final Selector s : SELECTORS) {
+            assertPartition(values, indices, (a, k, n) -> s.select(a, Arrays.copyOf(k, n)), false);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testIntPartition", "testIntPartitionBigData"})
+    void testIntSelectIndices(int[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            final int[] x = a.clone();
+            final int[] idx = IntStream.range(0, a.length).toArray();
+            Selection.selectIndices(x, idx, Arrays.copyOf(k, n));
+            Assertions.assertArrayEquals(a, x, "Data modified");
+            for (int i = 0; i < idx.length; i++) {
+                a[i] = x[idx[i]];
+            }
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testIntPartition", "testIntPartitionBigData"})
+    void testIntSelectIndicesRange(int[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            final int[] x = a.clone();
+            // Reverse order indices within a padded range
+            final int pad = 3;
+            final int[] idx = new int[a.length + 2 * pad];
+            for (int i = 0; i < a.length; i++) {
+                idx[i + pad] = a.length - 1 - i;
+            }
+            final int[] k2 = Arrays.stream(k).limit(n).map(i -> i + pad).toArray();
+            Selection.selectIndices(x, idx, pad, pad + a.length, k2);
+            Assertions.assertArrayEquals(a, x, "Data modified");
+            for (int i = 0; i < a.length; i++) {
+                a[i] = x[idx[i + pad]];
+            }
+            for (int i = 0; i < pad; i++) {
+                Assertions.assertEquals(0, idx[i], "Lower padding modified");
+                Assertions.assertEquals(0, idx[idx.length - 1 - i], "Upper padding modified");
+            }
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testIntPartition", "testIntPartitionBigData"})
+    void testIntIndirectDualPivotQuickSelectMaxRecursion(int[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            final int right = a.length - 1;
+            if (right < 1 || k.length == 0) {
+                return;
+            }
+            final int[] x = a.clone();
+            final int[] idx = IntStream.range(0, a.length).toArray();
+            IndirectQuickSelect.dualPivotQuickSelect(x, idx, 0, right,
+                IndexSupport.createUpdatingInterval(k, k.length),
+                QuickSelect.dualPivotFlags(2, 5));
+            for (int i = 0; i < idx.length; i++) {
+                a[i] = x[idx[i]];
+            }
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testIntPartition", "testIntPartitionBigData", "testIntParallelPartition"})
+    void testIntQuickSelectParallel(int[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            final int right = a.length - 1;
+            if (right < 1 || k.length == 0) {
+                return;
+            }
+            QuickSelect.parallelSelect(a, 0, right, k, k.length);
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testIntPartition", "testIntParallelPartition"})
+    void testIntParallelSelect(int[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) ->
+            Selection.parallelSelect(a, Arrays.copyOf(k, n)), false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testIntPartition", "testIntParallelPartition"})
+    void testIntParallelSelectRange(int[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) ->
+            Selection.parallelSelect(a, 0, a.length, Arrays.copyOf(k, n)), false);
+    }
+
+    static Stream<Arguments> testIntParallelPartition() {
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create(123);
+        // Sizes above the threshold for parallel partitioning
+        for (final int size : new int[] {50000, 200000}) {
+            final int[] a = IntStream.range(0, size).toArray();
+            // With repeat elements
+            final int[] b = rng.ints(size, 0, size >> 3).toArray();
+            for (final int k : new int[] {2, 10, 100, 1000}) {
+                builder.add(Arguments.of(ArraySampler.shuffle(rng, a.clone()), rng.ints(k, 0, size).toArray()));
+                builder.add(Arguments.of(b.clone(), rng.ints(k, 0, size).toArray()));
+            }
+            // Sorted data
+            builder.add(Arguments.of(a.clone(), rng.ints(100, 0, size).toArray()));
+            // Uniform spacing
+            builder.add(Arguments.of(ArraySampler.shuffle(rng, a.clone()),
+                IntStream.range(0, 100).map(i -> i * (size / 100)).toArray()));
+        }
+        return builder.build();
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testIntSort", "testIntSortBigData"})
+    void testIntSelectionSort(int[] values) {
+        final int[] sorted = sort(values);
+        final int[] a = values.clone();
+        Selection.sort(a);
+        Assertions.assertArrayEquals(sorted, a);
+        System.arraycopy(values, 0, a, 0, a.length);
+        Selection.parallelSort(a);
+        Assertions.assertArrayEquals(sorted, a);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testIntSort", "testIntSortBigData"})
+    void testIntSelectionSortRange(int[] values) {
+        // Sort an internal range
+        final int from = values.length >> 3;
+        final int to = values.length - from;
+        final int[] sorted = sort(values, from, to - 1);
+        final int[] a = values.clone();
+        Selection.sort(a, from, to);
+        Assertions.assertArrayEquals(sorted, a);
+        System.arraycopy(values, 0, a, 0, a.length);
+        Selection.parallelSort(a, from, to);
+        Assertions.assertArrayEquals(sorted, a);
+    }
+
+    static Stream<int[]> testIntSortBigData() {
+        final Stream.Builder<int[]> builder = Stream.builder();
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create(123);
+        builder.add(new int[0]);
+        builder.add(new int[] {1});
+        builder.add(new int[] {Integer.MAX_VALUE, Integer.MIN_VALUE, 0, -1});
+        // Sizes around the sort select threshold and above the threshold for parallel sorting
+        for (final int size : new int[] {19, 20, 1000, 50000}) {
+            final int[] a = IntStream.range(0, size).toArray();
+            // Sorted, reverse sorted, random
+            builder.add(a.clone());
+            builder.add(IntStream.range(0, size).map(i -> size - i).toArray());
+            builder.add(ArraySampler.shuffle(rng, a.clone()));
+            // Partially sorted: sorted runs with random insertions
+            final int[] b = a.clone();
+            for (int i = size >> 4; i >= 0; i--) {
+                b[rng.nextInt(size)] = rng.nextInt(size);
+            }
+            builder.add(b);
+            // With repeat elements
+            builder.add(rng.ints(size, 0, Math.max(1, size >> 3)).toArray());
+            // Constant
+            builder.add(new int[size]);
+            // Full range of values
+            builder.add(rng.ints(size).toArray());
+        }
+        return builder.build();
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testIntSelectTop(int[] values, int k) {
+        final int n = values.length;
+        int[] a = values.clone();
+        Selection.selectTop(a, k);
+        assertTop(sort(values), a, 0, n, k);
+        final int from = n >> 3;
+        final int to = n - from;
+        if (k <= to - from) {
+            a = values.clone();
+            Selection.selectTop(a, from, to, k);
+            assertTop(sort(values, from, to - 1), a, from, to, k);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testIntSelectTop"})
+    void testIntSelectBottom(int[] values, int k) {
+        final int n = values.length;
+        int[] a = values.clone();
+        Selection.selectBottom(a, k);
+        assertBottom(sort(values), a, 0, n, k);
+        final int from = n >> 3;
+        final int to = n - from;
+        if (k <= to - from) {
+            a = values.clone();
+            Selection.selectBottom(a, from, to, k);
+            assertBottom(sort(values, from, to - 1), a, from, to, k);
+        }
+    }
+
+    static Stream<Arguments> testIntSelectTop() {
+        final Stream.Builder<Arguments> builder = Stream.builder();
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create(123);
+        builder.add(Arguments.of(new int[0], 0));
+        builder.add(Arguments.of(new int[] {1}, 1));
+        builder.add(Arguments.of(new int[] {Integer.MAX_VALUE, Integer.MIN_VALUE, 0}, 2));
+        // Sizes to use heap select or partitioning for different k
+        for (final int size : new int[] {10, 50, 1000, 5000}) {
+            final int[] a = IntStream.range(0, size).toArray();
+            final int[] b = rng.ints(size, 0, Math.max(1, size >> 3)).toArray();
+            final int[] d = IntStream.range(0, size).map(i -> size - i).toArray();
+            for (final int k : new int[] {1, 2, 5, size >> 4, size >> 2, (size >> 2) + 1, 1024, 1025, size}) {
+                if (k > size) {
+                    continue;
+                }
+                builder.add(Arguments.of(ArraySampler.shuffle(rng, a.clone()), k));
+                builder.add(Arguments.of(a.clone(), k));
+                builder.add(Arguments.of(d.clone(), k));
+                builder.add(Arguments.of(b.clone(), k));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Assert the {@code k} largest values are sorted at the end of the range
+     * {@code [from, to)}, and all other values in the range are smaller or equal.
+     *
+     * @param sorted Expected sorted values.
+     * @param a Values.
+     * @param from From (inclusive).
+     * @param to To (exclusive).
+     * @param k Number of values.
+     */
+    private static void assertTop(int[] sorted, int[] a, int from, int to, int k) {
+        final int ka = to - k;
+        Assertions.assertArrayEquals(Arrays.copyOfRange(sorted, ka, to), Arrays.copyOfRange(a, ka, to),
+            "Top values");
+        if (k != 0) {
+            for (int i = from; i < ka; i++) {
+                final int j = i;
+                Assertions.assertTrue(a[i] <= a[ka], () -> j + " : " + a[j]);
+            }
+        }
+        Assertions.assertArrayEquals(Arrays.copyOf(sorted, from), Arrays.copyOf(a, from));
+        Assertions.assertArrayEquals(Arrays.copyOfRange(sorted, to, a.length), Arrays.copyOfRange(a, to, a.length));
+    }
+
+    /**
+     * Assert the {@code k} smallest values are sorted at the start of the range
+     * {@code [from, to)}, and all other values in the range are greater or equal.
+     *
+     * @param sorted Expected sorted values.
+     * @param a Values.
+     * @param from From (inclusive).
+     * @param to To (exclusive).
+     * @param k Number of values.
+     */
+    private static void assertBottom(int[] sorted, int[] a, int from, int to, int k) {
+        final int kb = from + k;
+        Assertions.assertArrayEquals(Arrays.copyOfRange(sorted, from, kb), Arrays.copyOfRange(a, from, kb),
+            "Bottom values");
+        if (k != 0) {
+            for (int i = kb; i < to; i++) {
+                final int j = i;
+                Assertions.assertTrue(a[i] >= a[kb - 1], () -> j + " : " + a[j]);
+            }
+        }
+        Assertions.assertArrayEquals(Arrays.copyOf(sorted, from), Arrays.copyOf(a, from));
+        Assertions.assertArrayEquals(Arrays.copyOfRange(sorted, to, a.length), Arrays.copyOfRange(a, to, a.length));
+    }
+
     static void assertPartition(int[] values, int[] indices, IntPartitionFunction function,
         boolean sortedRange) {
         final int[] data = values.clone();
@@ -1403,6 +2448,168 @@ class SelectionTest {
         Assertions.assertArrayEquals(sorted, data, "Data destroyed");
     }
 
+    @ParameterizedTest
+    @MethodSource(value = {"testIntPartition", "testIntPartitionBigData"})
+    void testLongSelect(int[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            final long[] x = toLong(a);
+            long[] y = x;
+            if (n == 1) {
+                y = x.clone();
+                Selection.select(y, k[0]);
+            }
+            Selection.select(x, Arrays.copyOf(k, n));
+            if (n == 1) {
+                Assertions.assertArrayEquals(x, y, "single k mismatch");
+            }
+            copy(x, a);
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testIntPartition", "testIntPartitionBigData"})
+    void testLongSelectRange(int[] values, int[] indices) {
+        assertPartition(values, indices, (a, k, n) -> {
+            final long[] x = toLong(a);
+            long[] y = x;
+            if (n == 1) {
+                y = x.clone();
+                Selection.select(y, 0, y.length, k[0]);
+            }
+            Selection.select(x, 0, x.length, Arrays.copyOf(k, n));
+            if (n == 1) {
+                Assertions.assertArrayEquals(x, y, "single k mismatch");
+            }
+            copy(x, a);
+        }, false);
+    }
+
+    private static long[] toLong(int[] a) {
+        final long[] x = new long[a.length];
+        for (int i = 0; i < a.length; i++) {
+            x[i] = a[i];
+        }
+        return x;
+    }
+
+    private static void copy(long[] x, int[] a) {
+        for (int i = 0; i < x.length; i++) {
+            a[i] = (int) x[i];
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testIntPartition", "testIntPartitionBigData"})
+    void testShortSelect(int[] values, int[] indices) {
+        assertPartition(toInt(toShort(values)), indices, (a, k, n) -> {
+            final short[] x = toShort(a);
+            short[] y = x;
+            if (n == 1) {
+                y = x.clone();
+                Selection.select(y, k[0]);
+            }
+            Selection.select(x, Arrays.copyOf(k, n));
+            if (n == 1) {
+                Assertions.assertArrayEquals(x, y, "single k mismatch");
+            }
+            copy(x, a);
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testIntPartition", "testIntPartitionBigData"})
+    void testShortSelectRange(int[] values, int[] indices) {
+        assertPartition(toInt(toShort(values)), indices, (a, k, n) -> {
+            final short[] x = toShort(a);
+            short[] y = x;
+            if (n == 1) {
+                y = x.clone();
+                Selection.select(y, 0, y.length, k[0]);
+            }
+            Selection.select(x, 0, x.length, Arrays.copyOf(k, n));
+            if (n == 1) {
+                Assertions.assertArrayEquals(x, y, "single k mismatch");
+            }
+            copy(x, a);
+        }, false);
+    }
+
+    private static short[] toShort(int[] a) {
+        final short[] x = new short[a.length];
+        for (int i = 0; i < a.length; i++) {
+            x[i] = (short) a[i];
+        }
+        return x;
+    }
+
+    private static void copy(short[] x, int[] a) {
+        for (int i = 0; i < x.length; i++) {
+            a[i] = x[i];
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testIntPartition", "testIntPartitionBigData"})
+    void testCharSelect(int[] values, int[] indices) {
+        assertPartition(toInt(toChar(values)), indices, (a, k, n) -> {
+            final char[] x = toChar(a);
+            char[] y = x;
+            if (n == 1) {
+                y = x.clone();
+                Selection.select(y, k[0]);
+            }
+            Selection.select(x, Arrays.copyOf(k, n));
+            if (n == 1) {
+                Assertions.assertArrayEquals(x, y, "single k mismatch");
+            }
+            copy(x, a);
+        }, false);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testIntPartition", "testIntPartitionBigData"})
+    void testCharSelectRange(int[] values, int[] indices) {
+        assertPartition(toInt(toChar(values)), indices, (a, k, n) -> {
+            final char[] x = toChar(a);
+            char[] y = x;
+            if (n == 1) {
+                y = x.clone();
+                Selection.select(y, 0, y.length, k[0]);
+            }
+            Selection.select(x, 0, x.length, Arrays.copyOf(k, n));
+            if (n == 1) {
+                Assertions.assertArrayEquals(x, y, "single k mismatch");
+            }
+            copy(x, a);
+        }, false);
+    }
+
+    private static char[] toChar(int[] a) {
+        final char[] x = new char[a.length];
+        for (int i = 0; i < a.length; i++) {
+            x[i] = (char) a[i];
+        }
+        return x;
+    }
+
+    private static void copy(char[] x, int[] a) {
+        for (int i = 0; i < x.length; i++) {
+            a[i] = x[i];
+        }
+    }
+
+    private static int[] toInt(short[] x) {
+        final int[] a = new int[x.length];
+        copy(x, a);
+        return a;
+    }
+
+    private static int[] toInt(char[] x) {
+        final int[] a = new int[x.length];
+        copy(x, a);
+        return a;
+    }
+
     static Stream<Arguments> testIntPartition() {
         final Stream.Builder<Arguments> builder = Stream.builder();
         UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create(123);
@@ -1693,7 +2900,7 @@ class SelectionTest {
             if (right < 1) {
                 return;
             }
-            QuickSelect.dualPivotQuickSelect(a, 0, right, new RangeInterval(0, right),
+            QuickSelect.dualPivotQuickSelect(a, 0, right, new RangeUpdatingInterval(0, right),
                 QuickSelect.dualPivotFlags(QuickSelect.dualPivotMaxDepth(right), 20));
         });
     }
@@ -1750,6 +2957,86 @@ class SelectionTest {
         return builder.build();
     }
 
+    @ParameterizedTest
+    @CsvSource({
+        // data, left, right, sorted
+        "'1', 0, 0, true",
+        "'1, 2', 0, 1, true",
+        "'2, 1', 0, 1, true",
+        "'1, 1, 1', 0, 2, true",
+        "'1, 2, 2, 3', 0, 3, true",
+        "'3, 2, 2, 1', 0, 3, true",
+        "'1, 2, 3, 0', 0, 3, false",
+        "'3, 2, 1, 4', 0, 3, false",
+        "'3, 2, 1, 4', 0, 2, true",
+        "'9, 1, 2, 3, 9', 1, 3, true",
+        "'9, 3, 2, 1, 0', 1, 3, true",
+        // Equal values before a descending run are not detected
+        "'2, 2, 1', 0, 2, false",
+    })
+    void testPresorted(String values, int left, int right, boolean sorted) {
+        // Descending data is reversed
+        assertPresorted(Arrays.stream(values.split(", ")).mapToInt(Integer::parseInt).toArray(),
+            left, right, sorted);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        // length, tail length, sorted
+        "100, 1, true",
+        "100, 6, true",
+        "100, 7, false",
+        "1000, 1, true",
+        "1000, 16, true",
+        "1000, 17, false",
+    })
+    void testPresortedTail(int length, int tail, boolean sorted) {
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create();
+        final int n = length - tail;
+        for (final boolean ascending : new boolean[] {true, false}) {
+            final int[] a = new int[length];
+            for (int i = 0; i < n; i++) {
+                a[i] = 2 * (ascending ? i : n - 1 - i);
+            }
+            for (int i = n; i < length; i++) {
+                a[i] = rng.nextInt(-10, 2 * length);
+            }
+            // End the run at the tail
+            a[n] = ascending ? -1 : 2 * length;
+            assertPresorted(a, 0, length - 1, sorted);
+            // Run within a range
+            final int[] b = new int[length + 10];
+            System.arraycopy(a, 0, b, 5, length);
+            assertPresorted(b, 5, length + 4, sorted);
+        }
+        // Multiple sorted runs are detected by sampling
+        final int[] a = IntStream.range(0, length).map(i -> i % (length / 2)).toArray();
+        assertPresorted(a, 0, length - 1, false);
+    }
+
+    private static void assertPresorted(int[] a, int left, int right, boolean sorted) {
+        final int[] x = a.clone();
+        final double[] b = Arrays.stream(a).asDoubleStream().toArray();
+        final float[] c = new float[a.length];
+        final long[] d = Arrays.stream(a).asLongStream().toArray();
+        for (int i = 0; i < a.length; i++) {
+            c[i] = a[i];
+        }
+        Assertions.assertEquals(sorted, QuickSelect.presorted(a, left, right));
+        Assertions.assertEquals(sorted, QuickSelect.presorted(b, left, right));
+        Assertions.assertEquals(sorted, QuickSelect.presorted(c, left, right));
+        Assertions.assertEquals(sorted, QuickSelect.presorted(d, left, right));
+        if (sorted) {
+            Arrays.sort(x, left, right + 1);
+        }
+        Assertions.assertArrayEquals(x, a);
+        for (int i = 0; i < a.length; i++) {
+            Assertions.assertEquals(x[i], b[i]);
+            Assertions.assertEquals(x[i], c[i]);
+            Assertions.assertEquals(x[i], d[i]);
+        }
+    }
+
     @Test
     void testDualPivotMaxDepth() {
         // Reasonable behaviour at small x
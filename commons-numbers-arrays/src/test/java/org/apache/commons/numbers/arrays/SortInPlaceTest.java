@@ -17,8 +17,16 @@
 
 package org.apache.commons.numbers.arrays;
 
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
 
 /**
  * Test cases for the {@link SortInPlace} class.
@@ -88,4 +96,57 @@ class SortInPlaceTest {
         Assertions.assertThrows(NullPointerException.class, () -> SortInPlace.ASCENDING.apply(one, nullArray));
         Assertions.assertThrows(NullPointerException.class, () -> SortInPlace.ASCENDING.apply(one, onep, nullArray));
     }
+
+    @ParameterizedTest
+    @MethodSource
+    void testStableSort(double[] x) {
+        assertStableSort(SortInPlace.ASCENDING, x, Double::compare);
+        assertStableSort(SortInPlace.DESCENDING, x, (a, b) -> Double.compare(b, a));
+    }
+
+    static Stream<double[]> testStableSort() {
+        final Stream.Builder<double[]> builder = Stream.builder();
+        final UniformRandomProvider rng = RandomSource.XO_SHI_RO_128_PP.create(123);
+        builder.add(new double[0]);
+        builder.add(new double[] {1});
+        builder.add(new double[] {1, 1, 1});
+        builder.add(new double[] {0.0, -0.0, 0.0, -0.0});
+        builder.add(new double[] {Double.NaN, 1, Double.NaN, -0.0, 0.0, Double.NaN});
+        final double[] special = {-0.0, 0.0, Double.NaN, 1, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY};
+        for (final int size : new int[] {10, 50, 1000, 10000}) {
+            // Distinct
+            builder.add(rng.doubles(size).toArray());
+            // Many ties
+            builder.add(rng.ints(size, 0, 5).asDoubleStream().toArray());
+            builder.add(rng.ints(size, 0, Math.max(1, size >> 3)).asDoubleStream().toArray());
+            // Signed zeros, NaN and infinities
+            builder.add(rng.ints(size, 0, special.length).mapToDouble(i -> special[i]).toArray());
+            // Sorted and reverse sorted
+            builder.add(IntStream.range(0, size).asDoubleStream().toArray());
+            builder.add(IntStream.range(0, size).mapToDouble(i -> size - i).toArray());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Assert the sort is stable. The companion array is the original index of the values.
+     *
+     * @param sort Sort.
+     * @param values Values.
+     * @param cmp Comparator for the sort order.
+     */
+    private static void assertStableSort(SortInPlace sort, double[] values, Comparator<Double> cmp) {
+        final double[] x = values.clone();
+        final double[] y = IntStream.range(0, x.length).asDoubleStream().toArray();
+        final double[] z = y.clone();
+        sort.apply(x, y, z);
+        // Reference stable sort
+        final Integer[] indices = IntStream.range(0, x.length).boxed().toArray(Integer[]::new);
+        Arrays.sort(indices, (i, j) -> cmp.compare(values[i], values[j]));
+        final double[] xE = Arrays.stream(indices).mapToDouble(i -> values[i]).toArray();
+        final double[] yE = Arrays.stream(indices).mapToDouble(i -> i).toArray();
+        Assertions.assertArrayEquals(xE, x);
+        Assertions.assertArrayEquals(yE, y);
+        Assertions.assertArrayEquals(yE, z);
+    }
 }
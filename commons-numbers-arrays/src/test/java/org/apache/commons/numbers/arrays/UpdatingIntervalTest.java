@@ -30,6 +30,7 @@ import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.MethodSource;
 
 /**
@@ -82,6 +83,43 @@ class UpdatingIntervalTest {
         return set;
     }
 
+    /**
+     * Create a KeyUpdatingInterval with the {@code indices} by resetting an interval
+     * that has been updated.
+     *
+     * @param indices Indices.
+     * @param n Number of indices.
+     * @return the interval
+     * @throws IllegalArgumentException if {@code n == 0}
+     */
+    private static KeyUpdatingInterval resetKeyUpdatingInterval(int[] indices, int n) {
+        final KeyUpdatingInterval interval = createKeyUpdatingInterval(indices, n);
+        final int size = interval.size();
+        if (size > 1) {
+            interval.updateLeft(interval.right());
+        }
+        return interval.reset(size);
+    }
+
+    /**
+     * Create a BitIndexUpdatingInterval with the {@code indices} by resetting an interval
+     * that has different indices set.
+     *
+     * @param indices Indices.
+     * @param n Number of indices.
+     * @return the interval
+     * @throws IllegalArgumentException if {@code n == 0}
+     */
+    private static BitIndexUpdatingInterval resetBitIndexUpdatingInterval(int[] indices, int n) {
+        final UpdatingInterval range = createBitIndexUpdatingInterval(indices, n);
+        final BitIndexUpdatingInterval set = createBitIndexUpdatingInterval(new int[] {0, 63, 64, 200}, 4);
+        set.reset(range.left(), range.right());
+        for (int i = -1; ++i < n;) {
+            set.set(indices[i]);
+        }
+        return set;
+    }
+
     @ParameterizedTest
     @MethodSource(value = {"testIndices"})
     void testUpdateKeyInterval(int[] indices, int[] k) {
@@ -96,6 +134,20 @@ class UpdatingIntervalTest {
         assertUpdate(UpdatingIntervalTest::createBitIndexUpdatingInterval, indices, k);
     }
 
+    @ParameterizedTest
+    @MethodSource(value = {"testIndices"})
+    void testUpdateResetKeyInterval(int[] indices, int[] k) {
+        assertUpdate(UpdatingIntervalTest::resetKeyUpdatingInterval, indices, k);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testIndices"})
+    void testUpdateResetBitIndexUpdatingInterval(int[] indices, int[] k) {
+        // Skip this due to excess memory consumption
+        Assumptions.assumeTrue(k[k.length - 1] < Integer.MAX_VALUE - 1);
+        assertUpdate(UpdatingIntervalTest::resetBitIndexUpdatingInterval, indices, k);
+    }
+
     @ParameterizedTest
     @MethodSource(value = {"testIndices"})
     void testUpdateIndexSupport(int[] indices, int[] k) {
@@ -116,12 +168,52 @@ class UpdatingIntervalTest {
         assertSplit(UpdatingIntervalTest::createBitIndexUpdatingInterval, indices, k);
     }
 
+    @ParameterizedTest
+    @MethodSource(value = {"testIndices"})
+    void testSplitResetKeyInterval(int[] indices, int[] k) {
+        assertSplit(UpdatingIntervalTest::resetKeyUpdatingInterval, indices, k);
+    }
+
+    @ParameterizedTest
+    @MethodSource(value = {"testIndices"})
+    void testSplitResetBitIndexUpdatingInterval(int[] indices, int[] k) {
+        // Skip this due to excess memory consumption
+        Assumptions.assumeTrue(k[k.length - 1] < Integer.MAX_VALUE - 1);
+        assertSplit(UpdatingIntervalTest::resetBitIndexUpdatingInterval, indices, k);
+    }
+
     @ParameterizedTest
     @MethodSource(value = {"testIndices"})
     void testSplitIndexSupport(int[] indices, int[] k) {
         assertSplit(IndexSupport::createUpdatingInterval, indices, k);
     }
 
+    @ParameterizedTest
+    @CsvSource({
+        "0, 0",
+        "0, 1",
+        "4, 8",
+        "10, 100",
+        "2147483547, 2147483646",
+    })
+    void testUpdateRangeUpdatingInterval(int left, int right) {
+        final int[] k = IntStream.rangeClosed(left, right).toArray();
+        assertUpdate((indices, n) -> new RangeUpdatingInterval(left, right), k, k);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "0, 0",
+        "0, 1",
+        "4, 8",
+        "10, 100",
+        "2147483547, 2147483646",
+    })
+    void testSplitRangeUpdatingInterval(int left, int right) {
+        final int[] k = IntStream.rangeClosed(left, right).toArray();
+        assertSplit((indices, n) -> new RangeUpdatingInterval(left, right), k, k);
+    }
+
     /**
      * Assert the {@link UpdatingInterval#updateLeft(int)} and {@link UpdatingInterval#updateRight(int)} methods.
      * These are tested by successive calls to reduce the interval by 1 index until it
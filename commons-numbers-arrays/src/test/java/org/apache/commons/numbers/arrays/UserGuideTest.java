@@ -56,4 +56,28 @@ class UserGuideTest {
         Assertions.assertArrayEquals(new int[] {1, 0}, c.toMulti(50));
         Assertions.assertArrayEquals(new int[] {99, 49}, c.toMulti(4999));
     }
+
+    @Test
+    void testLongMultidimensionalCounter() {
+        LongMultidimensionalCounter c = LongMultidimensionalCounter.of(1 << 20, 1 << 20, 4);
+        long size = c.getSize();
+        Assertions.assertEquals(1L << 42, size);
+        long stride = c.getStride(0);
+        Assertions.assertEquals(1L << 22, stride);
+
+        int[] indices = new int[3];
+        c.toMulti(stride + 6, indices);
+        Assertions.assertArrayEquals(new int[] {1, 1, 2}, indices);
+
+        LongMultidimensionalCounter.Cursor cursor = LongMultidimensionalCounter.of(2, 3).cursor();
+        int count = 0;
+        while (cursor.hasNext()) {
+            long index = cursor.nextLong();
+            int i = cursor.getCount(0);
+            int j = cursor.getCount(1);
+            Assertions.assertEquals(index, i * 3 + j);
+            count++;
+        }
+        Assertions.assertEquals(6, count);
+    }
 }
@@ -0,0 +1,387 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.numbers.core;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Class providing the correctly rounded floating-point sum of any number of terms.
+ *
+ * <p>The sum is maintained exactly as a sum of non-overlapping floating-point
+ * values (an expansion). The result is the exact sum rounded to the nearest
+ * {@code double} using the round-half-even rule. This is independent of the order
+ * of the terms and cannot fail due to cancellation or intermediate overflow.
+ *
+ * <p>This class can be used in place of {@link Sum} when the terms have a large
+ * dynamic range and the sum is subject to catastrophic cancellation:
+ *
+ * <pre>
+ * double result = ExactSum.of(1e100, 1.0, 1e-100, -1e100, -1.0).getAsDouble();
+ * // result == 1e-100
+ * double result2 = Sum.of(1e100, 1.0, 1e-100, -1e100, -1.0).getAsDouble();
+ * // result2 == 0.0
+ * </pre>
+ *
+ * <p><strong>Implementation Notes</strong>
+ * <p>This class uses the algorithm of J.R. Shewchuk to maintain a
+ * non-overlapping expansion of the sum using an error-free transformation
+ * of the addition of each term. The final summation of the expansion
+ * uses the method of the {@code fsum} function of the Python {@code math} module
+ * to return the correctly rounded result.
+ * See: Shewchuk (1997)
+ * <a href="https://doi.org/10.1007/PL00009321">Adaptive Precision Floating-Point
+ * Arithmetic and Fast Robust Geometric Predicates</a>. <em>Discrete &amp;
+ * Computational Geometry</em>, 18, 305-363.
+ *
+ * <p>The size of the expansion is typically small. It is bounded by the
+ * number of terms, and by the exponent range of a {@code double}.
+ * The cost of adding a term is proportional to the size of the expansion.
+ *
+ * <p>Results follow the IEEE 754 rules for addition of non-finite values: if any
+ * term is {@link Double#NaN}, or the terms contain infinities of opposite sign,
+ * the result is {@link Double#NaN}; otherwise if any term is infinite the result
+ * is the infinity of that sign. Overflow of the running sum is recorded exactly;
+ * the result is infinite only if the exact sum rounded to a {@code double} overflows:
+ *
+ * <pre>
+ * double max = Double.MAX_VALUE;
+ * ExactSum.of(max, max, -max).getAsDouble();   // Double.MAX_VALUE
+ * ExactSum.of(max, max).getAsDouble();         // Infinity
+ * </pre>
+ *
+ * <p>Instances of this class are mutable and not safe for use by multiple
+ * threads.
+ *
+ * @see Sum
+ * @since 1.3
+ */
+public final class ExactSum
+    implements DoubleSupplier,
+               DoubleConsumer {
+    /** Initial capacity of the expansion. */
+    private static final int INITIAL_CAPACITY = 8;
+    /** Threshold for the magnitude of the term or the largest partial sum above
+     * which addition of the term may overflow. */
+    private static final double OVERFLOW_THRESHOLD = 0x1.0p1022;
+    /** 2^1023. Half the unit of the overflow count. */
+    private static final double TWO_POW_1023 = 0x1.0p1023;
+    /** 2^1024. The unit of the overflow count. */
+    private static final BigDecimal TWO_POW_1024 = new BigDecimal(TWO_POW_1023).multiply(BigDecimal.valueOf(2));
+
+    /** Non-overlapping partial sums in increasing order of magnitude. */
+    private double[] partials;
+    /** Number of partial sums. */
+    private int size;
+    /** Overflow of the finite sum in units of 2^1024. */
+    private long overflow;
+    /** Sum of the non-finite terms. */
+    private double special;
+    /** Sum of the infinite terms. */
+    private double inf;
+
+    /**
+     * Constructs a new instance with the given expansion.
+     *
+     * @param partials Partial sums.
+     * @param size Number of partial sums.
+     */
+    private ExactSum(double[] partials, int size) {
+        this.partials = partials;
+        this.size = size;
+    }
+
+    /**
+     * Adds a single term to this sum.
+     *
+     * @param t Value to add.
+     * @return this instance.
+     */
+    public ExactSum add(final double t) {
+        if (!Double.isFinite(t)) {
+            if (!Double.isNaN(t)) {
+                inf += t;
+            }
+            special += t;
+            // The finite sum is no longer required
+            size = 0;
+            return this;
+        }
+        final double[] p = partials;
+        final int n = size;
+        if (Math.abs(t) >= OVERFLOW_THRESHOLD ||
+            n != 0 && Math.abs(p[n - 1]) >= OVERFLOW_THRESHOLD) {
+            return addLarge(t);
+        }
+        double x = t;
+        int i = 0;
+        for (int j = 0; j < n; j++) {
+            // Fast two-sum requires |x| >= |y|.
+            // Note: This is faster than a branchless two-sum.
+            double y = p[j];
+            if (Math.abs(x) < Math.abs(y)) {
+                final double tmp = x;
+                x = y;
+                y = tmp;
+            }
+            final double hi = x + y;
+            final double lo = y - (hi - x);
+            if (lo != 0) {
+                p[i++] = lo;
+            }
+            x = hi;
+        }
+        return store(x, i);
+    }
+
+    /**
+     * Adds a single finite term to this sum when the running sum may overflow.
+     *
+     * @param t Value to add.
+     * @return this instance.
+     */
+    private ExactSum addLarge(final double t) {
+        double x = t;
+        final double[] p = partials;
+        int i = 0;
+        for (int j = 0; j < size; j++) {
+            double y = p[j];
+            if (Math.abs(x) < Math.abs(y)) {
+                final double tmp = x;
+                x = y;
+                y = tmp;
+            }
+            double hi = x + y;
+            final double lo;
+            if (Double.isInfinite(hi)) {
+                // Overflow. Compute the two-sum at half scale: this is exact as |y| >= 2^970.
+                // The high part is in [2^1023, 2^1024) and is split into a unit of
+                // overflow (2^1024) and the remaining finite part.
+                final double xs = x * 0.5;
+                final double ys = y * 0.5;
+                final double hs = xs + ys;
+                lo = 2 * (ys - (hs - xs));
+                if (hs > 0) {
+                    overflow++;
+                    hi = 2 * (hs - TWO_POW_1023);
+                } else {
+                    overflow--;
+                    hi = 2 * (hs + TWO_POW_1023);
+                }
+            } else {
+                lo = y - (hi - x);
+            }
+            if (lo != 0) {
+                p[i++] = lo;
+            }
+            x = hi;
+        }
+        return store(x, i);
+    }
+
+    /**
+     * Stores the largest partial sum of the expansion.
+     *
+     * @param x Largest partial sum.
+     * @param n Number of smaller partial sums.
+     * @return this instance.
+     */
+    private ExactSum store(double x, int n) {
+        int i = n;
+        if (x != 0) {
+            if (i == partials.length) {
+                partials = Arrays.copyOf(partials, i * 2);
+            }
+            partials[i++] = x;
+        }
+        size = i;
+        return this;
+    }
+
+    /**
+     * Adds values from the given array to the sum.
+     *
+     * @param terms Terms to add.
+     * @return this instance.
+     */
+    public ExactSum add(final double... terms) {
+        for (final double t : terms) {
+            add(t);
+        }
+        return this;
+    }
+
+    /**
+     * Adds another sum to this sum.
+     *
+     * @param other Sum to add.
+     * @return this instance.
+     */
+    public ExactSum add(final ExactSum other) {
+        return add(other, false);
+    }
+
+    /**
+     * Subtracts another sum from this sum.
+     *
+     * @param other Sum to subtract.
+     * @return this instance.
+     */
+    public ExactSum subtract(final ExactSum other) {
+        return add(other, true);
+    }
+
+    /**
+     * Adds the other sum to this sum.
+     *
+     * <p>The state of the other sum is extracted before addition to ensure
+     * there are no issues when adding a sum to itself.
+     *
+     * @param other Sum to add.
+     * @param negate Set to true to negate the other sum.
+     * @return this instance.
+     */
+    private ExactSum add(final ExactSum other, boolean negate) {
+        final double[] p = Arrays.copyOf(other.partials, other.size);
+        final long o = other.overflow;
+        final double s = other.special;
+        final double f = other.inf;
+        if (negate) {
+            for (final double x : p) {
+                add(-x);
+            }
+            overflow -= o;
+            special -= s;
+            inf -= f;
+        } else {
+            add(p);
+            overflow += o;
+            special += s;
+            inf += f;
+        }
+        return this;
+    }
+
+    /**
+     * Adds a single term to this sum.
+     * This is equivalent to {@link #add(double)}.
+     *
+     * @param value Value to add.
+     *
+     * @see #add(double)
+     */
+    @Override
+    public void accept(final double value) {
+        add(value);
+    }
+
+    /**
+     * Gets the sum value. This is the exact sum rounded to the nearest {@code double}.
+     *
+     * @return the sum value.
+     */
+    @Override
+    public double getAsDouble() {
+        if (special != 0) {
+            // Note: special != 0 is true for NaN.
+            // inf is NaN for infinities of opposite sign;
+            // otherwise special is NaN or the sum of the infinities.
+            return Double.isNaN(inf) ? inf : special;
+        }
+        if (overflow != 0) {
+            return overflowValue();
+        }
+        final double[] p = partials;
+        int n = size;
+        if (n == 0) {
+            return 0;
+        }
+        // Sum from the largest partial and stop when the sum is inexact
+        double hi = p[--n];
+        double lo = 0;
+        while (n > 0) {
+            final double x = hi;
+            final double y = p[--n];
+            hi = x + y;
+            lo = y - (hi - x);
+            if (lo != 0) {
+                break;
+            }
+        }
+        // Correct the round-half-even rounding of (hi + lo) when the remaining
+        // partials have the same sign as lo: the exact sum is not at the midpoint.
+        if (n > 0 && (lo < 0 && p[n - 1] < 0 || lo > 0 && p[n - 1] > 0)) {
+            final double y = lo * 2;
+            final double x = hi + y;
+            if (y == x - hi) {
+                hi = x;
+            }
+        }
+        return hi;
+    }
+
+    /**
+     * Gets the sum value when the finite sum has overflowed. This is the exact sum
+     * rounded to the nearest {@code double}, which may be infinite.
+     *
+     * @return the sum value.
+     */
+    private double overflowValue() {
+        // The magnitude of the partial sum is below 2^1024, thus
+        // a larger overflow cannot be cancelled.
+        if (Math.abs(overflow) > 1) {
+            return overflow > 0 ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        }
+        // Rare case: compute exactly.
+        BigDecimal sum = overflow > 0 ? TWO_POW_1024 : TWO_POW_1024.negate();
+        for (int i = 0; i < size; i++) {
+            sum = sum.add(new BigDecimal(partials[i]));
+        }
+        return sum.doubleValue();
+    }
+
+    /**
+     * Creates a new instance with an initial value of zero.
+     *
+     * @return a new instance.
+     */
+    public static ExactSum create() {
+        return new ExactSum(new double[INITIAL_CAPACITY], 0);
+    }
+
+    /**
+     * Creates an instance initialized to the given value.
+     *
+     * @param a Initial value.
+     * @return a new instance.
+     */
+    public static ExactSum of(final double a) {
+        return create().add(a);
+    }
+
+    /**
+     * Creates an instance containing the sum of the given values.
+     *
+     * @param values Values to add.
+     * @return a new instance.
+     */
+    public static ExactSum of(final double... values) {
+        return create().add(values);
+    }
+}
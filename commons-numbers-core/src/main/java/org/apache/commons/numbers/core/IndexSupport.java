@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.numbers.core;
+
+/**
+ * Support for validating indices.
+ *
+ * @since 1.3
+ */
+final class IndexSupport {
+    /** No instances. */
+    private IndexSupport() {}
+
+    /**
+     * Checks if the sub-range from {@code fromIndex} (inclusive) to
+     * {@code fromIndex + size} (exclusive) is within the bounds of range from
+     * {@code 0} (inclusive) to {@code length} (exclusive).
+     *
+     * <p>This function provides the functionality of
+     * {@code java.util.Objects.checkFromIndexSize} introduced in JDK 9.
+     *
+     * @param fromIndex Lower-bound (inclusive) of the sub-range.
+     * @param size Size of the sub-range.
+     * @param length Upper-bound (exclusive) of the range.
+     * @throws IndexOutOfBoundsException if the sub-range is out of bounds
+     */
+    static void checkFromIndexSize(int fromIndex, int size, int length) {
+        // Checks as per Objects.checkFromIndexSize (Java 9)
+        if ((length | fromIndex | size) < 0 || size > length - fromIndex) {
+            throw new IndexOutOfBoundsException(
+                msgRangeOutOfBounds(fromIndex, size, length));
+        }
+    }
+
+    // Message formatting moved to a separate method to assist inlining of the validation method.
+
+    /**
+     * Format a message when range [from, from + size) is not entirely within the length.
+     *
+     * @param fromIndex Lower-bound (inclusive) of the sub-range.
+     * @param size Size of the sub-range.
+     * @param length Upper-bound (exclusive) of the range.
+     * @return the message
+     */
+    private static String msgRangeOutOfBounds(int fromIndex, int size, int length) {
+        return String.format("Range [%d, %<d + %d) out of bounds for length %d", fromIndex, size, length);
+    }
+}
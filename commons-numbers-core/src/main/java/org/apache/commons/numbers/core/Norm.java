@@ -16,6 +16,10 @@
  */
 package org.apache.commons.numbers.core;
 
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
 /**
  * <a href="https://en.wikipedia.org/wiki/Norm_(mathematics)">Norm</a> functions.
  *
@@ -24,24 +28,34 @@ package org.apache.commons.numbers.core;
  * <a href="https://citeseerx.ist.psu.edu/viewdoc/summary?doi=10.1.1.2.1547">
  * Accurate Sum and Dot Product</a> by Takeshi Ogita, Siegfried M. Rump,
  * and Shin'ichi Oishi published in <em>SIAM J. Sci. Comput</em>.
+ *
+ * <p>The norm of a vector that is not available as a single array can be
+ * computed incrementally using an {@link Accumulator}:
+ *
+ * <pre>
+ * Norm.Accumulator acc = Norm.EUCLIDEAN.accumulator();
+ * acc.accept(v1, 0, v1.length);
+ * acc.accept(v2, 0, v2.length);
+ * double norm = acc.getAsDouble();
+ * </pre>
  */
 public enum Norm {
     /**
      * <a href="https://en.wikipedia.org/wiki/Norm_(mathematics)#Taxicab_norm_or_Manhattan_norm">
      *  Manhattan norm</a> (sum of the absolute values of the arguments).
      */
-    L1(Norm::manhattan, Norm::manhattan, Norm::manhattan),
+    L1(Norm::manhattan, Norm::manhattan, Norm::manhattan, ManhattanAccumulator::new),
     /** Alias for {@link #L1}. */
     MANHATTAN(L1),
     /** <a href="https://en.wikipedia.org/wiki/Norm_(mathematics)#Euclidean_norm">Euclidean norm</a>. */
-    L2(Norm::euclidean, Norm::euclidean, Norm::euclidean),
+    L2(Norm::euclidean, Norm::euclidean, Norm::euclidean, EuclideanAccumulator::new),
     /** Alias for {@link #L2}. */
     EUCLIDEAN(L2),
     /**
      * <a href="https://en.wikipedia.org/wiki/Norm_(mathematics)#Maximum_norm_(special_case_of:_infinity_norm,_uniform_norm,_or_supremum_norm)">
      *  Maximum norm</a> (maximum of the absolute values of the arguments).
      */
-    LINF(Norm::maximum, Norm::maximum, Norm::maximum),
+    LINF(Norm::maximum, Norm::maximum, Norm::maximum, MaximumAccumulator::new),
     /** Alias for {@link #LINF}. */
     MAXIMUM(LINF);
 
@@ -78,6 +92,8 @@ public enum Norm {
     private final Three three;
     /** Function of array argument. */
     private final Array array;
+    /** Factory for an accumulator. */
+    private final Supplier<Accumulator> accumulator;
 
     /** Function of 2 arguments. */
     @FunctionalInterface
@@ -105,22 +121,79 @@ public enum Norm {
     private interface Array {
         /**
          * @param v Array of arguments.
+         * @param from Lower bound (inclusive).
+         * @param to Upper bound (exclusive).
+         * @return the norm.
+         */
+        double of(double[] v, int from, int to);
+    }
+
+    /**
+     * Accumulator of the norm of a vector. The values of the vector are provided
+     * incrementally and the norm is computed on demand.
+     *
+     * <p>The accumulator uses the same algorithm as {@link Norm#of(double[])}. The norm of
+     * the values is the same irrespective of how the values are provided to the
+     * accumulator. Accumulators can be {@link #combine(Accumulator) combined} to
+     * compute the norm of a vector in parts, for example using multiple threads.
+     *
+     * <p>The norm of an accumulator with no values is zero.
+     *
+     * <p>Instances are mutable and not safe for use by multiple threads.
+     *
+     * @since 1.3
+     */
+    public interface Accumulator extends DoubleConsumer, DoubleSupplier {
+        /**
+         * Adds the values in the sub-range {@code [offset, offset + length)} of the array.
+         *
+         * @param v Values.
+         * @param offset Offset of the first value.
+         * @param length Number of values.
+         * @throws IndexOutOfBoundsException if the sub-range is out of bounds
+         */
+        void accept(double[] v, int offset, int length);
+
+        /**
+         * Combines the values of the other accumulator with this accumulator.
+         *
+         * @param other Accumulator.
+         * @return this instance.
+         * @throws IllegalArgumentException if the other accumulator is not for the
+         * same norm.
+         */
+        Accumulator combine(Accumulator other);
+
+        /**
+         * Gets the norm of the values.
+         *
+         * <p>Special cases:
+         * <ul>
+         *  <li>If any value is {@link Double#NaN}, then the result is {@link Double#NaN}.</li>
+         *  <li>If any value is infinite and no value is {@link Double#NaN}, then the
+         *   result is {@link Double#POSITIVE_INFINITY}.</li>
+         * </ul>
+         *
          * @return the norm.
          */
-        double of(double[] v);
+        @Override
+        double getAsDouble();
     }
 
     /**
      * @param two Function of 2 arguments.
      * @param three Function of 3 arguments.
      * @param array Function of array argument.
+     * @param accumulator Factory for an accumulator.
      */
     Norm(Two two,
          Three three,
-         Array array) {
+         Array array,
+         Supplier<Accumulator> accumulator) {
         this.two = two;
         this.three = three;
         this.array = array;
+        this.accumulator = accumulator;
     }
 
     /**
@@ -130,6 +203,7 @@ public enum Norm {
         this.two = alias.two;
         this.three = alias.three;
         this.array = alias.array;
+        this.accumulator = alias.accumulator;
     }
 
     /**
@@ -157,7 +231,7 @@ public enum Norm {
      * <p>Special cases:
      * <ul>
      *  <li>If any value is {@link Double#NaN}, then the result is {@link Double#NaN}.</li>
-     *  <li>If any value is infinite and no value is not {@link Double#NaN}, then the
+     *  <li>If any value is infinite and no value is {@link Double#NaN}, then the
      *   result is {@link Double#POSITIVE_INFINITY}.</li>
      * </ul>
      *
@@ -178,7 +252,7 @@ public enum Norm {
      * <p>Special cases:
      * <ul>
      *  <li>If any value is {@link Double#NaN}, then the result is {@link Double#NaN}.</li>
-     *  <li>If any value is infinite and no value is not {@link Double#NaN}, then the
+     *  <li>If any value is infinite and no value is {@link Double#NaN}, then the
      *   result is {@link Double#POSITIVE_INFINITY}.</li>
      * </ul>
      *
@@ -187,8 +261,73 @@ public enum Norm {
      * @throws IllegalArgumentException if the array is empty.
      */
     public double of(double[] v) {
-        ensureNonEmpty(v);
-        return array.of(v);
+        ensureNonEmpty(v.length);
+        return array.of(v, 0, v.length);
+    }
+
+    /**
+     * Computes the norm of the values in the sub-range {@code [offset, offset + length)}
+     * of the array.
+     *
+     * <p>This is equivalent to {@link #of(double[]) of(Arrays.copyOfRange(v, offset, offset + length))}
+     * without the copy of the array.
+     *
+     * @param v Argument.
+     * @param offset Offset of the first value.
+     * @param length Number of values.
+     * @return the norm.
+     * @throws IndexOutOfBoundsException if the sub-range is out of bounds.
+     * @throws IllegalArgumentException if the sub-range is empty.
+     * @see #of(double[])
+     * @since 1.3
+     */
+    public double of(double[] v, int offset, int length) {
+        IndexSupport.checkFromIndexSize(offset, length, v.length);
+        ensureNonEmpty(length);
+        return array.of(v, offset, offset + length);
+    }
+
+    /**
+     * Computes the norm of each row of a matrix.
+     *
+     * <p>The matrix is stored in row-major order: element \( M_{ij} \) is at index
+     * {@code i * columns + j}. The norm of row {@code i} is equal to
+     * {@link #of(double[], int, int) of(matrix, i * columns, columns)}.
+     *
+     * @param matrix Matrix.
+     * @param rows Number of rows.
+     * @param columns Number of columns.
+     * @param result Row norms (length {@code rows}).
+     * @return the result.
+     * @throws IllegalArgumentException if the number of rows is negative, the number
+     * of columns is not strictly positive, or the dimensions do not match the lengths
+     * of the arrays.
+     * @since 1.3
+     */
+    public double[] ofRows(double[] matrix, int rows, int columns, double[] result) {
+        if (rows < 0 || columns <= 0 ||
+            (long) rows * columns != matrix.length ||
+            result.length != rows) {
+            throw new IllegalArgumentException("Dimension mismatch: [" + rows + " x " + columns + "] " +
+                matrix.length + ", " + result.length);
+        }
+        final Array fun = array;
+        for (int i = 0, from = 0; i < rows; i++) {
+            final int to = from + columns;
+            result[i] = fun.of(matrix, from, to);
+            from = to;
+        }
+        return result;
+    }
+
+    /**
+     * Creates an accumulator to compute the norm incrementally.
+     *
+     * @return the accumulator.
+     * @since 1.3
+     */
+    public Accumulator accumulator() {
+        return accumulator.get();
     }
 
     /** Computes the Manhattan norm.
@@ -229,17 +368,19 @@ public enum Norm {
     /** Computes the Manhattan norm.
      *
      * @param v input values
-     * @return \(|v_0| + ... + |v_i|\)
+     * @param from lower bound (inclusive)
+     * @param to upper bound (exclusive)
+     * @return \(|v_{from}| + ... + |v_{to-1}|\)
      *
      * @see #L1
      * @see #MANHATTAN
      * @see #of(double[])
      */
-    private static double manhattan(final double[] v) {
+    private static double manhattan(final double[] v, final int from, final int to) {
         final Sum sum = Sum.create();
 
-        for (final double d : v) {
-            sum.add(Math.abs(d));
+        for (int i = from; i < to; i++) {
+            sum.add(Math.abs(v[i]));
         }
 
         return sum.getAsDouble();
@@ -390,28 +531,168 @@ public enum Norm {
      * This implementation handles possible overflow or underflow.
      *
      * @param v input values
-     * @return \(\sqrt{v_0^2 + ... + v_{n-1}^2}\).
+     * @param from lower bound (inclusive)
+     * @param to upper bound (exclusive)
+     * @return \(\sqrt{v_{from}^2 + ... + v_{to-1}^2}\).
      *
      * @see #L2
      * @see #EUCLIDEAN
      * @see #of(double[])
      */
-    private static double euclidean(final double[] v) {
+    private static double euclidean(final double[] v, final int from, final int to) {
+        final EuclideanAccumulator acc = new EuclideanAccumulator();
+        acc.add(v, from, to);
+        return acc.getAsDouble();
+    }
+
+    /** Computes the maximum norm.
+     *
+     * @param x first input
+     * @param y second input
+     * @return \(\max{(|x|, |y|)}\).
+     *
+     * @see #LINF
+     * @see #MAXIMUM
+     * @see #of(double,double)
+     */
+    private static double maximum(final double x,
+                                  final double y) {
+        return Math.max(Math.abs(x), Math.abs(y));
+    }
+
+    /** Computes the maximum norm.
+     *
+     * @param x first input
+     * @param y second input
+     * @param z third input
+     * @return \(\max{(|x|, |y|, |z|)}\).
+     *
+     * @see #LINF
+     * @see #MAXIMUM
+     * @see #of(double,double,double)
+     */
+    private static double maximum(final double x,
+                                  final double y,
+                                  final double z) {
+        return Math.max(Math.abs(x),
+                        Math.max(Math.abs(y),
+                                 Math.abs(z)));
+    }
+
+    /** Computes the maximum norm.
+     *
+     * @param v input values
+     * @param from lower bound (inclusive)
+     * @param to upper bound (exclusive)
+     * @return \(\max{(|v_{from}|, \ldots, |v_{to-1}|)}\)
+     *
+     * @see #LINF
+     * @see #MAXIMUM
+     * @see #of(double[])
+     */
+    private static double maximum(final double[] v, final int from, final int to) {
+        double max = 0d;
+        for (int i = from; i < to; i++) {
+            max = Math.max(max, Math.abs(v[i]));
+        }
+        return max;
+    }
+
+    /**
+     * Check the other accumulator is the same type as this accumulator.
+     *
+     * @param <T> Accumulator type.
+     * @param acc Accumulator.
+     * @param other Other accumulator.
+     * @return the other accumulator.
+     * @throws IllegalArgumentException if the other accumulator is a different type.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends Accumulator> T checkType(T acc, Accumulator other) {
+        if (acc.getClass() != other.getClass()) {
+            throw new IllegalArgumentException("Incompatible accumulator: " + other.getClass().getSimpleName());
+        }
+        return (T) other;
+    }
+
+    /** Accumulator of the Manhattan norm. */
+    private static final class ManhattanAccumulator implements Accumulator {
+        /** Sum of the absolute values. */
+        private final Sum sum = Sum.create();
+
+        @Override
+        public void accept(double value) {
+            sum.add(Math.abs(value));
+        }
+
+        @Override
+        public void accept(double[] v, int offset, int length) {
+            IndexSupport.checkFromIndexSize(offset, length, v.length);
+            final int to = offset + length;
+            for (int i = offset; i < to; i++) {
+                sum.add(Math.abs(v[i]));
+            }
+        }
+
+        @Override
+        public Accumulator combine(Accumulator other) {
+            sum.add(checkType(this, other).sum);
+            return this;
+        }
+
+        @Override
+        public double getAsDouble() {
+            return sum.getAsDouble();
+        }
+    }
+
+    /** Accumulator of the Euclidean norm. */
+    private static final class EuclideanAccumulator implements Accumulator {
         // sum of big, normal and small numbers
-        double s1 = 0;
-        double s2 = 0;
-        double s3 = 0;
+        /** Sum of big numbers. */
+        private double s1;
+        /** Sum of normal numbers. */
+        private double s2;
+        /** Sum of small numbers. */
+        private double s3;
 
         // sum compensation values
-        double c1 = 0;
-        double c2 = 0;
-        double c3 = 0;
+        /** Compensation of the sum of big numbers. */
+        private double c1;
+        /** Compensation of the sum of normal numbers. */
+        private double c2;
+        /** Compensation of the sum of small numbers. */
+        private double c3;
+
+        /** Set to true if a value is infinite. */
+        private boolean inf;
+        /** Set to true if a value is NaN. */
+        private boolean nan;
+
+        @Override
+        public void accept(double value) {
+            add(value);
+        }
+
+        @Override
+        public void accept(double[] v, int offset, int length) {
+            IndexSupport.checkFromIndexSize(offset, length, v.length);
+            add(v, offset, offset + length);
+        }
 
-        for (int i = 0; i < v.length; ++i) {
-            final double x = Math.abs(v[i]);
+        /**
+         * Adds the value.
+         *
+         * @param value Value.
+         */
+        private void add(double value) {
+            final double x = Math.abs(value);
             if (!Double.isFinite(x)) {
-                // not finite; determine whether to return NaN or positive infinity
-                return euclideanNormSpecial(v, i);
+                if (Double.isNaN(x)) {
+                    nan = true;
+                } else {
+                    inf = true;
+                }
             } else if (x > LARGE_THRESH) {
                 // scale down
                 final double sx = x * SCALE_DOWN;
@@ -458,102 +739,119 @@ public enum Norm {
             }
         }
 
-        // The highest sum is the significant component. Add the next significant.
-        // Note that the "x * SCALE_DOWN * SCALE_DOWN" expressions must be executed
-        // in the order given. If the two scale factors are multiplied together first,
-        // they will underflow to zero.
-        if (s1 != 0) {
-            // add s1, s2, c1, c2
-            final double s2Adj = s2 * SCALE_DOWN * SCALE_DOWN;
-            final double sum = s1 + s2Adj;
-            final double comp = DD.twoSumLow(s1, s2Adj, sum) +
-                c1 + (c2 * SCALE_DOWN * SCALE_DOWN);
-            return Math.sqrt(sum + comp) * SCALE_UP;
-        } else if (s2 != 0) {
-            // add s2, s3, c2, c3
-            final double s3Adj = s3 * SCALE_DOWN * SCALE_DOWN;
-            final double sum = s2 + s3Adj;
-            final double comp = DD.twoSumLow(s2, s3Adj, sum) +
-                c2 + (c3 * SCALE_DOWN * SCALE_DOWN);
-            return Math.sqrt(sum + comp);
+        /**
+         * Adds the values in the range {@code [from, to)} of the array.
+         * The range is not validated.
+         *
+         * @param v Values.
+         * @param from Lower bound (inclusive).
+         * @param to Upper bound (exclusive).
+         */
+        void add(double[] v, int from, int to) {
+            for (int i = from; i < to; i++) {
+                add(v[i]);
+                if (nan) {
+                    // The result is NaN irrespective of any other value
+                    return;
+                }
+            }
         }
-        // add s3, c3
-        return Math.sqrt(s3 + c3) * SCALE_DOWN;
-    }
 
-    /** Special cases of non-finite input.
-     *
-     * @param v input vector
-     * @param start index to start examining the input vector from
-     * @return Euclidean norm special value
-     */
-    private static double euclideanNormSpecial(final double[] v,
-                                               final int start) {
-        for (int i = start; i < v.length; ++i) {
-            if (Double.isNaN(v[i])) {
+        @Override
+        public Accumulator combine(Accumulator other) {
+            final EuclideanAccumulator o = checkType(this, other);
+            // Extract all values to support combining with itself
+            final double o1 = o.s1;
+            final double o2 = o.s2;
+            final double o3 = o.s3;
+            final double oc1 = o.c1;
+            final double oc2 = o.c2;
+            final double oc3 = o.c3;
+            double s = s1 + o1;
+            c1 += DD.twoSumLow(s1, o1, s) + oc1;
+            s1 = s;
+            s = s2 + o2;
+            c2 += DD.twoSumLow(s2, o2, s) + oc2;
+            s2 = s;
+            s = s3 + o3;
+            c3 += DD.twoSumLow(s3, o3, s) + oc3;
+            s3 = s;
+            inf |= o.inf;
+            nan |= o.nan;
+            return this;
+        }
+
+        @Override
+        public double getAsDouble() {
+            if (nan) {
                 return Double.NaN;
+            } else if (inf) {
+                return Double.POSITIVE_INFINITY;
             }
+
+            // The highest sum is the significant component. Add the next significant.
+            // Note that the "x * SCALE_DOWN * SCALE_DOWN" expressions must be executed
+            // in the order given. If the two scale factors are multiplied together first,
+            // they will underflow to zero.
+            if (s1 != 0) {
+                // add s1, s2, c1, c2
+                final double s2Adj = s2 * SCALE_DOWN * SCALE_DOWN;
+                final double sum = s1 + s2Adj;
+                final double comp = DD.twoSumLow(s1, s2Adj, sum) +
+                    c1 + (c2 * SCALE_DOWN * SCALE_DOWN);
+                return Math.sqrt(sum + comp) * SCALE_UP;
+            } else if (s2 != 0) {
+                // add s2, s3, c2, c3
+                final double s3Adj = s3 * SCALE_DOWN * SCALE_DOWN;
+                final double sum = s2 + s3Adj;
+                final double comp = DD.twoSumLow(s2, s3Adj, sum) +
+                    c2 + (c3 * SCALE_DOWN * SCALE_DOWN);
+                return Math.sqrt(sum + comp);
+            }
+            // add s3, c3
+            return Math.sqrt(s3 + c3) * SCALE_DOWN;
         }
-        return Double.POSITIVE_INFINITY;
     }
 
-    /** Computes the maximum norm.
-     *
-     * @param x first input
-     * @param y second input
-     * @return \(\max{(|x|, |y|)}\).
-     *
-     * @see #LINF
-     * @see #MAXIMUM
-     * @see #of(double,double)
-     */
-    private static double maximum(final double x,
-                                  final double y) {
-        return Math.max(Math.abs(x), Math.abs(y));
-    }
+    /** Accumulator of the maximum norm. */
+    private static final class MaximumAccumulator implements Accumulator {
+        /** Maximum absolute value. */
+        private double max;
 
-    /** Computes the maximum norm.
-     *
-     * @param x first input
-     * @param y second input
-     * @param z third input
-     * @return \(\max{(|x|, |y|, |z|)}\).
-     *
-     * @see #LINF
-     * @see #MAXIMUM
-     * @see #of(double,double,double)
-     */
-    private static double maximum(final double x,
-                                  final double y,
-                                  final double z) {
-        return Math.max(Math.abs(x),
-                        Math.max(Math.abs(y),
-                                 Math.abs(z)));
-    }
+        @Override
+        public void accept(double value) {
+            max = Math.max(max, Math.abs(value));
+        }
 
-    /** Computes the maximum norm.
-     *
-     * @param v input values
-     * @return \(\max{(|v_0|, \ldots, |v_{n-1}|)}\)
-     *
-     * @see #LINF
-     * @see #MAXIMUM
-     * @see #of(double[])
-     */
-    private static double maximum(final double[] v) {
-        double max = 0d;
-        for (final double d : v) {
-            max = Math.max(max, Math.abs(d));
+        @Override
+        public void accept(double[] v, int offset, int length) {
+            IndexSupport.checkFromIndexSize(offset, length, v.length);
+            final int to = offset + length;
+            double m = max;
+            for (int i = offset; i < to; i++) {
+                m = Math.max(m, Math.abs(v[i]));
+            }
+            max = m;
+        }
+
+        @Override
+        public Accumulator combine(Accumulator other) {
+            max = Math.max(max, checkType(this, other).max);
+            return this;
+        }
+
+        @Override
+        public double getAsDouble() {
+            return max;
         }
-        return max;
     }
 
     /**
-     * @param a Array.
+     * @param length Array length.
      * @throws IllegalArgumentException for zero-size array.
      */
-    private static void ensureNonEmpty(double[] a) {
-        if (a.length == 0) {
+    private static void ensureNonEmpty(int length) {
+        if (length == 0) {
             throw new IllegalArgumentException("Empty array");
         }
     }
@@ -16,8 +16,12 @@
  */
 package org.apache.commons.numbers.core;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.function.DoubleConsumer;
 import java.util.function.DoubleSupplier;
+import java.util.stream.Collector;
+import java.util.stream.DoubleStream;
 
 /**
  * Class providing accurate floating-point sums and linear combinations.
@@ -56,6 +60,15 @@ import java.util.function.DoubleSupplier;
  *
  * // same as above but using a convenience factory method
  * double result = Sum.ofProducts(a, b).getAsDouble();
+ *
+ * // compute the dot product of sub-ranges of two arrays without allocation
+ * double result = Sum.dot(a, aOffset, b, bOffset, length);
+ *
+ * // compute the sum of a large array using multiple threads
+ * double result = Sum.ofParallel(a).getAsDouble();
+ *
+ * // compute the sum of a stream; this supports parallel streams
+ * double result = Sum.of(DoubleStream.of(a).parallel()).getAsDouble();
  * </pre>
  *
  * <p>It is worth noting that this class is designed to reduce floating point errors
@@ -85,11 +98,57 @@ import java.util.function.DoubleSupplier;
 public final class Sum
     implements DoubleSupplier,
                DoubleConsumer {
+    /** Length of an array chunk that is summed sequentially in a parallel summation. */
+    private static final int PARALLEL_CHUNK_SIZE = 1 << 13;
+
     /** Standard sum. */
     private double sum;
     /** Compensation value. */
     private double comp;
 
+    /**
+     * Task to sum a range of an array using recursive fork-join decomposition.
+     * The sums of each half of the range are combined in double-double precision.
+     */
+    private static final class SumTask extends RecursiveTask<Sum> {
+        /** Serializable version identifier. */
+        private static final long serialVersionUID = 20261016L;
+
+        /** Values. */
+        private final double[] values;
+        /** Lower bound (inclusive). */
+        private final int from;
+        /** Upper bound (exclusive). */
+        private final int to;
+
+        /**
+         * @param values Values.
+         * @param from Lower bound (inclusive).
+         * @param to Upper bound (exclusive).
+         */
+        SumTask(double[] values, int from, int to) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Sum compute() {
+            if (to - from <= PARALLEL_CHUNK_SIZE) {
+                final Sum s = create();
+                for (int i = from; i < to; i++) {
+                    s.add(values[i]);
+                }
+                return s;
+            }
+            final int mid = (from + to) >>> 1;
+            final SumTask left = new SumTask(values, from, mid);
+            left.fork();
+            final Sum right = new SumTask(values, mid, to).compute();
+            return left.join().add(right);
+        }
+    }
+
     /**
      * Constructs a new instance with the given initial value.
      *
@@ -278,6 +337,154 @@ public final class Sum
         return create().add(values);
     }
 
+    /**
+     * Computes \( \sum_i a_{o_a+i} b_{o_b+i} \) for \( 0 \le i \lt n \).
+     *
+     * <p>This computes the same result as
+     * {@code Sum.ofProducts(a', b').getAsDouble()} using the sub-range of each array
+     * without the allocation of arrays or a {@code Sum} instance.
+     *
+     * @param a Factors.
+     * @param aOffset Offset of the first factor in {@code a}.
+     * @param b Factors.
+     * @param bOffset Offset of the first factor in {@code b}.
+     * @param length Number of products.
+     * @return the sum of the products.
+     * @throws IndexOutOfBoundsException if a sub-range is out of bounds of the array.
+     * @see #ofProducts(double[], double[])
+     * @since 1.3
+     */
+    public static double dot(final double[] a, final int aOffset,
+                             final double[] b, final int bOffset,
+                             final int length) {
+        IndexSupport.checkFromIndexSize(aOffset, length, a.length);
+        IndexSupport.checkFromIndexSize(bOffset, length, b.length);
+        return dot0(a, aOffset, b, bOffset, length);
+    }
+
+    /**
+     * Computes the matrix-vector product \( y = M x \) where each element of \( y \) is
+     * computed using {@link #dot(double[], int, double[], int, int)}.
+     *
+     * <p>The matrix is stored in row-major order: element \( M_{ij} \) is at index
+     * {@code i * columns + j}.
+     *
+     * @param matrix Matrix.
+     * @param rows Number of rows.
+     * @param columns Number of columns.
+     * @param x Vector (length {@code columns}).
+     * @param y Result (length {@code rows}).
+     * @return the result {@code y}.
+     * @throws IllegalArgumentException if the dimensions are negative or
+     * do not match the lengths of the arrays.
+     * @since 1.3
+     */
+    public static double[] multiply(final double[] matrix, final int rows, final int columns,
+                                    final double[] x, final double[] y) {
+        if (rows < 0 || columns < 0 ||
+            (long) rows * columns != matrix.length ||
+            x.length != columns ||
+            y.length != rows) {
+            throw new IllegalArgumentException("Dimension mismatch: [" + rows + " x " + columns +
+                "] matrix=" + matrix.length + " x=" + x.length + " y=" + y.length);
+        }
+        for (int i = 0; i < rows; i++) {
+            y[i] = dot0(matrix, i * columns, x, 0, columns);
+        }
+        return y;
+    }
+
+    /**
+     * Computes \( \sum_i a_{o_a+i} b_{o_b+i} \) for \( 0 \le i \lt n \).
+     *
+     * <p>This is the computation of {@link #addProducts(double[], double[])} and
+     * {@link #getAsDouble()} using local variables for the sum and compensation.
+     * The ranges are not validated.
+     *
+     * @param a Factors.
+     * @param aOffset Offset of the first factor in {@code a}.
+     * @param b Factors.
+     * @param bOffset Offset of the first factor in {@code b}.
+     * @param length Number of products.
+     * @return the sum of the products.
+     */
+    private static double dot0(final double[] a, final int aOffset,
+                               final double[] b, final int bOffset,
+                               final int length) {
+        // Note: Manual unrolling with independent accumulators was not faster
+        // than the JIT compiled loop and changes the order of operations.
+        double s = 0;
+        double c = 0;
+        for (int i = 0; i < length; i++) {
+            final double x = a[aOffset + i];
+            final double y = b[bOffset + i];
+            final double xy = x * y;
+            final double pLow = ExtendedPrecision.productLow(x, y, xy);
+            final double newSum = s + xy;
+            c += DD.twoSumLow(s, xy, newSum) + pLow;
+            s = newSum;
+        }
+        // High-precision value if it is finite, standard IEEE754 result otherwise.
+        final double hpsum = s + c;
+        return Double.isFinite(hpsum) ?
+                hpsum :
+                s;
+    }
+
+    /**
+     * Creates an instance containing the sum of the given values using multiple threads.
+     *
+     * <p>The array is divided into chunks that are summed using the
+     * {@link ForkJoinPool#commonPool() common fork-join pool}. The sum of each chunk
+     * is combined using {@link #add(Sum)}. The result may differ from the sequential
+     * summation computed by {@link #of(double...)} in the final bits due to the
+     * different order of operations; the result has the same accuracy.
+     *
+     * <p>The array must not be modified during the summation.
+     *
+     * @param values Values to add.
+     * @return a new instance.
+     * @since 1.3
+     */
+    public static Sum ofParallel(final double... values) {
+        if (values.length <= PARALLEL_CHUNK_SIZE) {
+            return of(values);
+        }
+        return ForkJoinPool.commonPool().invoke(new SumTask(values, 0, values.length));
+    }
+
+    /**
+     * Creates an instance containing the sum of the values in the stream.
+     *
+     * <p>If the stream is parallel then the values are summed in multiple instances which
+     * are combined using {@link #add(Sum)}.
+     *
+     * @param values Values to add.
+     * @return a new instance.
+     * @since 1.3
+     */
+    public static Sum of(final DoubleStream values) {
+        return values.collect(Sum::create, Sum::add, Sum::add);
+    }
+
+    /**
+     * Returns a {@code Collector} that computes the sum of the input elements.
+     *
+     * <p>This supports parallel streams. Each partial result is combined using
+     * {@link #add(Sum)}.
+     *
+     * <pre>
+     * List&lt;Double&gt; list = ...
+     * double result = list.parallelStream().collect(Sum.collector()).getAsDouble();
+     * </pre>
+     *
+     * @return the collector
+     * @since 1.3
+     */
+    public static Collector<Double, Sum, Sum> collector() {
+        return Collector.of(Sum::create, Sum::add, Sum::add, Collector.Characteristics.IDENTITY_FINISH);
+    }
+
     /**
      * Creates a new instance containing \( \sum_i a_i b_i \).
      *
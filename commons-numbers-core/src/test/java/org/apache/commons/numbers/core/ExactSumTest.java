@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.numbers.core;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Test cases for the {@link ExactSum} class.
+ */
+class ExactSumTest {
+
+    @Test
+    void testSimple() {
+        Assertions.assertEquals(0.0, ExactSum.create().getAsDouble());
+        assertSum(Math.PI);
+        assertSum(Math.PI, Math.E);
+        assertSum(1, 2, 3);
+        assertSum(1, -2, 3);
+        assertSum(0.1, 0.2, 0.3);
+        assertSum(1, -1);
+    }
+
+    @Test
+    void testCancellation() {
+        assertSum(1e100, 1.0, -1e100);
+        assertSum(1e100, 1.0, 1e-100, -1e100);
+        assertSum(Double.MAX_VALUE, 1, -Double.MAX_VALUE);
+        assertSum(Double.MIN_VALUE, 1, -1);
+        assertSum(1, 1e-16, 1e-16, 1e-16, 1e-16, -1);
+        assertSum(1e100, 1.0, 1e-100, -1e100, -1.0);
+        Assertions.assertEquals(1e-100, ExactSum.of(1e100, 1.0, 1e-100, -1e100, -1.0).getAsDouble());
+        // Sum cannot compute this
+        Assertions.assertEquals(0.0, Sum.of(1e100, 1.0, 1e-100, -1e100, -1.0).getAsDouble());
+    }
+
+    @Test
+    void testHalfEvenRounding() {
+        final double ulp = Math.ulp(1.0);
+        // Exact midpoints round to even
+        assertSum(1, ulp / 2);
+        assertSum(1 + ulp, ulp / 2);
+        // Just above or below the midpoint
+        assertSum(1, ulp / 2, 1e-300);
+        assertSum(1, ulp / 2, -1e-300);
+        assertSum(1 + ulp, ulp / 2, 1e-300);
+        assertSum(1 + ulp, ulp / 2, -1e-300);
+        assertSum(1, -ulp / 4, -1e-300);
+        assertSum(1, -ulp / 4, 1e-300);
+        assertSum(1e300, -0.5 * Math.ulp(1e300), 1e-300, -1e-310);
+    }
+
+    @Test
+    void testNonFinite() {
+        final double inf = Double.POSITIVE_INFINITY;
+        final double nan = Double.NaN;
+        Assertions.assertEquals(inf, ExactSum.of(1, inf, 2).getAsDouble());
+        Assertions.assertEquals(-inf, ExactSum.of(1, -inf, 2, -inf).getAsDouble());
+        Assertions.assertEquals(nan, ExactSum.of(1, -inf, 2, inf).getAsDouble());
+        Assertions.assertEquals(nan, ExactSum.of(1, nan, 2).getAsDouble());
+        Assertions.assertEquals(nan, ExactSum.of(inf, nan).getAsDouble());
+        // Overflow
+        final double max = Double.MAX_VALUE;
+        Assertions.assertEquals(inf, ExactSum.of(max, max).getAsDouble());
+        Assertions.assertEquals(-inf, ExactSum.of(-max, -max, 1).getAsDouble());
+        Assertions.assertEquals(-inf, ExactSum.of(-max, -max, -max, max).getAsDouble());
+        // Overflow of the running sum is recovered
+        Assertions.assertEquals(max, ExactSum.of(-max, -max, max, max, max).getAsDouble());
+        Assertions.assertEquals(max, ExactSum.of(max, max, -max).getAsDouble());
+        Assertions.assertEquals(max, ExactSum.of(max, -max, max).getAsDouble());
+        Assertions.assertEquals(-max, ExactSum.of(-max, -max, max).getAsDouble());
+        Assertions.assertEquals(1.0, ExactSum.of(max, max, 1, -max, -max).getAsDouble());
+        Assertions.assertEquals(0.0, ExactSum.of(max, max, max, -max, -max, -max).getAsDouble());
+        // Rounding at the overflow threshold
+        final double halfUlp = Math.ulp(max) / 2;
+        Assertions.assertEquals(inf, ExactSum.of(max, max, halfUlp, -max).getAsDouble());
+        Assertions.assertEquals(max, ExactSum.of(max, max, halfUlp, -Double.MIN_VALUE, -max).getAsDouble());
+        // Not overflow as the exact sum is the same as MAX_VALUE rounded
+        Assertions.assertEquals(max, ExactSum.of(max, Math.ulp(max) / 4).getAsDouble());
+        // Combine sums
+        Assertions.assertEquals(inf, ExactSum.of(1).add(ExactSum.of(inf)).getAsDouble());
+        Assertions.assertEquals(nan, ExactSum.of(inf).subtract(ExactSum.of(inf)).getAsDouble());
+        Assertions.assertEquals(-inf, ExactSum.of(1).subtract(ExactSum.of(inf)).getAsDouble());
+        Assertions.assertEquals(max, ExactSum.of(max, max).subtract(ExactSum.of(max)).getAsDouble());
+        Assertions.assertEquals(max, ExactSum.of(max, max).add(ExactSum.of(-max)).getAsDouble());
+        Assertions.assertEquals(inf, ExactSum.of(max, max).add(ExactSum.of(max, max)).getAsDouble());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        // length, min exponent
+        "10, 1010",
+        "100, 1015",
+        "1000, 1020",
+        "1000, 900",
+        "100, -1074",
+    })
+    void testRandomSumOverflow(int length, int minExp) {
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create();
+        for (int repeat = 0; repeat < 20; repeat++) {
+            final double[] values = new double[length];
+            for (int i = 0; i < length; i++) {
+                // Large values that overflow when summed
+                final double x = i % 3 == 0 ?
+                    Math.scalb(rng.nextDouble(), rng.nextInt(minExp, 1024)) :
+                    Math.scalb(1 + rng.nextDouble(), 1023);
+                values[i] = rng.nextBoolean() ? x : -x;
+            }
+            // Small total: cancel the sum in the final term(s)
+            final double total = exactSum(values);
+            if (Double.isFinite(total) && Double.isFinite(values[length - 1] - total)) {
+                values[length - 1] -= total;
+            }
+            assertSum(values);
+            // Shuffle
+            for (int i = length; i > 1; i--) {
+                final int j = rng.nextInt(i);
+                final double tmp = values[i - 1];
+                values[i - 1] = values[j];
+                values[j] = tmp;
+            }
+            assertSum(values);
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        // length, min exponent, max exponent
+        "10, -10, 10",
+        "100, -50, 50",
+        "1000, -200, 200",
+        "1000, -1074, 1000",
+        "5000, -5, 5",
+    })
+    void testRandomSum(int length, int minExp, int maxExp) {
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create();
+        for (int repeat = 0; repeat < 5; repeat++) {
+            final double[] values = new double[length];
+            for (int i = 0; i < length; i++) {
+                final double x = Math.scalb(rng.nextDouble(), rng.nextInt(minExp, maxExp));
+                values[i] = rng.nextBoolean() ? x : -x;
+            }
+            // Add cancelling terms
+            for (int i = 0; i < length; i += 3) {
+                final int j = rng.nextInt(length);
+                values[i] = -values[j];
+            }
+            assertSum(values);
+        }
+    }
+
+    @Test
+    void testAddSum() {
+        final double a = 1e100;
+        final double b = Math.PI;
+        final double c = Math.scalb(Math.E, -200);
+        Assertions.assertEquals(exactSum(a, b, c, -a), ExactSum.of(a, b).add(ExactSum.of(c, -a)).getAsDouble());
+        Assertions.assertEquals(exactSum(b, c), ExactSum.of(a, b, c).subtract(ExactSum.of(a)).getAsDouble());
+        final ExactSum s = ExactSum.of(a, b, c);
+        Assertions.assertEquals(exactSum(a, b, c, a, b, c), s.add(s).getAsDouble());
+        Assertions.assertEquals(0.0, s.subtract(s).getAsDouble());
+    }
+
+    /**
+     * Assert the sum of the values is the exact sum correctly rounded. This is
+     * tested for the values in order, reverse order and split into two sums.
+     *
+     * @param values Values.
+     */
+    private static void assertSum(double... values) {
+        final double expected = exactSum(values);
+        Assertions.assertEquals(expected, ExactSum.of(values).getAsDouble(), "of");
+
+        final ExactSum acceptAccumulator = ExactSum.create();
+        for (int i = values.length; --i >= 0;) {
+            acceptAccumulator.accept(values[i]);
+        }
+        Assertions.assertEquals(expected, acceptAccumulator.getAsDouble(), "accept");
+
+        final ExactSum streamAccumulator = ExactSum.create();
+        Arrays.stream(values).forEach(streamAccumulator);
+        Assertions.assertEquals(expected, streamAccumulator.getAsDouble(), "stream");
+
+        final int half = values.length / 2;
+        final ExactSum s1 = ExactSum.of(Arrays.copyOf(values, half));
+        final ExactSum s2 = ExactSum.of(Arrays.copyOfRange(values, half, values.length));
+        Assertions.assertEquals(expected, s1.add(s2).getAsDouble(), "add(ExactSum)");
+    }
+
+    /**
+     * Return the exact sum rounded to the nearest double.
+     *
+     * @param values Values.
+     * @return the sum
+     */
+    private static double exactSum(double... values) {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (final double value : values) {
+            sum = sum.add(new BigDecimal(value));
+        }
+        return sum.doubleValue();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.numbers.core;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Test for {@link IndexSupport}.
+ */
+class IndexSupportTest {
+
+    @Test
+    void testCheckFromIndexSize() {
+        IndexSupport.checkFromIndexSize(0, 0, 0);
+        IndexSupport.checkFromIndexSize(0, 10, 10);
+        IndexSupport.checkFromIndexSize(3, 7, 10);
+        IndexSupport.checkFromIndexSize(10, 0, 10);
+        IndexSupport.checkFromIndexSize(Integer.MAX_VALUE, 0, Integer.MAX_VALUE);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        // fromIndex < 0
+        "-1, 1, 10",
+        "-2147483648, 1, 10",
+        // size < 0
+        "0, -1, 10",
+        "5, -2147483648, 10",
+        // fromIndex + size > length
+        "0, 11, 10",
+        "10, 1, 10",
+        "11, 0, 10",
+        "5, 2147483647, 10",
+        "2147483647, 1, 2147483647",
+        // length < 0
+        "0, 0, -1",
+    })
+    void testCheckFromIndexSizeThrows(int from, int size, int length) {
+        Assertions.assertThrows(IndexOutOfBoundsException.class,
+            () -> IndexSupport.checkFromIndexSize(from, size, length));
+    }
+}
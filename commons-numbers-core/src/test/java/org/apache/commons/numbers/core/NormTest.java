@@ -445,6 +445,179 @@ class NormTest {
                 Norm.LINF.of(new double[] {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY}));
     }
 
+    @Test
+    void testArrayRange_invalidArguments() {
+        final double[] v = {1, 2, 3};
+        for (final Norm norm : Norm.values()) {
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> norm.of(v, -1, 2));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> norm.of(v, 2, -1));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> norm.of(v, 1, 3));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> norm.of(v, 4, 0));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> norm.of(v, 1, 0));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> norm.of(v, 3, 0));
+        }
+    }
+
+    @Test
+    void testRows_invalidArguments() {
+        final double[] m = new double[6];
+        for (final Norm norm : Norm.values()) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> norm.ofRows(m, 2, 3, new double[3]));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> norm.ofRows(m, 2, 4, new double[2]));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> norm.ofRows(m, -2, -3, new double[2]));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> norm.ofRows(new double[0], 2, 0,
+                new double[2]));
+            Assertions.assertArrayEquals(new double[0], norm.ofRows(new double[0], 0, 3, new double[0]));
+        }
+    }
+
+    @Test
+    void testRows_random() {
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_1024_PP.create(1L);
+        for (final int columns : new int[] {1, 2, 3, 10, 100}) {
+            for (final int[] exp : new int[][] {
+                {-10, 10}, {+600, +620}, {-620, -600}, {-600, 600}}) {
+                final int rows = 7;
+                final double[] m = DoubleTestUtils.randomArray(rows * columns, exp[0], exp[1], rng);
+                // Non-finite values in a single row
+                if (columns > 2) {
+                    m[columns + 1] = Double.NaN;
+                    m[2 * columns + 2] = Double.NEGATIVE_INFINITY;
+                }
+                for (final Norm norm : Norm.values()) {
+                    final double[] result = new double[rows];
+                    Assertions.assertSame(result, norm.ofRows(m, rows, columns, result));
+                    for (int i = 0; i < rows; i++) {
+                        final int from = i * columns;
+                        final double expected = norm.of(Arrays.copyOfRange(m, from, from + columns));
+                        Assertions.assertEquals(expected, norm.of(m, from, columns));
+                        Assertions.assertEquals(expected, result[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testAccumulator_empty() {
+        for (final Norm norm : Norm.values()) {
+            Assertions.assertEquals(0d, norm.accumulator().getAsDouble());
+            final Norm.Accumulator acc = norm.accumulator();
+            acc.accept(new double[] {1, 2, 3}, 1, 0);
+            Assertions.assertEquals(0d, acc.getAsDouble());
+            Assertions.assertEquals(0d, acc.combine(norm.accumulator()).getAsDouble());
+        }
+    }
+
+    @Test
+    void testAccumulator_invalidArguments() {
+        final double[] v = {1, 2, 3};
+        for (final Norm norm : Norm.values()) {
+            final Norm.Accumulator acc = norm.accumulator();
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> acc.accept(v, -1, 2));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> acc.accept(v, 2, -1));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> acc.accept(v, 1, 3));
+        }
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> Norm.L1.accumulator().combine(Norm.L2.accumulator()));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> Norm.L2.accumulator().combine(Norm.LINF.accumulator()));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> Norm.LINF.accumulator().combine(Norm.L1.accumulator()));
+        // Aliases use the same accumulator
+        Assertions.assertEquals(5d, Norm.EUCLIDEAN.accumulator().combine(accumulate(Norm.L2, 3, 4)).getAsDouble());
+    }
+
+    @Test
+    void testAccumulator_nonFinite() {
+        final double nan = Double.NaN;
+        final double inf = Double.POSITIVE_INFINITY;
+        for (final Norm norm : Norm.values()) {
+            Assertions.assertEquals(nan, accumulate(norm, 1, nan, 2).getAsDouble());
+            Assertions.assertEquals(nan, accumulate(norm, inf, nan).getAsDouble());
+            Assertions.assertEquals(nan, accumulate(norm, nan, -inf).getAsDouble());
+            Assertions.assertEquals(inf, accumulate(norm, 1, -inf, 2).getAsDouble());
+            Assertions.assertEquals(inf, accumulate(norm, inf, -inf).getAsDouble());
+            Assertions.assertEquals(nan, accumulate(norm, inf).combine(accumulate(norm, nan)).getAsDouble());
+            Assertions.assertEquals(nan, accumulate(norm, nan).combine(accumulate(norm, inf)).getAsDouble());
+            Assertions.assertEquals(inf, accumulate(norm, 1).combine(accumulate(norm, -inf)).getAsDouble());
+        }
+        // Overflow
+        final double max = Double.MAX_VALUE;
+        Assertions.assertEquals(inf, accumulate(Norm.L1, max, max).getAsDouble());
+        Assertions.assertEquals(max, accumulate(Norm.LINF, max, max).getAsDouble());
+        Assertions.assertEquals(Norm.L2.of(max, max), accumulate(Norm.L2, max, max).getAsDouble());
+    }
+
+    @Test
+    void testAccumulator_random() {
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_1024_PP.create(1L);
+        for (final int len : new int[] {1, 2, 3, 10, 100, 1000}) {
+            for (final int[] exp : new int[][] {
+                {-10, 10}, {+600, +620}, {-620, -600}, {-600, 600},
+                {LARGE_THRESH_EXP - 10, LARGE_THRESH_EXP + 10},
+                {SMALL_THRESH_EXP - 10, SMALL_THRESH_EXP + 10}}) {
+                final double[] v = DoubleTestUtils.randomArray(len, exp[0], exp[1], rng);
+                for (final Norm norm : Norm.values()) {
+                    checkAccumulator(norm, v, rng);
+                }
+            }
+        }
+    }
+
+    /**
+     * Check the accumulator computes the same norm as {@link Norm#of(double[])}
+     * when the values are provided in parts.
+     *
+     * @param norm Norm.
+     * @param v Values.
+     * @param rng Random number generator.
+     */
+    private static void checkAccumulator(Norm norm, double[] v, UniformRandomProvider rng) {
+        final double expected = norm.of(v);
+        final Norm.Accumulator acc1 = norm.accumulator();
+        acc1.accept(v, 0, v.length);
+        Assertions.assertEquals(expected, acc1.getAsDouble(), "array");
+        final Norm.Accumulator acc2 = norm.accumulator();
+        Arrays.stream(v).forEach(acc2);
+        Assertions.assertEquals(expected, acc2.getAsDouble(), "accept");
+        // Values provided in order in chunks
+        final Norm.Accumulator acc3 = norm.accumulator();
+        final int split = rng.nextInt(v.length + 1);
+        acc3.accept(v, 0, split);
+        acc3.accept(v, split, v.length - split);
+        Assertions.assertEquals(expected, acc3.getAsDouble(), "chunks");
+        // Combined partial results
+        final Norm.Accumulator acc4 = norm.accumulator();
+        acc4.accept(v, split, v.length - split);
+        final Norm.Accumulator acc5 = norm.accumulator();
+        acc5.accept(v, 0, split);
+        // Combination of the partial sums may have a different rounding
+        final double tol = 2 * Math.ulp(expected);
+        Assertions.assertEquals(expected, acc4.combine(acc5).getAsDouble(), tol, "combine");
+        // Combine with itself
+        final double[] vv = Arrays.copyOf(v, v.length * 2);
+        System.arraycopy(v, 0, vv, v.length, v.length);
+        final double expected2 = norm.of(vv);
+        Assertions.assertEquals(expected2, norm.accumulator().combine(acc1).combine(acc1).getAsDouble(),
+            2 * Math.ulp(expected2), "self combine");
+    }
+
+    /**
+     * Create an accumulator of the values.
+     *
+     * @param norm Norm.
+     * @param values Values.
+     * @return the accumulator
+     */
+    private static Norm.Accumulator accumulate(Norm norm, double... values) {
+        final Norm.Accumulator acc = norm.accumulator();
+        for (final double x : values) {
+            acc.accept(x);
+        }
+        return acc;
+    }
+
     /** Check a number of random vectors of length {@code len} with various exponent
      * ranges.
      * @param len vector array length
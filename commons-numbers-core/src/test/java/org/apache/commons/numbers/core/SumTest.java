@@ -19,6 +19,9 @@ package org.apache.commons.numbers.core;
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Assertions;
@@ -160,6 +163,49 @@ class SumTest {
         Assertions.assertEquals(0, s.subtract(s).getAsDouble());
     }
 
+    @ParameterizedTest
+    @CsvSource({
+        "0",
+        "1",
+        "100",
+        "8192",
+        "8193",
+        "100000",
+    })
+    void testParallelSum(int length) {
+        // Terms with a large range of magnitudes and cancellation
+        final double a = 9.999999999;
+        final double[] terms = {a, -Math.scalb(a, -53), Math.scalb(a, -27), -Math.scalb(a, -50),
+            Math.scalb(a, -80), -a * 1.0000001};
+        final double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = terms[i % terms.length] * (1 + (i & 0xff) * 0x1.0p-20);
+        }
+        final double expected = exactSum(values);
+
+        Assertions.assertEquals(expected, Sum.of(values).getAsDouble());
+        Assertions.assertEquals(expected, Sum.ofParallel(values).getAsDouble());
+        Assertions.assertEquals(expected, Sum.of(Arrays.stream(values)).getAsDouble());
+        Assertions.assertEquals(expected, Sum.of(Arrays.stream(values).parallel()).getAsDouble());
+        final List<Double> list = Arrays.stream(values).boxed().collect(Collectors.toList());
+        Assertions.assertEquals(expected, list.stream().collect(Sum.collector()).getAsDouble());
+        Assertions.assertEquals(expected, list.parallelStream().collect(Sum.collector()).getAsDouble());
+    }
+
+    @Test
+    void testParallelSum_nonFinite() {
+        final double[] values = DoubleStream.generate(() -> 1.5).limit(20000).toArray();
+        values[1] = Double.POSITIVE_INFINITY;
+        values[19999] = Double.POSITIVE_INFINITY;
+        Assertions.assertEquals(Double.POSITIVE_INFINITY, Sum.ofParallel(values).getAsDouble());
+        Assertions.assertEquals(Double.POSITIVE_INFINITY, Sum.of(Arrays.stream(values).parallel()).getAsDouble());
+        values[10000] = Double.NEGATIVE_INFINITY;
+        Assertions.assertEquals(Double.NaN, Sum.ofParallel(values).getAsDouble());
+        values[10000] = Double.NaN;
+        Assertions.assertEquals(Double.NaN, Sum.ofParallel(values).getAsDouble());
+        Assertions.assertEquals(Double.NaN, Sum.of(Arrays.stream(values).parallel()).getAsDouble());
+    }
+
     @Test
     void testSumOfProducts_dimensionMismatch() {
         // act/assert
@@ -171,6 +217,42 @@ class SumTest {
             () -> Sum.ofProducts(new double[1], new double[2]));
     }
 
+    @Test
+    void testDot_invalidRange() {
+        final double[] a = new double[5];
+        final double[] b = new double[3];
+        Assertions.assertEquals(0, Sum.dot(a, 5, b, 3, 0));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Sum.dot(a, 3, b, 0, 3));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Sum.dot(a, 0, b, 1, 3));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Sum.dot(a, -1, b, 0, 2));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Sum.dot(a, 0, b, -1, 2));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Sum.dot(a, 0, b, 0, -1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class,
+            () -> Sum.dot(a, 1, b, 0, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void testMultiply_dimensionMismatch() {
+        final double[] m = new double[6];
+        final double[] x = new double[3];
+        final double[] y = new double[2];
+        Assertions.assertSame(y, Sum.multiply(m, 2, 3, x, y));
+        // Negative rows
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Sum.multiply(m, -2, 3, x, y));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Sum.multiply(m, -2, -3, x, y));
+        // Negative columns
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Sum.multiply(m, 2, -3, x, y));
+        // Wrong matrix length
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Sum.multiply(m, 2, 4, new double[4], y));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> Sum.multiply(m, 1 << 16, (1 << 16) + 6, x, y));
+        // Wrong x length
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Sum.multiply(m, 2, 3, y, y));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Sum.multiply(m, 3, 2, x, new double[3]));
+        // Wrong y length
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Sum.multiply(m, 2, 3, x, x));
+    }
+
     @Test
     void testSumOfProducts_singleElement() {
         final double[] a = {1.23456789};
@@ -592,6 +674,24 @@ class SumTest {
 
         // check use of array factory method
         Assertions.assertEquals(expected, Sum.ofProducts(a, b).getAsDouble());
+
+        // check use of dot product with offsets
+        Assertions.assertEquals(expected, Sum.dot(a, 0, b, 0, len));
+        final double[] a2 = new double[len + 3];
+        final double[] b2 = new double[len + 5];
+        Arrays.fill(a2, Double.NaN);
+        Arrays.fill(b2, Double.NaN);
+        System.arraycopy(a, 0, a2, 2, len);
+        System.arraycopy(b, 0, b2, 1, len);
+        Assertions.assertEquals(expected, Sum.dot(a2, 2, b2, 1, len));
+
+        // check use of matrix-vector product: the matrix rows are [a, b]
+        final double[] m = new double[2 * len];
+        System.arraycopy(a, 0, m, 0, len);
+        System.arraycopy(b, 0, m, len, len);
+        final double[] y = Sum.multiply(m, 2, len, b, new double[2]);
+        Assertions.assertEquals(expected, y[0]);
+        Assertions.assertEquals(Sum.ofProducts(b, b).getAsDouble(), y[1]);
     }
 
     /** Return the double estimation of the exact summation result computed with unlimited precision.
@@ -40,6 +40,25 @@ class UserGuideTest {
         Assertions.assertEquals(expected, length, Math.ulp(expected));
     }
 
+    @Test
+    void testNorm2() {
+        Norm.Accumulator acc1 = Norm.EUCLIDEAN.accumulator();
+        Norm.Accumulator acc2 = Norm.EUCLIDEAN.accumulator();
+        acc1.accept(3);
+        acc2.accept(new double[] {1, 2, 4, 5}, 2, 2);
+        double norm = acc1.combine(acc2).getAsDouble();
+        Assertions.assertEquals(5 * Math.sqrt(2), norm, Math.ulp(norm));
+    }
+
+    @Test
+    void testNorm3() {
+        double[] matrix = {3, 4, 0, 5, 12, 0};
+        double n1 = Norm.EUCLIDEAN.of(matrix, 3, 3);
+        double[] rows = Norm.EUCLIDEAN.ofRows(matrix, 2, 3, new double[2]);
+        Assertions.assertEquals(13, n1);
+        Assertions.assertArrayEquals(new double[] {5, 13}, rows);
+    }
+
     @Test
     void testSum1() {
         double sum1 = Sum.create().add(1)
@@ -75,6 +94,14 @@ class UserGuideTest {
         Assertions.assertEquals(-1.0, x2);
     }
 
+    @Test
+    void testSum4() {
+        double x1 = Sum.of(1e100, 1, 1e-100, -1e100, -1).getAsDouble();
+        double x2 = ExactSum.of(1e100, 1, 1e-100, -1e100, -1).getAsDouble();
+        Assertions.assertEquals(0.0, x1);
+        Assertions.assertEquals(1e-100, x2);
+    }
+
     @Test
     void testPrecision1() {
         // Default allows no numbers between
@@ -0,0 +1,423 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.examples.jmh.arrays;
+
+import java.util.Arrays;
+
+/**
+ * Partition array data using a branchless block partition.
+ *
+ * <p>Partitioning compares a block of elements from each end of the range to the pivot
+ * and stores the offsets of elements on the wrong side. The comparison loop has no
+ * data dependent branches: the result of the comparison is added to the count of
+ * offsets. Misplaced elements are then swapped in pairs. This avoids the branch
+ * mispredictions of a scalar partition on random data at the cost of additional
+ * writes to the offset buffers.
+ *
+ * <p>A quickselect is provided using either the block partition or a scalar
+ * partition for comparison. The data must not contain {@code NaN}.
+ *
+ * <p>References
+ *
+ * <ol>
+ * <li>Edelkamp and Weiß (2016)
+ * BlockQuicksort: How Branch Mispredictions don't affect Quicksort.
+ * <a href="https://doi.org/10.4230/LIPIcs.ESA.2016.38">doi.org/10.4230/LIPIcs.ESA.2016.38</a></li>
+ * </ol>
+ *
+ * @since 1.3
+ */
+final class BlockPartition {
+    /** Block size. */
+    static final int BLOCK_SIZE = 128;
+    /** Length of a range below which it is sorted to finish selection. */
+    private static final int SORT_SIZE = 16;
+
+    /**
+     * Partition function for {@code double[]} data.
+     */
+    interface DoublePartition {
+        /**
+         * Partition the range {@code [left, right]} using the pivot value at {@code left}.
+         * The final position of the pivot {@code p} is returned:
+         *
+         * <pre>{@code
+         * data[left <= i < p] <= data[p] <= data[p < i <= right]
+         * }</pre>
+         *
+         * @param a Data.
+         * @param left Lower bound (inclusive).
+         * @param right Upper bound (inclusive).
+         * @return the pivot position
+         */
+        int partition(double[] a, int left, int right);
+    }
+
+    /**
+     * Partition function for {@code int[]} data.
+     */
+    interface IntPartition {
+        /**
+         * Partition the range {@code [left, right]} using the pivot value at {@code left}.
+         * The final position of the pivot {@code p} is returned:
+         *
+         * <pre>{@code
+         * data[left <= i < p] <= data[p] <= data[p < i <= right]
+         * }</pre>
+         *
+         * @param a Data.
+         * @param left Lower bound (inclusive).
+         * @param right Upper bound (inclusive).
+         * @return the pivot position
+         */
+        int partition(int[] a, int left, int right);
+    }
+
+    /** No instances. */
+    private BlockPartition() {}
+
+    // double[]
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Uses an introselect with a median-of-3 pivot. Excess recursion
+     * switches to a sort of the remaining range.
+     *
+     * @param a Data.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param k Index.
+     * @param partition Partition function.
+     */
+    static void select(double[] a, int left, int right, int k, DoublePartition partition) {
+        int l = left;
+        int r = right;
+        // Allow 2 * log2(n) partitions
+        int depth = 2 * (32 - Integer.numberOfLeadingZeros(r - l + 1));
+        while (r - l >= SORT_SIZE) {
+            if (--depth < 0) {
+                break;
+            }
+            final int m = (l + r) >>> 1;
+            Sorting.sort3(a, l, m, r);
+            swap(a, l, m);
+            final int p = partition.partition(a, l, r);
+            if (k < p) {
+                r = p - 1;
+            } else if (k > p) {
+                l = p + 1;
+            } else {
+                return;
+            }
+        }
+        Arrays.sort(a, l, r + 1);
+    }
+
+    /**
+     * Partition the range {@code [left, right]} using the pivot value at {@code left}
+     * with a branchless block partition.
+     *
+     * @param a Data.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @return the pivot position
+     * @see DoublePartition#partition(double[], int, int)
+     */
+    static int partition(double[] a, int left, int right) {
+        final double v = a[left];
+        int l = left + 1;
+        int r = right;
+        if (r - l + 1 >= 2 * BLOCK_SIZE) {
+            final int[] offsetsL = new int[BLOCK_SIZE];
+            final int[] offsetsR = new int[BLOCK_SIZE];
+            int startL = 0;
+            int startR = 0;
+            int numL = 0;
+            int numR = 0;
+            // Invariant: a[left < i < l] <= v; a[r < i] >= v
+            while (r - l + 1 >= 2 * BLOCK_SIZE) {
+                if (numL == 0) {
+                    startL = 0;
+                    for (int i = 0; i < BLOCK_SIZE; i++) {
+                        offsetsL[numL] = i;
+                        numL += a[l + i] >= v ? 1 : 0;
+                    }
+                }
+                if (numR == 0) {
+                    startR = 0;
+                    for (int i = 0; i < BLOCK_SIZE; i++) {
+                        offsetsR[numR] = i;
+                        numR += a[r - i] <= v ? 1 : 0;
+                    }
+                }
+                final int num = Math.min(numL, numR);
+                for (int i = 0; i < num; i++) {
+                    swap(a, l + offsetsL[startL + i], r - offsetsR[startR + i]);
+                }
+                numL -= num;
+                numR -= num;
+                startL += num;
+                startR += num;
+                if (numL == 0) {
+                    l += BLOCK_SIZE;
+                }
+                if (numR == 0) {
+                    r -= BLOCK_SIZE;
+                }
+            }
+            // Any block with unprocessed offsets is within [l, r]
+        }
+        return finishPartition(a, left, l, r, v);
+    }
+
+    /**
+     * Partition the range {@code [left, right]} using the pivot value at {@code left}
+     * with a scalar partition.
+     *
+     * @param a Data.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @return the pivot position
+     * @see DoublePartition#partition(double[], int, int)
+     */
+    static int partitionScalar(double[] a, int left, int right) {
+        return finishPartition(a, left, left + 1, right, a[left]);
+    }
+
+    /**
+     * Partition the unprocessed range {@code [l, r]} using the pivot value {@code v}
+     * and move the pivot from {@code left} to its final position.
+     *
+     * @param a Data.
+     * @param left Location of the pivot.
+     * @param l Lower bound of the unprocessed range (inclusive).
+     * @param r Upper bound of the unprocessed range (inclusive).
+     * @param v Pivot value.
+     * @return the pivot position
+     */
+    private static int finishPartition(double[] a, int left, int l, int r, double v) {
+        int i = l;
+        int j = r;
+        while (true) {
+            while (i <= j && a[i] < v) {
+                i++;
+            }
+            while (i <= j && a[j] > v) {
+                j--;
+            }
+            if (i >= j) {
+                break;
+            }
+            swap(a, i++, j--);
+        }
+        // If i == j then a[i] == v; otherwise the last element <= v is at i - 1
+        final int p = i == j ? i : i - 1;
+        swap(a, left, p);
+        return p;
+    }
+
+    /**
+     * Swaps the two specified elements in the array.
+     *
+     * @param a Data.
+     * @param i First index.
+     * @param j Second index.
+     */
+    private static void swap(double[] a, int i, int j) {
+        final double x = a[i];
+        a[i] = a[j];
+        a[j] = x;
+    }
+
+    // int[]
+
+    /**
+     * Partition the array such that index {@code k} corresponds to its correctly
+     * sorted value in the equivalent fully sorted array.
+     *
+     * <p>Uses an introselect with a median-of-3 pivot. Excess recursion
+     * switches to a sort of the remaining range.
+     *
+     * @param a Data.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @param k Index.
+     * @param partition Partition function.
+     */
+    static void select(int[] a, int left, int right, int k, IntPartition partition) {
+        int l = left;
+        int r = right;
+        // Allow 2 * log2(n) partitions
+        int depth = 2 * (32 - Integer.numberOfLeadingZeros(r - l + 1));
+        while (r - l >= SORT_SIZE) {
+            if (--depth < 0) {
+                break;
+            }
+            final int m = (l + r) >>> 1;
+            sort3(a, l, m, r);
+            swap(a, l, m);
+            final int p = partition.partition(a, l, r);
+            if (k < p) {
+                r = p - 1;
+            } else if (k > p) {
+                l = p + 1;
+            } else {
+                return;
+            }
+        }
+        Arrays.sort(a, l, r + 1);
+    }
+
+    /**
+     * Partition the range {@code [left, right]} using the pivot value at {@code left}
+     * with a branchless block partition.
+     *
+     * @param a Data.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @return the pivot position
+     * @see IntPartition#partition(int[], int, int)
+     */
+    static int partition(int[] a, int left, int right) {
+        final int v = a[left];
+        int l = left + 1;
+        int r = right;
+        if (r - l + 1 >= 2 * BLOCK_SIZE) {
+            final int[] offsetsL = new int[BLOCK_SIZE];
+            final int[] offsetsR = new int[BLOCK_SIZE];
+            int startL = 0;
+            int startR = 0;
+            int numL = 0;
+            int numR = 0;
+            // Invariant: a[left < i < l] <= v; a[r < i] >= v
+            while (r - l + 1 >= 2 * BLOCK_SIZE) {
+                if (numL == 0) {
+                    startL = 0;
+                    for (int i = 0; i < BLOCK_SIZE; i++) {
+                        offsetsL[numL] = i;
+                        numL += a[l + i] >= v ? 1 : 0;
+                    }
+                }
+                if (numR == 0) {
+                    startR = 0;
+                    for (int i = 0; i < BLOCK_SIZE; i++) {
+                        offsetsR[numR] = i;
+                        numR += a[r - i] <= v ? 1 : 0;
+                    }
+                }
+                final int num = Math.min(numL, numR);
+                for (int i = 0; i < num; i++) {
+                    swap(a, l + offsetsL[startL + i], r - offsetsR[startR + i]);
+                }
+                numL -= num;
+                numR -= num;
+                startL += num;
+                startR += num;
+                if (numL == 0) {
+                    l += BLOCK_SIZE;
+                }
+                if (numR == 0) {
+                    r -= BLOCK_SIZE;
+                }
+            }
+            // Any block with unprocessed offsets is within [l, r]
+        }
+        return finishPartition(a, left, l, r, v);
+    }
+
+    /**
+     * Partition the range {@code [left, right]} using the pivot value at {@code left}
+     * with a scalar partition.
+     *
+     * @param a Data.
+     * @param left Lower bound (inclusive).
+     * @param right Upper bound (inclusive).
+     * @return the pivot position
+     * @see IntPartition#partition(int[], int, int)
+     */
+    static int partitionScalar(int[] a, int left, int right) {
+        return finishPartition(a, left, left + 1, right, a[left]);
+    }
+
+    /**
+     * Partition the unprocessed range {@code [l, r]} using the pivot value {@code v}
+     * and move the pivot from {@code left} to its final position.
+     *
+     * @param a Data.
+     * @param left Location of the pivot.
+     * @param l Lower bound of the unprocessed range (inclusive).
+     * @param r Upper bound of the unprocessed range (inclusive).
+     * @param v Pivot value.
+     * @return the pivot position
+     */
+    private static int finishPartition(int[] a, int left, int l, int r, int v) {
+        int i = l;
+        int j = r;
+        while (true) {
+            while (i <= j && a[i] < v) {
+                i++;
+            }
+            while (i <= j && a[j] > v) {
+                j--;
+            }
+            if (i >= j) {
+                break;
+            }
+            swap(a, i++, j--);
+        }
+        // If i == j then a[i] == v; otherwise the last element <= v is at i - 1
+        final int p = i == j ? i : i - 1;
+        swap(a, left, p);
+        return p;
+    }
+
+    /**
+     * Sorts the given indices in an array.
+     *
+     * @param a Data.
+     * @param i Index.
+     * @param j Index.
+     * @param k Index.
+     */
+    private static void sort3(int[] a, int i, int j, int k) {
+        if (a[j] < a[i]) {
+            swap(a, i, j);
+        }
+        if (a[k] < a[j]) {
+            swap(a, j, k);
+            if (a[j] < a[i]) {
+                swap(a, i, j);
+            }
+        }
+    }
+
+    /**
+     * Swaps the two specified elements in the array.
+     *
+     * @param a Data.
+     * @param i First index.
+     * @param j Second index.
+     */
+    private static void swap(int[] a, int i, int j) {
+        final int x = a[i];
+        a[i] = a[j];
+        a[j] = x;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.examples.jmh.arrays;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ObjIntConsumer;
+import org.apache.commons.numbers.arrays.Selection;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Executes a benchmark of single index selection using a branchless block partition
+ * compared to a scalar partition.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-server", "-Xms512M", "-Xmx4096M"})
+public class BlockPartitionPerformance {
+    /** Quickselect using a branchless block partition. */
+    private static final String BLOCK = "Block";
+    /** Quickselect using a scalar partition. This has the same pivot strategy as {@link #BLOCK}. */
+    private static final String SCALAR = "Scalar";
+    /** Commons Numbers select implementation. */
+    private static final String SELECT = "Select";
+
+    /**
+     * Source of array data.
+     */
+    @State(Scope.Benchmark)
+    public static class DataSource {
+        /** Data length. */
+        @Param({"1000", "100000", "10000000"})
+        private int length;
+        /** Number of distinct values. Zero creates uniform random values. */
+        @Param({"0"})
+        private int distinct;
+
+        /** Data. */
+        private double[] doubleData;
+        /** Data. */
+        private int[] intData;
+
+        /**
+         * @return the data
+         */
+        public double[] getDoubleData() {
+            return doubleData;
+        }
+
+        /**
+         * @return the data
+         */
+        public int[] getIntData() {
+            return intData;
+        }
+
+        /**
+         * Create the data.
+         */
+        @Setup(Level.Iteration)
+        public void setup() {
+            // Data will be randomized per iteration
+            final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create();
+            intData = distinct > 0 ?
+                rng.ints(length, 0, distinct).toArray() :
+                rng.ints(length).toArray();
+            doubleData = distinct > 0 ?
+                rng.ints(length, 0, distinct).asDoubleStream().toArray() :
+                rng.doubles(length).toArray();
+        }
+    }
+
+    /**
+     * Source of a selection function.
+     */
+    @State(Scope.Benchmark)
+    public static class FunctionSource {
+        /** Name of the source. */
+        @Param({BLOCK, SCALAR, SELECT})
+        private String name;
+
+        /** The double function. */
+        private ObjIntConsumer<double[]> doubleFunction;
+        /** The int function. */
+        private ObjIntConsumer<int[]> intFunction;
+
+        /**
+         * @return the function
+         */
+        public ObjIntConsumer<double[]> getDoubleFunction() {
+            return doubleFunction;
+        }
+
+        /**
+         * @return the function
+         */
+        public ObjIntConsumer<int[]> getIntFunction() {
+            return intFunction;
+        }
+
+        /**
+         * Create the function.
+         */
+        @Setup
+        public void setup() {
+            Objects.requireNonNull(name);
+            if (BLOCK.equals(name)) {
+                doubleFunction = (a, k) -> BlockPartition.select(a, 0, a.length - 1, k, BlockPartition::partition);
+                intFunction = (a, k) -> BlockPartition.select(a, 0, a.length - 1, k, BlockPartition::partition);
+            } else if (SCALAR.equals(name)) {
+                doubleFunction = (a, k) -> BlockPartition.select(a, 0, a.length - 1, k,
+                    BlockPartition::partitionScalar);
+                intFunction = (a, k) -> BlockPartition.select(a, 0, a.length - 1, k,
+                    BlockPartition::partitionScalar);
+            } else if (SELECT.equals(name)) {
+                doubleFunction = Selection::select;
+                intFunction = Selection::select;
+            } else {
+                throw new IllegalStateException("Unknown selection function: " + name);
+            }
+        }
+    }
+
+    /**
+     * Select the median of {@code double} data.
+     *
+     * @param function Source of the function.
+     * @param source Source of the data.
+     * @param bh Data sink.
+     */
+    @Benchmark
+    public void doubleSelect(FunctionSource function, DataSource source, Blackhole bh) {
+        final double[] a = source.getDoubleData().clone();
+        final int k = a.length >>> 1;
+        function.getDoubleFunction().accept(a, k);
+        bh.consume(a[k]);
+    }
+
+    /**
+     * Select the median of {@code int} data.
+     *
+     * @param function Source of the function.
+     * @param source Source of the data.
+     * @param bh Data sink.
+     */
+    @Benchmark
+    public void intSelect(FunctionSource function, DataSource source, Blackhole bh) {
+        final int[] a = source.getIntData().clone();
+        final int k = a.length >>> 1;
+        function.getIntFunction().accept(a, k);
+        bh.consume(a[k]);
+    }
+}
@@ -32,6 +32,7 @@ import java.util.function.Function;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import org.apache.commons.numbers.arrays.Selection;
+import org.apache.commons.numbers.arrays.Selector;
 import org.apache.commons.rng.UniformRandomProvider;
 import org.apache.commons.rng.sampling.ArraySampler;
 import org.apache.commons.rng.sampling.PermutationSampler;
@@ -64,6 +65,8 @@ import org.openjdk.jmh.infra.Blackhole;
 public class SelectionPerformance {
     /** Use the JDK sort function. */
     private static final String JDK = "JDK";
+    /** Use the JDK parallel sort function. */
+    private static final String PARALLEL_JDK = "PJDK";
     /** Use a sort function. */
     private static final String SORT = "Sort";
     /** Baseline for the benchmark. */
@@ -146,6 +149,17 @@ public class SelectionPerformance {
     /** Commons Numbers select implementation. This method is built using the best performing
      * select function across a range of input data. This algorithm cannot be configured. */
     private static final String SELECT = "SELECT";
+    /** Commons Numbers parallel select implementation. This method partitions independent
+     * regions containing indices concurrently. This algorithm cannot be configured. */
+    private static final String PARALLEL_SELECT = "PSELECT";
+    /** Commons Numbers selector implementation. This uses the same select function as
+     * {@link #SELECT} with an index workspace that is reused across calls. */
+    private static final String SELECTOR = "SELECTOR";
+    /** Commons Numbers selector implementation using the single-pivot strategy. Each
+     * partition is 3-way and settles all values equal to the pivot in a single pass.
+     * Compare to {@link #SELECTOR} on data with few distinct values using the
+     * {@code random} distribution with a small {@code seed}. */
+    private static final String SELECTOR_SP = "SELECTOR_SP";
 
     /** Random source. */
     private static final RandomSource RANDOM_SOURCE = RandomSource.XO_RO_SHI_RO_128_PP;
@@ -1881,13 +1895,15 @@ public class SelectionPerformance {
     @State(Scope.Benchmark)
     public static class SortFunctionSource {
         /** Name of the source. */
-        @Param({JDK, SP, BM, SBM, DP, DP5,
+        @Param({JDK, PARALLEL_JDK, SP, BM, SBM, DP, DP5,
             SBM2,
             // Not run by default as it is slow on large data
             //"InsertionSortIF", "InsertionSortIT", "InsertionSort", "InsertionSortB"
             // Introsort methods with defaults, can configure using the name
             // e.g. ISP_SBM_QS50.
             ISP, IDP,
+            // Commons Numbers sort using the select partitioning
+            SELECT, PARALLEL_SELECT,
             })
         private String name;
 
@@ -1913,6 +1929,12 @@ public class SelectionPerformance {
             Objects.requireNonNull(name);
             if (JDK.equals(name)) {
                 function = Arrays::sort;
+            } else if (PARALLEL_JDK.equals(name)) {
+                function = Arrays::parallelSort;
+            } else if (SELECT.equals(name)) {
+                function = Selection::sort;
+            } else if (PARALLEL_SELECT.equals(name)) {
+                function = Selection::parallelSort;
             // First generation kth-selector functions (not configurable)
             } else if (name.startsWith(SP)) {
                 function = PartitionFactory.createKthSelector(name, SP, qs)::sortSP;
@@ -2243,7 +2265,7 @@ public class SelectionPerformance {
             DP, DP5,
             SBM2,
             ISP, IDP,
-            LSP, LINEAR, SELECT})
+            LSP, LINEAR, SELECT, PARALLEL_SELECT, SELECTOR, SELECTOR_SP})
         private String name;
 
         /** Override of minimum quickselect size. */
@@ -2381,12 +2403,25 @@ public class SelectionPerformance {
                     part.partitionIDP(data, indices.clone(), indices.length);
                     return extractIndices(data, indices);
                 };
+            } else if (name.startsWith(SELECTOR)) {
+                // The indices are not modified.
+                final Selector selector = createSelector(name);
+                function = (data, indices) -> {
+                    selector.select(data, indices);
+                    return extractIndices(data, indices);
+                };
             } else if (name.startsWith(SELECT)) {
                 // Not configurable
                 function = (data, indices) -> {
                     Selection.select(data, indices.clone());
                     return extractIndices(data, indices);
                 };
+            } else if (name.startsWith(PARALLEL_SELECT)) {
+                // Not configurable
+                function = (data, indices) -> {
+                    Selection.parallelSelect(data, indices.clone());
+                    return extractIndices(data, indices);
+                };
             // Linearselect (median-of-medians) implementation (stopper for quickselect)
             } else if (name.startsWith(LSP)) {
                 final Partition part = PartitionFactory.createPartition(name, LSP, qs, ec);
@@ -2457,7 +2492,7 @@ public class SelectionPerformance {
     @State(Scope.Benchmark)
     public static class IntKFunctionSource {
         /** Name of the source. */
-        @Param({SORT + JDK, SELECT})
+        @Param({SORT + JDK, SELECT, PARALLEL_SELECT, SELECTOR, SELECTOR_SP})
         private String name;
 
         /** The action. */
@@ -2484,11 +2519,22 @@ public class SelectionPerformance {
                     Arrays.sort(data);
                     return extractIndices(data, indices.clone());
                 };
+            } else if (name.startsWith(SELECTOR)) {
+                final Selector selector = createSelector(name);
+                function = (data, indices) -> {
+                    selector.select(data, indices);
+                    return extractIndices(data, indices);
+                };
             } else if (name.startsWith(SELECT)) {
                 function = (data, indices) -> {
                     Selection.select(data, indices.clone());
                     return extractIndices(data, indices);
                 };
+            } else if (name.startsWith(PARALLEL_SELECT)) {
+                function = (data, indices) -> {
+                    Selection.parallelSelect(data, indices.clone());
+                    return extractIndices(data, indices);
+                };
             }
             if (function == null) {
                 throw new IllegalStateException("Unknown int selector function: " + name);
@@ -3255,4 +3301,17 @@ public class SelectionPerformance {
         }
         bh.consume(interval);
     }
+
+    /**
+     * Creates the selector.
+     *
+     * @param name Name of the selector.
+     * @return the selector
+     */
+    private static Selector createSelector(String name) {
+        final Selector selector = Selector.create();
+        return name.equals(SELECTOR_SP) ?
+            selector.with(Selector.Strategy.SINGLE_PIVOT) :
+            selector;
+    }
 }
@@ -165,6 +165,50 @@ public class LinearCombinationPerformance {
         }
     }
 
+    /**
+     * The factors to multiply as a matrix-vector product. The matrix rows are the
+     * a factors; the vector is the first b factors.
+     */
+    @State(Scope.Benchmark)
+    public static class MatrixFactors extends LengthFactors {
+        /** Matrix in row-major order. */
+        private double[] matrix;
+        /** Vector. */
+        private double[] x;
+
+        /**
+         * Gets the matrix in row-major order.
+         *
+         * @return the matrix
+         */
+        public double[] getMatrix() {
+            return matrix;
+        }
+
+        /**
+         * Gets the vector.
+         *
+         * @return the vector
+         */
+        public double[] getX() {
+            return x;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        @Setup
+        public void setup() {
+            super.setup();
+            final int rows = getSize();
+            final int columns = getLength();
+            matrix = new double[rows * columns];
+            for (int i = 0; i < rows; i++) {
+                System.arraycopy(getA(i), 0, matrix, i * columns, columns);
+            }
+            x = getB(0);
+        }
+    }
+
     /**
      * The {@link LinearCombination} implementation.
      */
@@ -175,6 +219,8 @@ public class LinearCombinationPerformance {
          */
         @Param({"standard",
                 "current",
+                // Allocation-free dot product with offsets
+                "current_dot",
                 "dekker",
                 "dot2s",
                 "dot2", "dot3", "dot4", "dot5", "dot6", "dot7",
@@ -229,7 +275,8 @@ public class LinearCombinationPerformance {
          */
         @Setup
         public void setup() {
-            if ("current".endsWith(name)) {
+            final boolean dot = "current_dot".equals(name);
+            if (dot || "current".endsWith(name)) {
                 twod = (a1, b1, a2, b2) ->
                     Sum.create()
                         .addProduct(a1, b1)
@@ -245,7 +292,9 @@ public class LinearCombinationPerformance {
                         .addProduct(a2, b2)
                         .addProduct(a3, b3)
                         .addProduct(a4, b4).getAsDouble();
-                nd = (a, b) -> Sum.ofProducts(a, b).getAsDouble();
+                nd = dot ?
+                    (a, b) -> Sum.dot(a, 0, b, 0, a.length) :
+                    (a, b) -> Sum.ofProducts(a, b).getAsDouble();
                 return;
             }
             // All implementations below are expected to implement all the interfaces.
@@ -380,4 +429,36 @@ public class LinearCombinationPerformance {
             bh.consume(fun.value(a, b));
         }
     }
+
+    /**
+     * Compute the matrix-vector product for all the factors using the scalar product
+     * of each row.
+     *
+     * @param factors Factors.
+     * @param bh Data sink.
+     * @param calc Scalar product calculator.
+     */
+    @Benchmark
+    public void matrixVector(MatrixFactors factors, Blackhole bh, Calculator calc) {
+        final ND fun = calc.getND();
+        final double[] x = factors.getX();
+        for (int i = 0; i < factors.getSize(); i++) {
+            bh.consume(fun.value(factors.getA(i), x));
+        }
+    }
+
+    /**
+     * Compute the matrix-vector product for all the factors using a single call to
+     * {@link Sum#multiply(double[], int, int, double[], double[])} with the matrix in
+     * row-major order.
+     *
+     * @param factors Factors.
+     * @param bh Data sink.
+     */
+    @Benchmark
+    public void matrixVectorMultiply(MatrixFactors factors, Blackhole bh) {
+        final int rows = factors.getSize();
+        final double[] y = new double[rows];
+        bh.consume(Sum.multiply(factors.getMatrix(), rows, factors.getLength(), factors.getX(), y));
+    }
 }
@@ -16,6 +16,7 @@
  */
 package org.apache.commons.numbers.examples.jmh.core;
 
+import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 import java.util.function.ToDoubleFunction;
 
@@ -116,6 +117,68 @@ public class NormPerformance {
         }
     }
 
+    /** Class providing a row-major matrix for benchmarks. Each row is an input vector.
+     */
+    @State(Scope.Benchmark)
+    public static class MatrixInput extends VectorArrayInput {
+
+        /** Number of columns. */
+        @Param({"3", "64"})
+        private int columns;
+
+        /** Matrix data. */
+        private double[] matrix;
+
+        /** Row norms. */
+        private double[] norms;
+
+        /** Get the matrix data.
+         * @return matrix
+         */
+        public double[] getMatrix() {
+            return matrix;
+        }
+
+        /** Get the number of rows.
+         * @return rows
+         */
+        public int getRows() {
+            return norms.length;
+        }
+
+        /** Get the number of columns.
+         * @return columns
+         */
+        public int getColumns() {
+            return columns;
+        }
+
+        /** Get the array to store the row norms.
+         * @return row norms
+         */
+        public double[] getNorms() {
+            return norms;
+        }
+
+        /** Create the matrix from the input vectors.
+         */
+        @Setup
+        public void createMatrix() {
+            final double[][] vectors = getVectors();
+            matrix = new double[vectors.length * columns];
+            for (int i = 0; i < vectors.length; i++) {
+                System.arraycopy(vectors[i], 0, matrix, i * columns, columns);
+            }
+            norms = new double[vectors.length];
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected int getLength() {
+            return columns;
+        }
+    }
+
     /** Evaluate a norm computation method with the given input.
      * @param fn function to evaluate
      * @param input computation input
@@ -210,4 +273,29 @@ public class NormPerformance {
     public void euclideanArray(final VectorArrayInput input, final Blackhole bh) {
         eval(Norm.L2, input, bh);
     }
+
+    /** Compute the performance of the {@link Norm#L2} array norm method on each row
+     * of a matrix using a copy of the row.
+     * @param input benchmark input
+     * @return row norms
+     */
+    @Benchmark
+    public double[] euclideanRowsCopy(final MatrixInput input) {
+        final double[] m = input.getMatrix();
+        final int columns = input.getColumns();
+        final double[] norms = input.getNorms();
+        for (int i = 0; i < norms.length; i++) {
+            norms[i] = Norm.L2.of(Arrays.copyOfRange(m, i * columns, i * columns + columns));
+        }
+        return norms;
+    }
+
+    /** Compute the performance of the {@link Norm#L2} row norm method.
+     * @param input benchmark input
+     * @return row norms
+     */
+    @Benchmark
+    public double[] euclideanRows(final MatrixInput input) {
+        return Norm.L2.ofRows(input.getMatrix(), input.getRows(), input.getColumns(), input.getNorms());
+    }
 }
@@ -20,6 +20,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.function.ToDoubleBiFunction;
 import java.util.function.ToDoubleFunction;
 
+import org.apache.commons.numbers.core.ExactSum;
 import org.apache.commons.numbers.core.Sum;
 import org.apache.commons.rng.UniformRandomProvider;
 import org.apache.commons.rng.simple.RandomSource;
@@ -172,6 +173,15 @@ public class SumPerformance {
         runSingle(input, bh, a -> Sum.of(a).getAsDouble());
     }
 
+    /** Benchmark testing {@link ExactSum} addition performance.
+     * @param input benchmark input
+     * @param bh data sink
+     */
+    @Benchmark
+    public void exactSum(final ArrayInput input, final Blackhole bh) {
+        runSingle(input, bh, a -> ExactSum.of(a).getAsDouble());
+    }
+
     /** Benchmark testing {@link Sum} linear combination performance.
      * @param input benchmark input
      * @param bh data sink
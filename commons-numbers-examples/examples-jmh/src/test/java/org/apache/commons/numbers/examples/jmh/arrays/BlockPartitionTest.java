@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.commons.numbers.examples.jmh.arrays;
+
+import java.util.Arrays;
+import org.apache.commons.rng.UniformRandomProvider;
+import org.apache.commons.rng.simple.RandomSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Test for {@link BlockPartition}.
+ */
+class BlockPartitionTest {
+    @ParameterizedTest
+    @CsvSource({
+        // length, distinct values (0 = continuous)
+        "1, 0",
+        "10, 0",
+        "100, 3",
+        "255, 0",
+        "256, 0",
+        "1000, 0",
+        "1000, 2",
+        "10000, 0",
+        "10000, 10",
+    })
+    void testSelect(int n, int distinct) {
+        final UniformRandomProvider rng = RandomSource.XO_RO_SHI_RO_128_PP.create();
+        final int[] values = distinct > 0 ? rng.ints(n, 0, distinct).toArray() : rng.ints(n).toArray();
+        final double[] dvalues = Arrays.stream(values).asDoubleStream().toArray();
+        final int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        final int[] k = {0, n - 1, n >>> 1, rng.nextInt(n), rng.nextInt(n)};
+        for (final int i : k) {
+            int[] a = values.clone();
+            BlockPartition.select(a, 0, n - 1, i, BlockPartition::partition);
+            assertPartition(a, sorted, i);
+            a = values.clone();
+            BlockPartition.select(a, 0, n - 1, i, BlockPartition::partitionScalar);
+            assertPartition(a, sorted, i);
+            double[] b = dvalues.clone();
+            BlockPartition.select(b, 0, n - 1, i, BlockPartition::partition);
+            assertPartition(b, sorted, i);
+            b = dvalues.clone();
+            BlockPartition.select(b, 0, n - 1, i, BlockPartition::partitionScalar);
+            assertPartition(b, sorted, i);
+        }
+    }
+
+    /**
+     * Assert the data is partitioned around index {@code k}.
+     *
+     * @param a Data.
+     * @param sorted Sorted data.
+     * @param k Index.
+     */
+    private static void assertPartition(int[] a, int[] sorted, int k) {
+        Assertions.assertEquals(sorted[k], a[k]);
+        for (int i = 0; i < k; i++) {
+            Assertions.assertTrue(a[i] <= a[k]);
+        }
+        for (int i = k + 1; i < a.length; i++) {
+            Assertions.assertTrue(a[i] >= a[k]);
+        }
+    }
+
+    /**
+     * Assert the data is partitioned around index {@code k}.
+     *
+     * @param a Data.
+     * @param sorted Sorted data.
+     * @param k Index.
+     */
+    private static void assertPartition(double[] a, int[] sorted, int k) {
+        Assertions.assertEquals(sorted[k], a[k]);
+        for (int i = 0; i < k; i++) {
+            Assertions.assertTrue(a[i] <= a[k]);
+        }
+        for (int i = k + 1; i < a.length; i++) {
+            Assertions.assertTrue(a[i] >= a[k]);
+        }
+    }
+}